@@ -0,0 +1,57 @@
+/*
+ * @ {#} AESUtilsBenchmark.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vn.edu.iuh.fit.utils.AESUtils;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * @description: Benchmarks AES-GCM token wrapping under concurrent load, format parity with the original
+ *               implementation is covered by AESUtilsTest
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class AESUtilsBenchmark {
+    // Signed JWT of typical size
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJjdXN0b21lckBkdmZhc2hpb24udm4iLCJpYXQiOjE3NjA4NjQ"
+            + "wMDAsImV4cCI6MTc2MDg2NDkwMH0.3q2Kx0m3h2wG0c8Jt7l1mB3nT1H4dXkzq0pXyYqf8vA";
+
+    private final byte[] key = new byte[32];
+
+    private AESUtils aesUtils;
+
+    private String encrypted;
+
+    @Setup
+    public void setUp() {
+        new SecureRandom().nextBytes(key);
+        aesUtils = new AESUtils(Base64.getEncoder().encodeToString(key));
+        encrypted = aesUtils.encrypt(TOKEN);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return aesUtils.encrypt(TOKEN);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return aesUtils.decrypt(encrypted);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * @ {#} BenchmarkFixtures.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.benchmarks;
+
+import vn.edu.iuh.fit.dtos.response.PromotionPriceEntry;
+import vn.edu.iuh.fit.entities.*;
+import vn.edu.iuh.fit.enums.*;
+import vn.edu.iuh.fit.services.PromotionPriceIndexService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * @description: Builds realistic in-memory entity graphs shared by the benchmarks
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+final class BenchmarkFixtures {
+    private static final String[] COLORS = {"Black", "White", "Navy", "Beige", "Olive", "Burgundy"};
+
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL", "XXL"};
+
+    private BenchmarkFixtures() {
+    }
+
+    // Product with the given number of color variants, each with sizes, stock and images
+    static Product product(long id, int variantCount, int sizesPerVariant, int imagesPerVariant) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(BigDecimal.valueOf(450_000));
+        product.setSalePrice(BigDecimal.valueOf(399_000));
+        product.setOnSale(id % 3 == 0);
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setCreatedAt(LocalDateTime.of(2026, 1, 1, 9, 0));
+        product.setUpdatedAt(LocalDateTime.of(2026, 6, 1, 9, 0));
+
+        List<ProductVariant> variants = new ArrayList<>();
+        for (int v = 0; v < variantCount; v++) {
+            ProductVariant variant = new ProductVariant();
+            variant.setId(id * 100 + v);
+            variant.setColor(COLORS[v % COLORS.length]);
+            variant.setAddtionalPrice(BigDecimal.valueOf(v * 10_000L));
+            variant.setStatus(ProductVariantStatus.ACTIVE);
+            variant.setProduct(product);
+
+            List<Size> sizes = new ArrayList<>();
+            for (int s = 0; s < sizesPerVariant; s++) {
+                Size size = new Size();
+                size.setId(variant.getId() * 10 + s);
+                size.setSizeName(SIZES[s % SIZES.length]);
+                size.setProductVariant(variant);
+
+                Inventory inventory = new Inventory();
+                inventory.setSize(size);
+                inventory.setQuantityInStock(50 + s);
+                inventory.setReservedQuantity(s);
+                size.setInventory(inventory);
+                sizes.add(size);
+            }
+            variant.setSizes(sizes);
+
+            List<ProductVariantImage> images = new ArrayList<>();
+            for (int i = 0; i < imagesPerVariant; i++) {
+                ProductVariantImage image = new ProductVariantImage();
+                image.setId(variant.getId() * 10 + i);
+                image.setImageUrl("https://res.cloudinary.com/dvfashion/image/upload/v1/products/" + variant.getId() + "_" + i + ".jpg");
+                image.setPrimary(i == 0);
+                image.setSortOrder(i);
+                image.setProductVariant(variant);
+                images.add(image);
+            }
+            variant.setImages(images);
+
+            variants.add(variant);
+        }
+        product.setVariants(variants);
+        return product;
+    }
+
+    static ProductTranslation translation(Product product) {
+        ProductTranslation translation = new ProductTranslation();
+        translation.setProduct(product);
+        translation.setLanguage(Language.VI);
+        translation.setName("Áo sơ mi linen tay dài " + product.getId());
+        translation.setDescription("Chất liệu linen thoáng mát, form rộng, phù hợp đi làm và dạo phố.");
+        translation.setMaterial("Linen 100%");
+        return translation;
+    }
+
+    // Order with one line per variant and size of the given products
+    static Order order(List<Product> products, BigDecimal voucherDiscount) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-BENCH-0001");
+        order.setShippingFee(BigDecimal.valueOf(30_000));
+        order.setVoucherDiscount(voucherDiscount);
+
+        List<OrderItem> items = new ArrayList<>();
+        for (Product product : products) {
+            for (ProductVariant variant : product.getVariants()) {
+                Size size = variant.getSizes().get(0);
+                OrderItem item = new OrderItem();
+                item.setOrder(order);
+                item.setProductVariant(variant);
+                item.setSize(size);
+                item.setQuantity(1 + (int) (size.getId() % 3));
+                item.setUnitPrice(product.getPrice().add(variant.getAddtionalPrice()));
+                item.setDiscount(product.isOnSale() ? product.getPrice().subtract(product.getSalePrice()) : BigDecimal.ZERO);
+                items.add(item);
+            }
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    static Voucher voucher(VoucherType type, DiscountType discountType, List<Product> products) {
+        Voucher voucher = new Voucher();
+        voucher.setId(1L);
+        voucher.setCode("BENCH10");
+        voucher.setType(type);
+        voucher.setDiscountType(discountType);
+        voucher.setDiscountValue(discountType == DiscountType.PERCENTAGE ? BigDecimal.TEN : BigDecimal.valueOf(50_000));
+        voucher.setHasMaxDiscount(true);
+        voucher.setMaxDiscountAmount(BigDecimal.valueOf(200_000));
+
+        List<VoucherProduct> voucherProducts = new ArrayList<>();
+        for (int i = 0; i < products.size(); i += 2) {
+            VoucherProduct voucherProduct = new VoucherProduct();
+            voucherProduct.setVoucher(voucher);
+            voucherProduct.setProduct(products.get(i));
+            voucherProduct.setActive(true);
+            voucherProducts.add(voucherProduct);
+        }
+        voucher.setVoucherProducts(voucherProducts);
+        return voucher;
+    }
+
+    // Promotion index stub where every other product has an active promotion
+    static PromotionPriceIndexService promotionIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        return new PromotionPriceIndexService() {
+            @Override
+            public Optional<PromotionPriceEntry> findActivePromotion(Long productId) {
+                if (productId % 2 != 0) {
+                    return Optional.empty();
+                }
+                return Optional.of(new PromotionPriceEntry(productId, 1L, productId, BigDecimal.valueOf(350_000), 2,
+                        Map.of(Language.VI, "Sale mùa hè", Language.EN, "Summer sale"),
+                        now.minusDays(1), now.plusDays(30)));
+            }
+
+            @Override
+            public void rebuildIndex() {
+            }
+
+            @Override
+            public void refresh() {
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * @ {#} JwtUtilsBenchmark.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.edu.iuh.fit.security.jwt.JwtUtils;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * @description: Benchmarks issuing and validating AES-GCM wrapped HS256 tokens, done on every authenticated request
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+    private JwtUtils jwtUtils;
+
+    private UserDetails userDetails;
+
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", Base64.getEncoder().encodeToString(new byte[64]));
+        ReflectionTestUtils.setField(jwtUtils, "aesSecret", Base64.getEncoder().encodeToString(new byte[32]));
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900_000);
+        ReflectionTestUtils.setField(jwtUtils, "refreshTokenDurationMs", 604_800_000L);
+        jwtUtils.init();
+
+        userDetails = User.withUsername("customer@dvfashion.vn")
+                .password("{noop}secret")
+                .authorities(List.of())
+                .build();
+        accessToken = jwtUtils.generateAccessToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtils.generateAccessToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateJwtToken(accessToken);
+    }
+
+    @Benchmark
+    public boolean validateTokenForUser() {
+        return jwtUtils.validateJwtToken(accessToken, userDetails);
+    }
+}
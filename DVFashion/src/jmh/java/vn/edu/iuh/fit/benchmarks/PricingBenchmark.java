@@ -0,0 +1,83 @@
+/*
+ * @ {#} PricingBenchmark.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vn.edu.iuh.fit.entities.Order;
+import vn.edu.iuh.fit.entities.Product;
+import vn.edu.iuh.fit.entities.Voucher;
+import vn.edu.iuh.fit.enums.DiscountType;
+import vn.edu.iuh.fit.enums.VoucherType;
+import vn.edu.iuh.fit.mappers.OrderMapper;
+import vn.edu.iuh.fit.services.impl.VoucherServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * @description: Benchmarks order total and voucher discount calculation on the checkout path
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+    // Number of products in the cart, each contributing one line per variant
+    @Param({"3", "20"})
+    private int productCount;
+
+    private OrderMapper orderMapper;
+
+    private VoucherServiceImpl voucherService;
+
+    private Order order;
+
+    private Voucher shopWideVoucher;
+
+    private Voucher productSpecificVoucher;
+
+    private BigDecimal subtotal;
+
+    @Setup
+    public void setUp() {
+        // Only pure calculations are measured, so collaborators are not needed
+        orderMapper = new OrderMapper(null, null, null, null);
+        voucherService = new VoucherServiceImpl(null, null, null, null, null, null, null, null);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= productCount; i++) {
+            products.add(BenchmarkFixtures.product(i, 2, 5, 1));
+        }
+
+        order = BenchmarkFixtures.order(products, BigDecimal.valueOf(20_000));
+        shopWideVoucher = BenchmarkFixtures.voucher(VoucherType.SHOP_WIDE, DiscountType.PERCENTAGE, products);
+        productSpecificVoucher = BenchmarkFixtures.voucher(VoucherType.PRODUCT_SPECIFIC, DiscountType.PERCENTAGE, products);
+        subtotal = orderMapper.calculateOrderTotal(order);
+    }
+
+    @Benchmark
+    public BigDecimal orderTotal() {
+        return orderMapper.calculateOrderTotal(order);
+    }
+
+    @Benchmark
+    public BigDecimal shopWideVoucherDiscount() {
+        return voucherService.calculateVoucherDiscount(shopWideVoucher, subtotal, order.getItems());
+    }
+
+    @Benchmark
+    public BigDecimal productSpecificVoucherDiscount() {
+        return voucherService.calculateVoucherDiscount(productSpecificVoucher, subtotal, order.getItems());
+    }
+}
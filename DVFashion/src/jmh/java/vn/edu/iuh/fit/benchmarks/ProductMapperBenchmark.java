@@ -0,0 +1,80 @@
+/*
+ * @ {#} ProductMapperBenchmark.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vn.edu.iuh.fit.dtos.response.ProductResponse;
+import vn.edu.iuh.fit.dtos.response.ProductVariantResponse;
+import vn.edu.iuh.fit.entities.Product;
+import vn.edu.iuh.fit.entities.ProductTranslation;
+import vn.edu.iuh.fit.entities.ProductVariant;
+import vn.edu.iuh.fit.mappers.ProductMapper;
+import vn.edu.iuh.fit.mappers.ProductVariantMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * @description: Benchmarks mapping product entity graphs to response DTOs, as done for every product listing
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+    // Size of one catalog page
+    @Param({"20"})
+    private int productCount;
+
+    @Param({"1", "4"})
+    private int variantCount;
+
+    private ProductMapper productMapper;
+
+    private ProductVariantMapper productVariantMapper;
+
+    private List<Product> products;
+
+    private List<ProductTranslation> translations;
+
+    private ProductVariant variant;
+
+    @Setup
+    public void setUp() {
+        productVariantMapper = new ProductVariantMapper();
+        productMapper = new ProductMapper(productVariantMapper, BenchmarkFixtures.promotionIndex());
+
+        products = new ArrayList<>();
+        translations = new ArrayList<>();
+        for (int i = 1; i <= productCount; i++) {
+            Product product = BenchmarkFixtures.product(i, variantCount, 5, 4);
+            products.add(product);
+            translations.add(BenchmarkFixtures.translation(product));
+        }
+        variant = products.get(0).getVariants().get(0);
+    }
+
+    @Benchmark
+    public List<ProductResponse> productPage() {
+        List<ProductResponse> responses = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            responses.add(productMapper.toResponse(products.get(i), translations.get(i), "Áo sơ mi"));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public ProductVariantResponse singleVariant() {
+        return productVariantMapper.toResponse(variant);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * @ {#} ProductSpecificationBenchmark.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.benchmarks;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import vn.edu.iuh.fit.entities.Product;
+import vn.edu.iuh.fit.enums.ProductStatus;
+import vn.edu.iuh.fit.specifications.ProductSpecification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * @description: Benchmarks building the product search criteria predicates, without running the query
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSpecificationBenchmark {
+    private final ProductSpecification productSpecification = new ProductSpecification();
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup
+    public void setUp() {
+        // Hibernate only needs the mappings to build criteria, so JDBC metadata access is switched off
+        // and no database connection is ever opened
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:postgresql://localhost:5432/unused");
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("vn.edu.iuh.fit.entities");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect",
+                "hibernate.boot.allow_jdbc_metadata_access", "false",
+                "hibernate.hbm2ddl.auto", "none"));
+        factoryBean.afterPropertiesSet();
+
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        criteriaBuilder = entityManagerFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factoryBean.destroy();
+    }
+
+    @Benchmark
+    public Predicate filtersOnly() {
+        return toPredicate(productSpecification.build(null, 3L, null, ProductStatus.ACTIVE, true,
+                BigDecimal.valueOf(100_000), BigDecimal.valueOf(900_000), null, null));
+    }
+
+    @Benchmark
+    public Predicate threeWordSearch() {
+        return toPredicate(productSpecification.build("áo sơ mi", null, null, ProductStatus.ACTIVE, null,
+                null, null, null, null));
+    }
+
+    @Benchmark
+    public Predicate allFilters() {
+        return toPredicate(productSpecification.build("linen trắng", 3L, 7L, ProductStatus.ACTIVE, true,
+                BigDecimal.valueOf(100_000), BigDecimal.valueOf(900_000),
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)));
+    }
+
+    private Predicate toPredicate(Specification<Product> specification) {
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
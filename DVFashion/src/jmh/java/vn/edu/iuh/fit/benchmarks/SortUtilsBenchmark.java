@@ -0,0 +1,49 @@
+/*
+ * @ {#} SortUtilsBenchmark.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import vn.edu.iuh.fit.utils.SortUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * @description: Benchmarks parsing sort request parameters into Spring Data Sort objects
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortUtilsBenchmark {
+    private static final Set<String> ALLOWED_FIELDS = Set.of("createdAt", "price", "rating", "viewCount", "reviewCount");
+
+    private final String[] splitParameter = {"price", "desc"};
+
+    private final String[] multipleParameters = {"price,desc", "rating,desc", "createdAt,asc"};
+
+    @Benchmark
+    public Sort splitParameter() {
+        return SortUtils.buildSort(splitParameter, ALLOWED_FIELDS, "createdAt");
+    }
+
+    @Benchmark
+    public Sort multipleParameters() {
+        return SortUtils.buildSort(multipleParameters, ALLOWED_FIELDS, "createdAt");
+    }
+
+    @Benchmark
+    public Sort defaultSort() {
+        return SortUtils.buildSort(null, ALLOWED_FIELDS, "createdAt");
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * @ {#} AIChatConfig.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * @description: Configuration class for streaming AI chat responses from the recommendation service
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "recommendation.chat")
+@Getter
+@Setter
+public class AIChatConfig {
+
+    // Đường dẫn endpoint stream (SSE) của service AI
+    private String streamPath = "/chat/stream";
+
+    // Số luồng stream AI tối đa chạy đồng thời
+    private int maxConcurrentStreams = 50;
+
+    // Thời gian chờ token đầu tiên (ms)
+    private long firstTokenTimeout = 30000;
+
+    // Thời gian chờ tối đa giữa hai token liên tiếp (ms)
+    private long idleTimeout = 60000;
+}
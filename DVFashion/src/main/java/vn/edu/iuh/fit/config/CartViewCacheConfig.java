@@ -0,0 +1,36 @@
+/*
+ * @ {#} CartViewCacheConfig.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+ * @description: Configuration class for the in-memory cart view cache
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "cart.view-cache")
+@Getter
+@Setter
+public class CartViewCacheConfig {
+
+    // Bộ nhớ đệm nằm trong heap của từng instance, chỉ bật khi chạy một instance duy nhất
+    private boolean enabled = true;
+
+    // Giới hạn thời gian dữ liệu cũ (tên, ảnh sản phẩm thay đổi ngoài giỏ hàng)
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // Số giỏ hàng tối đa được lưu
+    private int maxEntries = 10_000;
+}
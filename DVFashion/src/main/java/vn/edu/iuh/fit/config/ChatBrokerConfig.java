@@ -0,0 +1,78 @@
+/*
+ * @ {#} ChatBrokerConfig.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import vn.edu.iuh.fit.enums.ChatBrokerMode;
+
+/*
+ * @description: Configuration class for the chat STOMP broker, channel thread pools and WebSocket send limits
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat.broker")
+@Getter
+@Setter
+public class ChatBrokerConfig {
+
+    private ChatBrokerMode mode = ChatBrokerMode.SIMPLE;
+
+    // Heartbeat gửi/nhận giữa server và client (ms)
+    private long heartbeatSendInterval = 10000;
+    private long heartbeatReceiveInterval = 10000;
+
+    private Relay relay = new Relay();
+
+    private ChannelPool inbound = new ChannelPool();
+
+    private ChannelPool outbound = new ChannelPool();
+
+    private Transport transport = new Transport();
+
+    @Getter
+    @Setter
+    public static class Relay {
+        private String host = "localhost";
+        private int port = 61613;
+        private String virtualHost;
+
+        // Tài khoản dùng cho kết nối của từng client
+        private String clientLogin = "guest";
+        private String clientPasscode = "guest";
+
+        // Tài khoản dùng cho kết nối hệ thống (gửi tin từ server)
+        private String systemLogin = "guest";
+        private String systemPasscode = "guest";
+    }
+
+    @Getter
+    @Setter
+    public static class ChannelPool {
+        private int corePoolSize = 8;
+        private int maxPoolSize = 16;
+        private int queueCapacity = 1000;
+        private int keepAliveSeconds = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class Transport {
+        // Thời gian tối đa cho một lần gửi tới client chậm trước khi ngắt kết nối (ms)
+        private int sendTimeLimit = 15000;
+
+        // Dung lượng tối đa tin nhắn chờ gửi cho mỗi kết nối trước khi ngắt kết nối (byte)
+        private int sendBufferSizeLimit = 512 * 1024;
+
+        // Kích thước tối đa của một tin nhắn STOMP nhận từ client (byte)
+        private int messageSizeLimit = 64 * 1024;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * @ {#} ImageUploadConfig.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * @description: Configuration class for product image uploads and the derivatives generated from them
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "image.upload")
+@Getter
+@Setter
+public class ImageUploadConfig {
+
+    // Số ảnh được upload lên Cloudinary song song
+    private int maxConcurrentUploads = 4;
+
+    // Chiều rộng (px) của ảnh thumbnail dùng cho giỏ hàng, đơn hàng
+    private int thumbnailWidth = 200;
+
+    // Chiều rộng (px) của ảnh card dùng cho trang danh sách sản phẩm
+    private int cardWidth = 480;
+
+    // Chiều rộng (px) của ảnh chi tiết dùng cho trang sản phẩm
+    private int detailWidth = 1200;
+
+    // Chất lượng nén JPEG của các ảnh phái sinh (0.0 - 1.0)
+    private float jpegQuality = 0.85f;
+
+    // Số điểm ảnh tối đa (rộng x cao) của ảnh gốc được giải mã để tạo ảnh phái sinh, ảnh lớn hơn dùng ảnh gốc
+    private long maxSourcePixels = 40_000_000L;
+}
@@ -0,0 +1,54 @@
+/*
+ * @ {#} InvoiceExportConfig.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/*
+ * @description: Configuration class for background invoice export jobs
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Configuration
+@ConfigurationProperties(prefix = "invoice.export")
+@Getter
+@Setter
+public class InvoiceExportConfig {
+
+    // Thư mục lưu các file ZIP đã xuất
+    private String directory = System.getProperty("java.io.tmpdir") + "/dvfashion-invoice-exports";
+
+    // Số luồng render PDF song song
+    private int workerThreads = 4;
+
+    // Số đơn hàng được tải và render trong mỗi lượt
+    private int pageSize = 100;
+
+    // Số đơn hàng tối đa khi truyền danh sách mã đơn
+    private int maxOrderNumbers = 10000;
+
+    // Số ngày giữ lại file ZIP trước khi bị xóa
+    private int retentionDays = 7;
+
+    // Tên instance ghi trên mỗi job (mặc định là hostname), phải giữ nguyên sau khi khởi động lại
+    private String instanceId = localHostName();
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
@@ -10,13 +10,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /*
  * @description: Client for interacting with PayPal API
@@ -39,20 +42,58 @@ public class PayPalClient {
     @Value("${paypal.client-secret}")
     private String clientSecret;
 
-    private String cachedAccessToken;
+    // Renew this long before expiry, so requests never see an expired token
+    private static final Duration REFRESH_AHEAD = Duration.ofMinutes(5);
 
-    private Instant tokenExpiryTime;
+    // Current token, replaced as a whole so readers never lock
+    private final AtomicReference<AccessToken> currentToken = new AtomicReference<>();
+
+    // Only one thread fetches a token at a time, shared by the refresher and cold-start callers
+    private final Object refreshLock = new Object();
 
     /**
-     * Get a valid PayPal access token. Automatically refreshes when expired.
+     * Get a valid PayPal access token. The token is renewed in the background before it expires,
+     * so this only fetches on a cold start or when background renewal has failed.
      */
-    public synchronized String getAccessToken() {
-        // If we have a cached token and it's still valid, return it
-        if (cachedAccessToken != null && tokenExpiryTime != null && Instant.now().isBefore(tokenExpiryTime)) {
-            log.debug("Using cached PayPal token (expires at: {})", tokenExpiryTime);
-            return cachedAccessToken;
+    public String getAccessToken() {
+        AccessToken token = currentToken.get();
+        if (token != null && token.isValidAt(Instant.now())) {
+            return token.value();
+        }
+
+        synchronized (refreshLock) {
+            // Another caller may have fetched it while this one waited
+            token = currentToken.get();
+            if (token != null && token.isValidAt(Instant.now())) {
+                return token.value();
+            }
+            return fetchAccessToken().value();
+        }
+    }
+
+    @Scheduled(fixedDelay = 30000) // Check every 30 seconds whether the token is due for renewal
+    public void refreshAccessTokenIfDue() {
+        AccessToken token = currentToken.get();
+        if (token != null && Instant.now().isBefore(token.refreshAt())) {
+            return;
+        }
+
+        synchronized (refreshLock) {
+            token = currentToken.get();
+            if (token != null && Instant.now().isBefore(token.refreshAt())) {
+                return;
+            }
+            try {
+                fetchAccessToken();
+            } catch (Exception e) {
+                // The current token stays in use until it expires, callers fall back to fetching themselves
+                log.warn("Background PayPal token renewal failed: {}", e.getMessage());
+            }
         }
+    }
 
+    // Request a new token from PayPal and publish it, callers must hold refreshLock
+    private AccessToken fetchAccessToken() {
         log.info("Requesting new PayPal access token...");
 
         try {
@@ -80,17 +121,24 @@ public class PayPalClient {
                 throw new IllegalStateException("PayPal response missing access_token");
             }
 
-            // Cache the token and its expiry time
-            cachedAccessToken = (String) body.get("access_token");
-
             // expires_in is in seconds
             int expiresIn = ((Number) body.get("expires_in")).intValue();
 
             // Set expiry time a bit earlier to avoid edge cases
-            tokenExpiryTime = Instant.now().plusSeconds(expiresIn - 60); // -60s buffer
+            Instant now = Instant.now();
+            Instant expiresAt = now.plusSeconds(expiresIn - 60); // -60s buffer
+
+            // Renew ahead of expiry, or halfway through the lifetime for short-lived tokens
+            Duration lifetime = Duration.between(now, expiresAt);
+            Instant refreshAt = lifetime.compareTo(REFRESH_AHEAD.multipliedBy(2)) > 0
+                    ? expiresAt.minus(REFRESH_AHEAD)
+                    : now.plus(lifetime.dividedBy(2));
+
+            AccessToken token = new AccessToken((String) body.get("access_token"), expiresAt, refreshAt);
+            currentToken.set(token);
 
             log.info("New PayPal token acquired (expires in {}s)", expiresIn);
-            return cachedAccessToken;
+            return token;
 
         } catch (HttpClientErrorException | HttpServerErrorException ex) {
             log.error("PayPal token error: status={}, body={}",
@@ -102,4 +150,10 @@ public class PayPalClient {
             throw new RuntimeException("Unexpected error while getting PayPal token", e);
         }
     }
+
+    private record AccessToken(String value, Instant expiresAt, Instant refreshAt) {
+        boolean isValidAt(Instant time) {
+            return time.isBefore(expiresAt);
+        }
+    }
 }
@@ -6,20 +6,27 @@
 
 package vn.edu.iuh.fit.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import vn.edu.iuh.fit.enums.ChatBrokerMode;
 import vn.edu.iuh.fit.security.UserDetailsServiceImpl;
 import vn.edu.iuh.fit.security.jwt.JwtUtils;
 
@@ -35,19 +42,76 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final ChatBrokerConfig brokerConfig;
+
+    // Scheduler of the broker infrastructure, used for heartbeats of the simple broker
+    private TaskScheduler messageBrokerTaskScheduler;
 
     public WebSocketConfig(JwtUtils jwtUtils,
-                           UserDetailsServiceImpl userDetailsService) {
+                           UserDetailsServiceImpl userDetailsService,
+                           ChatBrokerConfig brokerConfig) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.brokerConfig = brokerConfig;
+    }
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
     }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        long[] heartbeat = {brokerConfig.getHeartbeatSendInterval(), brokerConfig.getHeartbeatReceiveInterval()};
+
+        if (brokerConfig.getMode() == ChatBrokerMode.RELAY) {
+            // Subscriptions live in the external broker, so every instance sees every room
+            ChatBrokerConfig.Relay relay = brokerConfig.getRelay();
+            StompBrokerRelayRegistration registration = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relay.getHost())
+                    .setRelayPort(relay.getPort())
+                    .setClientLogin(relay.getClientLogin())
+                    .setClientPasscode(relay.getClientPasscode())
+                    .setSystemLogin(relay.getSystemLogin())
+                    .setSystemPasscode(relay.getSystemPasscode())
+                    .setSystemHeartbeatSendInterval(heartbeat[0])
+                    .setSystemHeartbeatReceiveInterval(heartbeat[1])
+                    // Resolve /user destinations of users connected to another instance
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/user-registry");
+            if (relay.getVirtualHost() != null && !relay.getVirtualHost().isBlank()) {
+                registration.setVirtualHost(relay.getVirtualHost());
+            }
+        } else {
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(heartbeat)
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
+
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Per-connection backpressure: a client that cannot keep up within these limits is disconnected
+        // instead of buffering messages without bound
+        ChatBrokerConfig.Transport transport = brokerConfig.getTransport();
+        registration.setSendTimeLimit(transport.getSendTimeLimit())
+                .setSendBufferSizeLimit(transport.getSendBufferSizeLimit())
+                .setMessageSizeLimit(transport.getMessageSizeLimit());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        ChatBrokerConfig.ChannelPool pool = brokerConfig.getOutbound();
+        registration.taskExecutor()
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(pool.getMaxPoolSize())
+                .queueCapacity(pool.getQueueCapacity())
+                .keepAliveSeconds(pool.getKeepAliveSeconds());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/api/v1/ws-chat")
@@ -59,6 +123,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        ChatBrokerConfig.ChannelPool pool = brokerConfig.getInbound();
+        registration.taskExecutor()
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(pool.getMaxPoolSize())
+                .queueCapacity(pool.getQueueCapacity())
+                .keepAliveSeconds(pool.getKeepAliveSeconds());
         registration.interceptors(authChannelInterceptor());
     }
 
@@ -0,0 +1,24 @@
+/*
+ * @ {#} InvoiceConstant.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.constants;
+
+import vn.edu.iuh.fit.enums.OrderStatus;
+
+import java.util.List;
+
+/*
+ * @description: This class defines constants shared by invoice rendering and invoice exports
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public class InvoiceConstant {
+    // Order statuses for which an invoice can be issued
+    public static final List<OrderStatus> INVOICEABLE_STATUSES = List.of(
+            OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED,
+            OrderStatus.DELIVERED, OrderStatus.RETURNED);
+}
@@ -14,6 +14,7 @@ import vn.edu.iuh.fit.dtos.request.AddToCartRequest;
 import vn.edu.iuh.fit.dtos.request.UpdateCartItemQuantityRequest;
 import vn.edu.iuh.fit.dtos.response.ApiResponse;
 import vn.edu.iuh.fit.dtos.response.CartResponse;
+import vn.edu.iuh.fit.dtos.response.CartSummaryResponse;
 import vn.edu.iuh.fit.services.CartService;
 
 /*
@@ -42,6 +43,13 @@ public class CartController {
         return ResponseEntity.ok(ApiResponse.success(response, "Cart retrieved successfully."));
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<?>> getCartSummary() {
+        CartSummaryResponse response = cartService.getCartSummary();
+
+        return ResponseEntity.ok(ApiResponse.success(response, "Cart summary retrieved successfully."));
+    }
+
     @PutMapping("/items/{cartItemId}/quantity")
     public ResponseEntity<ApiResponse<?>> updateCartItemQuantity(@PathVariable Long cartItemId,
                                                                  @Valid @RequestBody UpdateCartItemQuantityRequest request) {
@@ -21,6 +21,7 @@ import vn.edu.iuh.fit.dtos.request.CategoryRequest;
 import vn.edu.iuh.fit.dtos.response.*;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.services.CategoryService;
+import vn.edu.iuh.fit.services.StatisticsSnapshotService;
 import vn.edu.iuh.fit.validators.ValidationGroups;
 
 /*
@@ -35,6 +36,8 @@ import vn.edu.iuh.fit.validators.ValidationGroups;
 public class CategoryController {
     private final CategoryService categoryService;
 
+    private final StatisticsSnapshotService statisticsSnapshotService;
+
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<?>> createCategory(
@@ -87,7 +90,7 @@ public class CategoryController {
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @GetMapping("/statistics")
     public ResponseEntity<ApiResponse<CategoryStatisticsResponse>> getCategoryStatistics() {
-        CategoryStatisticsResponse productStatistics = categoryService.getCategoryStatistics();
+        CategoryStatisticsResponse productStatistics = statisticsSnapshotService.getCategoryStatistics().data();
         return ResponseEntity.ok(ApiResponse.success(productStatistics, "Product statistics fetched successfully"));
     }
 
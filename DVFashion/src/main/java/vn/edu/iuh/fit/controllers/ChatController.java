@@ -12,7 +12,9 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -20,15 +22,19 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import vn.edu.iuh.fit.constants.RoleConstant;
 import vn.edu.iuh.fit.dtos.request.CreateChatRoomRequest;
 import vn.edu.iuh.fit.dtos.request.SendMessageRequest;
 import vn.edu.iuh.fit.dtos.request.TypingIndicatorMessage;
 import vn.edu.iuh.fit.dtos.response.ApiResponse;
+import vn.edu.iuh.fit.dtos.response.ChatMessageHistoryResponse;
 import vn.edu.iuh.fit.dtos.response.ChatMessageResponse;
 import vn.edu.iuh.fit.dtos.response.ChatRoomResponse;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.exceptions.BadRequestException;
+import vn.edu.iuh.fit.exceptions.TooManyRequestsException;
 import vn.edu.iuh.fit.services.AIChatService;
 import vn.edu.iuh.fit.services.ChatService;
 
@@ -96,13 +102,13 @@ public class ChatController {
     }
 
     @GetMapping("/rooms/{roomCode}/messages")
-    public ResponseEntity<ApiResponse<List<ChatMessageResponse>>> getChatMessages(
+    public ResponseEntity<ApiResponse<ChatMessageHistoryResponse>> getChatMessages(
             @PathVariable String roomCode,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Long before,
             @RequestParam(defaultValue = "50") int size,
             @RequestParam(value = "lang", defaultValue = "VI") Language language) {
 
-        List<ChatMessageResponse> messages = chatService.getChatMessages(roomCode, page, size, language);
+        ChatMessageHistoryResponse messages = chatService.getChatMessages(roomCode, before, size, language);
 
         return ResponseEntity.ok(ApiResponse.success(messages, "Chat messages retrieved successfully"));
     }
@@ -188,4 +194,15 @@ public class ChatController {
 
         return ResponseEntity.ok(ApiResponse.success(response, "AI chat response"));
     }
+
+    // Stream the AI reply as server-sent events: "token" events, then "done", or "error" if the AI fails midway.
+    // A busy limit is not turned into an event, it fails before the first event and is answered with 429
+    @PostMapping(value = "/ai/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamChatAI(@RequestBody Map<String, String> request) {
+        return aiChatService.streamFromAI(request.get("message"))
+                .map(token -> ServerSentEvent.builder(token).event("token").build())
+                .concatWithValues(ServerSentEvent.builder("").event("done").build())
+                .onErrorResume(e -> !(e instanceof TooManyRequestsException),
+                        e -> Mono.just(ServerSentEvent.builder("AI service unavailable").event("error").build()));
+    }
 }
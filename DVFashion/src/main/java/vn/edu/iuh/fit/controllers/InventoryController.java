@@ -19,6 +19,7 @@ import vn.edu.iuh.fit.dtos.response.ApiResponse;
 import vn.edu.iuh.fit.dtos.response.InventoryResponse;
 import vn.edu.iuh.fit.dtos.response.InventoryStatsResponse;
 import vn.edu.iuh.fit.services.InventoryService;
+import vn.edu.iuh.fit.services.StatisticsSnapshotService;
 
 import java.util.List;
 
@@ -34,6 +35,8 @@ import java.util.List;
 public class InventoryController {
     private final InventoryService inventoryService;
 
+    private final StatisticsSnapshotService statisticsSnapshotService;
+
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @PostMapping("/import")
     public ResponseEntity<ApiResponse<?>> importStock(@Valid @RequestBody ImportStockRequest request) {
@@ -76,7 +79,7 @@ public class InventoryController {
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @GetMapping("/stats")
     public ResponseEntity<ApiResponse<?>> getInventoryStats() {
-        InventoryStatsResponse response = inventoryService.getInventoryStats();
+        InventoryStatsResponse response = statisticsSnapshotService.getInventoryStatistics().data();
         return ResponseEntity.ok(ApiResponse.success(response, "Inventory statistics retrieved successfully."));
     }
 
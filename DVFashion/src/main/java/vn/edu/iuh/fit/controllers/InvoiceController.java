@@ -6,20 +6,32 @@
 
 package vn.edu.iuh.fit.controllers;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import vn.edu.iuh.fit.constants.RoleConstant;
+import vn.edu.iuh.fit.dtos.request.BatchInvoiceRequest;
+import vn.edu.iuh.fit.dtos.request.InvoiceExportRequest;
 import vn.edu.iuh.fit.dtos.response.ApiResponse;
+import vn.edu.iuh.fit.dtos.response.InvoiceExportJobResponse;
 import vn.edu.iuh.fit.dtos.response.InvoiceResponse;
+import vn.edu.iuh.fit.enums.InvoiceBatchFormat;
+import vn.edu.iuh.fit.services.InvoiceExportService;
 import vn.edu.iuh.fit.services.InvoiceService;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
 /*
  * @description: REST controller for managing invoice-related operations
  * @author: Tran Hien Vinh
@@ -34,6 +46,8 @@ public class InvoiceController {
 
     private final InvoiceService invoiceService;
 
+    private final InvoiceExportService invoiceExportService;
+
     @GetMapping("/{orderNumber}")
     public ResponseEntity<ApiResponse<InvoiceResponse>> getInvoice(
             @PathVariable String orderNumber) {
@@ -70,4 +84,71 @@ public class InvoiceController {
                 .headers(headers)
                 .body(pdfBytes);
     }
+
+    @PostMapping("/batch")
+    @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
+    public ResponseEntity<StreamingResponseBody> downloadInvoicesBatch(
+            @Valid @RequestBody BatchInvoiceRequest request,
+            @RequestParam(defaultValue = "PDF") InvoiceBatchFormat format) {
+        // Load and validate all invoices before the response starts streaming
+        List<InvoiceResponse> invoices = invoiceService.getInvoicesByOrderNumbers(request.orderNumbers());
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+
+        StreamingResponseBody body;
+        MediaType contentType;
+        String filename;
+        if (format == InvoiceBatchFormat.ZIP) {
+            body = outputStream -> invoiceService.writeInvoicesZip(invoices, outputStream);
+            contentType = MediaType.parseMediaType("application/zip");
+            filename = "invoices-" + timestamp + ".zip";
+        } else {
+            body = outputStream -> invoiceService.writeInvoicesPdf(invoices, outputStream);
+            contentType = MediaType.APPLICATION_PDF;
+            filename = "invoices-" + timestamp + ".pdf";
+        }
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @PostMapping("/export-jobs")
+    @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
+    public ResponseEntity<ApiResponse<InvoiceExportJobResponse>> startInvoiceExport(
+            @RequestBody InvoiceExportRequest request) {
+        InvoiceExportJobResponse job = invoiceExportService.startExport(request);
+        return ResponseEntity.accepted().body(ApiResponse.success(job, "Invoice export job started"));
+    }
+
+    @GetMapping("/export-jobs/{jobId}")
+    @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
+    public ResponseEntity<ApiResponse<InvoiceExportJobResponse>> getInvoiceExportJob(@PathVariable Long jobId) {
+        InvoiceExportJobResponse job = invoiceExportService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(job, "Invoice export job retrieved successfully"));
+    }
+
+    @GetMapping("/export-jobs/{jobId}/download")
+    @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
+    public ResponseEntity<?> downloadInvoiceExport(@PathVariable Long jobId) {
+        Optional<Resource> file = invoiceExportService.getExportFile(jobId);
+        if (file.isEmpty()) {
+            // The archive is being rebuilt on this server, the client polls until it is ready
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(ApiResponse.success(invoiceExportService.getJob(jobId), "Export file is being prepared, please retry shortly"));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("invoices-export-" + jobId + ".zip")
+                        .build()
+                        .toString())
+                .body(file.get());
+    }
 }
@@ -22,6 +22,7 @@ import vn.edu.iuh.fit.enums.PaymentMethod;
 import vn.edu.iuh.fit.enums.PaymentStatus;
 import vn.edu.iuh.fit.services.OrderAutoTransitionService;
 import vn.edu.iuh.fit.services.OrderService;
+import vn.edu.iuh.fit.services.StatisticsSnapshotService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -40,6 +41,8 @@ import java.util.List;
 public class OrderController {
     private final OrderService orderService;
 
+    private final StatisticsSnapshotService statisticsSnapshotService;
+
     private final OrderAutoTransitionService autoTransitionService;
 
     @PostMapping
@@ -137,7 +140,7 @@ public class OrderController {
     @GetMapping("/statistics")
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     public ResponseEntity<ApiResponse<OrderStatisticsResponse>> getOrderStatistics() {
-        OrderStatisticsResponse statistics = orderService.getOrderStatistics();
+        OrderStatisticsResponse statistics = statisticsSnapshotService.getOrderStatistics().data();
 
         return ResponseEntity.ok(ApiResponse.success(statistics, "Order statistics fetched successfully"));
     }
@@ -27,6 +27,7 @@ import vn.edu.iuh.fit.dtos.response.ProductStatisticsResponse;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.enums.ProductStatus;
 import vn.edu.iuh.fit.services.ProductService;
+import vn.edu.iuh.fit.services.StatisticsSnapshotService;
 import vn.edu.iuh.fit.validators.ValidationGroups;
 
 import java.math.BigDecimal;
@@ -45,6 +46,8 @@ import java.util.List;
 public class ProductController {
     private final ProductService productService;
 
+    private final StatisticsSnapshotService statisticsSnapshotService;
+
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<ProductResponse>> createProduct(
@@ -183,7 +186,7 @@ public class ProductController {
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @GetMapping("/statistics")
     public ResponseEntity<ApiResponse<ProductStatisticsResponse>> getProductStatistics() {
-        ProductStatisticsResponse productStatistics = productService.getProductStatistics();
+        ProductStatisticsResponse productStatistics = statisticsSnapshotService.getProductStatistics().data();
         return ResponseEntity.ok(ApiResponse.success(productStatistics, "Product statistics fetched successfully"));
     }
 }
@@ -24,6 +24,7 @@ import vn.edu.iuh.fit.dtos.response.PromotionResponse;
 import vn.edu.iuh.fit.dtos.response.PromotionStatisticsResponse;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.services.PromotionService;
+import vn.edu.iuh.fit.services.StatisticsSnapshotService;
 
 import java.util.List;
 
@@ -39,6 +40,8 @@ import java.util.List;
 public class PromotionController {
     private final PromotionService promotionService;
 
+    private final StatisticsSnapshotService statisticsSnapshotService;
+
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ApiResponse<?>> createPromotion(
@@ -120,7 +123,7 @@ public class PromotionController {
     @GetMapping("/statistics")
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     public ResponseEntity<ApiResponse<PromotionStatisticsResponse>> getPromotionStatistics() {
-        PromotionStatisticsResponse statistics = promotionService.getPromotionStatistics();
+        PromotionStatisticsResponse statistics = statisticsSnapshotService.getPromotionStatistics().data();
         return ResponseEntity.ok(ApiResponse.success(statistics, "Promotion statistics retrieved successfully."));
     }
 }
@@ -17,6 +17,7 @@ import vn.edu.iuh.fit.dtos.response.*;
 import vn.edu.iuh.fit.services.ForecastingService;
 import vn.edu.iuh.fit.services.InternalRevenueTimeSeriesService;
 import vn.edu.iuh.fit.services.StatisticService;
+import vn.edu.iuh.fit.services.StatisticsSnapshotService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -38,6 +39,8 @@ public class StatisticController {
 
     private final InternalRevenueTimeSeriesService revenueService;
 
+    private final StatisticsSnapshotService statisticsSnapshotService;
+
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @GetMapping("/revenue")
     public ResponseEntity<ApiResponse<BigDecimal>> getRevenueStatistics(
@@ -75,6 +78,23 @@ public class StatisticController {
         return ResponseEntity.ok(ApiResponse.success(revenueList, "Yearly revenue retrieved successfully"));
     }
 
+    @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
+    @GetMapping("/revenue/categories")
+    public ResponseEntity<ApiResponse<List<CategoryRevenueStatistic>>> getRevenueByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        List<CategoryRevenueStatistic> revenueList = statisticService.getRevenueByCategory(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(revenueList, "Revenue by category retrieved successfully"));
+    }
+
+    @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiResponse<DashboardStatisticsResponse>> getDashboardStatistics() {
+        DashboardStatisticsResponse dashboardStatistics = statisticsSnapshotService.getDashboardStatistics();
+        return ResponseEntity.ok(ApiResponse.success(dashboardStatistics, "Dashboard statistics retrieved successfully"));
+    }
+
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @GetMapping("/products/best-selling")
     public ResponseEntity<ApiResponse<List<ProductSalesStatistic>>> getTop10BestSellingProducts() {
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import vn.edu.iuh.fit.constants.RoleConstant;
 import vn.edu.iuh.fit.services.TaxReportService;
 
@@ -36,11 +37,12 @@ public class TaxReportController {
 
     @GetMapping("/vat-form011/export/excel")
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
-    public ResponseEntity<byte[]> exportVATForm011Excel(
+    public ResponseEntity<StreamingResponseBody> exportVATForm011Excel(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        byte[] excelData = taxReportService.generateVATForm011Excel(startDate, endDate);
+        StreamingResponseBody excelData = outputStream ->
+                taxReportService.writeVATForm011Excel(startDate, endDate, outputStream);
 
         String filename = String.format("BangKeHoaDonBanRa_01-1-GTGT_%s_%s.xlsx",
                 startDate.format(DateTimeFormatter.ofPattern("ddMMyyyy")),
@@ -54,12 +56,13 @@ public class TaxReportController {
 
     @GetMapping("/vat-form04/export/excel")
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
-    public ResponseEntity<byte[]> exportVATForm04Excel(
+    public ResponseEntity<StreamingResponseBody> exportVATForm04Excel(
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
 
-        byte[] excelData = taxReportService.generateVATForm04Excel(startDate, endDate);
+        StreamingResponseBody excelData = outputStream ->
+                taxReportService.writeVATForm04Excel(startDate, endDate, outputStream);
 
         String filename = String.format(
                 "ToKhaiThue_04_GTGT_%s_%s.xlsx",
@@ -75,14 +78,15 @@ public class TaxReportController {
 
     @GetMapping("/vat-form014a/export/excel")
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
-    public ResponseEntity<byte[]> exportVATForm014AExcel(
+    public ResponseEntity<StreamingResponseBody> exportVATForm014AExcel(
             @RequestParam("startDate")
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
 
             @RequestParam("endDate")
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
     ) {
-        byte[] excelData = taxReportService.generateVATForm014AExcel(startDate, endDate);
+        StreamingResponseBody excelData = outputStream ->
+                taxReportService.writeVATForm014AExcel(startDate, endDate, outputStream);
 
         String filename = String.format(
                 "BangPhanBoSoThue_01-4A_GTGT_%s_%s.xlsx",
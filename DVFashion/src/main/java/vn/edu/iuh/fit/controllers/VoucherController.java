@@ -23,6 +23,7 @@ import vn.edu.iuh.fit.dtos.response.VoucherResponse;
 import vn.edu.iuh.fit.dtos.response.VoucherStatisticsResponse;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.services.VoucherService;
+import vn.edu.iuh.fit.services.StatisticsSnapshotService;
 
 import java.util.List;
 
@@ -38,6 +39,8 @@ import java.util.List;
 public class VoucherController {
     private final VoucherService voucherService;
 
+    private final StatisticsSnapshotService statisticsSnapshotService;
+
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     @PostMapping
     public ResponseEntity<ApiResponse<VoucherResponse>> createVoucher(
@@ -128,7 +131,7 @@ public class VoucherController {
     @GetMapping("/statistics")
     @PreAuthorize(RoleConstant.HAS_ROLE_ADMIN)
     public ResponseEntity<ApiResponse<VoucherStatisticsResponse>> getVoucherStatistics() {
-        VoucherStatisticsResponse statistics = voucherService.getVoucherStatistics();
+        VoucherStatisticsResponse statistics = statisticsSnapshotService.getVoucherStatistics().data();
         return ResponseEntity.ok(ApiResponse.success(statistics, "Voucher statistics retrieved successfully"));
     }
 }
@@ -0,0 +1,26 @@
+/*
+ * @ {#} BatchInvoiceRequest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+
+import java.util.List;
+
+/*
+ * @description: Request DTO for rendering the invoices of several orders at once
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Builder
+public record BatchInvoiceRequest(
+        @NotEmpty(message = "Order numbers cannot be empty")
+        @Size(max = 200, message = "Cannot print more than 200 invoices at once")
+        List<String> orderNumbers
+) {}
@@ -0,0 +1,27 @@
+/*
+ * @ {#} InvoiceExportRequest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.request;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ * @description: Request DTO for starting a bulk invoice export job, by date range or by order numbers
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Builder
+public record InvoiceExportRequest(
+        LocalDate startDate,
+
+        LocalDate endDate,
+
+        List<String> orderNumbers
+) {}
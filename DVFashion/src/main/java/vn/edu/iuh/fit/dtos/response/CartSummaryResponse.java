@@ -0,0 +1,21 @@
+/*
+ * @ {#} CartSummaryResponse.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import java.math.BigDecimal;
+
+/*
+ * @description: DTO for the lightweight cart summary shown in the header badge
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record CartSummaryResponse(
+        Integer totalItems,
+
+        BigDecimal totalAmount
+) {}
@@ -0,0 +1,30 @@
+/*
+ * @ {#} CategoryRevenueStatistic.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/*
+ * @description: DTO for revenue statistics per product category
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Builder
+public record CategoryRevenueStatistic(
+        Long categoryId,
+
+        String categoryName,
+
+        Long totalOrders,
+
+        Long totalQuantitySold,
+
+        BigDecimal totalRevenue // Item revenue after item discounts, before order vouchers
+) {}
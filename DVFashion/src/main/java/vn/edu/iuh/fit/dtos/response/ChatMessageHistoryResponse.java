@@ -0,0 +1,23 @@
+/*
+ * @ {#} ChatMessageHistoryResponse.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import java.util.List;
+
+/*
+ * @description: Response DTO for one slice of a chat room's message history, paged by message id cursor
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record ChatMessageHistoryResponse(
+        List<ChatMessageResponse> messages,
+
+        Long nextCursor, // pass as "before" to load older messages, null when there are none
+
+        boolean hasMore
+) {}
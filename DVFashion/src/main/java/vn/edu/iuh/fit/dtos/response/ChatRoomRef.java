@@ -0,0 +1,19 @@
+/*
+ * @ {#} ChatRoomRef.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+/*
+ * @description: Immutable identity of a chat room, cached by room code on the message send path
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record ChatRoomRef(
+        Long id,
+
+        String guestName
+) {}
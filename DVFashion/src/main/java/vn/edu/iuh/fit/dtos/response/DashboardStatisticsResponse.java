@@ -0,0 +1,30 @@
+/*
+ * @ {#} DashboardStatisticsResponse.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import lombok.Builder;
+
+/*
+ * @description: Response DTO for all admin dashboard statistics snapshots
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Builder
+public record DashboardStatisticsResponse(
+        StatisticsSnapshot<ProductStatisticsResponse> productStatistics,
+
+        StatisticsSnapshot<OrderStatisticsResponse> orderStatistics,
+
+        StatisticsSnapshot<InventoryStatsResponse> inventoryStatistics,
+
+        StatisticsSnapshot<VoucherStatisticsResponse> voucherStatistics,
+
+        StatisticsSnapshot<PromotionStatisticsResponse> promotionStatistics,
+
+        StatisticsSnapshot<CategoryStatisticsResponse> categoryStatistics
+) {}
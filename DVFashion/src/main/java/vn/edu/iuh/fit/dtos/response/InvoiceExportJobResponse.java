@@ -0,0 +1,46 @@
+/*
+ * @ {#} InvoiceExportJobResponse.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import lombok.Builder;
+import vn.edu.iuh.fit.enums.ExportJobStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/*
+ * @description: Response DTO for the status and progress of an invoice export job
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Builder
+public record InvoiceExportJobResponse(
+        Long jobId,
+
+        ExportJobStatus status,
+
+        LocalDate startDate,
+
+        LocalDate endDate,
+
+        int totalCount,
+
+        int processedCount,
+
+        int skippedCount,
+
+        double progressPercent,
+
+        String errorMessage,
+
+        LocalDateTime createdAt,
+
+        LocalDateTime startedAt,
+
+        LocalDateTime completedAt
+) {}
@@ -0,0 +1,68 @@
+/*
+ * @ {#} InvoiceLineRow.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import vn.edu.iuh.fit.enums.OrderStatus;
+import vn.edu.iuh.fit.enums.PaymentMethod;
+import vn.edu.iuh.fit.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/*
+ * @description: Flat projection of an order line with its order header, used when rendering invoices in batch
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record InvoiceLineRow(
+        String orderNumber,
+
+        LocalDateTime orderDate,
+
+        OrderStatus orderStatus,
+
+        String customerName,
+
+        String customerEmail,
+
+        String customerPhone,
+
+        String shippingFullName,
+
+        String shippingPhone,
+
+        String shippingStreet,
+
+        String shippingWard,
+
+        String shippingDistrict,
+
+        String shippingCity,
+
+        String shippingCountry,
+
+        BigDecimal shippingFee,
+
+        BigDecimal voucherDiscount,
+
+        String voucherCode,
+
+        PaymentMethod paymentMethod,
+
+        PaymentStatus paymentStatus,
+
+        String productName,
+
+        String color,
+
+        String sizeName,
+
+        int quantity,
+
+        BigDecimal unitPrice
+) {}
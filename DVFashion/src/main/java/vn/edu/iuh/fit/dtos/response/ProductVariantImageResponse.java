@@ -17,6 +17,12 @@ public record ProductVariantImageResponse(
 
         String imageUrl,
 
+        String thumbnailUrl,
+
+        String cardUrl,
+
+        String detailUrl,
+
         boolean isPrimary,
 
         int sortOrder,
@@ -0,0 +1,47 @@
+/*
+ * @ {#} PromotionPriceEntry.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import vn.edu.iuh.fit.enums.Language;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/*
+ * @description: Immutable entry of the promotion price index for a single promoted product
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record PromotionPriceEntry(
+        Long promotionProductId,
+
+        Long promotionId,
+
+        Long productId,
+
+        BigDecimal promotionPrice,
+
+        Integer maxQuantityPerUser,
+
+        Map<Language, String> names,
+
+        LocalDateTime startDate,
+
+        LocalDateTime endDate
+) {
+    public boolean isActiveAt(LocalDateTime time) {
+        return !startDate.isAfter(time) && !endDate.isBefore(time);
+    }
+
+    // Get promotion name in the given language, falling back to Vietnamese
+    public String getName(Language language) {
+        String name = names.get(language);
+        return name != null ? name : names.get(Language.VI);
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * @ {#} StatisticsSnapshot.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import java.time.LocalDateTime;
+
+/*
+ * @description: Response DTO wrapping precomputed statistics with the time they were computed
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record StatisticsSnapshot<T>(
+        T data,
+
+        LocalDateTime computedAt,
+
+        long computationTimeMillis
+) {}
@@ -0,0 +1,28 @@
+/*
+ * @ {#} UploadedImageUrls.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+/*
+ * @description: URLs of an uploaded image and of the resized derivatives generated from it
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record UploadedImageUrls(
+        String imageUrl,
+
+        String thumbnailUrl,
+
+        String cardUrl,
+
+        String detailUrl
+) {
+    // Same URL for every rendition, used for default images and formats that cannot be resized
+    public static UploadedImageUrls of(String imageUrl) {
+        return new UploadedImageUrls(imageUrl, imageUrl, imageUrl, imageUrl);
+    }
+}
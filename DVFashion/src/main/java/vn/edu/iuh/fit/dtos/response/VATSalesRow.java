@@ -0,0 +1,36 @@
+/*
+ * @ {#} VATSalesRow.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.dtos.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/*
+ * @description: Flat projection of a delivered order line used when streaming tax reports
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record VATSalesRow(
+        String orderNumber,
+
+        LocalDateTime orderDate,
+
+        String buyerName,
+
+        String productName,
+
+        String color,
+
+        String sizeName,
+
+        int quantity,
+
+        BigDecimal unitPrice,
+
+        BigDecimal discount
+) {}
@@ -15,6 +15,8 @@ package vn.edu.iuh.fit.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import vn.edu.iuh.fit.enums.Language;
 
 @Getter
@@ -23,6 +25,8 @@ import vn.edu.iuh.fit.enums.Language;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category_translation")
 @Table(name = "category_translations")
 public class CategoryTranslation {
     @Id
@@ -8,6 +8,7 @@ package vn.edu.iuh.fit.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import vn.edu.iuh.fit.enums.MessageSender;
 import vn.edu.iuh.fit.enums.MessageStatus;
@@ -24,7 +25,10 @@ import java.util.List;
  * @version:    1.0
  */
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages",
+        indexes = {
+                @Index(name = "idx_chat_message_room_id_id", columnList = "chat_room_id, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -73,6 +77,7 @@ public class ChatMessage {
     private LocalDateTime createdAt;
 
     @OneToMany(mappedBy = "message", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<ChatMessageAttachment> attachments = new ArrayList<>();
 }
\ No newline at end of file
@@ -20,7 +20,10 @@ import java.time.LocalDateTime;
  * @version:    1.0
  */
 @Entity
-@Table(name = "chat_message_attachments")
+@Table(name = "chat_message_attachments",
+        indexes = {
+                @Index(name = "idx_chat_message_attachment_message_id", columnList = "message_id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
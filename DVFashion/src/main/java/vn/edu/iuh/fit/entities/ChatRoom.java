@@ -63,6 +63,11 @@ public class ChatRoom {
     @Column(name = "last_message_at")
     private LocalDateTime lastMessageAt;
 
+    // Denormalized pointer to the latest message, so room lists do not load the message history
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_message_id")
+    private ChatMessage lastMessage;
+
     @Column(name = "unread_customer_count")
     @Builder.Default
     private Integer unreadCustomerCount = 0; // for CUSTOMER type, counts unread messages for the customer
@@ -0,0 +1,62 @@
+/*
+ * @ {#} DailyCategorySalesRollup.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/*
+ * @description: Entity class holding pre-aggregated sales of delivered orders for one day and one category.
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "daily_category_sales_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"sales_date", "category_id"}),
+        indexes = {
+                @Index(name = "idx_daily_category_sales_rollup_category_id", columnList = "category_id")
+        })
+public class DailyCategorySalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_category_sales_rollups_seq")
+    @SequenceGenerator(name = "daily_category_sales_rollups_seq", sequenceName = "daily_category_sales_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount; // Orders containing at least one item of this category
+
+    @Column(name = "item_quantity", nullable = false)
+    private long itemQuantity;
+
+    @Builder.Default
+    @Column(name = "gross_amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal grossAmount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "item_discount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal itemDiscount = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
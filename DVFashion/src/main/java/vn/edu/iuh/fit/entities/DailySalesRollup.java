@@ -0,0 +1,67 @@
+/*
+ * @ {#} DailySalesRollup.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/*
+ * @description: Entity class holding pre-aggregated sales of delivered orders for one day (by order date).
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "daily_sales_rollups",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"sales_date"}))
+public class DailySalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_sales_rollups_seq")
+    @SequenceGenerator(name = "daily_sales_rollups_seq", sequenceName = "daily_sales_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "item_quantity", nullable = false)
+    private long itemQuantity;
+
+    @Builder.Default
+    @Column(name = "gross_amount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal grossAmount = BigDecimal.ZERO; // Sum of unit price * quantity
+
+    @Builder.Default
+    @Column(name = "item_discount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal itemDiscount = BigDecimal.ZERO; // Sum of item discount * quantity
+
+    @Builder.Default
+    @Column(name = "voucher_discount", precision = 15, scale = 2, nullable = false)
+    private BigDecimal voucherDiscount = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(name = "shipping_fee", precision = 15, scale = 2, nullable = false)
+    private BigDecimal shippingFee = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(precision = 15, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO; // gross - item discount - voucher discount
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
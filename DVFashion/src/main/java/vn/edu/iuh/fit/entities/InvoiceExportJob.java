@@ -0,0 +1,88 @@
+/*
+ * @ {#} InvoiceExportJob.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import vn.edu.iuh.fit.enums.ExportJobStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/*
+ * @description: Entity class representing a background job exporting invoice PDFs into a ZIP archive
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Entity
+@Table(name = "invoice_export_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceExportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExportJobStatus status;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // Explicit order numbers, comma separated, when the job is not based on a date range
+    @Column(name = "order_numbers", columnDefinition = "TEXT")
+    private String orderNumbers;
+
+    // Order numbers written into the ZIP, comma separated, in archive order
+    @Column(name = "exported_order_numbers", columnDefinition = "TEXT")
+    private String exportedOrderNumbers;
+
+    @Column(name = "total_count")
+    private int totalCount;
+
+    @Column(name = "processed_count")
+    private int processedCount;
+
+    @Column(name = "skipped_count")
+    private int skippedCount;
+
+    @Column(name = "file_path")
+    private String filePath;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    // Instance the job was queued on, only that instance runs it and fails it after a restart
+    @Column(name = "owner_instance")
+    private String ownerInstance;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "requested_by")
+    private User requestedBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
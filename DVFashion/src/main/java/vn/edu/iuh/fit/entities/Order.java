@@ -33,7 +33,7 @@ import java.util.List;
 @Table(name = "orders",
         indexes = {
                 @Index(name = "idx_order_order_number", columnList = "order_number"),
-                @Index(name = "idx_order_customer_id", columnList = "customer_id"),
+                @Index(name = "idx_orders_customer_status_order_date", columnList = "customer_id, status, order_date"),
                 @Index(name = "idx_order_status", columnList = "status"),
                 @Index(name = "idx_order_order_date", columnList = "order_date"),
                 @Index(name = "idx_order_status_order_date", columnList = "status, order_date"),
@@ -29,7 +29,8 @@ import java.math.BigDecimal;
                 @Index(name = "idx_order_item_order_id", columnList = "order_id"),
                 @Index(name = "idx_order_item_product_variant_id", columnList = "product_variant_id"),
                 @Index(name = "idx_order_item_size_id", columnList = "size_id"),
-                @Index(name = "idx_order_item_variant_size", columnList = "product_variant_id, size_id")
+                @Index(name = "idx_order_item_variant_size", columnList = "product_variant_id, size_id"),
+                @Index(name = "idx_order_item_promotion_product_id", columnList = "promotion_product_id")
         })
 public class OrderItem {
     @EmbeddedId
@@ -56,5 +57,9 @@ public class OrderItem {
     private BigDecimal unitPrice;
 
     private BigDecimal discount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "promotion_product_id")
+    private PromotionProduct promotionProduct; // Promotion allotment this item was sold from, if any
 }
 
@@ -8,6 +8,8 @@ package vn.edu.iuh.fit.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import vn.edu.iuh.fit.enums.ProductStatus;
 
 import java.math.BigDecimal;
@@ -70,6 +72,7 @@ public class Product {
     private List<ProductVariant> variants = new ArrayList<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product.translations")
     private List<ProductTranslation> translations = new ArrayList<>();
 
     @PrePersist
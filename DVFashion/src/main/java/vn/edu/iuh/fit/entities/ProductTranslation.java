@@ -8,6 +8,8 @@ package vn.edu.iuh.fit.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import vn.edu.iuh.fit.enums.Language;
 
 /*
@@ -18,6 +20,8 @@ import vn.edu.iuh.fit.enums.Language;
  */
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product_translation")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,15 +21,30 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "product_variant_images")
+// At most one primary image per variant is enforced by the partial unique index
+// uk_product_variant_images_primary (migration V2), which JPA annotations cannot express
+@Table(name = "product_variant_images", indexes = {
+        @Index(name = "idx_product_variant_images_variant_id_sort_order", columnList = "product_variant_id, sort_order")
+})
 public class ProductVariantImage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_variant_images_seq")
+    @SequenceGenerator(name = "product_variant_images_seq", sequenceName = "product_variant_images_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
 
+    // Resized renditions, null for images uploaded before derivatives were generated
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    @Column(name = "card_url")
+    private String cardUrl;
+
+    @Column(name = "detail_url")
+    private String detailUrl;
+
     @Column(name = "is_primary", columnDefinition = "boolean default true")
     private boolean isPrimary;
 
@@ -39,5 +54,9 @@ public class ProductVariantImage {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_variant_id", nullable = false)
     private ProductVariant productVariant;
-}
 
+    // Smallest stored rendition, falls back to the original for older images
+    public String getThumbnailOrImageUrl() {
+        return thumbnailUrl != null ? thumbnailUrl : imageUrl;
+    }
+}
@@ -32,7 +32,8 @@ import java.time.LocalDateTime;
 @Builder
 public class RecommendationLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recommendation_logs_seq")
+    @SequenceGenerator(name = "recommendation_logs_seq", sequenceName = "recommendation_logs_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id")
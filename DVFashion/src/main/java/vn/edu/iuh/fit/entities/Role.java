@@ -8,6 +8,8 @@ package vn.edu.iuh.fit.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import vn.edu.iuh.fit.enums.UserRole;
 
 /*
@@ -17,6 +19,8 @@ import vn.edu.iuh.fit.enums.UserRole;
  * @version:    1.0
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "role")
 @Table(name = "roles")
 @Getter
 @Setter
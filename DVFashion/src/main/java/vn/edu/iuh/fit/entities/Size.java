@@ -15,8 +15,12 @@ package vn.edu.iuh.fit.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "size")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,7 +29,8 @@ import lombok.*;
 @Table(name = "sizes")
 public class Size {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sizes_seq")
+    @SequenceGenerator(name = "sizes_seq", sequenceName = "sizes_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
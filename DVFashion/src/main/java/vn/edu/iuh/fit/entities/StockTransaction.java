@@ -30,7 +30,8 @@ import java.time.LocalDateTime;
 @Builder
 public class StockTransaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_transactions_seq")
+    @SequenceGenerator(name = "stock_transactions_seq", sequenceName = "stock_transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -18,7 +18,11 @@ import java.time.Instant;
  * @version:    1.0
  */
 @Entity
-@Table(name = "tokens")
+@Table(name = "tokens",
+        indexes = {
+                @Index(name = "uk_token_refresh_token_hash", columnList = "refresh_token", unique = true),
+                @Index(name = "idx_token_expiration_date", columnList = "expiration_date")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,8 +33,9 @@ public class Token {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "refresh_token", nullable = false, length = 1000)
-    private String refreshToken;
+    // SHA-256 hex digest of the refresh token, the raw token is never stored
+    @Column(name = "refresh_token", nullable = false, length = 64)
+    private String tokenHash;
 
     @Column(name = "expiration_date", nullable = false)
     private Instant expirationDate;
@@ -23,7 +23,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Builder
-@Table(name = "voucher_usages")
+@Table(name = "voucher_usages",
+        indexes = {
+                @Index(name = "idx_voucher_usage_voucher_user", columnList = "voucher_id, user_id")
+        })
 public class VoucherUsage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
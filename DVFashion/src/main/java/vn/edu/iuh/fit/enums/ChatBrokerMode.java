@@ -0,0 +1,18 @@
+/*
+ * @ {#} ChatBrokerMode.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.enums;
+
+/*
+ * @description: Enumeration for the STOMP message broker used by chat
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public enum ChatBrokerMode {
+    SIMPLE, // In-memory broker, only works within a single application instance
+    RELAY   // External STOMP broker (e.g. ActiveMQ Artemis, RabbitMQ), shared by all instances
+}
@@ -0,0 +1,20 @@
+/*
+ * @ {#} ExportJobStatus.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.enums;
+
+/*
+ * @description: Enumeration for the lifecycle of background export jobs
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public enum ExportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
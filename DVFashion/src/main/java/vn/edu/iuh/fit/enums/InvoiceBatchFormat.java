@@ -0,0 +1,18 @@
+/*
+ * @ {#} InvoiceBatchFormat.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.enums;
+
+/*
+ * @description: Enumeration for the output formats of batch invoice printing
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public enum InvoiceBatchFormat {
+    PDF,    // One multi-page PDF containing every invoice
+    ZIP     // A ZIP archive with one PDF per invoice
+}
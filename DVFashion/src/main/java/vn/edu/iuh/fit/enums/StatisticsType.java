@@ -0,0 +1,22 @@
+/*
+ * @ {#} StatisticsType.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.enums;
+
+/*
+ * @description: Enumeration for the admin dashboard statistics kept as in-memory snapshots
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public enum StatisticsType {
+    PRODUCT,
+    ORDER,
+    INVENTORY,
+    VOUCHER,
+    PROMOTION,
+    CATEGORY
+}
@@ -0,0 +1,23 @@
+/*
+ * @ {#} StatisticsChangedEvent.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.events;
+
+import vn.edu.iuh.fit.enums.StatisticsType;
+
+import java.util.Set;
+
+/*
+ * @description: Application event published when a write may have changed some dashboard statistics
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public record StatisticsChangedEvent(Set<StatisticsType> types) {
+    public static StatisticsChangedEvent of(StatisticsType... types) {
+        return new StatisticsChangedEvent(Set.of(types));
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * @ {#} TooManyRequestsException.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.exceptions;
+
+/*
+ * @description: Exception thrown when a limited resource has no free capacity for the request
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
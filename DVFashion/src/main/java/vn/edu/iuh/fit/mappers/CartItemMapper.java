@@ -15,6 +15,7 @@ import vn.edu.iuh.fit.entities.ProductVariantImage;
 import vn.edu.iuh.fit.enums.Language;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /*
  * @description: Mapper class for converting between CartItem entities and DTOs
@@ -30,12 +31,17 @@ public class CartItemMapper {
         String imageUrl = item.getProductVariant().getImages().stream()
                 .filter(ProductVariantImage::isPrimary)
                 .findFirst()
-                .map(ProductVariantImage::getImageUrl)
+                .map(ProductVariantImage::getThumbnailOrImageUrl)
                 .orElse(null);
 
         // Get product name based on requested language
         String productName = getProductName(item, language);
 
+        return mapToCartItemResponse(item, productName, imageUrl);
+    }
+
+    // Map a cart item whose product name and primary image were already loaded in batch
+    public CartItemResponse mapToCartItemResponse(CartItem item, String productName, String imageUrl) {
         return new CartItemResponse(
                 item.getId(),
                 item.getProductVariant().getProduct().getId(),
@@ -50,6 +56,22 @@ public class CartItemMapper {
         );
     }
 
+    // Copy a cart item response with a new quantity and reservation time
+    public CartItemResponse withQuantity(CartItemResponse item, int quantity, LocalDateTime reservedUntil) {
+        return new CartItemResponse(
+                item.cartItemId(),
+                item.productId(),
+                item.productName(),
+                item.color(),
+                item.sizeName(),
+                quantity,
+                item.unitPrice(),
+                item.unitPrice().multiply(BigDecimal.valueOf(quantity)),
+                item.imageUrl(),
+                reservedUntil
+        );
+    }
+
     private String getProductName(CartItem item, Language language) {
         // Try to get name in requested language first
         String productName = item.getProductVariant()
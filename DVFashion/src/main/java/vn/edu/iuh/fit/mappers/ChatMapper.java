@@ -22,6 +22,8 @@ import vn.edu.iuh.fit.entities.ChatMessage;
 import vn.edu.iuh.fit.entities.ChatMessageAttachment;
 import vn.edu.iuh.fit.entities.ChatRoom;
 import vn.edu.iuh.fit.enums.Language;
+import vn.edu.iuh.fit.enums.MessageSender;
+import vn.edu.iuh.fit.enums.MessageType;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -37,9 +39,8 @@ public class ChatMapper {
         }
 
         ChatMessageResponse lastMessage = null;
-        if (!chatRoom.getMessages().isEmpty()) {
-            ChatMessage lastMsg = chatRoom.getMessages().get(chatRoom.getMessages().size() - 1);
-            lastMessage = mapToMessageResponse(lastMsg, language);
+        if (chatRoom.getLastMessage() != null) {
+            lastMessage = mapToMessageResponse(chatRoom.getLastMessage(), language);
         }
 
         return ChatRoomResponse.builder()
@@ -60,11 +61,17 @@ public class ChatMapper {
     }
 
     public ChatMessageResponse mapToMessageResponse(ChatMessage message, Language language) {
-        String senderName = getSenderName(message);
+        return mapToMessageResponse(message, getSenderName(message), language);
+    }
 
-        List<ChatMessageAttachmentResponse> attachments = message.getAttachments().stream()
-                .map(this::mapToAttachmentResponse)
-                .collect(Collectors.toList());
+    // Map with a sender name already known by the caller, so sender and room proxies are not initialized
+    public ChatMessageResponse mapToMessageResponse(ChatMessage message, String senderName, Language language) {
+        // Only image, video and file messages carry attachments
+        List<ChatMessageAttachmentResponse> attachments = message.getMessageType() == MessageType.TEXT
+                ? List.of()
+                : message.getAttachments().stream()
+                        .map(this::mapToAttachmentResponse)
+                        .collect(Collectors.toList());
 
         return ChatMessageResponse.builder()
                 .id(message.getId())
@@ -93,17 +100,24 @@ public class ChatMapper {
     }
 
     private String getSenderName(ChatMessage message) {
-        switch (message.getSenderType()) {
+        String customerName = message.getSenderType() == MessageSender.CUSTOMER && message.getSender() != null
+                ? message.getSender().getFullName() : null;
+        String guestName = message.getSenderType() == MessageSender.GUEST
+                ? message.getChatRoom().getGuestName() : null;
+        return getSenderName(message.getSenderType(), customerName, guestName);
+    }
+
+    public String getSenderName(MessageSender senderType, String customerName, String guestName) {
+        switch (senderType) {
             case ADMIN:
                 return "Shop Assistant";
             case CUSTOMER:
-                if (message.getSender() != null) {
-                    return message.getSender().getFullName();
+                if (customerName != null) {
+                    return customerName;
                 }
                 return "Customer";
             case GUEST:
-                return message.getChatRoom().getGuestName() != null ?
-                        message.getChatRoom().getGuestName() : "Guest";
+                return guestName != null ? guestName : "Guest";
             default:
                 return "Unknown";
         }
@@ -30,7 +30,7 @@ public class OrderItemMapper {
             String imageUrl = item.getProductVariant().getImages().stream()
                     .filter(ProductVariantImage::isPrimary)
                     .findFirst()
-                    .map(ProductVariantImage::getImageUrl)
+                    .map(ProductVariantImage::getThumbnailOrImageUrl)
                     .orElse("");
 
             return new OrderItemResponse(
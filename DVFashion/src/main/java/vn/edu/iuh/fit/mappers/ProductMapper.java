@@ -11,7 +11,7 @@ import org.springframework.stereotype.Component;
 import vn.edu.iuh.fit.dtos.response.*;
 import vn.edu.iuh.fit.entities.*;
 import vn.edu.iuh.fit.enums.Language;
-import vn.edu.iuh.fit.repositories.PromotionProductRepository;
+import vn.edu.iuh.fit.services.PromotionPriceIndexService;
 import vn.edu.iuh.fit.utils.LanguageUtils;
 
 import java.math.BigDecimal;
@@ -27,7 +27,7 @@ import java.math.BigDecimal;
 public class ProductMapper {
     private final ProductVariantMapper productVariantMapper;
 
-    private final PromotionProductRepository promotionProductRepository;
+    private final PromotionPriceIndexService promotionPriceIndexService;
 
     public ProductResponse toResponse(Product product, ProductTranslation translation, String categoryName) {
 
@@ -70,25 +70,15 @@ public class ProductMapper {
 
     // Retrieve the active promotion price for the product, if any
     private BigDecimal getActivePromotionPrice(Product product) {
-        BigDecimal bigDecimal=promotionProductRepository.findActivePromotionPrice(product.getId()).orElse(null);
-        return bigDecimal;
+        return promotionPriceIndexService.findActivePromotion(product.getId())
+                .map(PromotionPriceEntry::promotionPrice)
+                .orElse(null);
     }
 
     // Retrieve the name of the active promotion for the product in the specified language
     private String getActivePromotionName(Product product, Language language) {
-        return promotionProductRepository.findActivePromotionForProduct(product.getId())
-                .map(promotionProduct -> {
-                    Promotion promotion = promotionProduct.getPromotion();
-                    return promotion.getTranslations().stream()
-                            .filter(t -> t.getLanguage() == language)
-                            .findFirst()
-                            .map(PromotionTranslation::getName)
-                            .orElseGet(() -> promotion.getTranslations().stream()
-                                    .filter(t -> t.getLanguage() == Language.VI)
-                                    .findFirst()
-                                    .map(PromotionTranslation::getName)
-                                    .orElse(null));
-                })
+        return promotionPriceIndexService.findActivePromotion(product.getId())
+                .map(entry -> entry.getName(language))
                 .orElse(null);
     }
 }
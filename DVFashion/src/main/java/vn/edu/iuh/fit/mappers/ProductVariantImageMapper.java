@@ -26,6 +26,9 @@ public class ProductVariantImageMapper {
         return new ProductVariantImageResponse(
                 image.getId(),
                 image.getImageUrl(),
+                image.getThumbnailUrl(),
+                image.getCardUrl(),
+                image.getDetailUrl(),
                 image.isPrimary(),
                 image.getSortOrder(),
                 image.getProductVariant() != null ? image.getProductVariant().getId() : null
@@ -41,7 +41,8 @@ public class ProductVariantMapper {
         List<ProductVariantImageResponse> productVariantImageResponse = new ArrayList<>();
         for (ProductVariantImage image : variant.getImages()) {
             ProductVariantImageResponse imageResponse = new ProductVariantImageResponse(image.getId(),
-                    image.getImageUrl(), image.isPrimary(), image.getSortOrder(), image.getProductVariant().getId());
+                    image.getImageUrl(), image.getThumbnailUrl(), image.getCardUrl(), image.getDetailUrl(),
+                    image.isPrimary(), image.getSortOrder(), image.getProductVariant().getId());
             productVariantImageResponse.add(imageResponse);
         }
 
@@ -11,12 +11,17 @@ import org.springframework.stereotype.Component;
 import vn.edu.iuh.fit.dtos.response.CartItemResponse;
 import vn.edu.iuh.fit.dtos.response.CartResponse;
 import vn.edu.iuh.fit.entities.CartItem;
+import vn.edu.iuh.fit.entities.ProductTranslation;
+import vn.edu.iuh.fit.entities.ProductVariantImage;
 import vn.edu.iuh.fit.entities.ShoppingCart;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.repositories.CartItemRepository;
+import vn.edu.iuh.fit.repositories.ProductTranslationRepository;
+import vn.edu.iuh.fit.repositories.ProductVariantImageRepository;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /*
@@ -32,26 +37,104 @@ public class ShoppingCartMapper {
 
     private final CartItemMapper cartItemMapper;
 
+    private final ProductVariantImageRepository productVariantImageRepository;
+
+    private final ProductTranslationRepository productTranslationRepository;
+
+    // Build the full cart view with a constant number of queries regardless of the cart size
     public CartResponse buildCartResponse(ShoppingCart cart, Language language) {
-        List<CartItem> items = cartItemRepository.findByCartUserId(cart.getUser().getId());
+        List<CartItem> items = cartItemRepository.findByCartUserIdWithDetails(cart.getUser().getId());
+
+        if (items.isEmpty()) {
+            return toCartResponse(cart.getId(), List.of());
+        }
+
+        // Load primary images of all variants in one query
+        Set<Long> variantIds = items.stream()
+                .map(item -> item.getProductVariant().getId())
+                .collect(Collectors.toSet());
+        Map<Long, String> imageUrlByVariant = productVariantImageRepository.findPrimaryByProductVariantIds(variantIds)
+                .stream()
+                .collect(Collectors.toMap(img -> img.getProductVariant().getId(), ProductVariantImage::getThumbnailOrImageUrl,
+                        (first, second) -> first));
+
+        // Load product names in the requested language and the Vietnamese fallback in one query
+        Set<Long> productIds = items.stream()
+                .map(item -> item.getProductVariant().getProduct().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Map<Language, String>> namesByProduct = new HashMap<>();
+        productTranslationRepository.findByProductIdInAndLanguageIn(productIds, EnumSet.of(language, Language.VI))
+                .forEach(t -> namesByProduct
+                        .computeIfAbsent(t.getProduct().getId(), id -> new EnumMap<>(Language.class))
+                        .putIfAbsent(t.getLanguage(), t.getName()));
 
         List<CartItemResponse> itemResponses = items.stream()
-                .map(item -> cartItemMapper.mapToCartItemResponse(item, language))
+                .map(item -> {
+                    Long productId = item.getProductVariant().getProduct().getId();
+                    return cartItemMapper.mapToCartItemResponse(
+                            item,
+                            resolveProductName(namesByProduct.get(productId), language),
+                            imageUrlByVariant.get(item.getProductVariant().getId()));
+                })
                 .collect(Collectors.toList());
 
+        return toCartResponse(cart.getId(), itemResponses);
+    }
+
+    // Build cart response and totals from already mapped lines
+    public CartResponse toCartResponse(Long cartId, List<CartItemResponse> items) {
         BigDecimal totalAmount = items.stream()
-                .map(item -> item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .map(CartItemResponse::totalPrice)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         int totalItems = items.stream()
-                .mapToInt(CartItem::getQuantity)
+                .mapToInt(CartItemResponse::quantity)
                 .sum();
 
         return new CartResponse(
-                cart.getId(),
+                cartId,
                 totalItems,
                 totalAmount,
-                itemResponses
+                List.copyOf(items)
         );
     }
+
+    // Add a new line to a cart view
+    public CartResponse withItem(CartResponse cart, CartItemResponse item) {
+        List<CartItemResponse> items = new ArrayList<>(cart.items());
+        items.add(item);
+        return toCartResponse(cart.cartId(), items);
+    }
+
+    // Change the quantity of a line of a cart view
+    public CartResponse withItemQuantity(CartResponse cart, Long cartItemId, int quantity, LocalDateTime reservedUntil) {
+        List<CartItemResponse> items = cart.items().stream()
+                .map(item -> item.cartItemId().equals(cartItemId)
+                        ? cartItemMapper.withQuantity(item, quantity, reservedUntil)
+                        : item)
+                .toList();
+        return toCartResponse(cart.cartId(), items);
+    }
+
+    // Remove a line from a cart view
+    public CartResponse withoutItem(CartResponse cart, Long cartItemId) {
+        List<CartItemResponse> items = cart.items().stream()
+                .filter(item -> !item.cartItemId().equals(cartItemId))
+                .toList();
+        return toCartResponse(cart.cartId(), items);
+    }
+
+    // Resolve product name in the requested language, falling back to Vietnamese
+    private String resolveProductName(Map<Language, String> names, Language language) {
+        if (names == null) {
+            return "Unknown Product";
+        }
+
+        String name = names.get(language);
+        if (name == null) {
+            name = names.get(Language.VI);
+        }
+
+        return name != null ? name : "Unknown Product";
+    }
 }
@@ -79,4 +79,28 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
             "WHERE ci.cart.user.id = :userId " +
             "AND ci.productVariant.product.id = :productId")
     int sumQuantityByUserAndProduct(@Param("userId") Long userId, @Param("productId") Long productId);
+
+    /**
+     * Finds all cart items for a given user ID together with their variant, product and size.
+     *
+     * @param userId the ID of the user
+     * @return list of cart items belonging to the user, ordered by ID
+     */
+    @Query("SELECT ci FROM CartItem ci " +
+            "JOIN FETCH ci.productVariant pv " +
+            "JOIN FETCH pv.product " +
+            "JOIN FETCH ci.size " +
+            "WHERE ci.cart.user.id = :userId " +
+            "ORDER BY ci.id")
+    List<CartItem> findByCartUserIdWithDetails(@Param("userId") Long userId);
+
+    /**
+     * Sums the item count and the total amount of a user's cart without loading its lines.
+     *
+     * @param userId the ID of the user
+     * @return a single Object array containing the total quantity and the total amount
+     */
+    @Query("SELECT COALESCE(SUM(ci.quantity), 0), COALESCE(SUM(ci.unitPrice * ci.quantity), 0) " +
+            "FROM CartItem ci WHERE ci.cart.user.id = :userId")
+    List<Object[]> summarizeByUserId(@Param("userId") Long userId);
 }
@@ -6,7 +6,10 @@
 
 package vn.edu.iuh.fit.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import vn.edu.iuh.fit.entities.CategoryTranslation;
 import vn.edu.iuh.fit.enums.Language;
@@ -23,11 +26,13 @@ import java.util.Optional;
 public interface CategoryTranslationRepository extends JpaRepository<CategoryTranslation, Long> {
     /**
      * Finds a CategoryTranslation by category ID and language.
+     * Query cached, every category response looks it up, twice when falling back to Vietnamese.
      *
      * @param categoryId the ID of the category
      * @param language   the language of the translation
      * @return an Optional containing the found CategoryTranslation, or empty if not found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<CategoryTranslation> findByCategoryIdAndLanguage(Long categoryId, Language language);
 
     /**
@@ -6,14 +6,15 @@
 
 package vn.edu.iuh.fit.repositories;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import vn.edu.iuh.fit.entities.ChatMessage;
-import vn.edu.iuh.fit.entities.ChatRoom;
+
+import java.util.Collection;
+import java.util.List;
 
 /*
  * @description: Repository interface for managing ChatMessage entities
@@ -23,7 +24,30 @@ import vn.edu.iuh.fit.entities.ChatRoom;
  */
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
-    Page<ChatMessage> findByChatRoomOrderByCreatedAtDesc(ChatRoom chatRoom, Pageable pageable);
+    /**
+     * Find the newest messages of a chat room, with their senders fetched.
+     * Message ids grow with creation time, so ordering and seeking by id walks the (chat_room_id, id) index
+     * and costs the same at any depth of the history.
+     *
+     * @param chatRoomId the chat room id
+     * @param beforeId   only messages with a smaller id are returned
+     * @param pageable   the page limit, no count query is run
+     * @return the messages, newest first
+     */
+    @Query("SELECT m FROM ChatMessage m LEFT JOIN FETCH m.sender " +
+            "WHERE m.chatRoom.id = :chatRoomId " +
+            "AND m.id < :beforeId " +
+            "ORDER BY m.id DESC")
+    List<ChatMessage> findHistory(Long chatRoomId, Long beforeId, Pageable pageable);
+
+    /**
+     * Load the attachments of the given messages into the current persistence context in one query.
+     *
+     * @param ids the message ids
+     * @return the messages with their attachments initialized
+     */
+    @Query("SELECT DISTINCT m FROM ChatMessage m LEFT JOIN FETCH m.attachments WHERE m.id IN :ids")
+    List<ChatMessage> fetchAttachments(Collection<Long> ids);
 
     @Modifying
     @Query("UPDATE ChatMessage m SET m.isReadByAdmin = true WHERE m.chatRoom.id = :chatRoomId AND m.isReadByAdmin = false")
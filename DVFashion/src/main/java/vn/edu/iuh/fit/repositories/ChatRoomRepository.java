@@ -6,14 +6,21 @@
 
 package vn.edu.iuh.fit.repositories;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import vn.edu.iuh.fit.dtos.response.ChatRoomRef;
+import vn.edu.iuh.fit.entities.ChatMessage;
 import vn.edu.iuh.fit.entities.ChatRoom;
 import vn.edu.iuh.fit.entities.User;
 import vn.edu.iuh.fit.enums.ChatRoomStatus;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /*
@@ -26,5 +33,111 @@ import java.util.Optional;
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     Optional<ChatRoom> findByRoomCode(String roomCode);
     ChatRoom findByCustomerAndStatus(User customer, ChatRoomStatus status);
-    Page<ChatRoom> findByStatusOrderByLastMessageAtDesc(ChatRoomStatus status, Pageable pageable);
+    /**
+     * Find the id and guest name of a chat room by its code, without loading the room entity.
+     *
+     * @param roomCode the code of the chat room
+     * @return the room reference, if the room exists
+     */
+    @Query("SELECT new vn.edu.iuh.fit.dtos.response.ChatRoomRef(r.id, r.guestName) FROM ChatRoom r WHERE r.roomCode = :roomCode")
+    Optional<ChatRoomRef> findRefByRoomCode(@Param("roomCode") String roomCode);
+
+    /**
+     * Find a page of chat rooms with their customer and last message (and its sender) in a single query.
+     *
+     * @param status   the status of the chat rooms
+     * @param pageable the pagination information
+     * @return list of chat rooms ordered by last message time, most recent first
+     */
+    @Query("""
+        SELECT r FROM ChatRoom r
+        LEFT JOIN FETCH r.customer
+        LEFT JOIN FETCH r.lastMessage lm
+        LEFT JOIN FETCH lm.sender
+        WHERE r.status = :status
+        ORDER BY r.lastMessageAt DESC, r.id DESC
+    """)
+    List<ChatRoom> findRoomListByStatus(@Param("status") ChatRoomStatus status, Pageable pageable);
+
+    /**
+     * Atomically counts a new message on a chat room: increments the unread counters,
+     * without a read-modify-write of the room row.
+     *
+     * @param roomId            the id of the chat room
+     * @param sentAt            the time the message was sent
+     * @param adminIncrement    the number to add to the admin unread count
+     * @param customerIncrement the number to add to the customer unread count
+     * @return the number of rooms updated
+     */
+    @Modifying
+    @Query("""
+        UPDATE ChatRoom r
+        SET r.updatedAt = :sentAt,
+            r.unreadAdminCount = COALESCE(r.unreadAdminCount, 0) + :adminIncrement,
+            r.unreadCustomerCount = COALESCE(r.unreadCustomerCount, 0) + :customerIncrement
+        WHERE r.id = :roomId
+    """)
+    int recordNewMessage(@Param("roomId") Long roomId,
+                         @Param("sentAt") LocalDateTime sentAt,
+                         @Param("adminIncrement") int adminIncrement,
+                         @Param("customerIncrement") int customerIncrement);
+
+    /**
+     * Moves the last-message pointer of a chat room to the given message, unless the room
+     * already points at a newer one (a message whose transaction committed later).
+     *
+     * @param roomId    the id of the chat room
+     * @param message   the new message
+     * @param messageId the id of the new message
+     * @param sentAt    the time the message was sent
+     * @return the number of rooms updated
+     */
+    @Modifying
+    @Query("""
+        UPDATE ChatRoom r
+        SET r.lastMessage = :message,
+            r.lastMessageAt = :sentAt
+        WHERE r.id = :roomId
+          AND (r.lastMessage IS NULL OR r.lastMessage.id < :messageId)
+    """)
+    int advanceLastMessage(@Param("roomId") Long roomId,
+                           @Param("message") ChatMessage message,
+                           @Param("messageId") Long messageId,
+                           @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Resets the admin unread count of a chat room.
+     *
+     * @param roomId the id of the chat room
+     */
+    @Modifying
+    @Query("UPDATE ChatRoom r SET r.unreadAdminCount = 0 WHERE r.id = :roomId")
+    void resetUnreadAdminCount(@Param("roomId") Long roomId);
+
+    /**
+     * Resets the customer unread count of a chat room.
+     *
+     * @param roomId the id of the chat room
+     */
+    @Modifying
+    @Query("UPDATE ChatRoom r SET r.unreadCustomerCount = 0 WHERE r.id = :roomId")
+    void resetUnreadCustomerCount(@Param("roomId") Long roomId);
+
+    /**
+     * Points rooms created before the last-message column existed at their latest message.
+     *
+     * @return the number of rooms updated
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE ChatRoom r
+        SET r.lastMessage = (
+            SELECT m FROM ChatMessage m
+            WHERE m.id = (SELECT MAX(m2.id) FROM ChatMessage m2 WHERE m2.chatRoom = r)
+        )
+        WHERE r.lastMessage IS NULL
+          AND EXISTS (SELECT 1 FROM ChatMessage m3 WHERE m3.chatRoom = r)
+    """)
+    int backfillLastMessages();
 }
@@ -0,0 +1,95 @@
+/*
+ * @ {#} DailyCategorySalesRollupRepository.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import vn.edu.iuh.fit.entities.DailyCategorySalesRollup;
+import vn.edu.iuh.fit.enums.Language;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * @description: Repository interface for managing DailyCategorySalesRollup entities
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Repository
+public interface DailyCategorySalesRollupRepository extends JpaRepository<DailyCategorySalesRollup, Long> {
+    /**
+     * Checks whether a rollup row exists for the given day and category.
+     *
+     * @param salesDate  the day to check
+     * @param categoryId the ID of the category
+     * @return true if a rollup row exists, false otherwise
+     */
+    boolean existsBySalesDateAndCategoryId(LocalDate salesDate, Long categoryId);
+
+    /**
+     * Sums the sales of each category within a date range, with category names in the given language.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     * @param language  the language of the category names
+     * @return rows of [categoryId, categoryName, orderCount, itemQuantity, netAmount], highest net amount first
+     */
+    @Query("SELECT r.category.id, ct.name, SUM(r.orderCount), SUM(r.itemQuantity), " +
+            "SUM(r.grossAmount - r.itemDiscount) " +
+            "FROM DailyCategorySalesRollup r " +
+            "LEFT JOIN CategoryTranslation ct ON ct.category.id = r.category.id AND ct.language = :language " +
+            "WHERE r.salesDate BETWEEN :startDate AND :endDate " +
+            "GROUP BY r.category.id, ct.name " +
+            "ORDER BY SUM(r.grossAmount - r.itemDiscount) DESC")
+    List<Object[]> sumByCategoryBetween(@Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate,
+                                        @Param("language") Language language);
+
+    /**
+     * Atomically adds the given amounts to the rollup row of a day and category.
+     * Negative amounts remove an order again.
+     *
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE DailyCategorySalesRollup r SET " +
+            "r.orderCount = r.orderCount + :orderCount, " +
+            "r.itemQuantity = r.itemQuantity + :itemQuantity, " +
+            "r.grossAmount = r.grossAmount + :grossAmount, " +
+            "r.itemDiscount = r.itemDiscount + :itemDiscount, " +
+            "r.updatedAt = :updatedAt " +
+            "WHERE r.salesDate = :salesDate AND r.category.id = :categoryId")
+    int incrementTotals(@Param("salesDate") LocalDate salesDate,
+                        @Param("categoryId") Long categoryId,
+                        @Param("orderCount") long orderCount,
+                        @Param("itemQuantity") long itemQuantity,
+                        @Param("grossAmount") BigDecimal grossAmount,
+                        @Param("itemDiscount") BigDecimal itemDiscount,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Finds the rollup rows of all days and categories within a date range and locks them until the
+     * transaction ends.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     * @return a list of locked rollup rows ordered by day and category
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM DailyCategorySalesRollup r WHERE r.salesDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY r.salesDate, r.category.id")
+    List<DailyCategorySalesRollup> findBySalesDateBetweenForUpdate(@Param("startDate") LocalDate startDate,
+                                                                   @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,97 @@
+/*
+ * @ {#} DailySalesRollupRepository.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.repositories;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import vn.edu.iuh.fit.entities.DailySalesRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * @description: Repository interface for managing DailySalesRollup entities
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+    /**
+     * Checks whether a rollup row exists for the given day.
+     *
+     * @param salesDate the day to check
+     * @return true if a rollup row exists, false otherwise
+     */
+    boolean existsBySalesDate(LocalDate salesDate);
+
+    /**
+     * Finds the rollup rows of all days within a date range.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     * @return a list of rollup rows ordered by day
+     */
+    List<DailySalesRollup> findBySalesDateBetweenOrderBySalesDateAsc(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Sums the revenue of all days within a date range.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     * @return the total revenue, or zero if there is none
+     */
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM DailySalesRollup r " +
+            "WHERE r.salesDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumRevenueBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Atomically adds the given amounts to the rollup row of a day. Negative amounts remove an order again.
+     *
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE DailySalesRollup r SET " +
+            "r.orderCount = r.orderCount + :orderCount, " +
+            "r.itemQuantity = r.itemQuantity + :itemQuantity, " +
+            "r.grossAmount = r.grossAmount + :grossAmount, " +
+            "r.itemDiscount = r.itemDiscount + :itemDiscount, " +
+            "r.voucherDiscount = r.voucherDiscount + :voucherDiscount, " +
+            "r.shippingFee = r.shippingFee + :shippingFee, " +
+            "r.revenue = r.revenue + :revenue, " +
+            "r.updatedAt = :updatedAt " +
+            "WHERE r.salesDate = :salesDate")
+    int incrementTotals(@Param("salesDate") LocalDate salesDate,
+                        @Param("orderCount") long orderCount,
+                        @Param("itemQuantity") long itemQuantity,
+                        @Param("grossAmount") BigDecimal grossAmount,
+                        @Param("itemDiscount") BigDecimal itemDiscount,
+                        @Param("voucherDiscount") BigDecimal voucherDiscount,
+                        @Param("shippingFee") BigDecimal shippingFee,
+                        @Param("revenue") BigDecimal revenue,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Finds the rollup rows of all days within a date range and locks them until the transaction ends.
+     * Incremental updates of these days wait until the lock is released.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     * @return a list of locked rollup rows ordered by day
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM DailySalesRollup r WHERE r.salesDate BETWEEN :startDate AND :endDate ORDER BY r.salesDate")
+    List<DailySalesRollup> findBySalesDateBetweenForUpdate(@Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,73 @@
+/*
+ * @ {#} InvoiceExportJobRepository.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import vn.edu.iuh.fit.entities.InvoiceExportJob;
+import vn.edu.iuh.fit.enums.ExportJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * @description: Repository interface for invoice export jobs
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Repository
+public interface InvoiceExportJobRepository extends JpaRepository<InvoiceExportJob, Long> {
+    /**
+     * Updates the progress counters of a running export job.
+     *
+     * @param jobId          the ID of the export job
+     * @param processedCount the number of invoices written so far
+     * @param skippedCount   the number of orders skipped so far
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE InvoiceExportJob j SET j.processedCount = :processedCount, j.skippedCount = :skippedCount " +
+            "WHERE j.id = :jobId")
+    void updateProgress(@Param("jobId") Long jobId,
+                        @Param("processedCount") int processedCount,
+                        @Param("skippedCount") int skippedCount);
+
+    /**
+     * Marks the jobs of one instance left in one of the given statuses as failed, e.g. jobs interrupted
+     * by a restart of that instance. Jobs queued before owners were recorded are failed as well.
+     *
+     * @param ownerInstance the instance that queued the jobs
+     * @param statuses      the statuses of the jobs to fail
+     * @param errorMessage  the error message to record
+     * @param completedAt   the time the jobs are marked as failed
+     * @return the number of jobs updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE InvoiceExportJob j SET j.status = vn.edu.iuh.fit.enums.ExportJobStatus.FAILED, " +
+            "j.errorMessage = :errorMessage, j.completedAt = :completedAt " +
+            "WHERE j.status IN :statuses AND (j.ownerInstance = :ownerInstance OR j.ownerInstance IS NULL)")
+    int failOwnedJobsInStatuses(@Param("ownerInstance") String ownerInstance,
+                                @Param("statuses") List<ExportJobStatus> statuses,
+                                @Param("errorMessage") String errorMessage,
+                                @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Finds the jobs with a specific status that completed before the given time and still have a file,
+     * e.g. to expire old exports. Jobs expired earlier have no file path and are not returned again.
+     *
+     * @param status the status of the jobs
+     * @param before the time before which the jobs completed
+     * @return list of matching export jobs
+     */
+    List<InvoiceExportJob> findByStatusAndFilePathIsNotNullAndCompletedAtBefore(ExportJobStatus status, LocalDateTime before);
+}
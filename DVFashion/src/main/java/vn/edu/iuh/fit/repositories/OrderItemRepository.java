@@ -6,14 +6,26 @@
 
 package vn.edu.iuh.fit.repositories;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.edu.iuh.fit.dtos.response.InvoiceLineRow;
+import vn.edu.iuh.fit.dtos.response.VATSalesRow;
 import vn.edu.iuh.fit.entities.OrderItem;
 import vn.edu.iuh.fit.entities.OrderItemId;
+import vn.edu.iuh.fit.enums.Language;
+import vn.edu.iuh.fit.enums.OrderStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /*
  * @description: Repository for managing order items
@@ -62,4 +74,124 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemI
             @Param("productId") Long productId,
             @Param("validStatuses") List<String> validStatuses);
 
+    /**
+     * Sums the quantity a user has bought from a promotion allotment in orders that are not cancelled.
+     *
+     * @param userId             the ID of the user
+     * @param promotionProductId the ID of the promotion product
+     * @return the total quantity bought by the user from the promotion product
+     */
+    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi " +
+            "WHERE oi.order.customer.id = :userId " +
+            "AND oi.promotionProduct.id = :promotionProductId " +
+            "AND oi.order.status <> vn.edu.iuh.fit.enums.OrderStatus.CANCELED")
+    int sumQuantityByUserAndPromotionProduct(@Param("userId") Long userId,
+                                             @Param("promotionProductId") Long promotionProductId);
+
+    /**
+     * Detaches the items of an order from a promotion allotment. The row locks taken by the update make
+     * concurrent callers wait, and only the first one sees the items still attached.
+     *
+     * @param orderId            the ID of the order
+     * @param promotionProductId the ID of the promotion product
+     * @return the number of items detached, 0 if they were already detached
+     */
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.promotionProduct = null " +
+            "WHERE oi.order.id = :orderId AND oi.promotionProduct.id = :promotionProductId")
+    int clearPromotionProduct(@Param("orderId") Long orderId, @Param("promotionProductId") Long promotionProductId);
+
+    /**
+     * Streams the order lines of orders placed within a date range as flat rows for tax reports.
+     * Must be consumed inside a transaction so the database cursor stays open.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     * @param statuses  the list of order statuses to include
+     * @return a stream of order lines, ordered by order date
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new vn.edu.iuh.fit.dtos.response.VATSalesRow(" +
+            "o.orderNumber, o.orderDate, c.fullName, " +
+            "(SELECT MIN(pt.name) FROM ProductTranslation pt WHERE pt.product = p), " +
+            "pv.color, s.sizeName, oi.quantity, oi.unitPrice, oi.discount) " +
+            "FROM OrderItem oi " +
+            "JOIN oi.order o " +
+            "LEFT JOIN o.customer c " +
+            "JOIN oi.productVariant pv " +
+            "JOIN pv.product p " +
+            "JOIN oi.size s " +
+            "WHERE o.orderDate BETWEEN :startDate AND :endDate " +
+            "AND o.status IN :statuses " +
+            "ORDER BY o.orderDate, o.id")
+    Stream<VATSalesRow> streamVATSalesRows(@Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate,
+                                           @Param("statuses") List<OrderStatus> statuses);
+
+    /**
+     * Sums the items of one order per product category, used to maintain the daily sales rollups.
+     *
+     * @param orderId the ID of the order
+     * @return rows of [categoryId, itemQuantity, grossAmount, itemDiscount]
+     */
+    @Query("SELECT p.category.id, SUM(oi.quantity), SUM(oi.unitPrice * oi.quantity), " +
+            "SUM(COALESCE(oi.discount, 0) * oi.quantity) " +
+            "FROM OrderItem oi " +
+            "JOIN oi.productVariant pv " +
+            "JOIN pv.product p " +
+            "WHERE oi.order.id = :orderId " +
+            "GROUP BY p.category.id")
+    List<Object[]> summarizeByCategoryForOrder(@Param("orderId") Long orderId);
+
+    /**
+     * Aggregates the order lines of orders with a specific status per order day and product category.
+     *
+     * @param status    the status of the orders to include
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end of the range (exclusive)
+     * @return rows of [salesDate, categoryId, orderCount, itemQuantity, grossAmount, itemDiscount]
+     */
+    @Query("SELECT CAST(o.orderDate AS LocalDate), p.category.id, COUNT(DISTINCT o.id), SUM(oi.quantity), " +
+            "SUM(oi.unitPrice * oi.quantity), SUM(COALESCE(oi.discount, 0) * oi.quantity) " +
+            "FROM OrderItem oi " +
+            "JOIN oi.order o " +
+            "JOIN oi.productVariant pv " +
+            "JOIN pv.product p " +
+            "WHERE o.status = :status " +
+            "AND o.orderDate >= :startDate AND o.orderDate < :endDate " +
+            "GROUP BY CAST(o.orderDate AS LocalDate), p.category.id")
+    List<Object[]> aggregateDailyCategorySales(@Param("status") OrderStatus status,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Finds the order lines of several orders together with their order, customer, shipping and payment data,
+     * so that all invoices of a batch are built from a single query.
+     *
+     * @param orderNumbers the order numbers to include
+     * @param language     the preferred language of the product names
+     * @return a list of invoice lines, ordered by order number
+     */
+    @Query("SELECT new vn.edu.iuh.fit.dtos.response.InvoiceLineRow(" +
+            "o.orderNumber, o.orderDate, o.status, c.fullName, c.email, c.phone, " +
+            "o.shippingInfo.fullName, o.shippingInfo.phone, o.shippingInfo.street, o.shippingInfo.ward, " +
+            "o.shippingInfo.district, o.shippingInfo.city, o.shippingInfo.country, " +
+            "o.shippingFee, o.voucherDiscount, o.voucherCode, pay.paymentMethod, pay.paymentStatus, " +
+            "COALESCE((SELECT MIN(pt.name) FROM ProductTranslation pt WHERE pt.product = p AND pt.language = :language), " +
+            "(SELECT MIN(pt2.name) FROM ProductTranslation pt2 WHERE pt2.product = p)), " +
+            "pv.color, s.sizeName, oi.quantity, oi.unitPrice) " +
+            "FROM OrderItem oi " +
+            "JOIN oi.order o " +
+            "JOIN o.customer c " +
+            "LEFT JOIN o.payment pay " +
+            "JOIN oi.productVariant pv " +
+            "JOIN pv.product p " +
+            "JOIN oi.size s " +
+            "WHERE o.orderNumber IN :orderNumbers " +
+            "ORDER BY o.orderNumber, p.id")
+    List<InvoiceLineRow> findInvoiceLinesByOrderNumbers(@Param("orderNumbers") List<String> orderNumbers,
+                                                        @Param("language") Language language);
 }
@@ -17,7 +17,6 @@ import vn.edu.iuh.fit.entities.Order;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.enums.OrderStatus;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -55,75 +54,6 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
      */
     Page<Order> findByCustomerId(Long customerId, Pageable pageable);
 
-    /**
-     * Calculates the total revenue from delivered orders within a given date range.
-     * Revenue is the sum of the final amount of each payment.
-     *
-     * @param status the status of the orders to include (e.g., DELIVERED)
-     * @param startDate the start of the date range (inclusive)
-     * @param endDate the end of the date range (inclusive)
-     * @return the total revenue as a BigDecimal, or null if no revenue
-     */
-    @Query("""
-        SELECT SUM(
-            (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-            - COALESCE(o.voucherDiscount, 0)
-        )
-        FROM Order o
-        JOIN o.items oi
-        WHERE o.status = :status 
-          AND o.orderDate BETWEEN :startDate AND :endDate
-    """)
-    BigDecimal calculateRevenue(@Param("status") OrderStatus status,
-                                @Param("startDate") LocalDateTime startDate,
-                                @Param("endDate") LocalDateTime endDate);
-
-    /**
-     * Calculates daily revenue within a given date range.
-     * @param status The order status.
-     * @param startDate The start date.
-     * @param endDate The end date.
-     * @return A list of objects, where each object array contains the date and the total revenue for that date.
-     */
-    @Query("""
-        SELECT FUNCTION('DATE', o.orderDate),
-               SUM(
-                    (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-                    - COALESCE(o.voucherDiscount, 0)
-               )
-        FROM Order o
-        JOIN o.items oi
-        WHERE o.status = :status
-          AND o.orderDate BETWEEN :startDate AND :endDate
-        GROUP BY FUNCTION('DATE', o.orderDate)
-        ORDER BY FUNCTION('DATE', o.orderDate)
-    """)
-    List<Object[]> calculateDailyRevenue(@Param("status") OrderStatus status,
-                                         @Param("startDate") LocalDateTime startDate,
-                                         @Param("endDate") LocalDateTime endDate);
-
-    /**
-     * Calculates monthly revenue for a given year.
-     * @param status The order status.
-     * @param year The year.
-     * @return A list of objects, where each object array contains the month number and the total revenue for that month.
-     */
-    @Query("""
-        SELECT FUNCTION('DATE_TRUNC', 'month', o.orderDate),
-               SUM(
-                    (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-                    - COALESCE(o.voucherDiscount, 0)
-               )
-        FROM Order o
-        JOIN o.items oi
-        WHERE o.status = :status
-          AND FUNCTION('DATE_TRUNC', 'year', o.orderDate) = FUNCTION('DATE_TRUNC', 'year', CAST(:year || '-01-01' AS date))
-        GROUP BY FUNCTION('DATE_TRUNC', 'month', o.orderDate)
-        ORDER BY FUNCTION('DATE_TRUNC', 'month', o.orderDate)
-    """)
-    List<Object[]> calculateMonthlyRevenue(@Param("status") OrderStatus status,
-                                           @Param("year") int year);
-
     /**
      * Calculates yearly revenue.
      * @param status The order status.
@@ -217,201 +147,80 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
                                         @Param("statuses") List<OrderStatus> statuses);
 
     /**
-     * Fetches daily revenue series within a specified date range for orders with a specific status.
-     * @param status the status of the orders to consider (e.g., DELIVERED)
-     * @param start the start date and time of the range (inclusive)
-     * @param end the end date and time of the range (inclusive)
-     * @return a list of object arrays where each array contains:
-     *         - the date (day)
-     *         - the total revenue for that day
-     */
-    @Query("""
-        SELECT 
-            DATE(o.orderDate) AS day,
-            SUM(
-                (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-                + COALESCE(o.shippingFee, 0)
-                - COALESCE(o.voucherDiscount, 0)
-            ) AS daily_revenue
-        FROM Order o
-        JOIN o.items oi
-        WHERE o.status = :status
-          AND o.orderDate BETWEEN :start AND :end
-        GROUP BY DATE(o.orderDate)
-        ORDER BY DATE(o.orderDate) ASC
-    """)
-    List<Object[]> fetchDailyRevenueSeries(
-            @Param("status") OrderStatus status,
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end
-    );
-
-    // Trong OrderRepository.java
-
-   /**
-     * Calculate total revenue in a given period for orders with a specific status.
+     * Aggregates order-level charges of orders with a specific status per order day.
      *
-     * @param status    the status of the orders to consider (e.g., DELIVERED)
-     * @param startDate the start date and time of the period (inclusive)
-     * @param endDate   the end date and time of the period (inclusive)
-     * @return the total revenue as a BigDecimal
+     * @param status    the status of the orders to include
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end of the range (exclusive)
+     * @return rows of [salesDate, orderCount, voucherDiscount, shippingFee]
      */
     @Query("""
-    SELECT COALESCE(SUM(
-        (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-        - COALESCE(o.voucherDiscount, 0)
-    ), 0)
+    SELECT CAST(o.orderDate AS LocalDate),
+           COUNT(o),
+           SUM(COALESCE(o.voucherDiscount, 0)),
+           SUM(COALESCE(o.shippingFee, 0))
     FROM Order o
-    JOIN o.items oi
     WHERE o.status = :status
-      AND o.orderDate BETWEEN :startDate AND :endDate
+      AND o.orderDate >= :startDate AND o.orderDate < :endDate
+    GROUP BY CAST(o.orderDate AS LocalDate)
     """)
-    BigDecimal calculateTotalRevenueInPeriod(
-            @Param("status") OrderStatus status,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
-
-    /**
-     * Get revenue statistics grouped by day
-     *
-     * @param status    the status of the orders to consider (e.g., DELIVERED)
-     * @param startDate the end date and time of the period (inclusive)
-     * @param endDate   the end date and time of the period (inclusive)
-     * @return a list of object arrays where each array contains:
-     */
-    @Query("""
-    SELECT 
-        TO_CHAR(o.orderDate, 'DD/MM/YYYY') AS period,
-        COUNT(DISTINCT o.id) AS totalOrders,
-        COALESCE(SUM(
-            (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-            - COALESCE(o.voucherDiscount, 0)
-        ), 0) AS totalRevenue,
-        COALESCE(SUM(oi.quantity), 0) AS totalProducts
-    FROM Order o
-    JOIN o.items oi
-    WHERE o.status = :status
-      AND o.orderDate BETWEEN :startDate AND :endDate
-    GROUP BY TO_CHAR(o.orderDate, 'DD/MM/YYYY')
-    ORDER BY TO_CHAR(o.orderDate, 'DD/MM/YYYY')
-""")
-    List<Object[]> getRevenueStatsByDay(
+    List<Object[]> aggregateDailyOrderCharges(
             @Param("status") OrderStatus status,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
 
-
     /**
-     * Get revenue statistics grouped by month
+     * Finds the order date of the earliest order with a specific status.
      *
-     * @param status   the status of the orders to consider (e.g., DELIVERED)
-     * @param startDate the start date and time of the period (inclusive)
-     * @param endDate the end date and time of the period (inclusive)
-     * @return a list of object arrays where each array contains:
+     * @param status the status of the orders to consider
+     * @return the earliest order date, or null if there is no such order
      */
-    @Query("""
-    SELECT 
-        TO_CHAR(date_trunc('month', o.orderDate), 'MM/YYYY') AS period,
-        COUNT(DISTINCT o.id) AS totalOrders,
-        COALESCE(SUM(
-            (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-            - COALESCE(o.voucherDiscount, 0)
-        ), 0) AS totalRevenue,
-        COALESCE(SUM(oi.quantity), 0) AS totalProducts
-    FROM Order o
-    JOIN o.items oi
-    WHERE o.status = :status
-      AND o.orderDate BETWEEN :startDate AND :endDate
-    GROUP BY date_trunc('month', o.orderDate)
-    ORDER BY date_trunc('month', o.orderDate)
-""")
-    List<Object[]> getRevenueStatsByMonth(
-            @Param("status") OrderStatus status,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
-
+    @Query("SELECT MIN(o.orderDate) FROM Order o WHERE o.status = :status")
+    LocalDateTime findEarliestOrderDate(@Param("status") OrderStatus status);
 
     /**
-     *  Get revenue statistics grouped by quarter
+     * Counts the orders placed within a date range having one of the given statuses.
      *
-     * @param status  the status of the orders to consider (e.g., DELIVERED)
-     * @param startDate the start date and time of the period (inclusive)
-     * @param endDate the end date and time of the period (inclusive)
-     * @return a list of object arrays where each array contains:
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     * @param statuses  the statuses of the orders to include
+     * @return the number of matching orders
      */
     @Query("""
-    SELECT 
-        CONCAT('Q', EXTRACT(QUARTER FROM o.orderDate), '/', EXTRACT(YEAR FROM o.orderDate)) as period,
-        COUNT(DISTINCT o.id) as totalOrders,
-        COALESCE(SUM(
-            (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-            - COALESCE(o.voucherDiscount, 0)
-        ), 0) as totalRevenue,
-        COALESCE(SUM(oi.quantity), 0) as totalProducts
-    FROM Order o
-    JOIN o.items oi
-    WHERE o.status = :status
-      AND o.orderDate BETWEEN :startDate AND :endDate
-    GROUP BY EXTRACT(YEAR FROM o.orderDate), EXTRACT(QUARTER FROM o.orderDate)
-    ORDER BY EXTRACT(YEAR FROM o.orderDate), EXTRACT(QUARTER FROM o.orderDate)
+    SELECT COUNT(o) FROM Order o
+    WHERE o.orderDate BETWEEN :startDate AND :endDate
+      AND o.status IN :statuses
     """)
-    List<Object[]> getRevenueStatsByQuarter(
-            @Param("status") OrderStatus status,
+    long countByOrderDateBetweenAndStatusIn(
             @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
+            @Param("endDate") LocalDateTime endDate,
+            @Param("statuses") List<OrderStatus> statuses
     );
 
     /**
-     * Get revenue statistics grouped by year
+     * Finds the next page of order numbers placed within a date range, using the last order number
+     * of the previous page as a keyset so deep pages stay cheap.
      *
-     * @param status   the status of the orders to consider (e.g., DELIVERED)
-     * @param startDate the start date and time of the period (inclusive)
-     * @param endDate the end date and time of the period (inclusive)
-     * @return a list of object arrays where each array contains:
+     * @param startDate         the start date of the range (inclusive)
+     * @param endDate           the end date of the range (inclusive)
+     * @param statuses          the statuses of the orders to include
+     * @param afterOrderNumber  the last order number of the previous page, or an empty string for the first page
+     * @param pageable          the page size (the page number is ignored)
+     * @return the next order numbers in ascending order
      */
     @Query("""
-    SELECT 
-        TO_CHAR(date_trunc('year', o.orderDate), 'YYYY') AS period,
-        COUNT(DISTINCT o.id) AS totalOrders,
-        COALESCE(SUM(
-            (oi.unitPrice - COALESCE(oi.discount, 0)) * oi.quantity
-            - COALESCE(o.voucherDiscount, 0)
-        ), 0) AS totalRevenue,
-        COALESCE(SUM(oi.quantity), 0) AS totalProducts
-    FROM Order o
-    JOIN o.items oi
-    WHERE o.status = :status
-      AND o.orderDate BETWEEN :startDate AND :endDate
-    GROUP BY date_trunc('year', o.orderDate)
-    ORDER BY date_trunc('year', o.orderDate)
-""")
-    List<Object[]> getRevenueStatsByYear(
-            @Param("status") OrderStatus status,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
-    );
-
-
-    /**
-     * Count number of orders in a given period for orders with a specific status.
-     *
-     * @param status    the status of the orders to consider (e.g., DELIVERED)
-     * @param startDate the start date and time of the period (inclusive)
-     * @param endDate   the end date and time of the period (inclusive)
-     * @return the count of orders as a long
-     */
-    @Query("""
-    SELECT COUNT(o)
-    FROM Order o
-    WHERE o.status = :status
-      AND o.orderDate BETWEEN :startDate AND :endDate
+    SELECT o.orderNumber FROM Order o
+    WHERE o.orderDate BETWEEN :startDate AND :endDate
+      AND o.status IN :statuses
+      AND o.orderNumber > :afterOrderNumber
+    ORDER BY o.orderNumber
     """)
-    long countOrdersInPeriod(
-            @Param("status") OrderStatus status,
+    List<String> findOrderNumbersAfter(
             @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
+            @Param("endDate") LocalDateTime endDate,
+            @Param("statuses") List<OrderStatus> statuses,
+            @Param("afterOrderNumber") String afterOrderNumber,
+            Pageable pageable
     );
 }
@@ -6,11 +6,16 @@
 
 package vn.edu.iuh.fit.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import vn.edu.iuh.fit.entities.ProductTranslation;
 import vn.edu.iuh.fit.enums.Language;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /*
@@ -23,11 +28,13 @@ import java.util.Optional;
 public interface ProductTranslationRepository extends JpaRepository<ProductTranslation, Long> {
     /**
      * Find a product translation by product ID and language.
+     * Query cached, product responses call it once per product plus the Vietnamese fallback.
      *
      * @param productId the ID of the product
      * @param language  the language of the translation
      * @return an Optional containing the found ProductTranslation, or empty if not found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ProductTranslation> findByProductIdAndLanguage(Long productId, Language language);
 
     /**
@@ -38,4 +45,13 @@ public interface ProductTranslationRepository extends JpaRepository<ProductTrans
      * @return true if a ProductTranslation with the given name and language exists, false otherwise
      */
     boolean existsByNameIgnoreCaseAndLanguage(String name, Language language);
+
+    /**
+     * Find the translations of several products in the given languages.
+     *
+     * @param productIds the IDs of the products
+     * @param languages  the languages of the translations
+     * @return a list of matching ProductTranslation entities
+     */
+    List<ProductTranslation> findByProductIdInAndLanguageIn(Collection<Long> productIds, Collection<Language> languages);
 }
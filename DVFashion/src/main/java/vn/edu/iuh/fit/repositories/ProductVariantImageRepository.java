@@ -7,9 +7,13 @@
 package vn.edu.iuh.fit.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import vn.edu.iuh.fit.entities.ProductVariantImage;
 
+import java.util.Collection;
 import java.util.List;
 
 /*
@@ -36,4 +40,46 @@ public interface ProductVariantImageRepository extends JpaRepository<ProductVari
      * @return true if an image with the specified variant ID and sort order exists, false otherwise.
      */
     boolean existsByProductVariantIdAndSortOrder(Long variantId, Integer sortOrder);
+
+    /**
+     * Finds the primary images of the given product variants.
+     *
+     * @param variantIds The IDs of the ProductVariants.
+     * @return A list of primary ProductVariantImage entities.
+     */
+    @Query("SELECT img FROM ProductVariantImage img WHERE img.productVariant.id IN :variantIds AND img.isPrimary = true")
+    List<ProductVariantImage> findPrimaryByProductVariantIds(@Param("variantIds") Collection<Long> variantIds);
+
+    /**
+     * Get the highest sort order among the images of a ProductVariant.
+     *
+     * @param variantId The ID of the ProductVariant.
+     * @return The highest sort order, or 0 if the variant has no images.
+     */
+    @Query("SELECT COALESCE(MAX(img.sortOrder), 0) FROM ProductVariantImage img WHERE img.productVariant.id = :variantId")
+    int findMaxSortOrderByProductVariantId(@Param("variantId") Long variantId);
+
+    /**
+     * Checks if a ProductVariant already has a primary image.
+     * Served by the partial unique index on primary images.
+     *
+     * @param variantId The ID of the ProductVariant.
+     * @return true if the variant has a primary image, false otherwise.
+     */
+    @Query("SELECT COUNT(img) > 0 FROM ProductVariantImage img WHERE img.productVariant.id = :variantId AND img.isPrimary = true")
+    boolean existsPrimaryByProductVariantId(@Param("variantId") Long variantId);
+
+    /**
+     * Unset the current primary image of a ProductVariant in one conditional update.
+     * At most one row matches, since the partial unique index allows a single primary image per variant.
+     * The new primary image must be set afterwards, never in the same statement, because the unique
+     * index is checked row by row.
+     *
+     * @param variantId The ID of the ProductVariant.
+     * @return number of updated rows, 0 or 1
+     */
+    @Modifying
+    @Query("UPDATE ProductVariantImage img SET img.isPrimary = false " +
+            "WHERE img.productVariant.id = :variantId AND img.isPrimary = true")
+    int clearPrimaryByProductVariantId(@Param("variantId") Long variantId);
 }
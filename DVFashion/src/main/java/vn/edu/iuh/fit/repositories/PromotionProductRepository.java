@@ -7,6 +7,7 @@
 package vn.edu.iuh.fit.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -135,4 +136,59 @@ public interface PromotionProductRepository extends JpaRepository<PromotionProdu
             "AND pp.promotion.startDate <= CURRENT_TIMESTAMP " +
             "AND pp.promotion.endDate >= CURRENT_TIMESTAMP")
     Optional<PromotionProduct> findActivePromotionForProduct(@Param("productId") Long productId);
+
+    /**
+     * Finds all active PromotionProduct entities of active promotions that have not ended yet,
+     * together with their promotion and its translations.
+     *
+     * @param currentTime the current date and time
+     * @return a list of current and upcoming PromotionProduct entities
+     */
+    @Query("""
+        SELECT DISTINCT pp FROM PromotionProduct pp
+        JOIN FETCH pp.promotion p
+        LEFT JOIN FETCH p.translations
+        WHERE pp.active = true
+        AND p.active = true
+        AND p.endDate >= :currentTime
+        """)
+    List<PromotionProduct> findCurrentAndUpcomingWithPromotion(@Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Atomically increases the sold quantity of a promotion product if enough promotion stock remains and the
+     * promotion product and its promotion are active and running at the given time.
+     * The updated row stays locked until the surrounding transaction ends.
+     *
+     * @param id       the ID of the promotion product
+     * @param quantity the quantity to sell
+     * @param now      the current date and time
+     * @return 1 if the quantity was reserved, 0 if the promotion stock is insufficient or the promotion is not running
+     */
+    @Modifying
+    @Query("""
+        UPDATE PromotionProduct pp SET pp.soldQuantity = pp.soldQuantity + :quantity
+        WHERE pp.id = :id
+        AND pp.active = true
+        AND pp.soldQuantity + :quantity <= pp.stockQuantity
+        AND pp.promotion.id IN (
+            SELECT p.id FROM Promotion p
+            WHERE p.active = true
+            AND p.startDate <= :now
+            AND p.endDate >= :now
+        )
+        """)
+    int incrementSoldQuantityIfAvailable(@Param("id") Long id, @Param("quantity") int quantity,
+                                         @Param("now") LocalDateTime now);
+
+    /**
+     * Atomically decreases the sold quantity of a promotion product, e.g. when an order is cancelled.
+     *
+     * @param id       the ID of the promotion product
+     * @param quantity the quantity to give back
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE PromotionProduct pp SET pp.soldQuantity = pp.soldQuantity - :quantity " +
+            "WHERE pp.id = :id AND pp.soldQuantity >= :quantity")
+    int decrementSoldQuantity(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -6,7 +6,10 @@
 
 package vn.edu.iuh.fit.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import vn.edu.iuh.fit.entities.Role;
 import vn.edu.iuh.fit.enums.UserRole;
@@ -23,9 +26,11 @@ import java.util.Optional;
 public interface RoleRepository extends JpaRepository<Role, Long> {
     /**
      * Find a role by its name.
+     * Query cached, roles are only ever inserted.
      *
      * @param name the name of the role
      * @return an Optional containing the role if found, or empty if not found
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(UserRole name);
 }
@@ -6,7 +6,10 @@
 
 package vn.edu.iuh.fit.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import vn.edu.iuh.fit.entities.ProductVariant;
 import vn.edu.iuh.fit.entities.Size;
@@ -32,9 +35,11 @@ public interface SizeRepository extends JpaRepository<Size, Long> {
 
     /**
      * Finds all Size entities associated with a specific ProductVariant ID.
+     * Query cached, Hibernate invalidates the result whenever the sizes table is written.
      *
      * @param variantId The ID of the ProductVariant.
      * @return A list of Size entities.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Size> findByProductVariantId(Long variantId);
 }
@@ -7,6 +7,7 @@
 package vn.edu.iuh.fit.repositories;
 
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -39,34 +40,62 @@ public interface TokenRepository extends JpaRepository<Token,Long> {
     List<Token> findAllValidTokenByUser(Long id);
 
     /**
-     * Find a token by its refresh token, ensuring it is not revoked.
+     * Find the IDs of a user's valid tokens, newest first.
      *
-     * @param refreshToken the refresh token to search for
+     * @param userId   the ID of the user
+     * @param pageable the window of tokens to return
+     * @return the token IDs
+     */
+    @Query("SELECT t.id FROM Token t WHERE t.user.id = :userId AND t.isRevoked = false ORDER BY t.id DESC")
+    List<Long> findValidTokenIdsByUser(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Revoke a user's valid tokens with an ID up to the given one.
+     *
+     * @param userId the ID of the user
+     * @param maxId  the highest token ID to revoke
+     * @return the number of revoked tokens
+     */
+    @Modifying
+    @Query("UPDATE Token t SET t.isRevoked = true WHERE t.user.id = :userId AND t.isRevoked = false AND t.id <= :maxId")
+    int revokeValidTokensUpTo(@Param("userId") Long userId, @Param("maxId") Long maxId);
+
+    /**
+     * Find a token by the digest of its refresh token, ensuring it is not revoked.
+     *
+     * @param tokenHash the SHA-256 hex digest of the refresh token
      * @return an Optional containing the Token if found and not revoked, or empty if not found
      */
-    @Query("SELECT t FROM Token t WHERE t.refreshToken = :refreshToken AND t.isRevoked = false")
-    Optional<Token> findByRefreshTokenAndRevokedFalse(String refreshToken);
+    @Query("SELECT t FROM Token t WHERE t.tokenHash = :tokenHash AND t.isRevoked = false")
+    Optional<Token> findByTokenHashAndRevokedFalse(String tokenHash);
 
+    /**
+     * Find the IDs of tokens that expired before the given time, earliest expiry first.
+     *
+     * @param now      the current time
+     * @param pageable the batch size
+     * @return the expired token IDs
+     */
+    @Query("SELECT t.id FROM Token t WHERE t.expirationDate < :now ORDER BY t.expirationDate")
+    List<Long> findExpiredTokenIds(@Param("now") Instant now, Pageable pageable);
 
     /**
-     * Delete all tokens that have expired since the specified time.
+     * Find the IDs of revoked tokens, oldest first.
      *
-     * @param now
+     * @param pageable the batch size
+     * @return the revoked token IDs
      */
-    @Modifying
-    @Transactional
-    @Query("DELETE FROM Token t WHERE t.expirationDate < :now")
-    void deleteAllExpiredSince(@Param("now") Instant now);
+    @Query("SELECT t.id FROM Token t WHERE t.isRevoked = true ORDER BY t.id")
+    List<Long> findRevokedTokenIds(Pageable pageable);
 
     /**
-     * Delete all revoked tokens that are older than the specified threshold.
+     * Delete tokens by their IDs.
      *
-     * @param threshold the Instant before which revoked tokens will be deleted
+     * @param ids the token IDs
+     * @return the number of deleted tokens
      */
     @Modifying
     @Transactional
-    @Query("DELETE FROM Token t WHERE t.isRevoked = true AND t.expirationDate < :threshold")
-    void deleteAllRevokedOlderThan(@Param("threshold") Instant threshold);
-
-    void deleteByRefreshToken(String refreshToken);
+    @Query("DELETE FROM Token t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -56,6 +56,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE (u.email = :username OR u.phone = :username) AND u.isDeleted = false")
     Optional<User> findByUsernameAndDeleteFalse(@Param("username") String username);
 
+    /**
+     * Find an active (not deleted) user by email or phone for sign-in, with roles and
+     * authentication providers fetched in the same query.
+     *
+     * @param username the email or normalized phone number of the user
+     * @return an Optional containing the User if found and not deleted
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles LEFT JOIN FETCH u.typeProviderAuths " +
+            "WHERE (u.email = :username OR u.phone = :username) AND u.isDeleted = false")
+    Optional<User> findForSignIn(@Param("username") String username);
+
     /**
      * Check if a user exists by their username (email or phone).
      *
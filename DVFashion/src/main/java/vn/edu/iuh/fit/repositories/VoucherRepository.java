@@ -9,6 +9,7 @@ package vn.edu.iuh.fit.repositories;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -124,4 +125,28 @@ public interface VoucherRepository extends JpaRepository<Voucher, Long> {
      */
     @Query("SELECT COUNT(v) FROM Voucher v WHERE v.active = true AND v.startDate <= :now AND v.endDate >= :now")
     long countCurrentlyActiveVouchers(@Param("now") LocalDateTime now);
+
+    /**
+     * Atomically increment the usage counter of a voucher if it has not reached its total usage limit.
+     * The updated row stays locked until the surrounding transaction ends, which serializes
+     * concurrent redemptions of the same voucher.
+     *
+     * @param voucherId the ID of the voucher
+     * @return 1 if the usage was incremented, 0 if the voucher is exhausted
+     */
+    @Modifying
+    @Query("UPDATE Voucher v SET v.currentUsage = v.currentUsage + 1 " +
+            "WHERE v.id = :voucherId AND v.currentUsage < v.maxTotalUsage")
+    int incrementUsageIfAvailable(@Param("voucherId") Long voucherId);
+
+    /**
+     * Atomically decrement the usage counter of a voucher, used when a redemption is rolled back.
+     *
+     * @param voucherId the ID of the voucher
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("UPDATE Voucher v SET v.currentUsage = v.currentUsage - 1 " +
+            "WHERE v.id = :voucherId AND v.currentUsage > 0")
+    int decrementUsage(@Param("voucherId") Long voucherId);
 }
@@ -7,6 +7,9 @@
 package vn.edu.iuh.fit.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import vn.edu.iuh.fit.entities.VoucherUsage;
 
@@ -18,4 +21,24 @@ import vn.edu.iuh.fit.entities.VoucherUsage;
  */
 @Repository
 public interface VoucherUsageRepository extends JpaRepository<VoucherUsage, Long> {
+    /**
+     * Count how many times a user has used a voucher.
+     * Served by the (voucher_id, user_id) index instead of loading the usage collection.
+     *
+     * @param voucherId the ID of the voucher
+     * @param userId    the ID of the user
+     * @return number of usages of the voucher by the user
+     */
+    @Query("SELECT COUNT(vu) FROM VoucherUsage vu WHERE vu.voucher.id = :voucherId AND vu.user.id = :userId")
+    long countByVoucherIdAndUserId(@Param("voucherId") Long voucherId, @Param("userId") Long userId);
+
+    /**
+     * Delete the voucher usage recorded for an order.
+     *
+     * @param orderId the ID of the order
+     * @return number of deleted usages
+     */
+    @Modifying
+    @Query("DELETE FROM VoucherUsage vu WHERE vu.order.id = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
 }
@@ -87,10 +87,14 @@ public class WebSecurityConfig {
                 path("/payments/paypal/cancel"),
                 path("/shipping/calculate"),
                 path("/chat/ai"),
+                path("/chat/ai/stream"),
                 "/oauth2/**",
                 "/login/oauth2/**",
                 "/oauth2/authorization/**",
                 path("/auth/health"),
+                // Only reachable on the management port, the public port serves no actuator endpoints
+                "/actuator/health",
+                "/actuator/prometheus",
         };
     }
 
@@ -43,14 +43,21 @@ public class JwtUtils {
 
     private AESUtils aesUtils;
 
+    // Signing key and parser are derived once, both are immutable and thread safe
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
     @PostConstruct
     public void init() {
         this.aesUtils = new AESUtils(aesSecret);
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
-    // Creates a key from the JWT secret for signing and verifying tokens
+    // Key for signing and verifying tokens
     private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        return signingKey;
     }
 
     // Generates an access token for the user
@@ -98,9 +105,7 @@ public class JwtUtils {
     // Extracts all claims from the JWT token
     private Claims extractAllClaims(String token) {
         String decryptedToken = aesUtils.decrypt(token);
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
+        return jwtParser
                 .parseClaimsJws(decryptedToken)
                 .getBody();
     }
@@ -119,7 +124,7 @@ public class JwtUtils {
     public boolean validateJwtToken(String encryptedToken) {
         try {
             String decryptedToken = aesUtils.decrypt(encryptedToken);
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(decryptedToken);
+            jwtParser.parse(decryptedToken);
             return true;
         } catch (MalformedJwtException e) {
             System.err.println("Invalid JWT token: " + e.getMessage());
@@ -7,6 +7,7 @@
 package vn.edu.iuh.fit.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import reactor.core.publisher.Flux;
 
 /*
  * @description: Service interface for AI chat functionalities
@@ -23,4 +24,16 @@ public interface AIChatService {
      * @return The AI's response as a JsonNode.
      */
     JsonNode sendToAI(String message);
+
+    /**
+     * Sends a message to the AI service and streams the generated reply token by token.
+     * The upstream call is non-blocking, so no request thread waits for the generation.
+     *
+     * @param message The message to send to the AI.
+     * @return The AI's reply as a stream of text chunks.
+     * @throws vn.edu.iuh.fit.exceptions.BadRequestException if the message is blank.
+     *         The stream fails with a {@link vn.edu.iuh.fit.exceptions.TooManyRequestsException}
+     *         when it is subscribed while the concurrent stream limit is reached.
+     */
+    Flux<String> streamFromAI(String message);
 }
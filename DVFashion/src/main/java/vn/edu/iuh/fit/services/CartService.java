@@ -9,6 +9,7 @@ package vn.edu.iuh.fit.services;
 import vn.edu.iuh.fit.dtos.request.AddToCartRequest;
 import vn.edu.iuh.fit.dtos.request.UpdateCartItemQuantityRequest;
 import vn.edu.iuh.fit.dtos.response.CartResponse;
+import vn.edu.iuh.fit.dtos.response.CartSummaryResponse;
 
 /*
  * @description: Service class for shopping cart operations
@@ -32,6 +33,13 @@ public interface CartService {
      */
     CartResponse getCart();
 
+    /**
+     * Retrieve the item count and total amount of the user's shopping cart without loading its lines.
+     *
+     * @return the cart summary response
+     */
+    CartSummaryResponse getCartSummary();
+
     /**
      * Update the quantity of a specific cart item.
      *
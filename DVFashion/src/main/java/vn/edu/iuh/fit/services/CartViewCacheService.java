@@ -0,0 +1,48 @@
+/*
+ * @ {#} CartViewCacheService.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services;
+
+import vn.edu.iuh.fit.dtos.response.CartResponse;
+import vn.edu.iuh.fit.enums.Language;
+
+import java.util.Optional;
+
+/*
+ * @description: Service interface for the per-user cache of rendered cart views
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public interface CartViewCacheService {
+    /**
+     * Get the cached cart view of a user in the given language.
+     *
+     * @param userId   the ID of the user
+     * @param language the language of the cart view
+     * @return an Optional containing the cached CartResponse, or empty if absent or expired
+     */
+    Optional<CartResponse> get(Long userId, Language language);
+
+    /**
+     * Cache the cart view of a user. When called inside a transaction, the view is stored after commit
+     * and the user's entry is evicted on rollback. If the cached entry changed since {@code previous}
+     * was read, the entry is evicted instead so that concurrent mutations never overwrite each other.
+     *
+     * @param userId   the ID of the user
+     * @param language the language of the cart view
+     * @param previous the cached view the new view was derived from, or null if it was built from the database
+     * @param cart     the cart view to cache
+     */
+    void put(Long userId, Language language, CartResponse previous, CartResponse cart);
+
+    /**
+     * Evict the cached cart view of a user. When called inside a transaction, the entry is also evicted after completion.
+     *
+     * @param userId the ID of the user
+     */
+    void evict(Long userId);
+}
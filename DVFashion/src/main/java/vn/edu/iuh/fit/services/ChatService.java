@@ -9,6 +9,7 @@ package vn.edu.iuh.fit.services;
 import org.springframework.web.multipart.MultipartFile;
 import vn.edu.iuh.fit.dtos.request.CreateChatRoomRequest;
 import vn.edu.iuh.fit.dtos.request.SendMessageRequest;
+import vn.edu.iuh.fit.dtos.response.ChatMessageHistoryResponse;
 import vn.edu.iuh.fit.dtos.response.ChatMessageResponse;
 import vn.edu.iuh.fit.dtos.response.ChatRoomResponse;
 import vn.edu.iuh.fit.enums.Language;
@@ -49,15 +50,15 @@ public interface ChatService {
     ChatRoomResponse getChatRoomByCode(String roomCode, Language language);
 
     /**
-     * Retrieve chat messages for a specific chat room with pagination.
+     * Retrieve chat messages for a specific chat room, newest first, paged by a message id cursor.
      *
      * @param roomCode the unique code of the chat room
-     * @param page     the page number for pagination
+     * @param before   only messages older than this message id are returned, null for the newest messages
      * @param size     the number of messages per page
      * @param language the language for localization
-     * @return the list of chat message responses
+     * @return the messages and the cursor for loading older messages
      */
-    List<ChatMessageResponse> getChatMessages(String roomCode, int page, int size, Language language);
+    ChatMessageHistoryResponse getChatMessages(String roomCode, Long before, int size, Language language);
 
     /**
      * Send a message in a specific chat room.
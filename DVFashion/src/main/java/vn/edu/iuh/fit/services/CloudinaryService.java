@@ -7,6 +7,9 @@
 package vn.edu.iuh.fit.services;
 
 import org.springframework.web.multipart.MultipartFile;
+import vn.edu.iuh.fit.dtos.response.UploadedImageUrls;
+
+import java.util.List;
 
 /*
  * @description: Service interface for handling Cloudinary image uploads
@@ -22,4 +25,20 @@ public interface CloudinaryService {
      * @return a CloudinaryResponse containing the upload details
      */
     String uploadImage(MultipartFile file);
+
+    /**
+     * Uploads an image file together with its thumbnail, card and detail derivatives.
+     *
+     * @param file the image file to upload
+     * @return the URLs of the original and of each derivative
+     */
+    UploadedImageUrls uploadImageWithDerivatives(MultipartFile file);
+
+    /**
+     * Uploads several image files in parallel, each with its thumbnail, card and detail derivatives.
+     *
+     * @param files the image files to upload
+     * @return the URLs of every file, in the same order as the given files
+     */
+    List<UploadedImageUrls> uploadImagesWithDerivatives(List<MultipartFile> files);
 }
@@ -0,0 +1,46 @@
+/*
+ * @ {#} InvoiceExportService.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services;
+
+import org.springframework.core.io.Resource;
+import vn.edu.iuh.fit.dtos.request.InvoiceExportRequest;
+import vn.edu.iuh.fit.dtos.response.InvoiceExportJobResponse;
+
+import java.util.Optional;
+
+/*
+ * @description: Service interface for exporting invoice PDFs of many orders in the background
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public interface InvoiceExportService {
+    /**
+     * Creates an export job and queues it for background processing.
+     *
+     * @param request the date range or the order numbers to export
+     * @return the created job with status PENDING
+     */
+    InvoiceExportJobResponse startExport(InvoiceExportRequest request);
+
+    /**
+     * Get the status and progress of an export job.
+     *
+     * @param jobId the ID of the export job
+     * @return the current state of the job
+     */
+    InvoiceExportJobResponse getJob(Long jobId);
+
+    /**
+     * Get the ZIP archive produced by a completed export job. When the archive was written on another
+     * instance, a rebuild from the job's exported orders is started in the background on this instance.
+     *
+     * @param jobId the ID of the export job
+     * @return the ZIP file as a resource, or empty while it is being rebuilt on this instance
+     */
+    Optional<Resource> getExportFile(Long jobId);
+}
@@ -8,6 +8,10 @@ package vn.edu.iuh.fit.services;
 
 import vn.edu.iuh.fit.dtos.response.InvoiceResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
 /*
  * @description: Service interface for invoice-related operations
  * @author: Tran Hien Vinh
@@ -30,4 +34,55 @@ public interface InvoiceService {
      * @return An InvoiceResponse containing the invoice details.
      */
     InvoiceResponse getInvoiceByOrderNumber(String orderNumber);
+
+    /**
+     * Retrieves the invoice details of several orders using a single query.
+     *
+     * @param orderNumbers The order numbers for which to retrieve the invoices.
+     * @return A list of InvoiceResponse in the requested order.
+     */
+    List<InvoiceResponse> getInvoicesByOrderNumbers(List<String> orderNumbers);
+
+    /**
+     * Retrieves the invoice details of several orders using a single query, leaving out unknown orders
+     * and orders for which no invoice can be issued.
+     *
+     * @param orderNumbers The order numbers for which to retrieve the invoices.
+     * @return A list of InvoiceResponse in the requested order.
+     */
+    List<InvoiceResponse> findInvoicesByOrderNumbers(List<String> orderNumbers);
+
+    /**
+     * Retrieves the invoice details of orders whose invoices were already issued, whatever their current status,
+     * e.g. to reproduce an earlier export. Unknown orders are left out.
+     *
+     * @param orderNumbers The order numbers for which to retrieve the invoices.
+     * @return A list of InvoiceResponse in the requested order.
+     */
+    List<InvoiceResponse> findIssuedInvoicesByOrderNumbers(List<String> orderNumbers);
+
+    /**
+     * Renders a single invoice into a standalone PDF.
+     *
+     * @param invoice The invoice to render.
+     * @return A byte array representing the generated PDF.
+     */
+    byte[] renderInvoicePdf(InvoiceResponse invoice);
+
+    /**
+     * Renders the given invoices into one multi-page PDF written to the output stream.
+     *
+     * @param invoices     The invoices to render.
+     * @param outputStream The stream to write the PDF to.
+     */
+    void writeInvoicesPdf(List<InvoiceResponse> invoices, OutputStream outputStream);
+
+    /**
+     * Renders each invoice into its own PDF and writes them as a ZIP archive to the output stream.
+     *
+     * @param invoices     The invoices to render.
+     * @param outputStream The stream to write the ZIP archive to.
+     * @throws IOException if writing to the output stream fails.
+     */
+    void writeInvoicesZip(List<InvoiceResponse> invoices, OutputStream outputStream) throws IOException;
 }
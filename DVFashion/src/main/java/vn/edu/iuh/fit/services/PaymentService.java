@@ -18,7 +18,8 @@ import vn.edu.iuh.fit.enums.PaymentMethod;
  */
 public interface PaymentService {
     /**
-     * Create a payment record for the given order and payment method.
+     * Create a pending payment record for the given order and payment method.
+     * No payment provider is contacted here.
      *
      * @param order         the order to create a payment for
      * @param paymentMethod the method of payment
@@ -9,6 +9,9 @@ package vn.edu.iuh.fit.services;
 import org.springframework.web.multipart.MultipartFile;
 import vn.edu.iuh.fit.dtos.request.ProductVariantImageRequest;
 import vn.edu.iuh.fit.dtos.response.ProductVariantImageResponse;
+import vn.edu.iuh.fit.dtos.response.UploadedImageUrls;
+import vn.edu.iuh.fit.entities.ProductVariant;
+import vn.edu.iuh.fit.entities.ProductVariantImage;
 
 import java.util.List;
 
@@ -29,6 +32,17 @@ public interface ProductVariantImageService {
      */
     ProductVariantImageResponse addImageToVariant(Long variantId, ProductVariantImageRequest request, MultipartFile imageFile);
 
+    /**
+     * Adds already uploaded images to a product variant in one batch.
+     *
+     * @param variant        The product variant the images belong to.
+     * @param requests       The request data of each image.
+     * @param uploadedImages The uploaded URLs of each image, in the same order as the requests.
+     * @return The saved ProductVariantImage entities.
+     */
+    List<ProductVariantImage> addUploadedImagesToVariant(ProductVariant variant, List<ProductVariantImageRequest> requests,
+                                                         List<UploadedImageUrls> uploadedImages);
+
     /**
      * Updates an existing product variant image.
      *
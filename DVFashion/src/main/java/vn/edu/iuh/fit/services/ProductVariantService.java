@@ -9,6 +9,7 @@ package vn.edu.iuh.fit.services;
 import org.springframework.web.multipart.MultipartFile;
 import vn.edu.iuh.fit.dtos.request.ProductVariantRequest;
 import vn.edu.iuh.fit.dtos.response.ProductVariantResponse;
+import vn.edu.iuh.fit.dtos.response.UploadedImageUrls;
 
 import java.util.List;
 
@@ -29,6 +30,17 @@ public interface ProductVariantService {
      */
     ProductVariantResponse createProductVariant(Long productId, ProductVariantRequest request, List<MultipartFile> variantImages);
 
+    /**
+     * Creates a new product variant whose images were already uploaded, used when several variants are created together.
+     *
+     * @param productId      The ID of the product to which the variant belongs.
+     * @param request        The product variant request data.
+     * @param uploadedImages The uploaded URLs of each image, in the same order as the image requests.
+     * @return The created product variant response.
+     */
+    ProductVariantResponse createProductVariantWithUploadedImages(Long productId, ProductVariantRequest request,
+                                                                  List<UploadedImageUrls> uploadedImages);
+
     /**
      * Updates an existing product variant identified by the given variant ID with the provided request data.
      *
@@ -0,0 +1,37 @@
+/*
+ * @ {#} PromotionPriceIndexService.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services;
+
+import vn.edu.iuh.fit.dtos.response.PromotionPriceEntry;
+
+import java.util.Optional;
+
+/*
+ * @description: Service interface for the in-memory index of active promotion prices
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public interface PromotionPriceIndexService {
+    /**
+     * Find the active promotion entry with the lowest promotion price for a product.
+     *
+     * @param productId the ID of the product
+     * @return an Optional containing the active PromotionPriceEntry, or empty if the product is not promoted
+     */
+    Optional<PromotionPriceEntry> findActivePromotion(Long productId);
+
+    /**
+     * Rebuild the index from the database and swap it in atomically.
+     */
+    void rebuildIndex();
+
+    /**
+     * Request an index rebuild. When called inside a transaction, the rebuild runs after commit.
+     */
+    void refresh();
+}
@@ -13,6 +13,9 @@ import vn.edu.iuh.fit.dtos.request.UpdatePromotionRequest;
 import vn.edu.iuh.fit.dtos.response.PageResponse;
 import vn.edu.iuh.fit.dtos.response.PromotionResponse;
 import vn.edu.iuh.fit.dtos.response.PromotionStatisticsResponse;
+import vn.edu.iuh.fit.entities.Order;
+import vn.edu.iuh.fit.entities.OrderItem;
+import vn.edu.iuh.fit.entities.User;
 import vn.edu.iuh.fit.enums.Language;
 
 import java.util.List;
@@ -107,4 +110,21 @@ public interface PromotionService {
      * @return PromotionStatisticsResponse containing various statistics about promotions.
      */
     PromotionStatisticsResponse getPromotionStatistics();
+
+    /**
+     * Reserves promotion stock for the order items of products that are in an active promotion.
+     * Enforces both the promotion stock and the per-user limit, and links each item to its promotion product.
+     *
+     * @param orderItems The order items being placed.
+     * @param customer   The customer placing the order.
+     */
+    void reservePromotionStock(List<OrderItem> orderItems, User customer);
+
+    /**
+     * Gives back the promotion stock consumed by a cancelled order. The order items are detached from their
+     * promotion allotment, so releasing the same order again gives nothing back.
+     *
+     * @param order The cancelled order.
+     */
+    void releasePromotionStock(Order order);
 }
@@ -0,0 +1,39 @@
+/*
+ * @ {#} SalesRollupService.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services;
+
+import vn.edu.iuh.fit.entities.Order;
+import vn.edu.iuh.fit.enums.OrderStatus;
+
+import java.time.LocalDate;
+
+/*
+ * @description: Service interface for maintaining the daily sales rollups of delivered orders
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public interface SalesRollupService {
+    /**
+     * Apply an order status change to the rollups. An order is added when it reaches DELIVERED
+     * and removed again when it leaves DELIVERED; other transitions are ignored.
+     * Must be called inside the transaction that changes the status.
+     *
+     * @param order     the order whose status changed
+     * @param oldStatus the status before the change
+     * @param newStatus the status after the change
+     */
+    void recordStatusChange(Order order, OrderStatus oldStatus, OrderStatus newStatus);
+
+    /**
+     * Recompute the rollups of a date range from the orders table, correcting any drift.
+     *
+     * @param startDate the start date of the range (inclusive)
+     * @param endDate   the end date of the range (inclusive)
+     */
+    void reconcile(LocalDate startDate, LocalDate endDate);
+}
@@ -8,6 +8,8 @@ package vn.edu.iuh.fit.services;
 
 import vn.edu.iuh.fit.dtos.request.SizeRequest;
 import vn.edu.iuh.fit.dtos.response.SizeResponse;
+import vn.edu.iuh.fit.entities.ProductVariant;
+import vn.edu.iuh.fit.entities.Size;
 
 import java.util.List;
 
@@ -27,6 +29,15 @@ public interface SizeService {
      */
     SizeResponse createSize(Long variantId, SizeRequest request);
 
+    /**
+     * Adds several sizes to a product variant, inserting them together in one batch.
+     *
+     * @param variant  The product variant the sizes belong to.
+     * @param requests The size request data, size names must be unique within the variant.
+     * @return The saved Size entities, in the same order as the requests.
+     */
+    List<Size> addSizesToVariant(ProductVariant variant, List<SizeRequest> requests);
+
     /**
      * Updates an existing size with the specified ID using the provided request data.
      *
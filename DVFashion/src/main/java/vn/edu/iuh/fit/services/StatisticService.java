@@ -53,6 +53,16 @@ public interface StatisticService {
      */
     List<RevenueDataPoint> getYearlyRevenue(Integer year);
 
+    /**
+     * Revenue statistics per product category in the range startDate → endDate, based on delivered orders.
+     * Defaults to the current month when no dates are given.
+     *
+     * @param startDate the start date (optional)
+     * @param endDate   the end date (optional)
+     * @return list of CategoryRevenueStatistic ordered by revenue, highest first
+     */
+    List<CategoryRevenueStatistic> getRevenueByCategory(LocalDate startDate, LocalDate endDate);
+
     /**
      * Get top 10 best-selling products based on quantity sold and total revenue.
      *
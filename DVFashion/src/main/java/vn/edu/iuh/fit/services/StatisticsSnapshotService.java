@@ -0,0 +1,74 @@
+/*
+ * @ {#} StatisticsSnapshotService.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services;
+
+import vn.edu.iuh.fit.dtos.response.*;
+import vn.edu.iuh.fit.enums.StatisticsType;
+
+/*
+ * @description: Service interface serving admin dashboard statistics from periodically refreshed snapshots
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public interface StatisticsSnapshotService {
+    /**
+     * Get the product statistics snapshot. A stale snapshot is returned immediately while it is refreshed in the background.
+     *
+     * @return the latest ProductStatisticsResponse snapshot
+     */
+    StatisticsSnapshot<ProductStatisticsResponse> getProductStatistics();
+
+    /**
+     * Get the order statistics snapshot.
+     *
+     * @return the latest OrderStatisticsResponse snapshot
+     */
+    StatisticsSnapshot<OrderStatisticsResponse> getOrderStatistics();
+
+    /**
+     * Get the inventory statistics snapshot.
+     *
+     * @return the latest InventoryStatsResponse snapshot
+     */
+    StatisticsSnapshot<InventoryStatsResponse> getInventoryStatistics();
+
+    /**
+     * Get the voucher statistics snapshot.
+     *
+     * @return the latest VoucherStatisticsResponse snapshot
+     */
+    StatisticsSnapshot<VoucherStatisticsResponse> getVoucherStatistics();
+
+    /**
+     * Get the promotion statistics snapshot.
+     *
+     * @return the latest PromotionStatisticsResponse snapshot
+     */
+    StatisticsSnapshot<PromotionStatisticsResponse> getPromotionStatistics();
+
+    /**
+     * Get the category statistics snapshot.
+     *
+     * @return the latest CategoryStatisticsResponse snapshot
+     */
+    StatisticsSnapshot<CategoryStatisticsResponse> getCategoryStatistics();
+
+    /**
+     * Get all dashboard statistics snapshots at once.
+     *
+     * @return a DashboardStatisticsResponse containing every snapshot with its computation time
+     */
+    DashboardStatisticsResponse getDashboardStatistics();
+
+    /**
+     * Mark snapshots as stale so they are recomputed on the next refresh cycle or read.
+     *
+     * @param types the statistics affected by a write
+     */
+    void markStale(StatisticsType... types);
+}
@@ -8,6 +8,7 @@ package vn.edu.iuh.fit.services;
 
 import vn.edu.iuh.fit.dtos.response.TaxReportResponse;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 
 /*
@@ -27,29 +28,33 @@ public interface TaxReportService {
     TaxReportResponse getVATSalesReport(LocalDate startDate, LocalDate endDate);
 
     /**
-     * Generates an Excel file for the VAT sales report (Bảng kê bán ra 01-1/GTGT).
+     * Streams an Excel file for the VAT sales report (Bảng kê bán ra 01-1/GTGT) to the given output stream.
+     * Order lines are read through a database cursor and written row by row, so memory use does not grow
+     * with the size of the reporting period.
      *
-     * @param startDate The start date of the report range.
-     * @param endDate   The end date of the report range.
-     * @return A byte array representing the generated Excel file.
+     * @param startDate    The start date of the report range.
+     * @param endDate      The end date of the report range.
+     * @param outputStream The stream the generated Excel file is written to.
      */
-    byte[] generateVATForm011Excel(LocalDate startDate, LocalDate endDate);
+    void writeVATForm011Excel(LocalDate startDate, LocalDate endDate, OutputStream outputStream);
 
     /**
-     * Generates an Excel file for the VAT Form 04 report.
+     * Streams an Excel file for the VAT Form 04 report to the given output stream.
+     * The period totals are summed over the same order-line cursor as the 01-1/GTGT sales list.
      *
-     * @param startDate The start date of the report range.
-     * @param endDate   The end date of the report range.
-     * @return A byte array representing the generated Excel file for VAT Form 04.
+     * @param startDate    The start date of the report range.
+     * @param endDate      The end date of the report range.
+     * @param outputStream The stream the generated Excel file is written to.
      */
-    byte[] generateVATForm04Excel(LocalDate startDate, LocalDate endDate);
+    void writeVATForm04Excel(LocalDate startDate, LocalDate endDate, OutputStream outputStream);
 
     /**
-     * Generates an Excel file for the VAT Form 04A report.
+     * Streams an Excel file for the VAT Form 04A report to the given output stream.
+     * The period totals are summed over the same order-line cursor as the 01-1/GTGT sales list.
      *
-     * @param startDate The start date of the report range.
-     * @param endDate   The end date of the report range.
-     * @return A byte array representing the generated Excel file for VAT Form 04A.
+     * @param startDate    The start date of the report range.
+     * @param endDate      The end date of the report range.
+     * @param outputStream The stream the generated Excel file is written to.
      */
-    byte[] generateVATForm014AExcel(LocalDate startDate, LocalDate endDate);
+    void writeVATForm014AExcel(LocalDate startDate, LocalDate endDate, OutputStream outputStream);
 }
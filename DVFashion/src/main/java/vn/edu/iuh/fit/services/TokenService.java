@@ -29,8 +29,9 @@ public interface TokenService {
 
     /**
      * Find a token by its refresh token and check if it is not revoked.
+     * The lookup is done by the digest of the token, which is what is stored.
      *
-     * @param refreshToken the refresh token to search for
+     * @param refreshToken the raw refresh token to search for
      * @return an Optional containing the Token if found and not revoked, or empty if not found
      */
     Token findByRefreshTokenAndRevokedFalse(String refreshToken);
@@ -43,13 +44,14 @@ public interface TokenService {
     void revokeToken(Token token);
 
     /**
-     * Clean up expired tokens from the database.
-     * This method should be scheduled to run periodically to ensure that expired tokens are removed.
+     * Clean up expired and revoked tokens from the database.
+     * Runs frequently and deletes in small batches, so no long delete locks the table.
      */
     void cleanExpiredTokens();
 
     /**
      * Save a refresh token for a user.
+     * Only the newest sessions up to the configured maximum stay valid, older ones are revoked.
      *
      * @param user the user for whom the refresh token is being saved
      * @param refreshToken the refresh token to be saved
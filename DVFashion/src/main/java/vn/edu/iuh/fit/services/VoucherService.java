@@ -137,6 +137,13 @@ public interface VoucherService {
      */
     void recordUsage(Voucher voucher, User user, Order order);
 
+    /**
+     * Give back the voucher usage recorded for an order that was never paid.
+     *
+     * @param order the order whose voucher usage is released
+     */
+    void releaseUsage(Order order);
+
     /**
      * Get voucher statistics including total vouchers, active vouchers, and expired vouchers.
      *
@@ -8,15 +8,25 @@ package vn.edu.iuh.fit.services.impl;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import vn.edu.iuh.fit.config.AIChatConfig;
+import vn.edu.iuh.fit.exceptions.BadRequestException;
+import vn.edu.iuh.fit.exceptions.TooManyRequestsException;
 import vn.edu.iuh.fit.services.AIChatService;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
 
 /*
  * @description: Implementation of AIChatService to interact with AI chat functionalities
@@ -25,9 +35,14 @@ import java.util.Map;
  * @version:    1.0
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AIChatServiceImpl implements AIChatService {
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    // Marker some model servers send as the last event of a stream
+    private static final String DONE_MARKER = "[DONE]";
+
     @Value("#{ '${recommendation.service.url}' + '${web.base-path}' }")
     private String recommendationServiceUrl;
 
@@ -35,6 +50,22 @@ public class AIChatServiceImpl implements AIChatService {
 
     private final ObjectMapper mapper;
 
+    private final WebClient webClient;
+
+    private final AIChatConfig aiChatConfig;
+
+    // Bounds the number of open upstream streams
+    private final Semaphore streamPermits;
+
+    public AIChatServiceImpl(RestTemplate restTemplate, ObjectMapper mapper,
+                             WebClient.Builder webClientBuilder, AIChatConfig aiChatConfig) {
+        this.restTemplate = restTemplate;
+        this.mapper = mapper;
+        this.webClient = webClientBuilder.build();
+        this.aiChatConfig = aiChatConfig;
+        this.streamPermits = new Semaphore(aiChatConfig.getMaxConcurrentStreams());
+    }
+
     @Override
     public JsonNode sendToAI(String message) {
         String apiUrl = recommendationServiceUrl + "/chat";
@@ -53,4 +84,38 @@ public class AIChatServiceImpl implements AIChatService {
             throw new RuntimeException("AI service unavailable");
         }
     }
+
+    @Override
+    public Flux<String> streamFromAI(String message) {
+        if (message == null || message.isBlank()) {
+            throw new BadRequestException("Message cannot be empty");
+        }
+
+        String apiUrl = recommendationServiceUrl + aiChatConfig.getStreamPath();
+
+        // The permit is taken when the stream is subscribed and released exactly once when that subscription
+        // ends, whether it completes, fails, is cancelled by a disconnecting client or fails while being built
+        return Flux.using(this::acquireStreamPermit,
+                permit -> webClient.post()
+                        .uri(apiUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .bodyValue(Map.of("message", message))
+                        .retrieve()
+                        .bodyToFlux(SSE_TYPE)
+                        .timeout(Mono.delay(Duration.ofMillis(aiChatConfig.getFirstTokenTimeout())),
+                                event -> Mono.delay(Duration.ofMillis(aiChatConfig.getIdleTimeout())))
+                        .map(ServerSentEvent::data)
+                        .filter(Objects::nonNull)
+                        .takeWhile(data -> !DONE_MARKER.equals(data))
+                        .doOnError(e -> log.error("Error streaming from AI: {}", e.getMessage())),
+                permit -> streamPermits.release());
+    }
+
+    private Semaphore acquireStreamPermit() {
+        if (!streamPermits.tryAcquire()) {
+            throw new TooManyRequestsException("AI chat is busy, please try again later");
+        }
+        return streamPermits;
+    }
 }
@@ -13,6 +13,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import vn.edu.iuh.fit.dtos.response.SignInResponse;
 import vn.edu.iuh.fit.dtos.request.SignInRequest;
@@ -52,7 +54,10 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
 
-    private final AuthenticationManager authenticationManager;
+    private final PasswordEncoder passwordEncoder;
+
+    // Same account status checks DaoAuthenticationProvider runs before comparing passwords
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
 
     private final TokenRepository tokenRepository;
 
@@ -72,32 +77,25 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public SignInResponse signIn(SignInRequest signInRequest, HttpServletResponse response) {
         try {
-            // Check if username exists
+            // Load the user with roles and providers in one query
             String username = signInRequest.username();
 
-            boolean existsByUsername = userService.existsByEmail(username)
-                    || userService.existsByPhone(FormatPhoneNumber.normalizePhone(username));
-
-            if (!existsByUsername) {
-                throw new NotFoundException("Email or phone number does not exist. Please sign up first.");
-            }
-
             if (!username.contains("@")) {
                 username = FormatPhoneNumber.normalizePhone(username);
             }
 
-            User findUser= userRepository.findByUsernameAndDeleteFalse(username)
+            User user = userRepository.findForSignIn(username)
                     .orElseThrow(() -> new NotFoundException("Email or phone number does not exist. Please sign up first."));
 
-            if (!findUser.getTypeProviderAuths().contains(TypeProviderAuth.LOCAL)) {
+            if (!user.getTypeProviderAuths().contains(TypeProviderAuth.LOCAL)) {
                 throw new UnauthorizedException(
                         "This account was registered with Google. Please login with Google."
                 );
             }
 
-            // Authenticate user
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(signInRequest.username(), signInRequest.password()));
+            // Authenticate user against the loaded principal instead of loading it again
+            Authentication authentication = authenticate(
+                    UserDetailsImpl.build(user, signInRequest.username()), signInRequest.password());
 
             // Set authentication in the security context
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -112,14 +110,6 @@ public class AuthServiceImpl implements AuthService {
                     .map(item -> item.getAuthority())
                     .collect(Collectors.toList());
 
-            User user = userService.findById(userPrincipal.getId());
-
-            // Update user type provider auths
-            if (!user.getTypeProviderAuths().contains(TypeProviderAuth.LOCAL)) {
-                user.getTypeProviderAuths().add(TypeProviderAuth.LOCAL);
-                userRepository.save(user);
-            }
-
             // Save refresh token in the database
             tokenService.saveRefreshToken(user, refreshToken);
 
@@ -226,6 +216,17 @@ public class AuthServiceImpl implements AuthService {
 
     }
 
+    // Check account status and password of an already loaded principal
+    private Authentication authenticate(UserDetailsImpl principal, String rawPassword) {
+        userDetailsChecker.check(principal);
+
+        if (rawPassword == null || !passwordEncoder.matches(rawPassword, principal.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+    }
+
     // Check if the token is expired
     private boolean isTokenExpired(Instant expirationDate) {
         return Instant.now().isAfter(expirationDate);
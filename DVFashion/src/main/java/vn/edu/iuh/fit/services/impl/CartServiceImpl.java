@@ -15,11 +15,11 @@ import vn.edu.iuh.fit.dtos.request.AddToCartRequest;
 import vn.edu.iuh.fit.dtos.request.UpdateCartItemQuantityRequest;
 import vn.edu.iuh.fit.dtos.response.CartItemResponse;
 import vn.edu.iuh.fit.dtos.response.CartResponse;
+import vn.edu.iuh.fit.dtos.response.CartSummaryResponse;
 import vn.edu.iuh.fit.dtos.response.UserResponse;
 import vn.edu.iuh.fit.entities.*;
 import vn.edu.iuh.fit.enums.InteractionType;
 import vn.edu.iuh.fit.enums.Language;
-import vn.edu.iuh.fit.enums.OrderStatus;
 import vn.edu.iuh.fit.exceptions.CartLimitExceededException;
 import vn.edu.iuh.fit.exceptions.InsufficientStockException;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
@@ -28,7 +28,9 @@ import vn.edu.iuh.fit.mappers.ProductMapper;
 import vn.edu.iuh.fit.mappers.ShoppingCartMapper;
 import vn.edu.iuh.fit.repositories.*;
 import vn.edu.iuh.fit.services.CartService;
+import vn.edu.iuh.fit.services.CartViewCacheService;
 import vn.edu.iuh.fit.services.InventoryService;
+import vn.edu.iuh.fit.services.PromotionPriceIndexService;
 import vn.edu.iuh.fit.services.UserInteractionService;
 import vn.edu.iuh.fit.services.UserService;
 import vn.edu.iuh.fit.utils.LanguageUtils;
@@ -37,6 +39,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /*
@@ -72,8 +75,14 @@ public class CartServiceImpl implements CartService {
 
     private final PromotionProductRepository promotionProductRepository;
 
+    private final PromotionPriceIndexService promotionPriceIndexService;
+
     private final OrderItemRepository orderItemRepository;
 
+    private final CartItemMapper cartItemMapper;
+
+    private final CartViewCacheService cartViewCacheService;
+
     private static final int MAX_QUANTITY_PER_ITEM = 20;
     private static final int MAX_DIFFERENT_ITEMS_IN_CART = 70;
 
@@ -161,7 +170,8 @@ public class CartServiceImpl implements CartService {
                     null);
 
             Language currentLanguage = LanguageUtils.getCurrentLanguage();
-            return shoppingCartMapper.buildCartResponse(cart, currentLanguage);
+            return updateCartView(user.getId(), cart, view -> shoppingCartMapper.withItem(view,
+                    cartItemMapper.mapToCartItemResponse(cartItem, currentLanguage)));
 
         } catch (Exception e) {
             // If error occurs, release reserved stock
@@ -177,6 +187,13 @@ public class CartServiceImpl implements CartService {
         // Get user info
         UserResponse currentUserResponse = userService.getCurrentUser();
 
+        // Serve cached cart view if present
+        Language currentLanguage = LanguageUtils.getCurrentLanguage();
+        Optional<CartResponse> cachedCart = cartViewCacheService.get(currentUserResponse.getId(), currentLanguage);
+        if (cachedCart.isPresent()) {
+            return cachedCart.get();
+        }
+
         // Validate user exists
         User user = userRepository.findById(currentUserResponse.getId())
                 .orElseThrow(() -> new NotFoundException("User not found"));
@@ -195,8 +212,27 @@ public class CartServiceImpl implements CartService {
             );
         }
 
-        Language currentLanguage = LanguageUtils.getCurrentLanguage();
-        return shoppingCartMapper.buildCartResponse(cart, currentLanguage);
+        CartResponse cartResponse = shoppingCartMapper.buildCartResponse(cart, currentLanguage);
+        cartViewCacheService.put(user.getId(), currentLanguage, null, cartResponse);
+        return cartResponse;
+    }
+
+    @Override
+    public CartSummaryResponse getCartSummary() {
+        Long userId = userService.getCurrentUser().getId();
+
+        // Use cached cart view totals if present
+        Optional<CartResponse> cachedCart = cartViewCacheService.get(userId, LanguageUtils.getCurrentLanguage());
+        if (cachedCart.isPresent()) {
+            return new CartSummaryResponse(cachedCart.get().totalItems(), cachedCart.get().totalAmount());
+        }
+
+        // Aggregate in the database without hydrating cart lines
+        Object[] summary = cartItemRepository.summarizeByUserId(userId).get(0);
+        return new CartSummaryResponse(
+                ((Number) summary[0]).intValue(),
+                new BigDecimal(summary[1].toString())
+        );
     }
 
     @Override
@@ -269,8 +305,8 @@ public class CartServiceImpl implements CartService {
             log.info("Updated cart item {} quantity from {} to {} for user {}",
                     cartItemId, currentQuantity, newQuantity, user.getId());
 
-            Language currentLanguage = LanguageUtils.getCurrentLanguage();
-            return shoppingCartMapper.buildCartResponse(cartItem.getCart(), currentLanguage);
+            return updateCartView(user.getId(), cartItem.getCart(), view -> shoppingCartMapper.withItemQuantity(
+                    view, cartItemId, newQuantity, cartItem.getReservedUntil()));
 
         } catch (Exception e) {
             // Rollback stock changes if error occurs
@@ -307,8 +343,7 @@ public class CartServiceImpl implements CartService {
 
         log.info("Removed cart item {} for user {}", cartItemId, user.getId());
 
-        Language currentLanguage = LanguageUtils.getCurrentLanguage();
-        return shoppingCartMapper.buildCartResponse(cartItem.getCart(), currentLanguage);
+        return updateCartView(user.getId(), cartItem.getCart(), view -> shoppingCartMapper.withoutItem(view, cartItemId));
     }
 
     @Override
@@ -358,8 +393,7 @@ public class CartServiceImpl implements CartService {
 
         log.info("Cleared cart for user {} - removed {} items", user.getId(), cartItems.size());
 
-        Language currentLanguage = LanguageUtils.getCurrentLanguage();
-        return shoppingCartMapper.buildCartResponse(cart, currentLanguage);
+        return updateCartView(user.getId(), cart, view -> shoppingCartMapper.toCartResponse(cart.getId(), List.of()));
     }
 
     @Scheduled(cron = "0 0,30 * * * *") // Every hour at minute 0 and 30
@@ -380,6 +414,7 @@ public class CartServiceImpl implements CartService {
 
             // Delete cart item
             cartItemRepository.delete(item);
+            cartViewCacheService.evict(item.getCart().getUser().getId());
 
             log.info("Auto-released expired cart item {} for user {}", item.getId(), item.getCart().getUser().getId());
         }
@@ -387,9 +422,9 @@ public class CartServiceImpl implements CartService {
 
     // Validate promotion constraints when adding/updating cart items
     private void validatePromotionConstraints(Product product, Long userId, int requestedQuantity) {
-        // Kiểm tra sản phẩm có khuyến mãi đang hoạt động không
-        Optional<PromotionProduct> activePromotion = promotionProductRepository
-                .findActivePromotionForProduct(product.getId());
+        // Kiểm tra sản phẩm có khuyến mãi đang hoạt động không (tra cứu trong bộ nhớ)
+        Optional<PromotionProduct> activePromotion = promotionPriceIndexService.findActivePromotion(product.getId())
+                .flatMap(entry -> promotionProductRepository.findById(entry.promotionProductId()));
 
         if (activePromotion.isPresent()) {
             PromotionProduct promotionProduct = activePromotion.get();
@@ -402,13 +437,10 @@ public class CartServiceImpl implements CartService {
                         availablePromotionStock, requestedQuantity));
             }
 
-            // 2️⃣ Kiểm tra giới hạn số lượng mua mỗi người (chỉ tính đơn đã thanh toán)
+            // 2️⃣ Kiểm tra giới hạn số lượng mua mỗi người (tính các đơn chưa hủy đã dùng suất khuyến mãi)
             if (promotionProduct.getMaxQuantityPerUser() != null) {
-                int userPurchasedQuantity = orderItemRepository.countUserPurchasedQuantityForPromotionProduct(
-                        userId,
-                        product.getId(),
-                        List.of(OrderStatus.DELIVERED.name(), OrderStatus.CONFIRMED.name(), OrderStatus.PROCESSING.name())
-                );
+                int userPurchasedQuantity = orderItemRepository.sumQuantityByUserAndPromotionProduct(
+                        userId, promotionProduct.getId());
 
                 int totalUserQuantity = userPurchasedQuantity + requestedQuantity;
 
@@ -478,8 +510,9 @@ public class CartServiceImpl implements CartService {
                     existingItem.getId(), currentQuantity, newTotalQuantity,
                     existingItem.getCart().getUser().getId());
 
-            Language currentLanguage = LanguageUtils.getCurrentLanguage();
-            return shoppingCartMapper.buildCartResponse(existingItem.getCart(), currentLanguage);
+            return updateCartView(existingItem.getCart().getUser().getId(), existingItem.getCart(),
+                    view -> shoppingCartMapper.withItemQuantity(view, existingItem.getId(), newTotalQuantity,
+                            existingItem.getReservedUntil()));
 
         } catch (Exception e) {
             // Rollback reserved stock if error occurs
@@ -490,6 +523,19 @@ public class CartServiceImpl implements CartService {
         }
     }
 
+    // Apply a mutation to the cached cart view, or rebuild the view in batch if it is not cached
+    private CartResponse updateCartView(Long userId, ShoppingCart cart, UnaryOperator<CartResponse> change) {
+        Language currentLanguage = LanguageUtils.getCurrentLanguage();
+        CartResponse previous = cartViewCacheService.get(userId, currentLanguage).orElse(null);
+
+        CartResponse cartResponse = previous != null
+                ? change.apply(previous)
+                : shoppingCartMapper.buildCartResponse(cart, currentLanguage);
+
+        cartViewCacheService.put(userId, currentLanguage, previous, cartResponse);
+        return cartResponse;
+    }
+
     // Get existing cart or create new one
     private ShoppingCart getOrCreateCart(User user) {
         return shoppingCartRepository.findByUserId(user.getId())
@@ -0,0 +1,116 @@
+/*
+ * @ {#} CartViewCacheServiceImpl.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.edu.iuh.fit.config.CartViewCacheConfig;
+import vn.edu.iuh.fit.dtos.response.CartResponse;
+import vn.edu.iuh.fit.enums.Language;
+import vn.edu.iuh.fit.services.CartViewCacheService;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * @description: In-memory implementation of the per-user cart view cache. Entries live on the heap of one instance
+ *               and a cart changed through another instance is not evicted here, so the cache must be disabled
+ *               (cart.view-cache.enabled=false) when more than one instance serves carts
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Service
+@RequiredArgsConstructor
+public class CartViewCacheServiceImpl implements CartViewCacheService {
+    private final CartViewCacheConfig config;
+
+    private final Map<Long, CachedCart> cache = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<CartResponse> get(Long userId, Language language) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+
+        CachedCart cached = cache.get(userId);
+        if (cached == null || cached.language() != language) {
+            return Optional.empty();
+        }
+
+        if (cached.expiresAt().isBefore(Instant.now())) {
+            cache.remove(userId, cached);
+            return Optional.empty();
+        }
+
+        return Optional.of(cached.cart());
+    }
+
+    @Override
+    public void put(Long userId, Language language, CartResponse previous, CartResponse cart) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store(userId, language, previous, cart);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    store(userId, language, previous, cart);
+                } else {
+                    cache.remove(userId);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void evict(Long userId) {
+        cache.remove(userId);
+
+        // Evict again once the transaction ends, so a concurrent read cannot re-cache the old cart
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.remove(userId);
+                }
+            });
+        }
+    }
+
+    private void store(Long userId, Language language, CartResponse previous, CartResponse cart) {
+        if (cache.size() >= config.getMaxEntries()) {
+            Instant now = Instant.now();
+            cache.values().removeIf(cached -> cached.expiresAt().isBefore(now));
+            if (cache.size() >= config.getMaxEntries()) {
+                cache.remove(userId);
+                return;
+            }
+        }
+
+        // Compare-and-set against the view the new one was derived from
+        cache.compute(userId, (id, current) -> {
+            CartResponse currentCart = current != null ? current.cart() : null;
+            if (currentCart != previous) {
+                return null;
+            }
+            return new CachedCart(language, cart, Instant.now().plus(config.getTtl()));
+        });
+    }
+
+    private record CachedCart(Language language, CartResponse cart, Instant expiresAt) {}
+}
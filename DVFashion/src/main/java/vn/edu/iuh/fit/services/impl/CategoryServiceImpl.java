@@ -7,6 +7,7 @@
 package vn.edu.iuh.fit.services.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +25,8 @@ import vn.edu.iuh.fit.entities.Category;
 import vn.edu.iuh.fit.entities.CategoryTranslation;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.enums.ProductStatus;
+import vn.edu.iuh.fit.enums.StatisticsType;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
 import vn.edu.iuh.fit.exceptions.AlreadyExistsException;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.mappers.CategoryMapper;
@@ -52,6 +55,8 @@ import java.util.Map;
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     private  final CloudinaryService cloudinaryService;
 
     private final CategoryTranslationRepository translationRepository;
@@ -116,6 +121,8 @@ public class CategoryServiceImpl implements CategoryService {
                 .build();
         translationRepository.save(translatedTranslation );
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.CATEGORY));
+
         // Map the saved entity back to the response DTO
         return categoryMapper.toResponse(category, inputLang);
     }
@@ -183,6 +190,8 @@ public class CategoryServiceImpl implements CategoryService {
         // Save the updated category
         categoryRepository.save(category);
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.CATEGORY));
+
         // Map the updated entity back to the response DTO
         return categoryMapper.toResponse(category, language);
     }
@@ -223,6 +232,8 @@ public class CategoryServiceImpl implements CategoryService {
 
         // Save the updated category
         categoryRepository.save(category);
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.CATEGORY));
     }
 
     @Override
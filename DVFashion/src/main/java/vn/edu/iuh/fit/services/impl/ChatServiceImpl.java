@@ -8,16 +8,17 @@ package vn.edu.iuh.fit.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import vn.edu.iuh.fit.dtos.request.CreateChatRoomRequest;
 import vn.edu.iuh.fit.dtos.request.SendMessageRequest;
+import vn.edu.iuh.fit.dtos.response.ChatMessageHistoryResponse;
 import vn.edu.iuh.fit.dtos.response.ChatMessageResponse;
+import vn.edu.iuh.fit.dtos.response.ChatRoomRef;
 import vn.edu.iuh.fit.dtos.response.ChatRoomResponse;
 import vn.edu.iuh.fit.dtos.response.UserResponse;
 import vn.edu.iuh.fit.entities.*;
@@ -34,9 +35,9 @@ import vn.edu.iuh.fit.services.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
  * @description: Service implementation for chat functionalities
@@ -60,6 +61,22 @@ public class ChatServiceImpl implements ChatService {
 
     private final UserRepository userRepository;
 
+    private static final int MAX_CACHED_ROOMS = 10_000;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    // Room code -> room id cache, a room's code, id and guest name never change once created
+    private final Map<String, ChatRoomRef> roomRefCache = new ConcurrentHashMap<>();
+
+    // Rooms created before the last-message pointer existed get it filled in once
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLastMessages() {
+        int updated = chatRoomRepository.backfillLastMessages();
+        if (updated > 0) {
+            log.info("Backfilled last message pointer of {} chat rooms", updated);
+        }
+    }
+
     @Override
     @Transactional
     public ChatRoomResponse createGuestChatRoom(CreateChatRoomRequest request, Language language) {
@@ -118,44 +135,53 @@ public class ChatServiceImpl implements ChatService {
     }
 
     @Override
-    public List<ChatMessageResponse> getChatMessages(String roomCode, int page, int size, Language language) {
-        ChatRoom chatRoom = chatRoomRepository.findByRoomCode(roomCode)
-                .orElseThrow(() -> new NotFoundException("Chat room not found with code: " + roomCode));
+    @Transactional(readOnly = true)
+    public ChatMessageHistoryResponse getChatMessages(String roomCode, Long before, int size, Language language) {
+        ChatRoomRef room = findRoomRef(roomCode);
+
+        int limit = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        long beforeId = before != null ? before : Long.MAX_VALUE;
+
+        // Fetch one extra message to know whether older messages exist, without a count query
+        List<ChatMessage> messages = chatMessageRepository.findHistory(room.id(), beforeId, PageRequest.of(0, limit + 1));
+        boolean hasMore = messages.size() > limit;
+        if (hasMore) {
+            messages = messages.subList(0, limit);
+        }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<ChatMessage> messagesPage = chatMessageRepository.findByChatRoomOrderByCreatedAtDesc(chatRoom, pageable);
+        // Attachments of all non-text messages in one query instead of one per message
+        List<Long> attachmentMessageIds = messages.stream()
+                .filter(message -> message.getMessageType() != MessageType.TEXT)
+                .map(ChatMessage::getId)
+                .toList();
+        if (!attachmentMessageIds.isEmpty()) {
+            chatMessageRepository.fetchAttachments(attachmentMessageIds);
+        }
 
-        return messagesPage.getContent().stream()
-                .map(message -> chatMapper.mapToMessageResponse(message, language))
+        List<ChatMessageResponse> responses = messages.stream()
+                .map(message -> chatMapper.mapToMessageResponse(message, getSenderName(room, message), language))
                 .toList();
+
+        Long nextCursor = hasMore ? messages.get(messages.size() - 1).getId() : null;
+
+        return new ChatMessageHistoryResponse(responses, nextCursor, hasMore);
     }
 
     @Override
     @Transactional
     public ChatMessageResponse sendMessage(String roomCode, SendMessageRequest request, Language language) {
-        ChatRoom chatRoom = chatRoomRepository.findByRoomCode(roomCode)
-                .orElseThrow(() -> new NotFoundException("Chat room not found with code: " + roomCode));
-
-        User user = null;
-        MessageSender senderType;
+        ChatRoomRef room = findRoomRef(roomCode);
 
-        try {
-            // If logged in
-            UserResponse currentUser = userService.getCurrentUser();
-            user = userRepository.findById(currentUser.getId())
-                    .orElseThrow(() -> new NotFoundException("User not found with id: " + currentUser.getId()));
-            senderType = determineSenderType(user, chatRoom);
-
-        } catch (Exception ex) {
-            // If not logged in
-            senderType = MessageSender.GUEST;
+        // If not logged in, the message is sent as a guest
+        UserResponse currentUser = findCurrentUser();
+        if (currentUser == null) {
             log.warn("Guest user is sending message to room {}", roomCode);
         }
-
+        MessageSender senderType = determineSenderType(currentUser);
 
         ChatMessage message = ChatMessage.builder()
-                .chatRoom(chatRoom)
-                .sender(user)
+                .chatRoom(chatRoomRepository.getReferenceById(room.id()))
+                .sender(currentUser != null ? userRepository.getReferenceById(currentUser.getId()) : null)
                 .senderType(senderType)
                 .messageType(MessageType.TEXT)
                 .content(request.content())
@@ -165,18 +191,17 @@ public class ChatServiceImpl implements ChatService {
         message = chatMessageRepository.save(message);
 
         // Update chat room
-        updateChatRoomAfterMessage(chatRoom, message);
+        updateChatRoomAfterMessage(room, message);
 
         log.info("Message sent in room {} by {}", roomCode, senderType);
 
-        return chatMapper.mapToMessageResponse(message, language);
+        return chatMapper.mapToMessageResponse(message, getSenderName(room, currentUser, senderType), language);
     }
 
     @Override
     @Transactional
     public ChatMessageResponse sendMessageWithAttachment(String roomCode, String content, MultipartFile file, Language language) {
-        ChatRoom chatRoom = chatRoomRepository.findByRoomCode(roomCode)
-                .orElseThrow(() -> new NotFoundException("Chat room not found with code: " + roomCode));
+        ChatRoomRef room = findRoomRef(roomCode);
 
         // Validate file
         validateFile(file);
@@ -184,24 +209,17 @@ public class ChatServiceImpl implements ChatService {
         // Upload file
         String fileUrl = fileUploadService.uploadFile(file, "chat-attachments");
 
-        User user = null;
-        MessageSender senderType;
-
-        try {
-            UserResponse currentUser = userService.getCurrentUser();
-            user = userRepository.findById(currentUser.getId())
-                    .orElseThrow(() -> new NotFoundException("User not found with id: " + currentUser.getId()));
-            senderType = determineSenderType(user, chatRoom);
-        } catch (Exception e) {
-            senderType = MessageSender.GUEST;
+        UserResponse currentUser = findCurrentUser();
+        if (currentUser == null) {
             log.warn("Guest user is uploading attachment in room {}", roomCode);
         }
+        MessageSender senderType = determineSenderType(currentUser);
 
         MessageType messageType = determineMessageType(file);
 
         ChatMessage message = ChatMessage.builder()
-                .chatRoom(chatRoom)
-                .sender(user)
+                .chatRoom(chatRoomRepository.getReferenceById(room.id()))
+                .sender(currentUser != null ? userRepository.getReferenceById(currentUser.getId()) : null)
                 .senderType(senderType)
                 .messageType(messageType)
                 .content(content)
@@ -223,49 +241,35 @@ public class ChatServiceImpl implements ChatService {
         message.getAttachments().add(attachment);
 
         // Update chat room
-        updateChatRoomAfterMessage(chatRoom, message);
+        updateChatRoomAfterMessage(room, message);
 
         log.info("Message with attachment sent in room {} by {}", roomCode, senderType);
 
-        return chatMapper.mapToMessageResponse(message, language);
+        return chatMapper.mapToMessageResponse(message, getSenderName(room, currentUser, senderType), language);
     }
 
     @Override
     @Transactional
     public void markMessagesAsRead(String roomCode) {
-        ChatRoom chatRoom = chatRoomRepository.findByRoomCode(roomCode)
-                .orElseThrow(() -> new NotFoundException("Chat room not found with code: " + roomCode));
-
-        User user = null;
-        MessageSender senderType;
+        ChatRoomRef room = findRoomRef(roomCode);
 
-        try {
-            UserResponse currentUser = userService.getCurrentUser();
-            user = userRepository.findById(currentUser.getId())
-                    .orElseThrow(() -> new NotFoundException("User not found with id: " + currentUser.getId()));
-            senderType = determineSenderType(user, chatRoom);
-        } catch (Exception e) {
-            senderType = MessageSender.GUEST;
-            log.warn("Guest user is uploading attachment in room {}", roomCode);
-        }
+        MessageSender senderType = determineSenderType(findCurrentUser());
 
         if (senderType == MessageSender.ADMIN) {
-            chatMessageRepository.markAsReadByAdmin(chatRoom.getId());
-            chatRoom.setUnreadAdminCount(0);
+            chatMessageRepository.markAsReadByAdmin(room.id());
+            chatRoomRepository.resetUnreadAdminCount(room.id());
         } else {
-            chatMessageRepository.markAsReadByCustomer(chatRoom.getId());
-            chatRoom.setUnreadCustomerCount(0);
+            chatMessageRepository.markAsReadByCustomer(room.id());
+            chatRoomRepository.resetUnreadCustomerCount(room.id());
         }
-
-        chatRoomRepository.save(chatRoom);
     }
 
     @Override
     public List<ChatRoomResponse> getAdminChatRooms(int page, int size, Language language) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("lastMessageAt").descending());
-        Page<ChatRoom> roomsPage = chatRoomRepository.findByStatusOrderByLastMessageAtDesc(ChatRoomStatus.ACTIVE, pageable);
+        // Rooms, customers and last messages come from a single query
+        List<ChatRoom> rooms = chatRoomRepository.findRoomListByStatus(ChatRoomStatus.ACTIVE, PageRequest.of(page, size));
 
-        return roomsPage.getContent().stream()
+        return rooms.stream()
                 .map(room -> chatMapper.mapToResponse(room, language))
                 .toList();
     }
@@ -287,28 +291,56 @@ public class ChatServiceImpl implements ChatService {
         return "CHAT_" + UUID.randomUUID().toString().replace("-", "").substring(0, 10).toUpperCase();
     }
 
-    private MessageSender determineSenderType(User user, ChatRoom chatRoom) {
-        if (user == null) {
-            return MessageSender.GUEST;
+    private ChatRoomRef findRoomRef(String roomCode) {
+        ChatRoomRef cached = roomRefCache.get(roomCode);
+        if (cached != null) {
+            return cached;
+        }
+
+        ChatRoomRef room = chatRoomRepository.findRefByRoomCode(roomCode)
+                .orElseThrow(() -> new NotFoundException("Chat room not found with code: " + roomCode));
+
+        if (roomRefCache.size() >= MAX_CACHED_ROOMS) {
+            roomRefCache.clear();
+        }
+        roomRefCache.put(roomCode, room);
+        return room;
+    }
+
+    // Get the logged in user, or null for guests
+    private UserResponse findCurrentUser() {
+        try {
+            return userService.getCurrentUser();
+        } catch (Exception ex) {
+            return null;
         }
+    }
 
-        Set<Role> roles = user.getRoles();
+    private MessageSender determineSenderType(UserResponse user) {
+        if (user == null || user.getRoles() == null) {
+            return MessageSender.GUEST;
+        }
 
-        boolean isAdmin = roles.stream()
-                .anyMatch(role -> role.getName() == UserRole.ADMIN);
-        if (isAdmin) {
+        if (user.getRoles().contains("ROLE_" + UserRole.ADMIN.name())) {
             return MessageSender.ADMIN;
         }
 
-        boolean isCustomer = roles.stream()
-                .anyMatch(role -> role.getName() == UserRole.CUSTOMER);
-        if (isCustomer) {
+        if (user.getRoles().contains("ROLE_" + UserRole.CUSTOMER.name())) {
             return MessageSender.CUSTOMER;
         }
 
         return MessageSender.GUEST;
     }
 
+    private String getSenderName(ChatRoomRef room, UserResponse user, MessageSender senderType) {
+        return chatMapper.getSenderName(senderType, user != null ? user.getFullName() : null, room.guestName());
+    }
+
+    private String getSenderName(ChatRoomRef room, ChatMessage message) {
+        String customerName = message.getSender() != null ? message.getSender().getFullName() : null;
+        return chatMapper.getSenderName(message.getSenderType(), customerName, room.guestName());
+    }
+
     private MessageType determineMessageType(MultipartFile file) {
         String contentType = file.getContentType();
         if (contentType != null) {
@@ -352,16 +384,18 @@ public class ChatServiceImpl implements ChatService {
         }
     }
 
-    private void updateChatRoomAfterMessage(ChatRoom chatRoom, ChatMessage message) {
-        chatRoom.setLastMessageAt(LocalDateTime.now());
+    private void updateChatRoomAfterMessage(ChatRoomRef room, ChatMessage message) {
+        // Update unread counts atomically in the database, so concurrent messages do not lose increments
+        boolean fromAdmin = message.getSenderType() == MessageSender.ADMIN;
+        LocalDateTime sentAt = LocalDateTime.now();
+        int updated = chatRoomRepository.recordNewMessage(room.id(), sentAt, fromAdmin ? 0 : 1, fromAdmin ? 1 : 0);
 
-        // Update unread counts
-        if (message.getSenderType() == MessageSender.ADMIN) {
-            chatRoom.setUnreadCustomerCount(chatRoom.getUnreadCustomerCount() + 1);
-        } else {
-            chatRoom.setUnreadAdminCount(chatRoom.getUnreadAdminCount() + 1);
+        if (updated == 0) {
+            roomRefCache.values().remove(room);
+            throw new NotFoundException("Chat room not found with id: " + room.id());
         }
 
-        chatRoomRepository.save(chatRoom);
+        // The room row is locked by the update above, the pointer only moves if no newer message got there first
+        chatRoomRepository.advanceLastMessage(room.id(), message, message.getId(), sentAt);
     }
 }
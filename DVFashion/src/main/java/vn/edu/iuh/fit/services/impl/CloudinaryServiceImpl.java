@@ -8,14 +8,40 @@ package vn.edu.iuh.fit.services.impl;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.w3c.dom.Node;
+import vn.edu.iuh.fit.config.ImageUploadConfig;
+import vn.edu.iuh.fit.dtos.response.UploadedImageUrls;
+import vn.edu.iuh.fit.exceptions.BadRequestException;
 import vn.edu.iuh.fit.services.CloudinaryService;
+import vn.edu.iuh.fit.utils.FileUtils;
 
+import javax.imageio.*;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.Map;
-import java.util.Objects;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * @description: Service implementation for handling Cloudinary image uploads
@@ -24,10 +50,31 @@ import java.util.Objects;
  * @version:    1.0
  */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class CloudinaryServiceImpl implements CloudinaryService {
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
     private final Cloudinary cloudinary;
 
+    private final ImageUploadConfig config;
+
+    // Bounded pool so a large batch cannot open more Cloudinary connections than configured
+    private final ExecutorService uploadExecutor;
+
+    public CloudinaryServiceImpl(Cloudinary cloudinary, ImageUploadConfig config, MeterRegistry meterRegistry) {
+        this.cloudinary = cloudinary;
+        this.config = config;
+        AtomicInteger uploadThreadCount = new AtomicInteger();
+        this.uploadExecutor = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(Math.max(1, config.getMaxConcurrentUploads()), runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + uploadThreadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }), "image.upload");
+    }
+
     @Override
     public String uploadImage(MultipartFile file) {
         String contentType = file.getContentType();
@@ -39,13 +86,265 @@ public class CloudinaryServiceImpl implements CloudinaryService {
             throw new IllegalArgumentException("File is not an image");
         }
 
+        Path tempFile = null;
         try {
-            // Upload the image to Cloudinary and return the secure URL
-            Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(),
-                    ObjectUtils.asMap("resource_type", "auto"));
-            return uploadResult.get("secure_url").toString();
+            // Upload the image to Cloudinary from disk and return the secure URL
+            tempFile = FileUtils.copyToTempFile(file, "image-");
+            return upload(tempFile);
         } catch (IOException e) {
             throw new RuntimeException("Upload image to Cloudinary failed", e);
+        } finally {
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public UploadedImageUrls uploadImageWithDerivatives(MultipartFile file) {
+        return uploadImagesWithDerivatives(List.of(file)).get(0);
+    }
+
+    @Override
+    public List<UploadedImageUrls> uploadImagesWithDerivatives(List<MultipartFile> files) {
+        List<Path> tempFiles = new ArrayList<>(files.size());
+        try {
+            // Spool every part to disk on the request thread, workers then only read local files
+            for (MultipartFile file : files) {
+                tempFiles.add(FileUtils.copyToTempFile(file, "image-"));
+            }
+
+            List<CompletableFuture<UploadedImageUrls>> uploads = tempFiles.stream()
+                    .map(tempFile -> CompletableFuture.supplyAsync(() -> uploadWithDerivatives(tempFile), uploadExecutor))
+                    .toList();
+
+            // Wait for every upload before the temporary files are removed, even if one of them failed
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                    .exceptionally(ex -> null)
+                    .join();
+
+            return uploads.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read uploaded image: " + e.getMessage());
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Error uploading images to Cloudinary", cause);
+            throw new RuntimeException("Upload image to Cloudinary failed", cause);
+        } finally {
+            tempFiles.forEach(FileUtils::deleteQuietly);
         }
     }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
+
+    // Upload the original and its resized derivatives, runs on the upload pool
+    private UploadedImageUrls uploadWithDerivatives(Path source) {
+        try {
+            String imageUrl = upload(source);
+
+            BufferedImage image = decode(source, imageUrl);
+            if (image == null) {
+                // Every rendition falls back to the original
+                return UploadedImageUrls.of(imageUrl);
+            }
+
+            return new UploadedImageUrls(
+                    imageUrl,
+                    uploadDerivative(image, config.getThumbnailWidth()),
+                    uploadDerivative(image, config.getCardWidth()),
+                    uploadDerivative(image, config.getDetailWidth())
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Decode the image upright, or return null when no derivatives can be generated from it
+    private BufferedImage decode(Path source, String imageUrl) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                // Format ImageIO cannot decode (e.g. WebP)
+                log.warn("Could not decode {} to generate derivatives, using the original image", imageUrl);
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+
+                // The header gives the size without decoding the pixels, a huge image would exhaust the heap
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > config.getMaxSourcePixels()) {
+                    log.warn("Image {} has {} pixels, more than the {} allowed for derivatives, using the original image",
+                            imageUrl, pixels, config.getMaxSourcePixels());
+                    return null;
+                }
+
+                BufferedImage image = reader.read(0);
+                return applyOrientation(image, readExifOrientation(reader));
+            } catch (IOException | RuntimeException e) {
+                // Encodings the decoder does not support, e.g. CMYK JPEGs, or a corrupt file
+                log.warn("Could not decode {} to generate derivatives, using the original image: {}",
+                        imageUrl, e.getMessage());
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Read the EXIF orientation of a JPEG (1 = upright), ImageIO decodes the pixels as stored
+    private int readExifOrientation(ImageReader reader) {
+        IIOMetadata metadata;
+        try {
+            metadata = reader.getImageMetadata(0);
+        } catch (IOException e) {
+            // Marker layouts the metadata parser rejects still decode, the image is then used as stored
+            log.debug("Could not read image metadata: {}", e.getMessage());
+            return 1;
+        }
+        if (metadata == null || !Arrays.asList(metadata.getMetadataFormatNames()).contains(JPEG_METADATA_FORMAT)) {
+            return 1;
+        }
+
+        Node markers = ((IIOMetadataNode) metadata.getAsTree(JPEG_METADATA_FORMAT))
+                .getElementsByTagName("markerSequence").item(0);
+        for (Node marker = markers != null ? markers.getFirstChild() : null; marker != null; marker = marker.getNextSibling()) {
+            if (marker instanceof IIOMetadataNode node
+                    && "unknown".equals(node.getNodeName())
+                    && "225".equals(node.getAttribute("MarkerTag"))
+                    && node.getUserObject() instanceof byte[] app1) {
+                int orientation = parseExifOrientation(app1);
+                if (orientation != 0) {
+                    return orientation;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Find the orientation tag in IFD0 of an APP1 "Exif" segment, 0 when it is not there
+    private int parseExifOrientation(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+            return 0;
+        }
+
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        try {
+            int ifd = tiff.getInt(4);
+            int entries = tiff.getShort(ifd) & 0xFFFF;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if ((tiff.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION_TAG) {
+                    int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                    return orientation >= 1 && orientation <= 8 ? orientation : 0;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            log.debug("Malformed EXIF segment: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    // Turn the image the way the EXIF orientation says it is meant to be displayed
+    private BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);       // Mirrored horizontally
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height); // Rotated 180°
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);      // Mirrored vertically
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);            // Transposed
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);      // Rotated 90° clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width); // Transversed
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);       // Rotated 90° counter-clockwise
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+
+        boolean swapsSides = orientation >= 5;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage oriented = new BufferedImage(swapsSides ? height : width, swapsSides ? width : height, type);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    // Resize the image to the given width, encode it to a temporary file and upload it
+    private String uploadDerivative(BufferedImage image, int targetWidth) throws IOException {
+        BufferedImage resized = resize(image, targetWidth);
+        boolean hasAlpha = resized.getColorModel().hasAlpha();
+
+        Path tempFile = Files.createTempFile("image-derivative-", hasAlpha ? ".png" : ".jpg");
+        try {
+            if (hasAlpha) {
+                ImageIO.write(resized, "png", tempFile.toFile());
+            } else {
+                writeJpeg(resized, tempFile);
+            }
+            return upload(tempFile);
+        } finally {
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    // Downscale in halving steps first, a single bicubic pass over a large reduction loses detail
+    private BufferedImage resize(BufferedImage source, int targetWidth) {
+        int width = Math.min(targetWidth, source.getWidth());
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth != width || currentHeight != height);
+
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(config.getJpegQuality());
+
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Cloudinary streams a File from disk instead of requiring the whole content as a byte array
+    private String upload(Path file) throws IOException {
+        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.toFile(),
+                ObjectUtils.asMap("resource_type", "auto"));
+        return uploadResult.get("secure_url").toString();
+    }
 }
@@ -14,8 +14,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import vn.edu.iuh.fit.exceptions.BadRequestException;
 import vn.edu.iuh.fit.services.FileUploadService;
+import vn.edu.iuh.fit.utils.FileUtils;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.UUID;
 
@@ -34,6 +36,7 @@ public class FileUploadServiceImpl implements FileUploadService {
 
     @Override
     public String uploadFile(MultipartFile file, String folder) {
+        Path tempFile = null;
         try {
             // Generate unique filename
             String originalFilename = file.getOriginalFilename();
@@ -55,8 +58,9 @@ public class FileUploadServiceImpl implements FileUploadService {
                     "overwrite", false
             );
 
-            // Perform upload
-            Map<String, Object> uploadResult = cloudinary.uploader().upload(file.getBytes(), uploadOptions);
+            // Perform upload, streamed from disk instead of loading the whole file into memory
+            tempFile = FileUtils.copyToTempFile(file, "upload-");
+            Map<String, Object> uploadResult = cloudinary.uploader().upload(tempFile.toFile(), uploadOptions);
 
             String uploadedUrl = (String) uploadResult.get("secure_url");
             log.info("File uploaded successfully: {}", uploadedUrl);
@@ -66,6 +70,8 @@ public class FileUploadServiceImpl implements FileUploadService {
         } catch (IOException e) {
             log.error("Error uploading file to Cloudinary", e);
             throw new BadRequestException("Failed to upload file: " + e.getMessage());
+        } finally {
+            FileUtils.deleteQuietly(tempFile);
         }
     }
 
@@ -9,13 +9,12 @@ package vn.edu.iuh.fit.services.impl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import vn.edu.iuh.fit.dtos.response.RevenueDataPoint;
-import vn.edu.iuh.fit.enums.OrderStatus;
-import vn.edu.iuh.fit.repositories.OrderRepository;
+import vn.edu.iuh.fit.entities.DailySalesRollup;
+import vn.edu.iuh.fit.repositories.DailySalesRollupRepository;
 import vn.edu.iuh.fit.services.InternalRevenueTimeSeriesService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -30,27 +29,15 @@ import java.util.Map;
 @Service
 @RequiredArgsConstructor
 public class InternalRevenueTimeSeriesServiceImpl implements InternalRevenueTimeSeriesService {
-    private final OrderRepository orderRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
 
     @Override
     public List<RevenueDataPoint> getFullDailyRevenue(LocalDate start, LocalDate end) {
-        // Convert LocalDate to LocalDateTime for start and end of the day
-        LocalDateTime startDt = start.atStartOfDay();
-        LocalDateTime endDt   = end.atTime(23, 59, 59);
-
-        // Fetch raw data from repository
-        List<Object[]> rawList = orderRepository.fetchDailyRevenueSeries(
-                OrderStatus.DELIVERED,
-                startDt,
-                endDt
-        );
-
-        // Insert into map to fill missing days
+        // Read one pre-aggregated row per day instead of scanning all delivered orders.
+        // The forecasting series includes shipping fees.
         Map<LocalDate, BigDecimal> map = new LinkedHashMap<>();
-        for (Object[] row : rawList) {
-            LocalDate day = ((java.sql.Date) row[0]).toLocalDate();
-            BigDecimal revenue = (BigDecimal) row[1];
-            map.put(day, revenue);
+        for (DailySalesRollup rollup : dailySalesRollupRepository.findBySalesDateBetweenOrderBySalesDateAsc(start, end)) {
+            map.put(rollup.getSalesDate(), rollup.getRevenue().add(rollup.getShippingFee()));
         }
 
         // Fill missing dates
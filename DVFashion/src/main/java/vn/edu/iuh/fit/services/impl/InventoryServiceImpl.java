@@ -6,9 +6,13 @@
 
 package vn.edu.iuh.fit.services.impl;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import vn.edu.iuh.fit.dtos.request.ExportStockRequest;
 import vn.edu.iuh.fit.dtos.request.ImportStockRequest;
@@ -19,6 +23,8 @@ import vn.edu.iuh.fit.dtos.response.UserResponse;
 import vn.edu.iuh.fit.entities.*;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.enums.StockTransactionType;
+import vn.edu.iuh.fit.enums.StatisticsType;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
 import vn.edu.iuh.fit.exceptions.InsufficientStockException;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.mappers.InventoryMapper;
@@ -30,6 +36,7 @@ import vn.edu.iuh.fit.services.InventoryService;
 import vn.edu.iuh.fit.services.UserService;
 import vn.edu.iuh.fit.utils.LanguageUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,10 +63,15 @@ public class InventoryServiceImpl implements InventoryService {
 
     private final SizeRepository sizeRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
     @Override
+    @Timed(value = "inventory.reserve", description = "Time to reserve stock for a size", histogram = true)
     public boolean reserveStock(Long sizeId, int quantity, String referenceNumber, User user) {
         // Find inventory with pessimistic lock
-        Optional<Inventory> inventoryOpt = inventoryRepository.findBySizeIdWithLock(sizeId);
+        Optional<Inventory> inventoryOpt = findBySizeIdWithLock(sizeId);
 
         // If inventory not found
         if (inventoryOpt.isEmpty()) {
@@ -101,7 +113,7 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     public void releaseReservedStock(Long sizeId, int quantity, String referenceNumber, User user) {
         // Find inventory with pessimistic lock
-        Optional<Inventory> inventoryOpt = inventoryRepository.findBySizeIdWithLock(sizeId);
+        Optional<Inventory> inventoryOpt = findBySizeIdWithLock(sizeId);
 
         // If inventory found, release reserved stock
         if (inventoryOpt.isPresent()) {
@@ -149,7 +161,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new NotFoundException("User not found "+ currentUserResponse.getId()));
 
         // Get or create inventory with lock
-        Inventory inventory = inventoryRepository.findBySizeIdWithLock(request.sizeId())
+        Inventory inventory = findBySizeIdWithLock(request.sizeId())
                 .orElseGet(() -> createInventoryForSize(size));
 
         // Generate reference number
@@ -178,6 +190,8 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Imported {} units for size {} (old: {}, new: {})",
                 request.quantity(), request.sizeId(), oldQuantity, inventory.getQuantityInStock());
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.INVENTORY, StatisticsType.PRODUCT));
+
         Language currentLanguage = LanguageUtils.getCurrentLanguage();
         return inventoryMapper.mapToInventoryResponse(inventory, currentLanguage);
     }
@@ -194,7 +208,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
         // Get inventory with lock
-        Inventory inventory = inventoryRepository.findBySizeIdWithLock(request.sizeId())
+        Inventory inventory = findBySizeIdWithLock(request.sizeId())
                 .orElseThrow(() -> new NotFoundException("Inventory not found for size"));
 
         // Check available quantity (excluding reserved)
@@ -228,6 +242,8 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Exported {} units for size {} (old: {}, new: {})",
                 request.quantity(), request.sizeId(), oldQuantity, inventory.getQuantityInStock());
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.INVENTORY, StatisticsType.PRODUCT));
+
         Language currentLanguage = LanguageUtils.getCurrentLanguage();
         return inventoryMapper.mapToInventoryResponse(inventory, currentLanguage);
     }
@@ -244,7 +260,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
         // Get inventory with lock
-        Inventory inventory = inventoryRepository.findBySizeIdWithLock(request.sizeId())
+        Inventory inventory = findBySizeIdWithLock(request.sizeId())
                 .orElseThrow(() -> new NotFoundException("Inventory not found for size"));
 
         // Store old quantity for logging and notes
@@ -280,6 +296,8 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Adjusted stock for size {} from {} to {} (difference: {})",
                 request.sizeId(), oldQuantity, request.newQuantity(), quantityDifference);
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.INVENTORY, StatisticsType.PRODUCT));
+
         Language currentLanguage = LanguageUtils.getCurrentLanguage();
         return inventoryMapper.mapToInventoryResponse(inventory, currentLanguage);
     }
@@ -398,7 +416,7 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public void confirmReservedStock(Long sizeId, int quantity, String referenceNumber, User user, Order order) {
-        Optional<Inventory> inventoryOpt = inventoryRepository.findBySizeIdWithLock(sizeId);
+        Optional<Inventory> inventoryOpt = findBySizeIdWithLock(sizeId);
         if (inventoryOpt.isEmpty()) {
             log.warn("Inventory not found for size ID: {}", sizeId);
             return;
@@ -460,6 +478,9 @@ public class InventoryServiceImpl implements InventoryService {
         User currentUser = userRepository.findById(userService.getCurrentUser().getId())
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
+        // Stock transactions are saved after the loop, so the inserts go out as one batch
+        List<StockTransaction> transactions = new ArrayList<>(order.getItems().size());
+
         // Iterate through each item in the returned order
         for (OrderItem item : order.getItems()) {
             if (item.getSize() == null) {
@@ -471,7 +492,7 @@ public class InventoryServiceImpl implements InventoryService {
             int returnedQuantity = item.getQuantity();
 
             // Find the inventory for the item's size with a pessimistic lock to prevent race conditions
-            Optional<Inventory> inventoryOpt = inventoryRepository.findBySizeIdWithLock(sizeId);
+            Optional<Inventory> inventoryOpt = findBySizeIdWithLock(sizeId);
 
             if (inventoryOpt.isEmpty()) {
                 // This is a critical issue, as a product that was sold must have had an inventory record.
@@ -497,12 +518,14 @@ public class InventoryServiceImpl implements InventoryService {
                     .createdBy(currentUser)
                     .build();
 
-            stockTransactionRepository.save(transaction);
+            transactions.add(transaction);
 
             log.info("Returned {} units to stock for size ID {}. Old stock: {}, New stock: {}",
                     returnedQuantity, sizeId, oldQuantity, inventory.getQuantityInStock());
         }
 
+        stockTransactionRepository.saveAll(transactions);
+
         log.info("Finished processing stock return for Order #{}", order.getOrderNumber());
     }
 
@@ -515,6 +538,7 @@ public class InventoryServiceImpl implements InventoryService {
 
         log.info("Restoring stock for CONFIRMED cancellation of order {}", order.getOrderNumber());
 
+        List<StockTransaction> transactions = new ArrayList<>(order.getItems().size());
         for (OrderItem item : order.getItems()) {
 
             // Get size ID and quantity from the order item
@@ -526,7 +550,7 @@ public class InventoryServiceImpl implements InventoryService {
                     + "-S-" + sizeId;
 
             // Find inventory with lock
-            Optional<Inventory> invOpt = inventoryRepository.findBySizeIdWithLock(sizeId);
+            Optional<Inventory> invOpt = findBySizeIdWithLock(sizeId);
 
             if (invOpt.isEmpty()) {
                 log.error("Inventory not found for size {} when restoring cancelled CONFIRMED order {}", sizeId, order.getOrderNumber());
@@ -552,11 +576,14 @@ public class InventoryServiceImpl implements InventoryService {
                     .createdBy(user)
                     .build();
 
-            stockTransactionRepository.save(txn);
+            transactions.add(txn);
 
             log.info("Restored {} units for size {} (oldStock={}, newStock={})",
                     quantity, sizeId, oldQuantity, inventory.getQuantityInStock());
         }
+
+        // Insert all stock transactions of the order in one batch
+        stockTransactionRepository.saveAll(transactions);
     }
 
     // Helper method to create a new inventory record for a size
@@ -605,4 +632,12 @@ public class InventoryServiceImpl implements InventoryService {
         }
         return notes.toString();
     }
+
+    // Find inventory with pessimistic lock, timing the wait since concurrent checkouts of one size queue here
+    private Optional<Inventory> findBySizeIdWithLock(Long sizeId) {
+        return Timer.builder("inventory.lock.wait")
+                .description("Time spent acquiring the inventory row lock")
+                .register(meterRegistry)
+                .record(() -> inventoryRepository.findBySizeIdWithLock(sizeId));
+    }
 }
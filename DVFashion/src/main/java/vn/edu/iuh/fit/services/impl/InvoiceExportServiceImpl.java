@@ -0,0 +1,465 @@
+/*
+ * @ {#} InvoiceExportServiceImpl.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.edu.iuh.fit.config.InvoiceExportConfig;
+import vn.edu.iuh.fit.constants.InvoiceConstant;
+import vn.edu.iuh.fit.dtos.request.InvoiceExportRequest;
+import vn.edu.iuh.fit.dtos.response.InvoiceExportJobResponse;
+import vn.edu.iuh.fit.dtos.response.InvoiceResponse;
+import vn.edu.iuh.fit.dtos.response.UserResponse;
+import vn.edu.iuh.fit.entities.InvoiceExportJob;
+import vn.edu.iuh.fit.enums.ExportJobStatus;
+import vn.edu.iuh.fit.exceptions.BadRequestException;
+import vn.edu.iuh.fit.exceptions.NotFoundException;
+import vn.edu.iuh.fit.repositories.InvoiceExportJobRepository;
+import vn.edu.iuh.fit.repositories.OrderRepository;
+import vn.edu.iuh.fit.repositories.UserRepository;
+import vn.edu.iuh.fit.services.InvoiceExportService;
+import vn.edu.iuh.fit.services.InvoiceService;
+import vn.edu.iuh.fit.services.UserService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/*
+ * @description: Service implementation running invoice export jobs in the background, rendering PDFs
+ *               page by page on a bounded worker pool and streaming them into a ZIP file on disk.
+ *               The file stays on the disk of the instance that ran the job, another instance asked
+ *               for the download rebuilds it in the background from the orders recorded on the job
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Service
+@Slf4j
+public class InvoiceExportServiceImpl implements InvoiceExportService {
+    private static final String FILE_PREFIX = "invoice-export-";
+
+    private final InvoiceExportJobRepository invoiceExportJobRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final UserRepository userRepository;
+
+    private final InvoiceService invoiceService;
+
+    private final UserService userService;
+
+    private final InvoiceExportConfig config;
+
+    // Jobs run one at a time, later requests wait in the queue
+    private final ExecutorService jobExecutor;
+
+    // Bounded pool rendering the PDFs of the current page in parallel
+    private final ExecutorService renderExecutor;
+
+    // Jobs whose file is being rebuilt on this instance, so concurrent downloads queue a single rebuild
+    private final Set<Long> rebuildingJobs = ConcurrentHashMap.newKeySet();
+
+    public InvoiceExportServiceImpl(InvoiceExportJobRepository invoiceExportJobRepository,
+                                    OrderRepository orderRepository,
+                                    UserRepository userRepository,
+                                    InvoiceService invoiceService,
+                                    UserService userService,
+                                    InvoiceExportConfig config,
+                                    MeterRegistry meterRegistry) {
+        this.invoiceExportJobRepository = invoiceExportJobRepository;
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.invoiceService = invoiceService;
+        this.userService = userService;
+        this.config = config;
+        // Monitored so the number of queued export jobs shows up as a gauge
+        this.jobExecutor = ExecutorServiceMetrics.monitor(meterRegistry, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invoice-export-job");
+            thread.setDaemon(true);
+            return thread;
+        }), "invoice.export.jobs");
+        AtomicInteger renderThreadCount = new AtomicInteger();
+        this.renderExecutor = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(Math.max(1, config.getWorkerThreads()), runnable -> {
+                    Thread thread = new Thread(runnable, "invoice-export-render-" + renderThreadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }), "invoice.export.render");
+    }
+
+    @Override
+    public InvoiceExportJobResponse startExport(InvoiceExportRequest request) {
+        boolean byOrderNumbers = request.orderNumbers() != null && !request.orderNumbers().isEmpty();
+        if (byOrderNumbers) {
+            if (request.orderNumbers().size() > config.getMaxOrderNumbers()) {
+                throw new BadRequestException("Cannot export more than " + config.getMaxOrderNumbers() + " orders by order number");
+            }
+        } else {
+            if (request.startDate() == null || request.endDate() == null) {
+                throw new BadRequestException("Either order numbers or a start and end date are required");
+            }
+            if (request.startDate().isAfter(request.endDate())) {
+                throw new BadRequestException("Start date must be before or equal to end date");
+            }
+        }
+
+        UserResponse currentUser = userService.getCurrentUser();
+
+        InvoiceExportJob job = InvoiceExportJob.builder()
+                .status(ExportJobStatus.PENDING)
+                .startDate(byOrderNumbers ? null : request.startDate())
+                .endDate(byOrderNumbers ? null : request.endDate())
+                .orderNumbers(byOrderNumbers
+                        ? String.join(",", request.orderNumbers().stream().map(String::trim).distinct().toList())
+                        : null)
+                .requestedBy(userRepository.getReferenceById(currentUser.getId()))
+                .ownerInstance(config.getInstanceId())
+                .build();
+        invoiceExportJobRepository.save(job);
+
+        submitAfterCommit(job.getId());
+
+        log.info("Queued invoice export job {}", job.getId());
+        return toResponse(job);
+    }
+
+    @Override
+    public InvoiceExportJobResponse getJob(Long jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    @Override
+    public Optional<Resource> getExportFile(Long jobId) {
+        InvoiceExportJob job = findJob(jobId);
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new BadRequestException("Export job is not completed, current status: " + job.getStatus());
+        }
+
+        // Cleared once the retention period is over
+        if (job.getFilePath() == null) {
+            throw new NotFoundException("Export file is no longer available for job: " + jobId);
+        }
+
+        Path file = exportFile(jobId);
+        if (Files.exists(file)) {
+            return Optional.of(new FileSystemResource(file));
+        }
+
+        // Written on another instance, rebuilt here on the job thread while the client polls
+        if (job.getExportedOrderNumbers() == null) {
+            throw new NotFoundException("Export file is only available on the server that ran job: " + jobId);
+        }
+        if (rebuildingJobs.add(jobId)) {
+            jobExecutor.execute(() -> rebuildExportFile(jobId));
+        }
+        return Optional.empty();
+    }
+
+    // Jobs left RUNNING or PENDING by the previous run of this instance can never finish, mark them failed.
+    // Jobs of other instances are still running there and are left alone
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int failed = invoiceExportJobRepository.failOwnedJobsInStatuses(config.getInstanceId(),
+                List.of(ExportJobStatus.PENDING, ExportJobStatus.RUNNING),
+                "Interrupted by application restart",
+                LocalDateTime.now());
+        if (failed > 0) {
+            log.warn("Marked {} interrupted invoice export jobs as failed", failed);
+        }
+    }
+
+    @Scheduled(cron = "0 0 3 * * *") // Remove expired export files every day at 3 AM
+    public void cleanupExpiredFiles() {
+        LocalDateTime threshold = LocalDateTime.now().minusDays(config.getRetentionDays());
+        // Only jobs expired since the last run, the first instance to get there clears the file path
+        for (InvoiceExportJob job : invoiceExportJobRepository.findByStatusAndFilePathIsNotNullAndCompletedAtBefore(
+                ExportJobStatus.COMPLETED, threshold)) {
+            job.setFilePath(null);
+            invoiceExportJobRepository.save(job);
+        }
+
+        deleteUnavailableFiles();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        renderExecutor.shutdownNow();
+    }
+
+    // Start the job only once it is committed, so the worker thread can load it
+    private void submitAfterCommit(Long jobId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            jobExecutor.execute(() -> runJob(jobId));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                jobExecutor.execute(() -> runJob(jobId));
+            }
+        });
+    }
+
+    private void runJob(Long jobId) {
+        InvoiceExportJob job = invoiceExportJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != ExportJobStatus.PENDING) {
+            return;
+        }
+
+        Path file = exportFile(jobId);
+
+        job.setStatus(ExportJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setFilePath(file.toString());
+        invoiceExportJobRepository.save(job);
+
+        try {
+            job.setTotalCount(job.getOrderNumbers() != null
+                    ? splitOrderNumbers(job.getOrderNumbers()).size()
+                    : (int) orderRepository.countByOrderDateBetweenAndStatusIn(job.getStartDate().atStartOfDay(),
+                            job.getEndDate().atTime(LocalTime.MAX), InvoiceConstant.INVOICEABLE_STATUSES));
+            invoiceExportJobRepository.save(job);
+
+            // The orders actually written, a rebuild elsewhere reproduces them even after their status changed
+            List<String> exportedOrderNumbers = new ArrayList<>();
+            writeExportFile(file, job, job.getOrderNumbers() != null ? splitOrderNumbers(job.getOrderNumbers()) : null,
+                    invoiceService::findInvoicesByOrderNumbers, (page, invoices) -> {
+                        invoices.forEach(invoice -> exportedOrderNumbers.add(invoice.orderNumber()));
+                        job.setProcessedCount(job.getProcessedCount() + invoices.size());
+                        job.setSkippedCount(job.getSkippedCount() + page.size() - invoices.size());
+                        invoiceExportJobRepository.updateProgress(jobId, job.getProcessedCount(), job.getSkippedCount());
+                    });
+
+            job.setExportedOrderNumbers(String.join(",", exportedOrderNumbers));
+            job.setStatus(ExportJobStatus.COMPLETED);
+            log.info("Invoice export job {} completed: {} invoices, {} skipped",
+                    jobId, job.getProcessedCount(), job.getSkippedCount());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Invoice export job {} failed: {}", jobId, e.getMessage(), e);
+            deleteQuietly(file);
+            job.setStatus(ExportJobStatus.FAILED);
+            job.setFilePath(null);
+            job.setErrorMessage(e.getMessage());
+        }
+
+        job.setCompletedAt(LocalDateTime.now());
+        invoiceExportJobRepository.save(job);
+    }
+
+    // Render the archive again from the recorded orders into a temporary file and move it in place
+    private void rebuildExportFile(Long jobId) {
+        Path file = exportFile(jobId);
+        Path tempFile = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            InvoiceExportJob job = findJob(jobId);
+            log.info("Rebuilding export file of invoice export job {} on this instance", jobId);
+
+            writeExportFile(tempFile, job, splitOrderNumbers(job.getExportedOrderNumbers()),
+                    invoiceService::findIssuedInvoicesByOrderNumbers, (page, invoices) -> {});
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Rebuilding export file of invoice export job {} failed: {}", jobId, e.getMessage(), e);
+            deleteQuietly(tempFile);
+        } finally {
+            rebuildingJobs.remove(jobId);
+        }
+    }
+
+    // Stream the invoices of the given orders (or of the job's date range when null) into a ZIP file page by page,
+    // passing every page and the invoices written for it to the callback
+    private void writeExportFile(Path file, InvoiceExportJob job, List<String> orderNumbers,
+                                 Function<List<String>, List<InvoiceResponse>> invoiceLoader,
+                                 BiConsumer<List<String>, List<InvoiceResponse>> onPage)
+            throws IOException, InterruptedException, ExecutionException {
+        Files.createDirectories(file.getParent());
+
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            int offset = 0;
+            String lastOrderNumber = "";
+            while (true) {
+                List<String> page;
+                if (orderNumbers != null) {
+                    if (offset >= orderNumbers.size()) {
+                        break;
+                    }
+                    page = orderNumbers.subList(offset, Math.min(offset + config.getPageSize(), orderNumbers.size()));
+                    offset += page.size();
+                } else {
+                    page = orderRepository.findOrderNumbersAfter(
+                            job.getStartDate().atStartOfDay(), job.getEndDate().atTime(LocalTime.MAX),
+                            InvoiceConstant.INVOICEABLE_STATUSES, lastOrderNumber, PageRequest.of(0, config.getPageSize()));
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    lastOrderNumber = page.get(page.size() - 1);
+                }
+
+                // Only one page of invoices and rendered PDFs is held in memory at a time
+                List<InvoiceResponse> invoices = invoiceLoader.apply(page);
+                writePage(zipOutputStream, invoices);
+                onPage.accept(page, invoices);
+            }
+        }
+    }
+
+    // Render the page in parallel, then write the PDFs in order from the job thread
+    private void writePage(ZipOutputStream zipOutputStream, List<InvoiceResponse> invoices)
+            throws IOException, InterruptedException, ExecutionException {
+        List<Future<byte[]>> renders = new ArrayList<>(invoices.size());
+        for (InvoiceResponse invoice : invoices) {
+            renders.add(renderExecutor.submit(() -> invoiceService.renderInvoicePdf(invoice)));
+        }
+
+        try {
+            for (int i = 0; i < invoices.size(); i++) {
+                byte[] pdf = renders.get(i).get();
+                zipOutputStream.putNextEntry(new ZipEntry("invoice-" + invoices.get(i).orderNumber() + ".pdf"));
+                zipOutputStream.write(pdf);
+                zipOutputStream.closeEntry();
+            }
+        } finally {
+            renders.forEach(render -> render.cancel(true));
+        }
+    }
+
+    // Remove the files on this instance's disk whose job can no longer be downloaded, including copies rebuilt here
+    // and temporary files of rebuilds that did not finish. Bounded by the files present, not by the job history
+    private void deleteUnavailableFiles() {
+        Path directory = Paths.get(config.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        Map<Long, List<Path>> filesByJob = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                Long jobId = jobIdOf(file);
+                if (jobId != null && !rebuildingJobs.contains(jobId)) {
+                    filesByJob.computeIfAbsent(jobId, id -> new ArrayList<>()).add(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list export files in {}: {}", directory, e.getMessage());
+            return;
+        }
+
+        Set<Long> downloadable = new HashSet<>();
+        for (InvoiceExportJob job : invoiceExportJobRepository.findAllById(filesByJob.keySet())) {
+            // Files of running jobs are still being written
+            if (job.getStatus() == ExportJobStatus.PENDING || job.getStatus() == ExportJobStatus.RUNNING
+                    || (job.getStatus() == ExportJobStatus.COMPLETED && job.getFilePath() != null)) {
+                downloadable.add(job.getId());
+            }
+        }
+
+        filesByJob.forEach((jobId, files) -> files.stream()
+                .filter(file -> !downloadable.contains(jobId) || file.getFileName().toString().endsWith(".tmp"))
+                .forEach(this::deleteQuietly));
+    }
+
+    // The job ID in "invoice-export-<id>.zip" and its temporary files, or null for other files
+    private static Long jobIdOf(Path file) {
+        String name = file.getFileName().toString();
+        int end = name.indexOf(".zip");
+        if (end <= FILE_PREFIX.length()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Same location on every instance, so each one finds its own copy of the file
+    private Path exportFile(Long jobId) {
+        return Paths.get(config.getDirectory(), FILE_PREFIX + jobId + ".zip");
+    }
+
+    private static List<String> splitOrderNumbers(String orderNumbers) {
+        return orderNumbers.isEmpty() ? List.of() : Arrays.asList(orderNumbers.split(","));
+    }
+
+    private InvoiceExportJob findJob(Long jobId) {
+        return invoiceExportJobRepository.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Export job not found with id: " + jobId));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private InvoiceExportJobResponse toResponse(InvoiceExportJob job) {
+        double progress = job.getTotalCount() > 0
+                ? Math.min(100.0, (job.getProcessedCount() + job.getSkippedCount()) * 100.0 / job.getTotalCount())
+                : (job.getStatus() == ExportJobStatus.COMPLETED ? 100.0 : 0.0);
+
+        return InvoiceExportJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .startDate(job.getStartDate())
+                .endDate(job.getEndDate())
+                .totalCount(job.getTotalCount())
+                .processedCount(job.getProcessedCount())
+                .skippedCount(job.getSkippedCount())
+                .progressPercent(Math.round(progress * 10) / 10.0)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
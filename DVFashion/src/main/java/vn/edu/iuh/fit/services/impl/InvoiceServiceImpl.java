@@ -12,15 +12,22 @@ import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.AreaBreakType;
 import com.itextpdf.layout.properties.HorizontalAlignment;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.edu.iuh.fit.constants.InvoiceConstant;
+import vn.edu.iuh.fit.dtos.response.InvoiceLineRow;
 import vn.edu.iuh.fit.dtos.response.InvoiceResponse;
 import vn.edu.iuh.fit.dtos.response.UserResponse;
 import vn.edu.iuh.fit.entities.Order;
@@ -28,17 +35,25 @@ import vn.edu.iuh.fit.enums.OrderStatus;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.exceptions.OrderException;
 import vn.edu.iuh.fit.exceptions.UnauthorizedException;
+import vn.edu.iuh.fit.repositories.OrderItemRepository;
 import vn.edu.iuh.fit.repositories.OrderRepository;
 import vn.edu.iuh.fit.services.InvoiceService;
 import vn.edu.iuh.fit.services.UserService;
 import vn.edu.iuh.fit.utils.FontUtils;
+import vn.edu.iuh.fit.utils.LanguageUtils;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /*
  * @description: Implementation of InvoiceService for generating PDF invoices
@@ -52,8 +67,16 @@ import java.util.List;
 public class InvoiceServiceImpl implements InvoiceService {
     private final OrderRepository orderRepository;
 
+    private final OrderItemRepository orderItemRepository;
+
     private final UserService userService;
 
+    // Parse the invoice fonts once at startup instead of on the first invoice request
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadFonts() {
+        FontUtils.preloadFonts();
+    }
+
     @Override
     public byte[] generateInvoicePdf(String orderNumber) {
         InvoiceResponse invoice = getInvoiceByOrderNumber(orderNumber);
@@ -80,6 +103,102 @@ public class InvoiceServiceImpl implements InvoiceService {
         return mapToInvoiceResponse(order);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<InvoiceResponse> getInvoicesByOrderNumbers(List<String> orderNumbers) {
+        List<String> requestedNumbers = orderNumbers.stream().distinct().toList();
+        Map<String, List<InvoiceLineRow>> linesByOrder = loadInvoiceLines(requestedNumbers);
+
+        List<String> missingOrders = requestedNumbers.stream()
+                .filter(orderNumber -> !linesByOrder.containsKey(orderNumber))
+                .toList();
+        if (!missingOrders.isEmpty()) {
+            throw new NotFoundException("Orders not found: " + String.join(", ", missingOrders));
+        }
+
+        List<InvoiceResponse> invoices = new ArrayList<>(requestedNumbers.size());
+        for (String orderNumber : requestedNumbers) {
+            List<InvoiceLineRow> lines = linesByOrder.get(orderNumber);
+            OrderStatus status = lines.get(0).orderStatus();
+            if (!InvoiceConstant.INVOICEABLE_STATUSES.contains(status)) {
+                throw new OrderException("Invoice not available for order " + orderNumber + " with status: " + status);
+            }
+            invoices.add(mapToInvoiceResponse(lines));
+        }
+        return invoices;
+    }
+
+    @Override
+    public List<InvoiceResponse> findInvoicesByOrderNumbers(List<String> orderNumbers) {
+        // Unknown orders and orders without an invoice are left out instead of failing the whole page
+        return findInvoices(orderNumbers, lines -> InvoiceConstant.INVOICEABLE_STATUSES.contains(lines.get(0).orderStatus()));
+    }
+
+    @Override
+    public List<InvoiceResponse> findIssuedInvoicesByOrderNumbers(List<String> orderNumbers) {
+        return findInvoices(orderNumbers, lines -> true);
+    }
+
+    @Override
+    public byte[] renderInvoicePdf(InvoiceResponse invoice) {
+        return createPdfInvoice(invoice);
+    }
+
+    @Override
+    public void writeInvoicesPdf(List<InvoiceResponse> invoices, OutputStream outputStream) {
+        PdfWriter writer = new PdfWriter(outputStream);
+        // The servlet container owns the response stream
+        writer.setCloseStream(false);
+
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        Document document = new Document(pdfDoc, PageSize.A5);
+        document.setMargins(10, 15, 10, 15);
+
+        // Fonts are embedded once and shared by every invoice of the document
+        InvoiceFonts fonts = InvoiceFonts.create();
+        for (int i = 0; i < invoices.size(); i++) {
+            if (i > 0) {
+                document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+            }
+            addInvoiceContent(document, invoices.get(i), fonts);
+        }
+
+        document.close();
+    }
+
+    @Override
+    public void writeInvoicesZip(List<InvoiceResponse> invoices, OutputStream outputStream) throws IOException {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        for (InvoiceResponse invoice : invoices) {
+            zipOutputStream.putNextEntry(new ZipEntry("invoice-" + invoice.orderNumber() + ".pdf"));
+            zipOutputStream.write(createPdfInvoice(invoice));
+            zipOutputStream.closeEntry();
+        }
+        // Finish without closing, the servlet container owns the response stream
+        zipOutputStream.finish();
+        zipOutputStream.flush();
+    }
+
+    private List<InvoiceResponse> findInvoices(List<String> orderNumbers, Predicate<List<InvoiceLineRow>> filter) {
+        Map<String, List<InvoiceLineRow>> linesByOrder = loadInvoiceLines(orderNumbers);
+
+        return orderNumbers.stream()
+                .distinct()
+                .map(linesByOrder::get)
+                .filter(Objects::nonNull)
+                .filter(filter)
+                .map(this::mapToInvoiceResponse)
+                .toList();
+    }
+
+    // Load every line of the given orders in one query and group them back per order
+    private Map<String, List<InvoiceLineRow>> loadInvoiceLines(List<String> orderNumbers) {
+        return orderItemRepository
+                .findInvoiceLinesByOrderNumbers(orderNumbers, LanguageUtils.getCurrentLanguage())
+                .stream()
+                .collect(Collectors.groupingBy(InvoiceLineRow::orderNumber, LinkedHashMap::new, Collectors.toList()));
+    }
+
     // Map Order entity to InvoiceResponse DTO
     private InvoiceResponse mapToInvoiceResponse(Order order) {
         List<InvoiceResponse.InvoiceItemResponse> items = order.getItems().stream()
@@ -131,6 +250,59 @@ public class InvoiceServiceImpl implements InvoiceService {
                 .build();
     }
 
+    // Map the flat invoice lines of one order to InvoiceResponse DTO
+    private InvoiceResponse mapToInvoiceResponse(List<InvoiceLineRow> lines) {
+        InvoiceLineRow header = lines.get(0);
+
+        List<InvoiceResponse.InvoiceItemResponse> items = lines.stream()
+                .map(line -> InvoiceResponse.InvoiceItemResponse.builder()
+                        .productName(line.productName())
+                        .variantColor(line.color())
+                        .size(line.sizeName())
+                        .quantity(line.quantity())
+                        .unitPrice(line.unitPrice())
+                        .totalPrice(line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())))
+                        .build())
+                .toList();
+
+        BigDecimal subtotal = items.stream()
+                .map(InvoiceResponse.InvoiceItemResponse::totalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal total = subtotal
+                .add(header.shippingFee() != null ? header.shippingFee() : BigDecimal.ZERO)
+                .subtract(header.voucherDiscount() != null ? header.voucherDiscount() : BigDecimal.ZERO);
+
+        return InvoiceResponse.builder()
+                .invoiceNumber("INV-" + header.orderNumber())
+                .orderNumber(header.orderNumber())
+                .invoiceDate(LocalDateTime.now())
+                .orderDate(header.orderDate())
+                .customerName(header.customerName())
+                .customerEmail(header.customerEmail())
+                .customerPhone(header.customerPhone())
+                .shippingInfo(InvoiceResponse.ShippingInfoResponse.builder()
+                        .fullName(header.shippingFullName())
+                        .phone(header.shippingPhone())
+                        .address(String.format("%s, %s, %s, %s, %s",
+                                header.shippingStreet(),
+                                header.shippingWard(),
+                                header.shippingDistrict(),
+                                header.shippingCity(),
+                                header.shippingCountry()))
+                        .build())
+                .items(items)
+                .subtotal(subtotal)
+                .shippingFee(header.shippingFee())
+                .voucherDiscount(header.voucherDiscount())
+                .voucherCode(header.voucherCode())
+                .total(total)
+                .paymentMethod(header.paymentMethod() != null ? header.paymentMethod().name() : null)
+                .paymentStatus(header.paymentStatus() != null ? header.paymentStatus().name() : null)
+                .orderStatus(header.orderStatus().name())
+                .build();
+    }
+
     // Generate PDF invoice using iText
     private byte[] createPdfInvoice(InvoiceResponse invoice) {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
@@ -139,12 +311,7 @@ public class InvoiceServiceImpl implements InvoiceService {
             Document document = new Document(pdfDoc, PageSize.A5);
             document.setMargins(10, 15, 10, 15);
 
-            // Add content to PDF
-            addInvoiceHeader(document, invoice);
-            addCustomerInfo(document, invoice);
-            addInvoiceItems(document, invoice);
-            addInvoiceSummary(document, invoice);
-            addFooter(document);
+            addInvoiceContent(document, invoice, InvoiceFonts.create());
 
             document.close();
             return baos.toByteArray();
@@ -155,10 +322,19 @@ public class InvoiceServiceImpl implements InvoiceService {
         }
     }
 
+    // Add all sections of one invoice to the document
+    private void addInvoiceContent(Document document, InvoiceResponse invoice, InvoiceFonts fonts) {
+        addInvoiceHeader(document, invoice, fonts);
+        addCustomerInfo(document, invoice, fonts);
+        addInvoiceItems(document, invoice, fonts);
+        addInvoiceSummary(document, invoice, fonts);
+        addFooter(document, fonts);
+    }
+
     // Add invoice header section
-    private void addInvoiceHeader(Document document, InvoiceResponse invoice) {
-        PdfFont font = FontUtils.getVietnameseFont();
-        PdfFont fontBold = FontUtils.getVietnameseFontBold();
+    private void addInvoiceHeader(Document document, InvoiceResponse invoice, InvoiceFonts fonts) {
+        PdfFont font = fonts.regular();
+        PdfFont fontBold = fonts.bold();
         // Company info
         Paragraph companyName = new Paragraph("DVFASHION SHOP")
                 .setFont(fontBold)
@@ -205,9 +381,9 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     // Add customer information section
-    private void addCustomerInfo(Document document, InvoiceResponse invoice) {
-        PdfFont font = FontUtils.getVietnameseFont();
-        PdfFont fontBold = FontUtils.getVietnameseFontBold();
+    private void addCustomerInfo(Document document, InvoiceResponse invoice, InvoiceFonts fonts) {
+        PdfFont font = fonts.regular();
+        PdfFont fontBold = fonts.bold();
 
         Paragraph customerTitle = new Paragraph("THÔNG TIN KHÁCH HÀNG")
                 .setFont(fontBold)
@@ -230,9 +406,9 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     // Add invoice items section
-    private void addInvoiceItems(Document document, InvoiceResponse invoice) {
-        PdfFont font = FontUtils.getVietnameseFont();
-        PdfFont fontBold = FontUtils.getVietnameseFontBold();
+    private void addInvoiceItems(Document document, InvoiceResponse invoice, InvoiceFonts fonts) {
+        PdfFont font = fonts.regular();
+        PdfFont fontBold = fonts.bold();
 
         Paragraph itemsTitle = new Paragraph("CHI TIẾT ĐƠN HÀNG")
                 .setFont(fontBold)
@@ -265,9 +441,9 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     // Add invoice summary section
-    private void addInvoiceSummary(Document document, InvoiceResponse invoice) {
-        PdfFont font = FontUtils.getVietnameseFont();
-        PdfFont fontBold = FontUtils.getVietnameseFontBold();
+    private void addInvoiceSummary(Document document, InvoiceResponse invoice, InvoiceFonts fonts) {
+        PdfFont font = fonts.regular();
+        PdfFont fontBold = fonts.bold();
 
         Table summaryTable = new Table(2);
         summaryTable.setWidth(UnitValue.createPercentValue(60));
@@ -303,8 +479,8 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     // Add footer section
-    private void addFooter(Document document) {
-        PdfFont font = FontUtils.getVietnameseFont();
+    private void addFooter(Document document, InvoiceFonts fonts) {
+        PdfFont font = fonts.regular();
 
         document.add(new Paragraph("\n\n"));
         Paragraph footer = new Paragraph("Cảm ơn quý khách đã mua sắm tại cửa hàng!\nThank you for shopping with us!")
@@ -338,4 +514,11 @@ public class InvoiceServiceImpl implements InvoiceService {
             default -> paymentStatus;
         };
     }
+
+    // Fonts of one PdfDocument, a PdfFont instance cannot be shared between documents
+    private record InvoiceFonts(PdfFont regular, PdfFont bold) {
+        private static InvoiceFonts create() {
+            return new InvoiceFonts(FontUtils.getVietnameseFont(), FontUtils.getVietnameseFontBold());
+        }
+    }
 }
@@ -6,8 +6,11 @@
 
 package vn.edu.iuh.fit.services.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.edu.iuh.fit.config.OrderAutoTransitionConfig;
@@ -16,6 +19,7 @@ import vn.edu.iuh.fit.entities.Order;
 import vn.edu.iuh.fit.entities.OrderAutoTransition;
 import vn.edu.iuh.fit.entities.User;
 import vn.edu.iuh.fit.enums.*;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
 import vn.edu.iuh.fit.exceptions.OrderException;
 import vn.edu.iuh.fit.mappers.OrderMapper;
 import vn.edu.iuh.fit.repositories.OrderAutoTransitionRepository;
@@ -23,6 +27,8 @@ import vn.edu.iuh.fit.repositories.OrderRepository;
 import vn.edu.iuh.fit.services.EmailService;
 import vn.edu.iuh.fit.services.InventoryService;
 import vn.edu.iuh.fit.services.OrderAutoTransitionService;
+import vn.edu.iuh.fit.services.PromotionService;
+import vn.edu.iuh.fit.services.SalesRollupService;
 import vn.edu.iuh.fit.utils.LanguageUtils;
 
 import java.time.DayOfWeek;
@@ -31,6 +37,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
  * @description: Service implementation for automatic order status transitions
@@ -51,10 +58,26 @@ public class OrderAutoTransitionServiceImpl implements OrderAutoTransitionServic
 
     private final InventoryService inventoryService;
 
+    private final PromotionService promotionService;
+
+    private final SalesRollupService salesRollupService;
+
     private final EmailService emailService;
 
     private final OrderMapper orderMapper;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    // Number of due transitions found by the last run
+    private final AtomicInteger pendingTransitionCount = new AtomicInteger();
+
+    @PostConstruct
+    public void registerMetrics() {
+        meterRegistry.gauge("order.auto-transition.pending", pendingTransitionCount);
+    }
+
     // Mapping transition types to status flows
     private static final Map<AutoTransitionType, StatusTransition> TRANSITION_MAPPINGS = Map.of(
             AutoTransitionType.CONFIRMED_TO_PROCESSING,
@@ -133,6 +156,7 @@ public class OrderAutoTransitionServiceImpl implements OrderAutoTransitionServic
                 autoTransitionRepository.findPendingTransitions(now);
 
         log.info("Found {} pending auto transitions to execute", pendingTransitions.size());
+        pendingTransitionCount.set(pendingTransitions.size());
 
         // Execute each transition
         for (OrderAutoTransition transition : pendingTransitions) {
@@ -158,6 +182,8 @@ public class OrderAutoTransitionServiceImpl implements OrderAutoTransitionServic
             // Execute the actual status change
             OrderStatus oldStatus = order.getStatus();
             order.setStatus(transition.getToStatus());
+            salesRollupService.recordStatusChange(order, oldStatus, transition.getToStatus());
+            eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.ORDER, StatisticsType.INVENTORY));
 
             // Perform any additional business logic based on transition type
             performAdditionalTransitionLogic(order, transition.getTransitionType());
@@ -278,6 +304,7 @@ public class OrderAutoTransitionServiceImpl implements OrderAutoTransitionServic
                     // restore stock for confirmed orders
                     inventoryService.restoreStockForConfirmedCancellation(order, systemUser);
                 }
+                promotionService.releasePromotionStock(order);
                 cancelPaymentIfNeeded(order);
                 break;
         }
@@ -6,15 +6,19 @@
 
 package vn.edu.iuh.fit.services.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import vn.edu.iuh.fit.constants.SortFields;
 import vn.edu.iuh.fit.dtos.filters.FilterInfoOrder;
 import vn.edu.iuh.fit.dtos.request.*;
@@ -22,6 +26,7 @@ import vn.edu.iuh.fit.dtos.response.*;
 import vn.edu.iuh.fit.entities.*;
 import vn.edu.iuh.fit.entities.embedded.ShippingInfo;
 import vn.edu.iuh.fit.enums.*;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
 import vn.edu.iuh.fit.exceptions.InsufficientStockException;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.exceptions.OrderException;
@@ -92,19 +97,100 @@ public class OrderServiceImpl implements OrderService {
 
     private final BrevoEmailService brevoEmailService;
 
+    private final CartViewCacheService cartViewCacheService;
+
+    private final SalesRollupService salesRollupService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Boot's shared template, used to keep row locks and connections scoped to the DB phases of createOrder
+    private final TransactionTemplate transactionTemplate;
+
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = "order.create", description = "Time to place an order", histogram = true)
     public OrderResponse createOrder(CreateOrderRequest request) {
         log.info("Creating order for user with {} items", request.orderItems().size());
 
-        // Validate user exists
         UserResponse currentUserResponse = userService.getCurrentUser();
-        User customer = userRepository.findById(currentUserResponse.getId())
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        PaymentMethod method = PaymentMethod.valueOf(request.paymentMethod());
+        if (method != PaymentMethod.CASH_ON_DELIVERY && method != PaymentMethod.PAYPAL) {
+            throw new UnsupportedOperationException("Unsupported payment method: " + method);
+        }
 
-        // Calculate shipping fee and delivery time
+        // Phase 1: quote shipping with GHN before any connection or row lock is taken
         ShippingCalculationResponse shippingCalculation = shippingService.calculateShipping(request);
 
+        // Phase 2: short transaction that only does database work (validate, reserve, insert)
+        PlacedOrder placed = transactionTemplate.execute(status ->
+                placeOrder(request, currentUserResponse, shippingCalculation, method));
+
+        Order savedOrder = placed.order();
+        log.info("Order created successfully with ID: {}", savedOrder.getId());
+
+        // For Cash on Delivery, return order details directly
+        if (method == PaymentMethod.CASH_ON_DELIVERY) {
+            User customer = savedOrder.getCustomer();
+
+            // Track interactions
+            try {
+                for (Long productId : placed.productIds()) {
+                    userInteractionService.trackInteraction(
+                            customer.getId(),
+                            productId,
+                            InteractionType.PURCHASE,
+                            null
+                    );
+                }
+            } catch (Exception e) {
+                log.warn("Could not track PURCHASE interactions: {}", e.getMessage());
+            }
+
+            // Send order confirmation email (async to avoid blocking)
+            try {
+                log.info("Sending order confirmation email to {}", customer.getEmail());
+//                emailService.sendOrderConfirmationEmail(orderResponse, customer.getEmail());
+                brevoEmailService.sendOrderConfirmationEmail(placed.response(), customer.getEmail());
+
+                // Schedule auto transition to PROCESSING
+                autoTransitionService.scheduleAutoTransition(savedOrder,
+                        AutoTransitionType.CONFIRMED_TO_PROCESSING);
+            } catch (Exception e) {
+                log.error("Failed to send order confirmation email: {}", e.getMessage());
+            }
+
+            return placed.response();
+        }
+
+        // Phase 3: create the PayPal order for the committed total, outside of any transaction
+        PayPalCreateResponse approval;
+        try {
+            approval = payPalService.createPayment(savedOrder.getPayment().getAmount(), savedOrder.getOrderNumber());
+        } catch (Exception e) {
+            log.error("Failed to create PayPal order for order {}: {}", savedOrder.getOrderNumber(), e.getMessage());
+
+            // Compensate phase 2, the order was committed but can never be paid
+            transactionTemplate.executeWithoutResult(status -> cancelUnpaidOrder(savedOrder.getId()));
+            throw new OrderException("Could not start PayPal payment. Please try again.");
+        }
+
+        // Phase 4: attach the approval to the pending payment in a second short transaction
+        transactionTemplate.executeWithoutResult(status -> attachPayPalApproval(savedOrder.getId(), approval));
+
+        log.info("PayPal order created, email will be sent after payment confirmation");
+        return OrderResponse.builder()
+                .orderNumber(savedOrder.getOrderNumber())
+                .paypalApprovalUrl(approval.approvalUrl())
+                .build();
+    }
+
+    // Validate the cart, reserve promotion and voucher usage and insert the order, runs inside one transaction
+    private PlacedOrder placeOrder(CreateOrderRequest request, UserResponse currentUserResponse,
+                                   ShippingCalculationResponse shippingCalculation, PaymentMethod method) {
+        // Validate user exists
+        User customer = userRepository.findById(currentUserResponse.getId())
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
         // Create order
         Order order = Order.builder()
                 .orderNumber(OrderUtils.generateOrderNumber())
@@ -124,8 +210,10 @@ public class OrderServiceImpl implements OrderService {
         List<OrderItem> orderItems = orderItemService.createOrderItems(cartItems, order);
         order.setItems(orderItems);
 
-        // Create payment
-        PaymentMethod method = PaymentMethod.valueOf(request.paymentMethod());
+        // Reserve flash-sale promotion stock
+        promotionService.reservePromotionStock(orderItems, customer);
+
+        // Create pending payment record, the PayPal order is created after commit
         Payment payment = paymentService.createPayment(order, method);
         order.setPayment(payment);
 
@@ -163,62 +251,73 @@ public class OrderServiceImpl implements OrderService {
             voucherService.recordUsage(voucher, customer, savedOrder);
         }
 
-        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.ORDER, StatisticsType.INVENTORY));
+
+        if (method != PaymentMethod.CASH_ON_DELIVERY) {
+            return new PlacedOrder(savedOrder, null, List.of());
+        }
+
+        // Clear cart items only for COD, PayPal orders keep them until the payment is captured
+        cartItemRepository.deleteAll(cartItems);
+        cartViewCacheService.evict(customer.getId());
+
+        List<Long> productIds = savedOrder.getItems().stream()
+                .map(item -> item.getProductVariant().getProduct().getId())
+                .toList();
 
-        // Create order response
+        // Create order response while the lazy associations can still be loaded
         OrderResponse orderResponse = orderMapper.mapToOrderResponse(
                 savedOrder,
                 currentUserResponse.getEmail(),
                 LanguageUtils.getCurrentLanguage()
         );
 
-        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        return new PlacedOrder(savedOrder, orderResponse, productIds);
+    }
 
-        // For Cash on Delivery, return order details directly
-        if (method == PaymentMethod.CASH_ON_DELIVERY) {
-            // Clear cart items only for COD
-            cartItemRepository.deleteAll(cartItems);
+    // Store the PayPal approval on the pending payment, unless the order was cancelled in the meantime
+    private void attachPayPalApproval(Long orderId, PayPalCreateResponse approval) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new NotFoundException("Order not found"));
 
-            // Track interactions
-            try {
-                for (OrderItem item : savedOrder.getItems()) {
-                    userInteractionService.trackInteraction(
-                            customer.getId(),
-                            item.getProductVariant().getProduct().getId(),
-                            InteractionType.PURCHASE,
-                            null
-                    );
-                }
-            } catch (Exception e) {
-                log.warn("Could not track PURCHASE interactions: {}", e.getMessage());
-            }
+        if (order.getStatus() != OrderStatus.PENDING) {
+            log.warn("Order {} is {} before its PayPal order {} was attached",
+                    order.getOrderNumber(), order.getStatus(), approval.paypalPaymentId());
+            throw new OrderException("Order is no longer awaiting payment");
+        }
 
-            // Send order confirmation email (async to avoid blocking)
-            try {
-                log.info("Sending order confirmation email to {}", customer.getEmail());
-//                emailService.sendOrderConfirmationEmail(orderResponse, customer.getEmail());
-                brevoEmailService.sendOrderConfirmationEmail(orderResponse, customer.getEmail());
+        Payment payment = order.getPayment();
+        payment.setPaypalPaymentId(approval.paypalPaymentId());
+        payment.setApprovalUrl(approval.approvalUrl());
+    }
 
-                // Schedule auto transition to PROCESSING
-                autoTransitionService.scheduleAutoTransition(savedOrder,
-                        AutoTransitionType.CONFIRMED_TO_PROCESSING);
-            } catch (Exception e) {
-                log.error("Failed to send order confirmation email: {}", e.getMessage());
-            }
+    // Undo what placeOrder reserved for an order whose payment could not be started
+    private void cancelUnpaidOrder(Long orderId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new NotFoundException("Order not found"));
 
-            return orderMapper.mapToOrderResponse(savedOrder, currentUserResponse.getEmail(), LanguageUtils.getCurrentLanguage());
+        if (order.getStatus() != OrderStatus.PENDING) {
+            return;
         }
 
-        // For PayPal, create PayPal order and get approval URL
-        if (method == PaymentMethod.PAYPAL) {
-            log.info("PayPal order created, email will be sent after payment confirmation");
-            return OrderResponse.builder()
-                    .orderNumber(savedOrder.getOrderNumber())
-                    .paypalApprovalUrl(payment.getApprovalUrl())
-                    .build();
+        order.setStatus(OrderStatus.CANCELED);
+        order.setNotes(order.getNotes() != null && !order.getNotes().isEmpty()
+                ? order.getNotes() + " | PAYMENT INITIATION FAILED"
+                : "PAYMENT INITIATION FAILED");
+
+        Payment payment = order.getPayment();
+        if (payment != null) {
+            payment.setPaymentStatus(PaymentStatus.FAILED);
+            payment.setPaymentDate(LocalDateTime.now());
         }
 
-        throw new UnsupportedOperationException("Unsupported payment method: " + method);
+        // Give back promotion stock and voucher usage, the cart keeps its own stock reservation
+        promotionService.releasePromotionStock(order);
+        voucherService.releaseUsage(order);
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.ORDER));
+
+        log.info("Cancelled order {} after failing to start its payment", order.getOrderNumber());
     }
 
     @Override
@@ -258,6 +357,7 @@ public class OrderServiceImpl implements OrderService {
                 .collect(Collectors.toList());
 
         cartItemRepository.deleteAll(orderCartItems);
+        cartViewCacheService.evict(order.getCustomer().getId());
 
         // Confirmation of deduction of physical goods in stock
         order.getItems().forEach(item ->
@@ -309,9 +409,20 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findByOrderNumber(orderNumber)
                 .orElseThrow(() -> new NotFoundException("Order not found"));
 
+        // The PayPal cancel link may be opened again, or after the order has moved on
+        if (order.getStatus() == OrderStatus.CANCELED) {
+            return "Payment cancelled successfully.";
+        }
+        if (!getAllowedStatusFlow().get(order.getStatus()).contains(OrderStatus.CANCELED)) {
+            throw new OrderException("Order can no longer be cancelled in status " + order.getStatus());
+        }
+
         // Update order status
         order.setStatus(OrderStatus.CANCELED);
 
+        // Give back promotion stock
+        promotionService.releasePromotionStock(order);
+
         // Update payment status
         Payment payment = order.getPayment();
         if (payment != null) {
@@ -993,6 +1104,8 @@ public class OrderServiceImpl implements OrderService {
         User currentUser = userRepository.findById(userService.getCurrentUser().getId())
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
+        // Stock returns are collected and inserted together once every item is processed
+        List<StockTransaction> returnTransactions = new ArrayList<>();
         for (OrderItem item : order.getItems()) {
             // Get size ID and quantity
             Long sizeId = item.getSize().getId();
@@ -1023,13 +1136,18 @@ public class OrderServiceImpl implements OrderService {
                             .notes("Stock returned from cancelled order")
                             .createdBy(currentUser)
                             .build();
-                    stockTransactionRepository.save(transaction);
+                    returnTransactions.add(transaction);
 
                     log.info("Returned stock for cancelled CONFIRMED order: {} units for size {} (old: {}, new: {})",
                             quantity, sizeId, oldQuantity, inventory.getQuantityInStock());
                 }
             }
         }
+
+        stockTransactionRepository.saveAll(returnTransactions);
+
+        // Give back promotion stock
+        promotionService.releasePromotionStock(order);
     }
 
     // Check if any shipping info fields have changed
@@ -1087,6 +1205,10 @@ public class OrderServiceImpl implements OrderService {
         OrderStatus oldStatus = order.getStatus();
         order.setStatus(target);
 
+        // Keep the daily sales rollups in line when the order reaches or leaves DELIVERED
+        salesRollupService.recordStatusChange(order, oldStatus, target);
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.ORDER, StatisticsType.INVENTORY));
+
         if (target == OrderStatus.CONFIRMED) {
             // Confirmation of deduction of physical goods in stock
             order.getItems().forEach(item ->
@@ -1120,6 +1242,9 @@ public class OrderServiceImpl implements OrderService {
 
         // When the order is CANCELED, if payment is still PENDING, mark it CANCELED too
         if (target == OrderStatus.CANCELED) {
+            // Give back promotion stock
+            promotionService.releasePromotionStock(order);
+
             // If payment exists and is still pending, mark it canceled
             Payment p = order.getPayment();
             if (p != null && p.getPaymentStatus() == PaymentStatus.PENDING) {
@@ -1179,6 +1304,7 @@ public class OrderServiceImpl implements OrderService {
                 // Optionally cancel order
                 if (getAllowedStatusFlow().get(order.getStatus()).contains(OrderStatus.CANCELED)) {
                     order.setStatus(OrderStatus.CANCELED);
+                    promotionService.releasePromotionStock(order);
                 }
             } else {
                 throw new OrderException("Unsupported payment status transition from PENDING to " + target);
@@ -1216,6 +1342,7 @@ public class OrderServiceImpl implements OrderService {
                 if (!ids.isEmpty()) {
                     List<CartItem> cartItems = cartItemRepository.findAllById(ids);
                     cartItemRepository.deleteAll(cartItems);
+                    cartViewCacheService.evict(order.getCustomer().getId());
                     log.info("Cleared {} cart items after successful PayPal payment", cartItems.size());
                 }
             }
@@ -1224,4 +1351,6 @@ public class OrderServiceImpl implements OrderService {
             // Don't throw exception as payment is already successful
         }
     }
+
+    private record PlacedOrder(Order order, OrderResponse response, List<Long> productIds) {}
 }
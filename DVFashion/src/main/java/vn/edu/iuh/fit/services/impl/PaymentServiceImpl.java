@@ -6,14 +6,11 @@
 
 package vn.edu.iuh.fit.services.impl;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import vn.edu.iuh.fit.dtos.response.PayPalCreateResponse;
 import vn.edu.iuh.fit.entities.Order;
 import vn.edu.iuh.fit.entities.Payment;
 import vn.edu.iuh.fit.enums.PaymentMethod;
 import vn.edu.iuh.fit.enums.PaymentStatus;
-import vn.edu.iuh.fit.services.PayPalService;
 import vn.edu.iuh.fit.services.PaymentService;
 import vn.edu.iuh.fit.utils.OrderUtils;
 
@@ -26,10 +23,7 @@ import java.math.BigDecimal;
  * @version:    1.0
  */
 @Service
-@RequiredArgsConstructor
 public class PaymentServiceImpl implements PaymentService {
-    private final PayPalService payPalService;
-
     @Override
     public Payment createPayment(Order order, PaymentMethod paymentMethod) {
         BigDecimal totalAmount = calculateOrderTotal(order);
@@ -42,12 +36,8 @@ public class PaymentServiceImpl implements PaymentService {
                 .order(order)
                 .build();
 
-        if (paymentMethod == PaymentMethod.PAYPAL) {
-            PayPalCreateResponse approvalUrl = payPalService.createPayment(totalAmount, order.getOrderNumber());
-            payment.setPaypalPaymentId(approvalUrl.paypalPaymentId()); // Assuming approvalUrl is used as PayPal payment ID for simplicity
-            payment.setApprovalUrl(approvalUrl.approvalUrl());
-        }
-
+        // The PayPal order is created by the caller once this record is committed,
+        // so no HTTP call happens while the order transaction holds its row locks
         return payment;
     }
 
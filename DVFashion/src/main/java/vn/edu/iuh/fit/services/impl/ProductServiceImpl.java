@@ -6,8 +6,10 @@
 
 package vn.edu.iuh.fit.services.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +17,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import vn.edu.iuh.fit.constants.SortFields;
 import vn.edu.iuh.fit.dtos.filters.FilterInfoProduct;
@@ -25,16 +28,20 @@ import vn.edu.iuh.fit.entities.*;
 import vn.edu.iuh.fit.enums.InteractionType;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.enums.ProductStatus;
+import vn.edu.iuh.fit.enums.StatisticsType;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.exceptions.ResourceNotFoundException;
 import vn.edu.iuh.fit.mappers.ProductMapper;
 import vn.edu.iuh.fit.repositories.*;
 import vn.edu.iuh.fit.services.*;
 import vn.edu.iuh.fit.specifications.ProductSpecification;
+import vn.edu.iuh.fit.utils.ImageUtils;
 import vn.edu.iuh.fit.utils.SortUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -74,24 +81,61 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductSpecification productSpecification;
 
-    @Transactional
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CloudinaryService cloudinaryService;
+
+    // Boot's shared template, keeps the variant image uploads outside of the insert transaction
+    private final TransactionTemplate transactionTemplate;
+
     @Override
     public ProductResponse createProduct(ProductRequest request, Language inputLang, List<MultipartFile> variantImages) {
         // Check if Category exists
+        if (!categoryRepository.existsById(request.categoryId())) {
+            throw new NotFoundException("Category not found");
+        }
+
+        // if no variants provided, throw exception
+        if (request.variants() == null || request.variants().isEmpty()) {
+            throw new IllegalArgumentException("Product must have at least one variant");
+        }
+
+        // Tick off images for each variant
+        int imageIndex = 0;
+
+        // Total uploaded images
+        int totalUploadedImages = (variantImages != null) ? variantImages.size() : 0;
+
+        // Files of all variants in request order, variants without enough files get the default image
+        List<MultipartFile> imageFiles = new ArrayList<>();
+        for (ProductVariantRequest v : request.variants()) {
+            // Determine how many images to assign to this variant
+            int requestedImageCount = (v.images() != null) ? v.images().size() : 0;
+
+            for (int i = 0; i < requestedImageCount; i++) {
+                imageFiles.add(imageIndex < totalUploadedImages ? variantImages.get(imageIndex++) : null);
+            }
+        }
+
+        // Upload the images of every variant in one parallel batch before the transaction is opened
+        List<UploadedImageUrls> uploadedImages = ImageUtils.getImageUrls(imageFiles, cloudinaryService);
+
+        ProductResponse response = transactionTemplate.execute(status ->
+                saveProduct(request, inputLang, uploadedImages));
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.PRODUCT, StatisticsType.CATEGORY));
+
+        return response;
+    }
+
+    // Insert the product with its translations and variants, runs inside one transaction
+    private ProductResponse saveProduct(ProductRequest request, Language inputLang, List<UploadedImageUrls> uploadedImages) {
         Category category = categoryRepository.findById(request.categoryId())
                 .orElseThrow(() -> new NotFoundException("Category not found"));
 
-        // Check if Promotion exists (if provided)
-//        Promotion promotion = null;
-//        if (request.promotionId() != null) {
-//            promotion = promotionRepository.findById(request.promotionId())
-//                    .orElseThrow(() -> new NotFoundException("Promotion not found"));
-//        }
-
         // Create and save the Product entity
         Product product = new Product();
         product.setCategory(category);
-//        product.setPromotion(promotion);
         product.setPrice(request.price());
         product.setSalePrice(request.salePrice());
         product.setOnSale(request.onSale());
@@ -102,36 +146,14 @@ public class ProductServiceImpl implements ProductService {
         // Create and save ProductTranslation
         productTranslationService.createProductTranslations(product, request, inputLang);
 
-        // if no variants provided, throw exception
-        if (request.variants() == null || request.variants().isEmpty()) {
-            throw new IllegalArgumentException("Product must have at least one variant");
-        }
-
-
-        // Tick off images for each variant
         int imageIndex = 0;
-
-        // Total uploaded images
-        int totalUploadedImages = (variantImages != null) ? variantImages.size() : 0;
-
         for (ProductVariantRequest v : request.variants()) {
-            // Determine how many images to assign to this variant
-            int requestedImageCount = (v.images() != null) ? v.images().size() : 0;
-            // Calculate how many images are still available to assign
-            int availableImages = Math.max(0, totalUploadedImages - imageIndex);
-            // Actual number of images to assign to this variant
-            int actualImageCount = Math.min(requestedImageCount, availableImages);
-
-            List<MultipartFile> variantImageFiles;
-            if (actualImageCount > 0) {
-                variantImageFiles = variantImages.subList(imageIndex, imageIndex + actualImageCount);
-                imageIndex += actualImageCount;
-            } else {
-                variantImageFiles = List.of();
-            }
+            int imageCount = (v.images() != null) ? v.images().size() : 0;
+            List<UploadedImageUrls> variantUploadedImages = uploadedImages.subList(imageIndex, imageIndex + imageCount);
+            imageIndex += imageCount;
 
             // Create ProductVariant
-            productVariantService.createProductVariant(product.getId(), v, variantImageFiles);
+            productVariantService.createProductVariantWithUploadedImages(product.getId(), v, variantUploadedImages);
         }
 
         // Return product with translations
@@ -180,6 +202,8 @@ public class ProductServiceImpl implements ProductService {
         // Update ProductTranslation
         productTranslationService.updateProductTranslations(product, request, inputLang);
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.PRODUCT, StatisticsType.CATEGORY));
+
         return toResponse(product, inputLang);
     }
 
@@ -207,6 +231,7 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Timed(value = "product.list", extraTags = {"view", "all"}, histogram = true)
     public List<ProductResponse> getAllProducts(Language language) {
         List<Product> products = productRepository.findAll();
 
@@ -289,6 +314,7 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "product.list", extraTags = {"view", "page"}, histogram = true)
     public PageResponse<ProductResponse> getAllProducts(int page, int size, String[] sort, String search, Long categoryId, Long promotionId, ProductStatus status, Boolean onSale, BigDecimal minPrice, BigDecimal maxPrice, LocalDate startDate, LocalDate endDate, Language language) {
         // Validate and build Sort object
         Sort validSort = SortUtils.buildSort(
@@ -9,9 +9,11 @@ package vn.edu.iuh.fit.services.impl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import vn.edu.iuh.fit.dtos.request.ProductVariantImageRequest;
 import vn.edu.iuh.fit.dtos.response.ProductVariantImageResponse;
+import vn.edu.iuh.fit.dtos.response.UploadedImageUrls;
 import vn.edu.iuh.fit.entities.ProductVariant;
 import vn.edu.iuh.fit.entities.ProductVariantImage;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
@@ -22,6 +24,8 @@ import vn.edu.iuh.fit.services.CloudinaryService;
 import vn.edu.iuh.fit.services.ProductVariantImageService;
 import vn.edu.iuh.fit.utils.ImageUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /*
@@ -41,78 +45,105 @@ public class ProductVariantImageServiceImpl implements ProductVariantImageServic
 
     private final ProductVariantImageMapper productVariantImageMapper;
 
-    @Transactional
+    // Boot's shared template, keeps the Cloudinary upload outside of the insert transaction
+    private final TransactionTemplate transactionTemplate;
+
     @Override
     public ProductVariantImageResponse addImageToVariant(Long variantId, ProductVariantImageRequest request, MultipartFile imageFile) {
         // Check if ProductVariant exists
         ProductVariant variant = productVariantRepository.findById(variantId)
                 .orElseThrow(() -> new NotFoundException("Product variant not found with id: " + variantId));
 
-        // Auto-assign sortOrder (auto-increment)
-        List<ProductVariantImage> existingImages = productVariantImageRepository.findByProductVariantId(variantId);
-        Integer sortOrder = existingImages.stream()
-                .mapToInt(img -> img.getSortOrder() == 0 ? 0 : img.getSortOrder())
-                .max()
-                .orElse(0) + 1;
-
-        // Check and update existing primary image if the new one is set as primary
-        if (request.isPrimary() != null && request.isPrimary()) {
-           updatePrimaryImageStatus(variantId, null);
-        }
-
-        // Upload image and get URL
-        String imageUrl = ImageUtils.getImageUrl(imageFile, cloudinaryService);
+        // Upload image and its derivatives before opening the transaction
+        UploadedImageUrls uploadedImage = ImageUtils.getImageUrls(Collections.singletonList(imageFile), cloudinaryService).get(0);
 
-        // Create and save ProductVariantImage
-        ProductVariantImage productVariantImage = new ProductVariantImage();
-        productVariantImage.setProductVariant(variant);
-        productVariantImage.setImageUrl(imageUrl);
-        productVariantImage.setPrimary(request.isPrimary());
-        productVariantImage.setSortOrder(sortOrder);
+        ProductVariantImage savedImage = transactionTemplate.execute(status ->
+                addUploadedImagesToVariant(variant, List.of(request), List.of(uploadedImage)).get(0));
 
-        ProductVariantImage savedImage = productVariantImageRepository.save(productVariantImage);
+        // Save and return the image response
+        return productVariantImageMapper.toResponse(savedImage);
+    }
 
-        // If no primary image exists, set this one as primary
-        if (!savedImage.isPrimary()) {
-            List<ProductVariantImage> allImages = productVariantImageRepository.findByProductVariantId(variantId);
-            boolean hasPrimary = allImages.stream().anyMatch(ProductVariantImage::isPrimary);
+    @Transactional
+    @Override
+    public List<ProductVariantImage> addUploadedImagesToVariant(ProductVariant variant, List<ProductVariantImageRequest> requests,
+                                                                List<UploadedImageUrls> uploadedImages) {
+        // Auto-assign sortOrder (auto-increment)
+        int sortOrder = productVariantImageRepository.findMaxSortOrderByProductVariantId(variant.getId());
 
-            if (!hasPrimary) {
-                savedImage.setPrimary(true);
-                savedImage = productVariantImageRepository.save(savedImage);
+        // The last image requested as primary wins, the same result as adding the images one by one
+        int primaryIndex = -1;
+        for (int i = 0; i < requests.size(); i++) {
+            if (Boolean.TRUE.equals(requests.get(i).isPrimary())) {
+                primaryIndex = i;
             }
         }
 
-        // Save and return the image response
-        return productVariantImageMapper.toResponse(savedImage);
+        if (primaryIndex >= 0) {
+            // Unset the existing primary image before the new one is inserted
+            productVariantImageRepository.clearPrimaryByProductVariantId(variant.getId());
+        } else if (!productVariantImageRepository.existsPrimaryByProductVariantId(variant.getId())) {
+            // If no primary image exists, set the first new one as primary
+            primaryIndex = 0;
+        }
+
+        List<ProductVariantImage> images = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            UploadedImageUrls uploadedImage = uploadedImages.get(i);
+
+            // Create ProductVariantImage
+            ProductVariantImage productVariantImage = new ProductVariantImage();
+            productVariantImage.setProductVariant(variant);
+            productVariantImage.setImageUrl(uploadedImage.imageUrl());
+            productVariantImage.setThumbnailUrl(uploadedImage.thumbnailUrl());
+            productVariantImage.setCardUrl(uploadedImage.cardUrl());
+            productVariantImage.setDetailUrl(uploadedImage.detailUrl());
+            productVariantImage.setPrimary(i == primaryIndex);
+            productVariantImage.setSortOrder(++sortOrder);
+            images.add(productVariantImage);
+        }
+
+        return productVariantImageRepository.saveAll(images);
     }
 
     @Override
     public ProductVariantImageResponse updateVariantImage(Long imageId, ProductVariantImageRequest request, MultipartFile imageFile) {
-        ProductVariantImage image = productVariantImageRepository.findById(imageId)
-                .orElseThrow(() -> new NotFoundException("Product variant image not found with id: " + imageId));
-
-        // Update image if new file is provided
+        // Upload new image if provided, before opening the transaction
+        UploadedImageUrls uploadedImage = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            String newImageUrl = ImageUtils.getImageUrl(imageFile, cloudinaryService);
-            image.setImageUrl(newImageUrl);
+            if (!productVariantImageRepository.existsById(imageId)) {
+                throw new NotFoundException("Product variant image not found with id: " + imageId);
+            }
+            uploadedImage = ImageUtils.getImageUrls(Collections.singletonList(imageFile), cloudinaryService).get(0);
         }
 
-        // Update other fields if provided
-        if (request != null) {
-            if (request.isPrimary() != null) {
+        UploadedImageUrls newImage = uploadedImage;
+        return transactionTemplate.execute(status -> {
+            ProductVariantImage image = productVariantImageRepository.findById(imageId)
+                    .orElseThrow(() -> new NotFoundException("Product variant image not found with id: " + imageId));
+
+            // Update image URLs if a new file was uploaded
+            if (newImage != null) {
+                image.setImageUrl(newImage.imageUrl());
+                image.setThumbnailUrl(newImage.thumbnailUrl());
+                image.setCardUrl(newImage.cardUrl());
+                image.setDetailUrl(newImage.detailUrl());
+            }
+
+            // Update other fields if provided
+            if (request != null && request.isPrimary() != null) {
                 if (request.isPrimary() && !image.isPrimary()) {
-                    // If setting to primary, update other images
-                    updatePrimaryImageStatus(image.getProductVariant().getId(), imageId);
+                    // If setting to primary, unset the current primary image first
+                    productVariantImageRepository.clearPrimaryByProductVariantId(image.getProductVariant().getId());
                 }
                 image.setPrimary(request.isPrimary());
             }
-        }
 
-        ProductVariantImage updatedImage = productVariantImageRepository.save(image);
+            ProductVariantImage updatedImage = productVariantImageRepository.save(image);
 
-        // Save and return the updated image response
-        return productVariantImageMapper.toResponse(updatedImage);
+            // Save and return the updated image response
+            return productVariantImageMapper.toResponse(updatedImage);
+        });
     }
 
     @Override
@@ -128,11 +159,12 @@ public class ProductVariantImageServiceImpl implements ProductVariantImageServic
     @Override
     public List<ProductVariantImageResponse> getImagesByVariantId(Long variantId) {
         // Check if ProductVariant exists
-        ProductVariant variant = productVariantRepository.findById(variantId)
-                .orElseThrow(() -> new NotFoundException("Product variant not found with id: " + variantId));
+        if (!productVariantRepository.existsById(variantId)) {
+            throw new NotFoundException("Product variant not found with id: " + variantId);
+        }
 
         // Retrieve images by ProductVariant ID
-        List<ProductVariantImage> images = productVariantImageRepository.findByProductVariantId(variant.getId());
+        List<ProductVariantImage> images = productVariantImageRepository.findByProductVariantId(variantId);
 
         // Map entities to response DTOs
         return images.stream()
@@ -140,15 +172,4 @@ public class ProductVariantImageServiceImpl implements ProductVariantImageServic
                 .toList();
     }
 
-    private void updatePrimaryImageStatus(Long variantId, Long excludeImageId) {
-        List<ProductVariantImage> images = productVariantImageRepository.findByProductVariantId(variantId);
-
-        for (ProductVariantImage image : images) {
-            if (image.isPrimary() && !image.getId().equals(excludeImageId)) {
-                image.setPrimary(false);
-                productVariantImageRepository.save(image);
-            }
-        }
-    }
-
 }
@@ -10,14 +10,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.multipart.MultipartFile;
-import vn.edu.iuh.fit.dtos.request.ProductVariantImageRequest;
 import vn.edu.iuh.fit.dtos.request.ProductVariantRequest;
-import vn.edu.iuh.fit.dtos.request.SizeRequest;
-import vn.edu.iuh.fit.dtos.response.ProductVariantImageResponse;
 import vn.edu.iuh.fit.dtos.response.ProductVariantResponse;
-import vn.edu.iuh.fit.dtos.response.SizeResponse;
+import vn.edu.iuh.fit.dtos.response.UploadedImageUrls;
 import vn.edu.iuh.fit.entities.Product;
 import vn.edu.iuh.fit.entities.ProductVariant;
 import vn.edu.iuh.fit.entities.ProductVariantImage;
@@ -28,13 +26,14 @@ import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.mappers.ProductVariantMapper;
 import vn.edu.iuh.fit.mappers.SizeMapper;
 import vn.edu.iuh.fit.repositories.ProductRepository;
-import vn.edu.iuh.fit.repositories.ProductVariantImageRepository;
 import vn.edu.iuh.fit.repositories.ProductVariantRepository;
-import vn.edu.iuh.fit.repositories.SizeRepository;
+import vn.edu.iuh.fit.services.CloudinaryService;
 import vn.edu.iuh.fit.services.ProductVariantImageService;
 import vn.edu.iuh.fit.services.ProductVariantService;
 import vn.edu.iuh.fit.services.SizeService;
+import vn.edu.iuh.fit.utils.ImageUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /*
@@ -56,24 +55,53 @@ public class ProductVariantServiceImpl implements ProductVariantService {
 
     private final ProductVariantMapper productVariantMapper;
 
-    private final SizeRepository sizeRepository;
+    private final CloudinaryService cloudinaryService;
 
-    private final ProductVariantImageRepository productVariantImageRepository;
+    // Boot's shared template, keeps the image uploads outside of the insert transaction
+    private final TransactionTemplate transactionTemplate;
 
-
-    @Transactional
     @Override
     public ProductVariantResponse createProductVariant(Long productId, ProductVariantRequest request, List<MultipartFile> variantImages) {
         // Check if Product exists
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
+        if (!productRepository.existsById(productId)) {
+            throw new NotFoundException("Product not found with id: " + productId);
+        }
 
         // Check for duplicate color within the same product
-        boolean exists = productVariantRepository.existsByProductIdAndColorIgnoreCase(productId, request.color());
-        if (exists) {
-            throw new AlreadyExistsException("A variant with color '" + request.color() + "' already exists for this product.");
+        checkDuplicateColor(productId, request.color());
+
+        validateSizesAndImages(request);
+
+        // Pair each image request with its MultipartFile if available
+        List<MultipartFile> imageFiles = new ArrayList<>(request.images().size());
+        for (int i = 0; i < request.images().size(); i++) {
+            imageFiles.add(variantImages != null && i < variantImages.size() ? variantImages.get(i) : null);
         }
 
+        // Upload all images and their derivatives in parallel before the transaction is opened
+        List<UploadedImageUrls> uploadedImages = ImageUtils.getImageUrls(imageFiles, cloudinaryService);
+
+        return transactionTemplate.execute(status -> saveProductVariant(productId, request, uploadedImages));
+    }
+
+    @Transactional
+    @Override
+    public ProductVariantResponse createProductVariantWithUploadedImages(Long productId, ProductVariantRequest request,
+                                                                         List<UploadedImageUrls> uploadedImages) {
+        validateSizesAndImages(request);
+
+        return saveProductVariant(productId, request, uploadedImages);
+    }
+
+    // Insert the variant with its sizes and already uploaded images, runs inside one transaction
+    private ProductVariantResponse saveProductVariant(Long productId, ProductVariantRequest request,
+                                                      List<UploadedImageUrls> uploadedImages) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new NotFoundException("Product not found with id: " + productId));
+
+        // Check again, another variant with this color may have been added during the upload
+        checkDuplicateColor(productId, request.color());
+
         // Create and save ProductVariant
         ProductVariant productVariant = new ProductVariant();
         productVariant.setProduct(product);
@@ -83,42 +111,15 @@ public class ProductVariantServiceImpl implements ProductVariantService {
 
         productVariantRepository.save(productVariant);
 
-        // Validate sizes
-        if (request.sizes() == null || request.sizes().isEmpty()) {
-            throw new IllegalArgumentException("At least one size must be provided for the product variant.");
-        }
-
         // Save Sizes
-        for (SizeRequest s : request.sizes()) {
-            SizeResponse sizeResponse=sizeService.createSize(productVariant.getId(), s);
-
-            Size size = sizeRepository.findById(sizeResponse.id())
-                    .orElseThrow(() -> new NotFoundException("Size not found with id: " + sizeResponse.id()));
-            productVariant.getSizes().add(size);
-        }
-
-        // Validate images
-        if (request.images() == null || request.images().isEmpty()) {
-            throw new IllegalArgumentException("At least one image must be provided for the product variant.");
-        }
+        List<Size> sizes = sizeService.addSizesToVariant(productVariant, request.sizes());
+        productVariant.getSizes().addAll(sizes);
 
         // Save Images
-        for (int i = 0; i < request.images().size(); i++) {
-            // Get corresponding image file if available
-            ProductVariantImageRequest imgReq = request.images().get(i);
+        List<ProductVariantImage> images = productVariantImageService.addUploadedImagesToVariant(
+                productVariant, request.images(), uploadedImages);
+        productVariant.getImages().addAll(images);
 
-            // Get the corresponding MultipartFile if available
-            MultipartFile imageFile = (variantImages != null && i < variantImages.size())
-                    ? variantImages.get(i)
-                    : null;
-
-            ProductVariantImageResponse productVariantImageResponse = productVariantImageService.addImageToVariant(productVariant.getId(), imgReq, imageFile);
-
-            ProductVariantImage image = productVariantImageRepository.findById(productVariantImageResponse.id())
-                    .orElseThrow(() -> new NotFoundException("Product variant image not found with id: " + productVariantImageResponse.id()));
-
-            productVariant.getImages().add(image);
-        }
         product.getVariants().add(productVariant);
 
         // Save the updated ProductVariant
@@ -128,6 +129,25 @@ public class ProductVariantServiceImpl implements ProductVariantService {
         return productVariantMapper.toResponse(productVariant);
     }
 
+    private void validateSizesAndImages(ProductVariantRequest request) {
+        // Validate sizes
+        if (request.sizes() == null || request.sizes().isEmpty()) {
+            throw new IllegalArgumentException("At least one size must be provided for the product variant.");
+        }
+
+        // Validate images
+        if (request.images() == null || request.images().isEmpty()) {
+            throw new IllegalArgumentException("At least one image must be provided for the product variant.");
+        }
+    }
+
+    private void checkDuplicateColor(Long productId, String color) {
+        boolean exists = productVariantRepository.existsByProductIdAndColorIgnoreCase(productId, color);
+        if (exists) {
+            throw new AlreadyExistsException("A variant with color '" + color + "' already exists for this product.");
+        }
+    }
+
     @Override
     public ProductVariantResponse updateProductVariant(Long variantId, ProductVariantRequest request) {
         ProductVariant productVariant = productVariantRepository.findById(variantId)
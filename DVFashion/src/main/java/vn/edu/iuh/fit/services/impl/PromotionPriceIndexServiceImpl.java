@@ -0,0 +1,148 @@
+/*
+ * @ {#} PromotionPriceIndexServiceImpl.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.edu.iuh.fit.dtos.response.PromotionPriceEntry;
+import vn.edu.iuh.fit.entities.Promotion;
+import vn.edu.iuh.fit.entities.PromotionProduct;
+import vn.edu.iuh.fit.entities.PromotionTranslation;
+import vn.edu.iuh.fit.enums.Language;
+import vn.edu.iuh.fit.repositories.PromotionProductRepository;
+import vn.edu.iuh.fit.services.PromotionPriceIndexService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/*
+ * @description: Service implementation keeping an immutable snapshot of current and upcoming promotion prices
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Service
+@Slf4j
+public class PromotionPriceIndexServiceImpl implements PromotionPriceIndexService {
+    private final PromotionProductRepository promotionProductRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Current snapshot, replaced as a whole on every rebuild so readers never block
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public PromotionPriceIndexServiceImpl(PromotionProductRepository promotionProductRepository,
+                                          PlatformTransactionManager transactionManager) {
+        this.promotionProductRepository = promotionProductRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public Optional<PromotionPriceEntry> findActivePromotion(Long productId) {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            rebuildIndex();
+            current = snapshot.get();
+        }
+
+        List<PromotionPriceEntry> entries = current.entriesByProduct().get(productId);
+        if (entries == null) {
+            return Optional.empty();
+        }
+
+        // Entries are sorted by promotion price, so the first active one is the lowest price
+        LocalDateTime now = LocalDateTime.now();
+        return entries.stream()
+                .filter(entry -> entry.isActiveAt(now))
+                .findFirst();
+    }
+
+    @Override
+    public synchronized void rebuildIndex() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<PromotionProduct> promotionProducts = transactionTemplate.execute(status ->
+                promotionProductRepository.findCurrentAndUpcomingWithPromotion(now));
+
+        Map<Long, List<PromotionPriceEntry>> entriesByProduct = promotionProducts.stream()
+                .filter(pp -> pp.getPromotionPrice() != null && pp.getPromotion().getStartDate() != null)
+                .map(this::toEntry)
+                .collect(Collectors.groupingBy(PromotionPriceEntry::productId));
+
+        entriesByProduct.replaceAll((productId, entries) -> entries.stream()
+                .sorted(Comparator.comparing(PromotionPriceEntry::promotionPrice))
+                .toList());
+
+        snapshot.set(new Snapshot(Map.copyOf(entriesByProduct)));
+
+        log.debug("Rebuilt promotion price index with {} promoted products", entriesByProduct.size());
+    }
+
+    @Override
+    public void refresh() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildIndex();
+            return;
+        }
+
+        // Rebuild only once the promotion changes are visible to other transactions
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    rebuildIndex();
+                } catch (Exception e) {
+                    log.error("Failed to rebuild promotion price index: {}", e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    // Each node holds its own snapshot and only hears about the promotion changes made on it. Rebuilding on a
+    // fixed delay brings changes made on other nodes in, and entries are filtered by their time window on read.
+    @Scheduled(fixedDelay = 30000) // Rebuild every 30 seconds
+    public void rebuildPeriodically() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.error("Failed to rebuild promotion price index: {}", e.getMessage(), e);
+        }
+    }
+
+    // Convert a PromotionProduct to an immutable index entry
+    private PromotionPriceEntry toEntry(PromotionProduct promotionProduct) {
+        Promotion promotion = promotionProduct.getPromotion();
+
+        Map<Language, String> names = promotion.getTranslations().stream()
+                .filter(t -> t.getLanguage() != null && t.getName() != null)
+                .collect(Collectors.toMap(PromotionTranslation::getLanguage, PromotionTranslation::getName,
+                        (first, second) -> first));
+
+        return new PromotionPriceEntry(
+                promotionProduct.getId(),
+                promotion.getId(),
+                promotionProduct.getProduct().getId(),
+                promotionProduct.getPromotionPrice(),
+                promotionProduct.getMaxQuantityPerUser(),
+                Map.copyOf(names),
+                promotion.getStartDate(),
+                promotion.getEndDate()
+        );
+    }
+
+    private record Snapshot(Map<Long, List<PromotionPriceEntry>> entriesByProduct) {}
+}
@@ -8,6 +8,7 @@ package vn.edu.iuh.fit.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -18,19 +19,27 @@ import vn.edu.iuh.fit.dtos.request.PromotionProductRequest;
 import vn.edu.iuh.fit.dtos.request.UpdatePromotionProductRequest;
 import vn.edu.iuh.fit.dtos.request.UpdatePromotionRequest;
 import vn.edu.iuh.fit.dtos.response.PageResponse;
+import vn.edu.iuh.fit.dtos.response.PromotionPriceEntry;
 import vn.edu.iuh.fit.dtos.response.PromotionResponse;
 import vn.edu.iuh.fit.dtos.response.PromotionStatisticsResponse;
 import vn.edu.iuh.fit.entities.*;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.enums.ProductStatus;
 import vn.edu.iuh.fit.enums.PromotionType;
+import vn.edu.iuh.fit.enums.StatisticsType;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
 import vn.edu.iuh.fit.exceptions.BadRequestException;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.exceptions.ResourceNotFoundException;
 import vn.edu.iuh.fit.mappers.PromotionMapper;
+import vn.edu.iuh.fit.exceptions.CartLimitExceededException;
+import vn.edu.iuh.fit.exceptions.InsufficientStockException;
+import vn.edu.iuh.fit.repositories.OrderItemRepository;
 import vn.edu.iuh.fit.repositories.ProductRepository;
+import vn.edu.iuh.fit.repositories.PromotionProductRepository;
 import vn.edu.iuh.fit.repositories.PromotionRepository;
 import vn.edu.iuh.fit.services.CloudinaryService;
+import vn.edu.iuh.fit.services.PromotionPriceIndexService;
 import vn.edu.iuh.fit.services.PromotionService;
 import vn.edu.iuh.fit.services.TranslationService;
 
@@ -62,6 +71,14 @@ public class PromotionServiceImpl implements PromotionService {
 
     private final CloudinaryService cloudinaryService;
 
+    private final PromotionPriceIndexService promotionPriceIndexService;
+
+    private final PromotionProductRepository promotionProductRepository;
+
+    private final OrderItemRepository orderItemRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @Transactional
     @Override
     public PromotionResponse createPromotion(CreatePromotionRequest request, Language inputLang, MultipartFile bannerFile) {
@@ -186,6 +203,11 @@ public class PromotionServiceImpl implements PromotionService {
         // Save final promotion with all relationships
         promotion = promotionRepository.save(promotion);
 
+        // Refresh promotion price index
+        promotionPriceIndexService.refresh();
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.PROMOTION, StatisticsType.PRODUCT));
+
         return promotionMapper.mapToPromotionResponse(promotion, inputLang);
     }
 
@@ -247,6 +269,11 @@ public class PromotionServiceImpl implements PromotionService {
         // Save updated promotion
         existingPromotion = promotionRepository.save(existingPromotion);
 
+        // Refresh promotion price index
+        promotionPriceIndexService.refresh();
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.PROMOTION, StatisticsType.PRODUCT));
+
         return promotionMapper.mapToPromotionResponse(existingPromotion, inputLang);
     }
 
@@ -294,6 +321,11 @@ public class PromotionServiceImpl implements PromotionService {
 
         // Save the updated promotion
         promotionRepository.save(promotion);
+
+        // Refresh promotion price index
+        promotionPriceIndexService.refresh();
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.PROMOTION, StatisticsType.PRODUCT));
     }
 
     @Override
@@ -344,6 +376,80 @@ public class PromotionServiceImpl implements PromotionService {
 
         // Delete the promotion (this will cascade delete remaining relationships)
         promotionRepository.delete(promotion);
+
+        // Refresh promotion price index
+        promotionPriceIndexService.refresh();
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.PROMOTION, StatisticsType.PRODUCT));
+    }
+
+    @Transactional
+    @Override
+    public void reservePromotionStock(List<OrderItem> orderItems, User customer) {
+        // Group order items by the active promotion of their product
+        Map<PromotionPriceEntry, List<OrderItem>> itemsByPromotion = new LinkedHashMap<>();
+        for (OrderItem item : orderItems) {
+            Long productId = item.getProductVariant().getProduct().getId();
+            promotionPriceIndexService.findActivePromotion(productId)
+                    .ifPresent(entry -> itemsByPromotion.computeIfAbsent(entry, e -> new ArrayList<>()).add(item));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<PromotionPriceEntry, List<OrderItem>> group : itemsByPromotion.entrySet()) {
+            PromotionPriceEntry entry = group.getKey();
+            int quantity = group.getValue().stream().mapToInt(OrderItem::getQuantity).sum();
+
+            // Conditional increment, the row lock it takes serializes concurrent buyers of this promotion product.
+            // It also rechecks that the promotion is still running, the index snapshot may lag behind the database.
+            int updated = promotionProductRepository.incrementSoldQuantityIfAvailable(
+                    entry.promotionProductId(), quantity, now);
+            if (updated == 0) {
+                throw new InsufficientStockException("Promotion stock is not available for product ID: " + entry.productId());
+            }
+
+            // Check per-user limit while holding the promotion product row lock
+            if (entry.maxQuantityPerUser() != null) {
+                int purchasedQuantity = orderItemRepository.sumQuantityByUserAndPromotionProduct(
+                        customer.getId(), entry.promotionProductId());
+
+                if (purchasedQuantity + quantity > entry.maxQuantityPerUser()) {
+                    throw new CartLimitExceededException(String.format(
+                            "Maximum %d items per user for this promotion. You have already purchased %d",
+                            entry.maxQuantityPerUser(), purchasedQuantity));
+                }
+            }
+
+            PromotionProduct promotionProduct = promotionProductRepository.getReferenceById(entry.promotionProductId());
+            group.getValue().forEach(item -> item.setPromotionProduct(promotionProduct));
+
+            log.info("Reserved {} promotion units of promotion product {} for user {}",
+                    quantity, entry.promotionProductId(), customer.getId());
+        }
+    }
+
+    @Transactional
+    @Override
+    public void releasePromotionStock(Order order) {
+        Map<Long, Integer> quantityByPromotionProduct = order.getItems().stream()
+                .filter(item -> item.getPromotionProduct() != null)
+                .collect(Collectors.groupingBy(item -> item.getPromotionProduct().getId(),
+                        Collectors.summingInt(OrderItem::getQuantity)));
+
+        quantityByPromotionProduct.forEach((promotionProductId, quantity) -> {
+            // Only the caller that detaches the items gives the units back, so a second release is a no-op
+            if (orderItemRepository.clearPromotionProduct(order.getId(), promotionProductId) == 0) {
+                log.info("Promotion units of promotion product {} for order {} were already released",
+                        promotionProductId, order.getOrderNumber());
+                return;
+            }
+
+            promotionProductRepository.decrementSoldQuantity(promotionProductId, quantity);
+            log.info("Released {} promotion units of promotion product {} for order {}",
+                    quantity, promotionProductId, order.getOrderNumber());
+        });
+
+        // Keep the loaded items in line with the rows
+        order.getItems().forEach(item -> item.setPromotionProduct(null));
     }
 
     @Override
@@ -134,21 +134,21 @@ public class RecommendationServiceImpl implements RecommendationService {
             List<ProductRecommendationResponse> recommendations = response.getBody();
             Language language = LanguageUtils.getCurrentLanguage();
 
-            // Log each suggested product
+            // Log each suggested product, the entries are inserted together in one batch
             if (recommendations != null && !recommendations.isEmpty()) {
-                recommendations.forEach(rec -> {
-                    try {
-                        RecommendationLog logEntry = RecommendationLog.builder()
-                                .userId(userId)
-                                .productId(productId)
-                                .recommendedProductId(rec.productId())
-                                .build();
-
-                        recommendationLogRepository.save(logEntry);
-                    } catch (Exception ex) {
-                        log.error("Failed to save recommendation log for product {}: {}", rec.productId(), ex.getMessage());
-                    }
-                });
+                try {
+                    List<RecommendationLog> logEntries = recommendations.stream()
+                            .map(rec -> RecommendationLog.builder()
+                                    .userId(userId)
+                                    .productId(productId)
+                                    .recommendedProductId(rec.productId())
+                                    .build())
+                            .toList();
+
+                    recommendationLogRepository.saveAll(logEntries);
+                } catch (Exception ex) {
+                    log.error("Failed to save recommendation logs for product {}: {}", productId, ex.getMessage());
+                }
             }
 
             return recommendations.stream()
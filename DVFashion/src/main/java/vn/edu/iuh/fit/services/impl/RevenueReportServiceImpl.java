@@ -14,17 +14,16 @@ import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 import vn.edu.iuh.fit.dtos.response.RevenueReportResponse;
+import vn.edu.iuh.fit.entities.DailySalesRollup;
 import vn.edu.iuh.fit.entities.Order;
-import vn.edu.iuh.fit.enums.OrderStatus;
 import vn.edu.iuh.fit.enums.ReportPeriodType;
-import vn.edu.iuh.fit.repositories.OrderRepository;
+import vn.edu.iuh.fit.repositories.DailySalesRollupRepository;
 import vn.edu.iuh.fit.services.RevenueReportService;
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -40,24 +39,28 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class RevenueReportServiceImpl implements RevenueReportService {
-    private final OrderRepository orderRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
 
     @Override
     public RevenueReportResponse getRevenueReport(ReportPeriodType periodType, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-        OrderStatus status = OrderStatus.DELIVERED;
+        // Đọc bảng tổng hợp theo ngày (mỗi ngày một dòng) thay vì quét lại orders/order_items
+        List<DailySalesRollup> rollups =
+                dailySalesRollupRepository.findBySalesDateBetweenOrderBySalesDateAsc(startDate, endDate);
 
-        // Tính toán metrics tổng quát bằng query - NHANH HỚN
-        BigDecimal totalRevenue = orderRepository.calculateTotalRevenueInPeriod(status, startDateTime, endDateTime);
-        long totalOrders = orderRepository.countOrdersInPeriod(status, startDateTime, endDateTime);
+        // Tính toán metrics tổng quát
+        BigDecimal totalRevenue = rollups.stream()
+                .map(DailySalesRollup::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long totalOrders = rollups.stream()
+                .mapToLong(DailySalesRollup::getOrderCount)
+                .sum();
         BigDecimal averageOrderValue = totalOrders > 0 ?
                 totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) :
                 BigDecimal.ZERO;
 
-        // Lấy chi tiết theo period bằng query - NHANH HƠN
+        // Lấy chi tiết theo period từ các dòng tổng hợp
         List<RevenueReportResponse.RevenueDetailResponse> details =
-                createRevenueDetailsOptimized(periodType, startDateTime, endDateTime, status);
+                createRevenueDetailsOptimized(periodType, startDate, endDate, rollups);
 
         // So sánh với kỳ trước
         RevenueReportResponse.RevenueComparisonResponse comparison =
@@ -78,24 +81,29 @@ public class RevenueReportServiceImpl implements RevenueReportService {
     }
 
     private List<RevenueReportResponse.RevenueDetailResponse> createRevenueDetailsOptimized(
-            ReportPeriodType periodType, LocalDateTime startDateTime, LocalDateTime endDateTime, OrderStatus status) {
-
-        // Gọi query phù hợp theo periodType
-        List<Object[]> queryResults = switch (periodType) {
-            case DAILY -> orderRepository.getRevenueStatsByDay(status, startDateTime, endDateTime);
-            case MONTHLY -> orderRepository.getRevenueStatsByMonth(status, startDateTime, endDateTime);
-            case QUARTERLY -> orderRepository.getRevenueStatsByQuarter(status, startDateTime, endDateTime);
-            case YEARLY -> orderRepository.getRevenueStatsByYear(status, startDateTime, endDateTime);
-        };
+            ReportPeriodType periodType, LocalDate startDate, LocalDate endDate, List<DailySalesRollup> rollups) {
+
+        // Gom các dòng tổng hợp theo ngày vào period tương ứng
+        Map<String, List<DailySalesRollup>> rollupsByPeriod = rollups.stream()
+                .collect(Collectors.groupingBy(
+                        rollup -> formatDateToPeriod(rollup.getSalesDate(), periodType),
+                        LinkedHashMap::new,
+                        Collectors.toList()));
 
-        // Tạo map từ kết quả query
+        // Tạo map từ các period có dữ liệu
         Map<String, RevenueReportResponse.RevenueDetailResponse> resultMap = new LinkedHashMap<>();
 
-        for (Object[] row : queryResults) {
-            String period = (String) row[0];
-            long totalOrders = ((Number) row[1]).longValue();
-            BigDecimal totalRevenue = (BigDecimal) row[2];
-            BigDecimal totalProducts = new BigDecimal(((Number) row[3]).toString());
+        for (Map.Entry<String, List<DailySalesRollup>> entry : rollupsByPeriod.entrySet()) {
+            String period = entry.getKey();
+            long totalOrders = entry.getValue().stream()
+                    .mapToLong(DailySalesRollup::getOrderCount)
+                    .sum();
+            BigDecimal totalRevenue = entry.getValue().stream()
+                    .map(DailySalesRollup::getRevenue)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal totalProducts = BigDecimal.valueOf(entry.getValue().stream()
+                    .mapToLong(DailySalesRollup::getItemQuantity)
+                    .sum());
 
             BigDecimal avgOrderValue = totalOrders > 0 ?
                     totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) :
@@ -113,7 +121,7 @@ public class RevenueReportServiceImpl implements RevenueReportService {
         }
 
         // Điền các period trống (nếu có)
-        List<String> allPeriods = generatePeriods(periodType, startDateTime.toLocalDate(), endDateTime.toLocalDate());
+        List<String> allPeriods = generatePeriods(periodType, startDate, endDate);
         List<RevenueReportResponse.RevenueDetailResponse> details = new ArrayList<>();
 
         RevenueReportResponse.RevenueDetailResponse previousDetail = null;
@@ -184,12 +192,8 @@ public class RevenueReportServiceImpl implements RevenueReportService {
             default -> throw new IllegalStateException("Unexpected value: " + periodType);
         }
 
-        // Dùng query để tính doanh thu kỳ trước - NHANH HƠN
-        BigDecimal previousRevenue = orderRepository.calculateTotalRevenueInPeriod(
-                OrderStatus.DELIVERED,
-                previousStartDate.atStartOfDay(),
-                previousEndDate.atTime(23, 59, 59)
-        );
+        // Doanh thu kỳ trước lấy từ bảng tổng hợp theo ngày
+        BigDecimal previousRevenue = dailySalesRollupRepository.sumRevenueBetween(previousStartDate, previousEndDate);
 
         // Tính toán tăng trưởng
         BigDecimal growthAmount = currentRevenue.subtract(previousRevenue);
@@ -0,0 +1,298 @@
+/*
+ * @ {#} SalesRollupServiceImpl.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.edu.iuh.fit.entities.DailyCategorySalesRollup;
+import vn.edu.iuh.fit.entities.DailySalesRollup;
+import vn.edu.iuh.fit.entities.Order;
+import vn.edu.iuh.fit.enums.OrderStatus;
+import vn.edu.iuh.fit.repositories.*;
+import vn.edu.iuh.fit.services.SalesRollupService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/*
+ * @description: Service implementation maintaining the daily sales rollups incrementally and reconciling them nightly
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Service
+@Slf4j
+public class SalesRollupServiceImpl implements SalesRollupService {
+    // Number of most recent days recomputed by the nightly reconciliation
+    private static final int RECONCILE_WINDOW_DAYS = 90;
+
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+
+    private final DailyCategorySalesRollupRepository dailyCategorySalesRollupRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderItemRepository orderItemRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Used to create missing rollup rows in their own transaction, so concurrent inserts cannot fail the caller
+    private final TransactionTemplate requiresNewTemplate;
+
+    public SalesRollupServiceImpl(DailySalesRollupRepository dailySalesRollupRepository,
+                                  DailyCategorySalesRollupRepository dailyCategorySalesRollupRepository,
+                                  OrderRepository orderRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  CategoryRepository categoryRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.dailySalesRollupRepository = dailySalesRollupRepository;
+        this.dailyCategorySalesRollupRepository = dailyCategorySalesRollupRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void recordStatusChange(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
+        boolean wasDelivered = oldStatus == OrderStatus.DELIVERED;
+        boolean isDelivered = newStatus == OrderStatus.DELIVERED;
+        if (wasDelivered == isDelivered || order.getOrderDate() == null) {
+            return;
+        }
+
+        int sign = isDelivered ? 1 : -1;
+        LocalDate salesDate = order.getOrderDate().toLocalDate();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Sorted by category so concurrent updates always lock rows in the same order
+        List<Object[]> categoryRows = new ArrayList<>(orderItemRepository.summarizeByCategoryForOrder(order.getId()));
+        categoryRows.sort(Comparator.comparing(row -> (Long) row[0]));
+
+        ensureRollupRows(salesDate, categoryRows.stream().map(row -> (Long) row[0]).toList());
+
+        long itemQuantity = 0;
+        BigDecimal grossAmount = BigDecimal.ZERO;
+        BigDecimal itemDiscount = BigDecimal.ZERO;
+        for (Object[] row : categoryRows) {
+            itemQuantity += ((Number) row[1]).longValue();
+            grossAmount = grossAmount.add(toBigDecimal(row[2]));
+            itemDiscount = itemDiscount.add(toBigDecimal(row[3]));
+        }
+
+        BigDecimal voucherDiscount = order.getVoucherDiscount() != null ? order.getVoucherDiscount() : BigDecimal.ZERO;
+        BigDecimal shippingFee = order.getShippingFee() != null ? order.getShippingFee() : BigDecimal.ZERO;
+        BigDecimal revenue = grossAmount.subtract(itemDiscount).subtract(voucherDiscount);
+
+        int updated = dailySalesRollupRepository.incrementTotals(salesDate, sign, sign * itemQuantity,
+                signed(grossAmount, sign), signed(itemDiscount, sign), signed(voucherDiscount, sign),
+                signed(shippingFee, sign), signed(revenue, sign), now);
+
+        for (Object[] row : categoryRows) {
+            updated += dailyCategorySalesRollupRepository.incrementTotals(salesDate, (Long) row[0], sign,
+                    sign * ((Number) row[1]).longValue(), signed(toBigDecimal(row[2]), sign),
+                    signed(toBigDecimal(row[3]), sign), now);
+        }
+
+        if (updated < categoryRows.size() + 1) {
+            // Rows were removed outside the application; the next reconciliation fixes the day
+            log.warn("Sales rollup for {} was not fully updated for order {}", salesDate, order.getOrderNumber());
+        }
+
+        log.debug("Applied order {} ({} -> {}) to sales rollup of {}",
+                order.getOrderNumber(), oldStatus, newStatus, salesDate);
+    }
+
+    @Override
+    public void reconcile(LocalDate startDate, LocalDate endDate) {
+        // Every day of the range gets a row, the locked day rows below are what holds incremental updates back
+        ensureDailyRows(startDate, endDate);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Lock before aggregating: a status change committed before the lock is counted by the aggregates,
+            // one waiting on the lock is applied on top of the reconciled totals afterwards
+            Map<LocalDate, DailySalesRollup> dailyRollups = new TreeMap<>();
+            for (DailySalesRollup daily : dailySalesRollupRepository.findBySalesDateBetweenForUpdate(startDate, endDate)) {
+                dailyRollups.put(daily.getSalesDate(), daily);
+            }
+
+            LocalDateTime startDateTime = startDate.atStartOfDay();
+            LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
+
+            List<Object[]> orderCharges = orderRepository.aggregateDailyOrderCharges(
+                    OrderStatus.DELIVERED, startDateTime, endDateTime);
+            List<Object[]> categorySales = orderItemRepository.aggregateDailyCategorySales(
+                    OrderStatus.DELIVERED, startDateTime, endDateTime);
+
+            ensureRollupRows(categorySales.stream()
+                    .map(row -> new CategoryDay((LocalDate) row[0], (Long) row[1]))
+                    .toList());
+
+            LocalDateTime now = LocalDateTime.now();
+
+            // Rows are updated in place, so an increment waiting on a row still finds it afterwards
+            dailyRollups.values().forEach(daily -> resetTotals(daily, now));
+
+            Map<CategoryDay, DailyCategorySalesRollup> categoryRollups = new HashMap<>();
+            for (DailyCategorySalesRollup category :
+                    dailyCategorySalesRollupRepository.findBySalesDateBetweenForUpdate(startDate, endDate)) {
+                category.setOrderCount(0);
+                category.setItemQuantity(0);
+                category.setGrossAmount(BigDecimal.ZERO);
+                category.setItemDiscount(BigDecimal.ZERO);
+                category.setUpdatedAt(now);
+                categoryRollups.put(new CategoryDay(category.getSalesDate(), category.getCategory().getId()), category);
+            }
+
+            for (Object[] row : orderCharges) {
+                DailySalesRollup daily = dailyRollups.get((LocalDate) row[0]);
+                daily.setOrderCount(((Number) row[1]).longValue());
+                daily.setVoucherDiscount(toBigDecimal(row[2]));
+                daily.setShippingFee(toBigDecimal(row[3]));
+            }
+
+            for (Object[] row : categorySales) {
+                LocalDate salesDate = (LocalDate) row[0];
+                long itemQuantity = ((Number) row[3]).longValue();
+                BigDecimal grossAmount = toBigDecimal(row[4]);
+                BigDecimal itemDiscount = toBigDecimal(row[5]);
+
+                DailyCategorySalesRollup category = categoryRollups.get(new CategoryDay(salesDate, (Long) row[1]));
+                category.setOrderCount(((Number) row[2]).longValue());
+                category.setItemQuantity(itemQuantity);
+                category.setGrossAmount(grossAmount);
+                category.setItemDiscount(itemDiscount);
+
+                // Every product belongs to exactly one category, so the categories add up to the day totals
+                DailySalesRollup daily = dailyRollups.get(salesDate);
+                daily.setItemQuantity(daily.getItemQuantity() + itemQuantity);
+                daily.setGrossAmount(daily.getGrossAmount().add(grossAmount));
+                daily.setItemDiscount(daily.getItemDiscount().add(itemDiscount));
+            }
+
+            dailyRollups.values().forEach(daily -> daily.setRevenue(daily.getGrossAmount()
+                    .subtract(daily.getItemDiscount())
+                    .subtract(daily.getVoucherDiscount())));
+
+            log.info("Reconciled sales rollups from {} to {}: {} days with sales, {} category rows",
+                    startDate, endDate, orderCharges.size(), categorySales.size());
+        });
+    }
+
+    @Scheduled(cron = "0 30 2 * * *") // Every day at 2:30 AM
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        try {
+            reconcile(today.minusDays(RECONCILE_WINDOW_DAYS), today);
+        } catch (Exception e) {
+            log.error("Failed to reconcile sales rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    // Build the rollups from scratch the first time the application starts with an empty rollup table
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (dailySalesRollupRepository.count() > 0) {
+                return;
+            }
+
+            LocalDateTime earliestOrderDate = orderRepository.findEarliestOrderDate(OrderStatus.DELIVERED);
+            if (earliestOrderDate != null) {
+                reconcile(earliestOrderDate.toLocalDate(), LocalDate.now());
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill sales rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    // Make sure the rollup rows of a day exist, so the increments below are plain row updates
+    private void ensureRollupRows(LocalDate salesDate, List<Long> categoryIds) {
+        ensureDailyRow(salesDate);
+        ensureRollupRows(categoryIds.stream().map(categoryId -> new CategoryDay(salesDate, categoryId)).toList());
+    }
+
+    private void ensureDailyRows(LocalDate startDate, LocalDate endDate) {
+        Set<LocalDate> existing = new HashSet<>();
+        dailySalesRollupRepository.findBySalesDateBetweenOrderBySalesDateAsc(startDate, endDate)
+                .forEach(daily -> existing.add(daily.getSalesDate()));
+
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (!existing.contains(day)) {
+                ensureDailyRow(day);
+            }
+        }
+    }
+
+    private void ensureDailyRow(LocalDate salesDate) {
+        if (!dailySalesRollupRepository.existsBySalesDate(salesDate)) {
+            insertIgnoringDuplicate(() -> dailySalesRollupRepository.saveAndFlush(DailySalesRollup.builder()
+                    .salesDate(salesDate)
+                    .updatedAt(LocalDateTime.now())
+                    .build()));
+        }
+    }
+
+    private void ensureRollupRows(List<CategoryDay> categoryDays) {
+        for (CategoryDay categoryDay : categoryDays) {
+            if (!dailyCategorySalesRollupRepository.existsBySalesDateAndCategoryId(
+                    categoryDay.salesDate(), categoryDay.categoryId())) {
+                insertIgnoringDuplicate(() -> dailyCategorySalesRollupRepository.saveAndFlush(
+                        DailyCategorySalesRollup.builder()
+                                .salesDate(categoryDay.salesDate())
+                                .category(categoryRepository.getReferenceById(categoryDay.categoryId()))
+                                .updatedAt(LocalDateTime.now())
+                                .build()));
+            }
+        }
+    }
+
+    private void resetTotals(DailySalesRollup daily, LocalDateTime updatedAt) {
+        daily.setOrderCount(0);
+        daily.setItemQuantity(0);
+        daily.setGrossAmount(BigDecimal.ZERO);
+        daily.setItemDiscount(BigDecimal.ZERO);
+        daily.setVoucherDiscount(BigDecimal.ZERO);
+        daily.setShippingFee(BigDecimal.ZERO);
+        daily.setRevenue(BigDecimal.ZERO);
+        daily.setUpdatedAt(updatedAt);
+    }
+
+    private void insertIgnoringDuplicate(Runnable insert) {
+        try {
+            requiresNewTemplate.executeWithoutResult(status -> insert.run());
+        } catch (DataIntegrityViolationException e) {
+            // Another transaction created the same row first
+            log.debug("Sales rollup row already exists: {}", e.getMessage());
+        }
+    }
+
+    private BigDecimal signed(BigDecimal value, int sign) {
+        return sign < 0 ? value.negate() : value;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal bigDecimal) return bigDecimal;
+        return new BigDecimal(value.toString());
+    }
+
+    private record CategoryDay(LocalDate salesDate, Long categoryId) {}
+}
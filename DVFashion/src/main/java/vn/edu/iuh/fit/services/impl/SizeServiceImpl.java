@@ -19,13 +19,18 @@ import vn.edu.iuh.fit.dtos.request.SizeRequest;
 import vn.edu.iuh.fit.dtos.response.SizeResponse;
 import vn.edu.iuh.fit.entities.ProductVariant;
 import vn.edu.iuh.fit.entities.Size;
+import vn.edu.iuh.fit.exceptions.AlreadyExistsException;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
 import vn.edu.iuh.fit.mappers.SizeMapper;
 import vn.edu.iuh.fit.repositories.ProductVariantRepository;
 import vn.edu.iuh.fit.repositories.SizeRepository;
 import vn.edu.iuh.fit.services.SizeService;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -58,6 +63,29 @@ public class SizeServiceImpl implements SizeService {
         return sizeMapper.toResponse(sizeResponse);
     }
 
+    @Override
+    public List<Size> addSizesToVariant(ProductVariant variant, List<SizeRequest> requests) {
+        // Names already used by the variant, plus the ones added by this request
+        Set<String> sizeNames = variant.getSizes().stream()
+                .map(Size::getSizeName)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<Size> sizes = new ArrayList<>(requests.size());
+        for (SizeRequest request : requests) {
+            if (!sizeNames.add(request.sizeName())) {
+                throw new AlreadyExistsException("Size already exists with name: " + request.sizeName());
+            }
+
+            Size size = new Size();
+            size.setProductVariant(variant);
+            size.setSizeName(request.sizeName());
+            sizes.add(size);
+        }
+
+        // Ids come from a pooled sequence, so the inserts are flushed together as one JDBC batch
+        return sizeRepository.saveAll(sizes);
+    }
+
     @Override
     public SizeResponse updateSize(Long sizeId, SizeRequest request) {
         // Check if Size exists
@@ -12,25 +12,24 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import vn.edu.iuh.fit.dtos.response.*;
+import vn.edu.iuh.fit.entities.DailySalesRollup;
 import vn.edu.iuh.fit.entities.Inventory;
-import vn.edu.iuh.fit.entities.Order;
 import vn.edu.iuh.fit.enums.Language;
 import vn.edu.iuh.fit.enums.OrderStatus;
 import vn.edu.iuh.fit.mappers.InventoryMapper;
-import vn.edu.iuh.fit.repositories.InventoryRepository;
-import vn.edu.iuh.fit.repositories.OrderRepository;
-import vn.edu.iuh.fit.repositories.PromotionRepository;
+import vn.edu.iuh.fit.repositories.*;
 import vn.edu.iuh.fit.services.StatisticService;
 import vn.edu.iuh.fit.utils.LanguageUtils;
 
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /*
@@ -51,41 +50,44 @@ public class StatisticServiceImpl implements StatisticService {
 
     private final PromotionRepository promotionRepository;
 
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+
+    private final DailyCategorySalesRollupRepository dailyCategorySalesRollupRepository;
+
     @Override
     public BigDecimal getRevenueStatistics(String period, LocalDate startDate, LocalDate endDate) {
-        LocalDateTime startDateTime;
-        LocalDateTime endDateTime;
+        LocalDate fromDate;
+        LocalDate toDate;
         LocalDate today = LocalDate.now();
 
         switch (period.toLowerCase()) {
             case "week":
-                startDateTime = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
-                endDateTime = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).atTime(23, 59, 59);
+                fromDate = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                toDate = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
                 break;
             case "month":
-                startDateTime = today.with(TemporalAdjusters.firstDayOfMonth()).atStartOfDay();
-                endDateTime = today.with(TemporalAdjusters.lastDayOfMonth()).atTime(23, 59, 59);
+                fromDate = today.with(TemporalAdjusters.firstDayOfMonth());
+                toDate = today.with(TemporalAdjusters.lastDayOfMonth());
                 break;
             case "year":
-                startDateTime = today.with(TemporalAdjusters.firstDayOfYear()).atStartOfDay();
-                endDateTime = today.with(TemporalAdjusters.lastDayOfYear()).atTime(23, 59, 59);
+                fromDate = today.with(TemporalAdjusters.firstDayOfYear());
+                toDate = today.with(TemporalAdjusters.lastDayOfYear());
                 break;
             case "range":
                 if (startDate == null || endDate == null) {
                     throw new IllegalArgumentException("Start date and end date are required for range period.");
                 }
-                startDateTime = startDate.atStartOfDay();
-                endDateTime = endDate.atTime(23, 59, 59);
+                fromDate = startDate;
+                toDate = endDate;
                 break;
             case "day":
             default:
-                startDateTime = today.atStartOfDay();
-                endDateTime = today.atTime(23, 59, 59);
+                fromDate = today;
+                toDate = today;
                 break;
         }
 
-        BigDecimal revenue = orderRepository.calculateRevenue(OrderStatus.DELIVERED, startDateTime, endDateTime);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return dailySalesRollupRepository.sumRevenueBetween(fromDate, toDate);
     }
 
     @Override
@@ -103,16 +105,11 @@ public class StatisticServiceImpl implements StatisticService {
             endDate = today;
         }
 
-        // Convert LocalDate to LocalDateTime
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
-
-        List<Object[]> results = orderRepository.calculateDailyRevenue(OrderStatus.DELIVERED, startDateTime, endDateTime);
-
-        return results.stream()
-                .map(result -> new RevenueDataPoint(
-                        result[0].toString(), // Date
-                        (BigDecimal) result[1] // Revenue
+        return dailySalesRollupRepository.findBySalesDateBetweenOrderBySalesDateAsc(startDate, endDate).stream()
+                .filter(rollup -> rollup.getOrderCount() > 0)
+                .map(rollup -> new RevenueDataPoint(
+                        rollup.getSalesDate().toString(), // Date
+                        rollup.getRevenue() // Revenue
                 ))
                 .toList();
     }
@@ -121,17 +118,25 @@ public class StatisticServiceImpl implements StatisticService {
     public List<RevenueDataPoint> getMonthlyRevenue(Integer year) {
         int targetYear = (year != null) ? year : LocalDate.now().getYear();
 
-        List<Object[]> results = orderRepository.calculateMonthlyRevenue(OrderStatus.DELIVERED, targetYear);
+        List<DailySalesRollup> rollups = dailySalesRollupRepository.findBySalesDateBetweenOrderBySalesDateAsc(
+                LocalDate.of(targetYear, 1, 1),
+                LocalDate.of(targetYear, 12, 31)
+        );
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM");
 
-        return results.stream()
-                .map(result -> {
-                    LocalDateTime monthDateTime = (LocalDateTime) result[0];
-                    String formattedPeriod = monthDateTime.format(formatter); // "2025-01", "2025-02", ...
-
-                    BigDecimal revenue = (BigDecimal) result[1]; // Revenue
-                    return new RevenueDataPoint(formattedPeriod, revenue);
-                })
+        // Sum the daily rows of each month, keeping months in chronological order
+        Map<YearMonth, BigDecimal> revenueByMonth = rollups.stream()
+                .filter(rollup -> rollup.getOrderCount() > 0)
+                .collect(Collectors.groupingBy(
+                        rollup -> YearMonth.from(rollup.getSalesDate()),
+                        TreeMap::new,
+                        Collectors.reducing(BigDecimal.ZERO, DailySalesRollup::getRevenue, BigDecimal::add)));
+
+        return revenueByMonth.entrySet().stream()
+                .map(entry -> new RevenueDataPoint(
+                        entry.getKey().format(formatter), // "2025-01", "2025-02", ...
+                        entry.getValue() // Revenue
+                ))
                 .toList();
     }
 
@@ -140,30 +145,11 @@ public class StatisticServiceImpl implements StatisticService {
         // Get target year
         int targetYear = (year != null) ? year : LocalDate.now().getYear();
 
-        LocalDateTime start = LocalDate.of(targetYear, 1, 1).atStartOfDay();
-        LocalDateTime end   = LocalDate.of(targetYear, 12, 31).atTime(23, 59, 59);
-
-        List<Order> orders = orderRepository.findOrdersForReport(
-                start,
-                end,
-                List.of(OrderStatus.DELIVERED)
+        BigDecimal revenue = dailySalesRollupRepository.sumRevenueBetween(
+                LocalDate.of(targetYear, 1, 1),
+                LocalDate.of(targetYear, 12, 31)
         );
 
-        // If no orders found, return 0 revenue for the year
-        if (orders.isEmpty()) {
-            return List.of(
-                    new RevenueDataPoint(
-                            String.valueOf(targetYear),
-                            BigDecimal.ZERO
-                    )
-            );
-        }
-
-        // Calculate total revenue
-        BigDecimal revenue = orders.stream()
-                .map(this::calculateOrderRevenue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         return List.of(
                 new RevenueDataPoint(
                         String.valueOf(targetYear),
@@ -172,18 +158,24 @@ public class StatisticServiceImpl implements StatisticService {
         );
     }
 
-    private BigDecimal calculateOrderRevenue(Order order) {
-        BigDecimal productAmount = order.getItems().stream()
-                .map(item -> item.getUnitPrice()
-                        .subtract(item.getDiscount() != null ? item.getDiscount() : BigDecimal.ZERO)
-                        .multiply(BigDecimal.valueOf(item.getQuantity()))
-                )
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    public List<CategoryRevenueStatistic> getRevenueByCategory(LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = startDate != null ? startDate : today.with(TemporalAdjusters.firstDayOfMonth());
+        LocalDate toDate = endDate != null ? endDate : today;
 
-        BigDecimal shippingFee = order.getShippingFee() != null ? order.getShippingFee() : BigDecimal.ZERO;
-        BigDecimal voucherDiscount = order.getVoucherDiscount() != null ? order.getVoucherDiscount() : BigDecimal.ZERO;
+        Language language = LanguageUtils.getCurrentLanguage();
+        List<Object[]> results = dailyCategorySalesRollupRepository.sumByCategoryBetween(fromDate, toDate, language);
 
-        return productAmount.subtract(voucherDiscount);
+        return results.stream()
+                .map(result -> new CategoryRevenueStatistic(
+                        ((Number) result[0]).longValue(), // Category ID
+                        (String) result[1],               // Category Name
+                        ((Number) result[2]).longValue(), // Total Orders
+                        ((Number) result[3]).longValue(), // Total Quantity
+                        (BigDecimal) result[4]            // Total Revenue
+                ))
+                .toList();
     }
 
     @Override
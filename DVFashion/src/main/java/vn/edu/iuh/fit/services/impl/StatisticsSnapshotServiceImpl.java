@@ -0,0 +1,235 @@
+/*
+ * @ {#} StatisticsSnapshotServiceImpl.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.edu.iuh.fit.dtos.response.*;
+import vn.edu.iuh.fit.enums.StatisticsType;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
+import vn.edu.iuh.fit.services.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/*
+ * @description: Service implementation keeping the admin dashboard statistics as in-memory snapshots
+ *               that are refreshed on a schedule and served stale while being revalidated
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@Service
+@Slf4j
+public class StatisticsSnapshotServiceImpl implements StatisticsSnapshotService {
+    // Snapshots older than this are recomputed even without a change event
+    private static final Duration MAX_SNAPSHOT_AGE = Duration.ofMinutes(5);
+
+    private final Map<StatisticsType, SnapshotHolder<?>> holders = new EnumMap<>(StatisticsType.class);
+
+    // Single background thread so at most one statistics query runs at a time outside of cold starts
+    private final ExecutorService refreshExecutor;
+
+    private final SnapshotHolder<ProductStatisticsResponse> productStatistics;
+
+    private final SnapshotHolder<OrderStatisticsResponse> orderStatistics;
+
+    private final SnapshotHolder<InventoryStatsResponse> inventoryStatistics;
+
+    private final SnapshotHolder<VoucherStatisticsResponse> voucherStatistics;
+
+    private final SnapshotHolder<PromotionStatisticsResponse> promotionStatistics;
+
+    private final SnapshotHolder<CategoryStatisticsResponse> categoryStatistics;
+
+    public StatisticsSnapshotServiceImpl(ProductService productService,
+                                         OrderService orderService,
+                                         InventoryService inventoryService,
+                                         VoucherService voucherService,
+                                         PromotionService promotionService,
+                                         CategoryService categoryService,
+                                         MeterRegistry meterRegistry) {
+        // Monitored so a growing refresh backlog shows up as a gauge
+        this.refreshExecutor = ExecutorServiceMetrics.monitor(meterRegistry, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "statistics-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }), "statistics.snapshot.refresh");
+        this.productStatistics = register(StatisticsType.PRODUCT, productService::getProductStatistics);
+        this.orderStatistics = register(StatisticsType.ORDER, orderService::getOrderStatistics);
+        this.inventoryStatistics = register(StatisticsType.INVENTORY, inventoryService::getInventoryStats);
+        this.voucherStatistics = register(StatisticsType.VOUCHER, voucherService::getVoucherStatistics);
+        this.promotionStatistics = register(StatisticsType.PROMOTION, promotionService::getPromotionStatistics);
+        this.categoryStatistics = register(StatisticsType.CATEGORY, categoryService::getCategoryStatistics);
+    }
+
+    @Override
+    public StatisticsSnapshot<ProductStatisticsResponse> getProductStatistics() {
+        return read(productStatistics);
+    }
+
+    @Override
+    public StatisticsSnapshot<OrderStatisticsResponse> getOrderStatistics() {
+        return read(orderStatistics);
+    }
+
+    @Override
+    public StatisticsSnapshot<InventoryStatsResponse> getInventoryStatistics() {
+        return read(inventoryStatistics);
+    }
+
+    @Override
+    public StatisticsSnapshot<VoucherStatisticsResponse> getVoucherStatistics() {
+        return read(voucherStatistics);
+    }
+
+    @Override
+    public StatisticsSnapshot<PromotionStatisticsResponse> getPromotionStatistics() {
+        return read(promotionStatistics);
+    }
+
+    @Override
+    public StatisticsSnapshot<CategoryStatisticsResponse> getCategoryStatistics() {
+        return read(categoryStatistics);
+    }
+
+    @Override
+    public DashboardStatisticsResponse getDashboardStatistics() {
+        return DashboardStatisticsResponse.builder()
+                .productStatistics(getProductStatistics())
+                .orderStatistics(getOrderStatistics())
+                .inventoryStatistics(getInventoryStatistics())
+                .voucherStatistics(getVoucherStatistics())
+                .promotionStatistics(getPromotionStatistics())
+                .categoryStatistics(getCategoryStatistics())
+                .build();
+    }
+
+    @Override
+    public void markStale(StatisticsType... types) {
+        for (StatisticsType type : types) {
+            holders.get(type).stale = true;
+        }
+    }
+
+    // Mark snapshots stale only after the write is committed, so the next refresh sees the new data
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatisticsChanged(StatisticsChangedEvent event) {
+        event.types().forEach(this::markStale);
+    }
+
+    @Scheduled(fixedDelay = 30000) // Refresh stale or expired snapshots every 30 seconds
+    public void refreshSnapshots() {
+        holders.values().stream()
+                .filter(SnapshotHolder::needsRefresh)
+                .forEach(this::refreshQuietly);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private <T> SnapshotHolder<T> register(StatisticsType type, Supplier<T> loader) {
+        SnapshotHolder<T> holder = new SnapshotHolder<>(type, loader);
+        holders.put(type, holder);
+        return holder;
+    }
+
+    // Serve the current snapshot and revalidate it in the background when it is stale or expired
+    private <T> StatisticsSnapshot<T> read(SnapshotHolder<T> holder) {
+        StatisticsSnapshot<T> current = holder.current.get();
+        if (current == null) {
+            // Cold start: nothing to serve yet, so compute on the calling thread
+            return holder.refresh();
+        }
+
+        if (holder.needsRefresh() && holder.refreshQueued.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(() -> {
+                    try {
+                        refreshQuietly(holder);
+                    } finally {
+                        holder.refreshQueued.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                holder.refreshQueued.set(false);
+            }
+        }
+        return current;
+    }
+
+    private void refreshQuietly(SnapshotHolder<?> holder) {
+        try {
+            holder.refresh();
+        } catch (Exception e) {
+            log.error("Failed to refresh {} statistics snapshot: {}", holder.type, e.getMessage(), e);
+        }
+    }
+
+    private static final class SnapshotHolder<T> {
+        private final StatisticsType type;
+
+        private final Supplier<T> loader;
+
+        private final AtomicReference<StatisticsSnapshot<T>> current = new AtomicReference<>();
+
+        private final AtomicBoolean refreshQueued = new AtomicBoolean(false);
+
+        private volatile boolean stale;
+
+        private SnapshotHolder(StatisticsType type, Supplier<T> loader) {
+            this.type = type;
+            this.loader = loader;
+        }
+
+        private boolean needsRefresh() {
+            StatisticsSnapshot<T> snapshot = current.get();
+            return snapshot == null || stale
+                    || snapshot.computedAt().plus(MAX_SNAPSHOT_AGE).isBefore(LocalDateTime.now());
+        }
+
+        // Synchronized so concurrent cold reads and scheduled refreshes compute the same statistics only once
+        private synchronized StatisticsSnapshot<T> refresh() {
+            StatisticsSnapshot<T> existing = current.get();
+            if (existing != null && !needsRefresh()) {
+                return existing;
+            }
+
+            // Clear the flag before loading so a change committed during the load triggers another refresh
+            stale = false;
+            long start = System.currentTimeMillis();
+            LocalDateTime computedAt = LocalDateTime.now();
+            T data;
+            try {
+                data = loader.get();
+            } catch (RuntimeException e) {
+                stale = true;
+                throw e;
+            }
+
+            StatisticsSnapshot<T> snapshot = new StatisticsSnapshot<>(data, computedAt, System.currentTimeMillis() - start);
+            current.set(snapshot);
+            log.debug("Refreshed {} statistics snapshot in {} ms", type, snapshot.computationTimeMillis());
+            return snapshot;
+        }
+    }
+}
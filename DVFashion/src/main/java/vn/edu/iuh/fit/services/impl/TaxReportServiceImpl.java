@@ -22,29 +22,31 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import vn.edu.iuh.fit.dtos.response.VATSalesItemDto;
 import vn.edu.iuh.fit.dtos.response.VATSalesListReport;
-import vn.edu.iuh.fit.entities.Order;
-import vn.edu.iuh.fit.entities.OrderItem;
+import vn.edu.iuh.fit.dtos.response.VATSalesRow;
 import vn.edu.iuh.fit.enums.OrderStatus;
-import vn.edu.iuh.fit.repositories.OrderRepository;
+import vn.edu.iuh.fit.repositories.OrderItemRepository;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TaxReportServiceImpl implements TaxReportService {
 
-    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
 
     // HỆ SỐ THUẾ
     private static final BigDecimal DEFAULT_VAT_RATE = new BigDecimal("0.10"); // 10%
@@ -55,25 +57,22 @@ public class TaxReportServiceImpl implements TaxReportService {
     private static final BigDecimal DIRECT_RATE_GROUP3 = new BigDecimal("0.03"); // 3%
     private static final BigDecimal DIRECT_RATE_GROUP4 = new BigDecimal("0.02"); // 2%
 
-    // VAT nhóm theo mẫu 01-1/GTGT
-    private enum VatGroup {
-        NON_TAX, // Không chịu thuế
-        VAT_0, // 0%
-        VAT_5, // 5%
-        VAT_10 // 10%
-    }
+    // Số dòng giữ trong bộ nhớ khi ghi Excel dạng streaming, các dòng cũ hơn được đẩy ra file tạm
+    private static final int EXCEL_ROW_ACCESS_WINDOW = 100;
+
+    private static final List<OrderStatus> REPORT_STATUSES = List.of(OrderStatus.DELIVERED);
 
     @Override
+    @Transactional(readOnly = true)
     public TaxReportResponse getVATSalesReport(LocalDate startDate, LocalDate endDate) {
-        // Lấy đơn hàng đã giao trong khoảng thời gian
-        List<Order> deliveredOrders = orderRepository.findOrdersForReport(
-                startDate.atStartOfDay(),
-                endDate.atTime(23, 59, 59),
-                List.of(OrderStatus.DELIVERED)
-        );
-
-        // Tạo danh sách VATSalesItemDto từ đơn hàng
-        List<VATSalesItemDto> vatSalesItems = createVATSalesItems(deliveredOrders);
+        // Lấy các dòng hàng của đơn đã giao trong khoảng thời gian bằng một truy vấn duy nhất
+        List<VATSalesItemDto> vatSalesItems;
+        try (Stream<VATSalesRow> rows = streamVATSalesRows(startDate, endDate)) {
+            AtomicInteger stt = new AtomicInteger(1);
+            vatSalesItems = rows
+                    .map(row -> createVATSalesItem(row, stt.getAndIncrement()))
+                    .toList();
+        }
 
         // Tính tổng
         BigDecimal totalAmount = calculateTotalAmount(vatSalesItems);
@@ -81,96 +80,110 @@ public class TaxReportServiceImpl implements TaxReportService {
         // Tính tổng VAT
         BigDecimal totalVAT = calculateTotalVAT(vatSalesItems);
 
-        // Tổng cộng (chưa thuế + thuế)
-        BigDecimal totalIncludingVAT = totalAmount.add(totalVAT);
-
-        VATSalesListReport vatSalesListReport = VATSalesListReport.builder()
-                .reportTitle("BẢNG KÊ HÓA ĐƠN, CHỨNG TỪ HÀNG HÓA, DỊCH VỤ BÁN RA")
-                .reportPeriod(formatPeriod(startDate, endDate))
-                .fromDate(startDate)
-                .toDate(endDate)
-                .generatedDate(LocalDate.now())
-                .items(vatSalesItems)
-                .totalAmount(totalAmount)
-                .totalVATAmount(totalVAT)
-                .totalIncludingVAT(totalIncludingVAT)
-                .build();
-
         return TaxReportResponse.builder()
-                .vatSalesListReport(vatSalesListReport)
+                .vatSalesListReport(buildVATSalesListReport(startDate, endDate, vatSalesItems, totalAmount, totalVAT))
                 .build();
     }
 
     @Override
-    public byte[] generateVATForm011Excel(LocalDate startDate, LocalDate endDate) {
-        TaxReportResponse report = getVATSalesReport(startDate, endDate);
-        return createVATSalesExcelReport(report.vatSalesListReport());
+    @Transactional(readOnly = true)
+    public void writeVATForm011Excel(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        try (Stream<VATSalesRow> rows = streamVATSalesRows(startDate, endDate)) {
+            createVATSalesExcelReport(startDate, endDate, rows, outputStream);
+        }
     }
 
     @Override
-    public byte[] generateVATForm04Excel(LocalDate startDate, LocalDate endDate) {
-        TaxReportResponse response = getVATSalesReport(startDate, endDate);
-        VATSalesListReport vatReport = response.vatSalesListReport();
-
-        return createVATForm04ExcelReport(startDate, endDate, vatReport);
+    @Transactional(readOnly = true)
+    public void writeVATForm04Excel(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        createVATForm04ExcelReport(startDate, endDate, aggregateVATSales(startDate, endDate), outputStream);
     }
 
     @Override
-    public byte[] generateVATForm014AExcel(LocalDate startDate, LocalDate endDate) {
-        TaxReportResponse vatReport = getVATSalesReport(startDate, endDate);
-
-        return createVATForm04AExcelReport(startDate, endDate, vatReport.vatSalesListReport());
+    @Transactional(readOnly = true)
+    public void writeVATForm014AExcel(LocalDate startDate, LocalDate endDate, OutputStream outputStream) {
+        createVATForm04AExcelReport(startDate, endDate, aggregateVATSales(startDate, endDate), outputStream);
     }
 
-    // Hàm tạo danh sách VATSalesItemDto từ đơn hàng
-    private List<VATSalesItemDto> createVATSalesItems(List<Order> orders) {
-        List<VATSalesItemDto> items = new ArrayList<>();
-        AtomicInteger stt = new AtomicInteger(1);
+    // Hàm mở stream các dòng hàng của đơn đã giao (cursor, không nạp toàn bộ vào bộ nhớ)
+    private Stream<VATSalesRow> streamVATSalesRows(LocalDate startDate, LocalDate endDate) {
+        return orderItemRepository.streamVATSalesRows(
+                startDate.atStartOfDay(),
+                endDate.atTime(23, 59, 59),
+                REPORT_STATUSES
+        );
+    }
 
-        for (Order order : orders) {
-            for (OrderItem orderItem : order.getItems()) {
-
-                // Giả sử tất cả đều áp dụng VAT 10%
-                BigDecimal vatRate = DEFAULT_VAT_RATE;
-
-                BigDecimal unitPrice = orderItem.getUnitPrice()
-                        .subtract(orderItem.getDiscount() != null ? orderItem.getDiscount() : BigDecimal.ZERO);
-
-                BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(orderItem.getQuantity()));
-                BigDecimal vatAmount = totalPrice.multiply(vatRate).setScale(2, RoundingMode.HALF_UP);
-
-                VATSalesItemDto item = VATSalesItemDto.builder()
-                        .stt(stt.getAndIncrement())
-                        .productName(getProductName(orderItem))
-                        .buyerName(order.getCustomer() != null ? order.getCustomer().getFullName() : "")
-                        .buyerTaxCode(randomTaxCode())
-                        .unit("Cái") // đơn vị tính tạm
-                        .quantity(orderItem.getQuantity())
-                        .unitPrice(unitPrice)
-                        .totalPrice(totalPrice)
-                        .vatRate(vatRate.multiply(BigDecimal.valueOf(100))) // % (10, 5, 0,…)
-                        .vatAmount(vatAmount)
-                        .orderNumber(order.getOrderNumber())
-                        .orderDate(order.getOrderDate().toLocalDate())
-                        .build();
-
-                items.add(item);
-            }
+    // Hàm cộng dồn tổng doanh thu và thuế trên cùng stream dòng hàng với bảng kê 01-1/GTGT,
+    // dùng cho mẫu 04/GTGT và 01-4A/GTGT nên tổng trên tờ khai luôn khớp với bảng kê
+    private VATSalesListReport aggregateVATSales(LocalDate startDate, LocalDate endDate) {
+        VATSalesTotals totals = new VATSalesTotals();
+        try (Stream<VATSalesRow> rows = streamVATSalesRows(startDate, endDate)) {
+            rows.forEach(totals::add);
         }
 
-        return items;
+        return buildVATSalesListReport(startDate, endDate, List.of(), totals.amount, totals.vat);
+    }
+
+    // Hàm tạo VATSalesListReport từ danh sách dòng hàng và tổng tiền
+    private VATSalesListReport buildVATSalesListReport(LocalDate startDate, LocalDate endDate,
+                                                       List<VATSalesItemDto> items,
+                                                       BigDecimal totalAmount, BigDecimal totalVAT) {
+        return VATSalesListReport.builder()
+                .reportTitle("BẢNG KÊ HÓA ĐƠN, CHỨNG TỪ HÀNG HÓA, DỊCH VỤ BÁN RA")
+                .reportPeriod(formatPeriod(startDate, endDate))
+                .fromDate(startDate)
+                .toDate(endDate)
+                .generatedDate(LocalDate.now())
+                .items(items)
+                .totalAmount(totalAmount)
+                .totalVATAmount(totalVAT)
+                // Tổng cộng (chưa thuế + thuế)
+                .totalIncludingVAT(totalAmount.add(totalVAT))
+                .build();
+    }
+
+    // Hàm tạo VATSalesItemDto từ một dòng hàng
+    private VATSalesItemDto createVATSalesItem(VATSalesRow row, int stt) {
+        // Giả sử tất cả đều áp dụng VAT 10%
+        BigDecimal vatRate = DEFAULT_VAT_RATE;
+
+        BigDecimal unitPrice = lineUnitPrice(row);
+
+        BigDecimal totalPrice = unitPrice.multiply(BigDecimal.valueOf(row.quantity()));
+        BigDecimal vatAmount = lineVAT(totalPrice);
+
+        return VATSalesItemDto.builder()
+                .stt(stt)
+                .productName(getProductName(row))
+                .buyerName(row.buyerName() != null ? row.buyerName() : "")
+                .buyerTaxCode(randomTaxCode())
+                .unit("Cái") // đơn vị tính tạm
+                .quantity(row.quantity())
+                .unitPrice(unitPrice)
+                .totalPrice(totalPrice)
+                .vatRate(vatRate.multiply(BigDecimal.valueOf(100))) // % (10, 5, 0,…)
+                .vatAmount(vatAmount)
+                .orderNumber(row.orderNumber())
+                .orderDate(row.orderDate().toLocalDate())
+                .build();
+    }
+
+    // Hàm tính đơn giá sau chiết khấu của một dòng hàng
+    private static BigDecimal lineUnitPrice(VATSalesRow row) {
+        return row.unitPrice().subtract(row.discount() != null ? row.discount() : BigDecimal.ZERO);
+    }
+
+    // Hàm tính thuế VAT của một dòng hàng, làm tròn theo từng dòng như trên bảng kê
+    private static BigDecimal lineVAT(BigDecimal totalPrice) {
+        return totalPrice.multiply(DEFAULT_VAT_RATE).setScale(2, RoundingMode.HALF_UP);
     }
 
-    // Hàm lấy tên sản phẩm từ OrderItem
-    private String getProductName(OrderItem orderItem) {
-        String productName = orderItem.getProductVariant().getProduct().getTranslations()
-                .stream()
-                .findFirst()
-                .map(t -> t.getName())
-                .orElse("Unknown Product");
+    // Hàm lấy tên sản phẩm từ dòng hàng
+    private String getProductName(VATSalesRow row) {
+        String productName = row.productName() != null ? row.productName() : "Unknown Product";
 
-        return productName + " (" + orderItem.getProductVariant().getColor() +
-                " - " + orderItem.getSize().getSizeName() + ")";
+        return productName + " (" + row.color() + " - " + row.sizeName() + ")";
     }
 
     // Hàm tính tổng tiền hàng (chưa thuế)
@@ -194,16 +207,45 @@ public class TaxReportServiceImpl implements TaxReportService {
         return String.format("Từ %s đến %s", startDate.format(formatter), endDate.format(formatter));
     }
 
+    // Hàm ghi workbook ra output stream rồi xoá file tạm của SXSSF
+    private void writeWorkbook(SXSSFWorkbook workbook, OutputStream outputStream) throws IOException {
+        try {
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    // Tổng tiền cộng dồn trong lúc ghi các dòng hàng
+    private static final class VATSalesTotals {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal vat = BigDecimal.ZERO;
+
+        private void add(VATSalesItemDto item) {
+            amount = amount.add(item.totalPrice());
+            vat = vat.add(item.vatAmount());
+        }
+
+        // Cộng trực tiếp từ dòng hàng khi chỉ cần tổng, không dựng VATSalesItemDto
+        private void add(VATSalesRow row) {
+            BigDecimal totalPrice = lineUnitPrice(row).multiply(BigDecimal.valueOf(row.quantity()));
+            amount = amount.add(totalPrice);
+            vat = vat.add(lineVAT(totalPrice));
+        }
+    }
+
     // ========================================================================
     //  EXCEL EXPORT FOR VAT SALES REPORT 01-1/GTGT
     // ========================================================================
 
-    private byte[] createVATSalesExcelReport(VATSalesListReport report) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    private void createVATSalesExcelReport(LocalDate startDate, LocalDate endDate,
+                                           Stream<VATSalesRow> rows, OutputStream outputStream) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_ACCESS_WINDOW)) {
 
             // Tạo sheet
-            XSSFSheet sheet = workbook.createSheet("Bangkebanra_01-1_GTGT");
+            SXSSFSheet sheet = workbook.createSheet("Bangkebanra_01-1_GTGT");
+            sheet.trackAllColumnsForAutoSizing();
 
             // Tạo styles
             Map<String, CellStyle> styles = createExcelStyles(workbook);
@@ -213,10 +255,11 @@ public class TaxReportServiceImpl implements TaxReportService {
             sheet.getPrintSetup().setPaperSize(PrintSetup.A4_PAPERSIZE);
 
             int rowNum = 0;
+            VATSalesTotals totals = new VATSalesTotals();
 
-            rowNum = createHeader(sheet, styles, report, rowNum);
-            rowNum = createTable(sheet, styles, report, rowNum);
-            rowNum = createFooter(sheet, styles, report, rowNum);
+            rowNum = createHeader(sheet, styles, formatPeriod(startDate, endDate), rowNum);
+            rowNum = createTable(sheet, styles, rows, totals, rowNum);
+            rowNum = createFooter(sheet, styles, totals, rowNum);
 
             for (int i = 0; i < 8; i++) {
                 sheet.autoSizeColumn(i);
@@ -225,8 +268,7 @@ public class TaxReportServiceImpl implements TaxReportService {
             // Áp dụng thiết lập in trên một trang
             applySinglePagePrintSettings(sheet);
 
-            workbook.write(baos);
-            return baos.toByteArray();
+            writeWorkbook(workbook, outputStream);
 
         } catch (Exception e) {
             log.error("Error generating VAT sales report Excel: {}", e.getMessage(), e);
@@ -238,7 +280,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     //  STYLES
     // ========================================================================
 
-    private Map<String, CellStyle> createExcelStyles(XSSFWorkbook workbook) {
+    private Map<String, CellStyle> createExcelStyles(Workbook workbook) {
         Map<String, CellStyle> styles = new HashMap<>();
         DataFormat df = workbook.createDataFormat();
 
@@ -385,8 +427,8 @@ public class TaxReportServiceImpl implements TaxReportService {
     //  HEADER FOR VAT SALES REPORT 01-1/GTGT
     // ========================================================================
 
-    private int createHeader(XSSFSheet sheet, Map<String, CellStyle> styles,
-                             VATSalesListReport report, int rowNum) {
+    private int createHeader(Sheet sheet, Map<String, CellStyle> styles,
+                             String reportPeriod, int rowNum) {
 
         // Row 0: Mẫu số
         Row r0 = sheet.createRow(rowNum++);
@@ -437,7 +479,7 @@ public class TaxReportServiceImpl implements TaxReportService {
         Row periodRow = sheet.createRow(rowNum++);
         sheet.addMergedRegion(new CellRangeAddress(7, 7, 0, 7));
         Cell pCell = periodRow.createCell(0);
-        pCell.setCellValue("Kỳ tính thuế: " + report.reportPeriod());
+        pCell.setCellValue("Kỳ tính thuế: " + reportPeriod);
         pCell.setCellStyle(styles.get("noBorderCenter"));
 
         // Row 8: Đơn vị tiền
@@ -457,8 +499,8 @@ public class TaxReportServiceImpl implements TaxReportService {
     //  TABLE (4 NHÓM) FOR VAT SALES REPORT 01-1/GTGT
     // ========================================================================
 
-    private int createTable(XSSFSheet sheet, Map<String, CellStyle> styles,
-                            VATSalesListReport report, int rowNum) {
+    private int createTable(Sheet sheet, Map<String, CellStyle> styles,
+                            Stream<VATSalesRow> rows, VATSalesTotals totals, int rowNum) {
 
         // Header dòng 1
         Row h1 = sheet.createRow(rowNum++);
@@ -487,66 +529,31 @@ public class TaxReportServiceImpl implements TaxReportService {
             cell.setCellStyle(styles.get("headerIndex"));
         }
 
-        // Chuẩn bị group data
-        Map<VatGroup, List<VATSalesItemDto>> groupItems = new LinkedHashMap<>();
-        groupItems.put(VatGroup.NON_TAX, new ArrayList<>());
-        groupItems.put(VatGroup.VAT_0, new ArrayList<>());
-        groupItems.put(VatGroup.VAT_5, new ArrayList<>());
-        groupItems.put(VatGroup.VAT_10, new ArrayList<>());
-
-        for (VATSalesItemDto item : report.items()) {
-            VatGroup group = mapVatGroup(item);
-            groupItems.get(group).add(item);
-        }
-
-        // Render từng nhóm
+        // Mọi dòng hàng đều áp dụng DEFAULT_VAT_RATE (10%) nên các nhóm 1-3 luôn rỗng,
+        // còn nhóm 4 được ghi trực tiếp từ stream mà không cần gom toàn bộ vào bộ nhớ
         rowNum = renderGroup(sheet, styles, rowNum,
                 "1. Hàng hoá, dịch vụ không chịu thuế giá trị gia tăng (GTGT):",
-                groupItems.get(VatGroup.NON_TAX));
+                Collections.emptyIterator(), totals);
 
         rowNum = renderGroup(sheet, styles, rowNum,
                 "2. Hàng hoá, dịch vụ chịu thuế suất thuế GTGT 0%:",
-                groupItems.get(VatGroup.VAT_0));
+                Collections.emptyIterator(), totals);
 
         rowNum = renderGroup(sheet, styles, rowNum,
                 "3. Hàng hoá, dịch vụ chịu thuế suất thuế GTGT 5%:",
-                groupItems.get(VatGroup.VAT_5));
+                Collections.emptyIterator(), totals);
 
+        AtomicInteger stt = new AtomicInteger(1);
         rowNum = renderGroup(sheet, styles, rowNum,
                 "4. Hàng hoá, dịch vụ chịu thuế suất thuế GTGT 10%:",
-                groupItems.get(VatGroup.VAT_10));
+                rows.map(row -> createVATSalesItem(row, stt.getAndIncrement())).iterator(), totals);
 
         return rowNum;
     }
 
-    // Map item vào nhóm VAT
-    private VatGroup mapVatGroup(VATSalesItemDto item) {
-        BigDecimal rate = item.vatRate(); // % (0,5,10,...)
-        if (rate == null) return VatGroup.NON_TAX;
-
-        int cmpZero = rate.compareTo(BigDecimal.ZERO);
-        if (cmpZero == 0) {
-            // Không thuế hoặc 0% => tuỳ bạn muốn tách thế nào
-            if (item.vatAmount() == null || item.vatAmount().compareTo(BigDecimal.ZERO) == 0) {
-                return VatGroup.NON_TAX;
-            } else {
-                return VatGroup.VAT_0;
-            }
-        }
-
-        if (rate.compareTo(new BigDecimal("5")) == 0) {
-            return VatGroup.VAT_5;
-        }
-        if (rate.compareTo(new BigDecimal("10")) == 0) {
-            return VatGroup.VAT_10;
-        }
-
-        // Default: coi như 10%
-        return VatGroup.VAT_10;
-    }
-
     // Render một nhóm dữ liệu
-    private int renderGroup(XSSFSheet sheet, Map<String, CellStyle> styles, int rowNum, String groupTitleText, List<VATSalesItemDto> items) {
+    private int renderGroup(Sheet sheet, Map<String, CellStyle> styles, int rowNum, String groupTitleText,
+                            Iterator<VATSalesItemDto> items, VATSalesTotals totals) {
         // Dòng tiêu đề nhóm
         Row groupTitleRow = sheet.createRow(rowNum++);
         sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, 0, 7));
@@ -554,7 +561,7 @@ public class TaxReportServiceImpl implements TaxReportService {
         gtCell.setCellValue(groupTitleText);
         gtCell.setCellStyle(styles.get("groupTitle"));
 
-        if (items.isEmpty()) {
+        if (!items.hasNext()) {
             // Không có dữ liệu thì chỉ để trống 1 dòng phía dưới cho đẹp
             Row emptyRow = sheet.createRow(rowNum++);
             for (int i = 0; i < 8; i++) {
@@ -588,7 +595,8 @@ public class TaxReportServiceImpl implements TaxReportService {
         BigDecimal groupVat = BigDecimal.ZERO;
 
         // Dòng chi tiết
-        for (VATSalesItemDto item : items) {
+        while (items.hasNext()) {
+            VATSalesItemDto item = items.next();
             Row row = sheet.createRow(rowNum++);
 
             int col = 0;
@@ -627,6 +635,7 @@ public class TaxReportServiceImpl implements TaxReportService {
 
             groupAmount = groupAmount.add(item.totalPrice());
             groupVat = groupVat.add(item.vatAmount());
+            totals.add(item);
         }
 
         // Dòng Tổng
@@ -655,8 +664,8 @@ public class TaxReportServiceImpl implements TaxReportService {
     //  FOOTER FOR VAT SALES REPORT 01-1/GTGT
     // ========================================================================
 
-    private int createFooter(XSSFSheet sheet, Map<String, CellStyle> styles,
-                             VATSalesListReport report, int rowNum) {
+    private int createFooter(Sheet sheet, Map<String, CellStyle> styles,
+                             VATSalesTotals totals, int rowNum) {
 
         // Dòng trống
         rowNum++;
@@ -669,7 +678,7 @@ public class TaxReportServiceImpl implements TaxReportService {
         c10.setCellStyle(styles.get("noBorderLeft"));
 
         Cell c11 = r1.createCell(5);
-        c11.setCellValue(report.totalAmount().doubleValue());
+        c11.setCellValue(totals.amount.doubleValue());
         c11.setCellStyle(styles.get("noBorderRight"));
 
         // Tổng số thuế GTGT
@@ -680,7 +689,7 @@ public class TaxReportServiceImpl implements TaxReportService {
         c20.setCellStyle(styles.get("noBorderLeft"));
 
         Cell c21 = r2.createCell(5);
-        c21.setCellValue(report.totalVATAmount().doubleValue());
+        c21.setCellValue(totals.vat.doubleValue());
         c21.setCellStyle(styles.get("noBorderRight"));
 
         // Dòng trống
@@ -734,11 +743,12 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  EXCEL EXPORT FOR VAT FORM 04/GTGT
     // ========================================================================
-    private byte[] createVATForm04ExcelReport(LocalDate startDate, LocalDate endDate, VATSalesListReport report) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    private void createVATForm04ExcelReport(LocalDate startDate, LocalDate endDate, VATSalesListReport report,
+                                            OutputStream outputStream) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_ACCESS_WINDOW)) {
 
-            XSSFSheet sheet = workbook.createSheet("To_khai_04_GTGT");
+            SXSSFSheet sheet = workbook.createSheet("To_khai_04_GTGT");
+            sheet.trackAllColumnsForAutoSizing();
 
             Map<String, CellStyle> styles = createExcelStyles(workbook);
             sheet.getPrintSetup().setLandscape(false);
@@ -764,8 +774,7 @@ public class TaxReportServiceImpl implements TaxReportService {
 
             applySinglePagePrintSettings(sheet);
 
-            workbook.write(baos);
-            return baos.toByteArray();
+            writeWorkbook(workbook, outputStream);
 
         } catch (Exception e) {
             log.error("Error generating 04/GTGT Excel: {}", e.getMessage(), e);
@@ -776,7 +785,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  HEADER FOR VAT FORM 04/GTGT
     // ========================================================================
-    private int createForm04Header(XSSFSheet sheet,
+    private int createForm04Header(Sheet sheet,
                                    Map<String, CellStyle> styles,
                                    VATSalesListReport report,
                                    int rowNum) {
@@ -876,7 +885,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  BẢNG A – KHAI THUẾ THEO PHƯƠNG PHÁP TRỰC TIẾP TRÊN DOANH THU
     // ========================================================================
-    private int createForm04TableA(XSSFSheet sheet, Map<String, CellStyle> styles, VATSalesListReport report, int rowNum) {
+    private int createForm04TableA(Sheet sheet, Map<String, CellStyle> styles, VATSalesListReport report, int rowNum) {
         // Header
         Row h1 = sheet.createRow(rowNum++);
         String[] header = {
@@ -1005,7 +1014,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  SUPPORTING METHODS FOR FORM 04/GTGT
     // ========================================================================
-    private int createForm04Row(XSSFSheet sheet, Map<String, CellStyle> styles, int rowNum, int stt, String name, BigDecimal nonTaxRevenue, BigDecimal taxableRevenue, BigDecimal vat) {
+    private int createForm04Row(Sheet sheet, Map<String, CellStyle> styles, int rowNum, int stt, String name, BigDecimal nonTaxRevenue, BigDecimal taxableRevenue, BigDecimal vat) {
         Row r = sheet.createRow(rowNum++);
 
         Cell c0 = r.createCell(0);
@@ -1034,7 +1043,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  SECTION B – KHAI RIÊNG ĐỐI VỚI KHOẢN THU HỘ
     // ========================================================================
-    private int createForm04SectionB_NoData(XSSFSheet sheet, Map<String, CellStyle> styles, int rowNum) {
+    private int createForm04SectionB_NoData(Sheet sheet, Map<String, CellStyle> styles, int rowNum) {
 
         Row rB = sheet.createRow(rowNum++);
         sheet.addMergedRegion(new CellRangeAddress(rB.getRowNum(), rB.getRowNum(), 0, 6));
@@ -1057,7 +1066,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  FOOTER FOR VAT FORM 04/GTGT
     // ========================================================================
-    private int createForm04Footer(XSSFSheet sheet, Map<String, CellStyle> styles, int rowNum) {
+    private int createForm04Footer(Sheet sheet, Map<String, CellStyle> styles, int rowNum) {
         // Cam đoan
         Row r1 = sheet.createRow(rowNum++);
         sheet.addMergedRegion(new CellRangeAddress(r1.getRowNum(), r1.getRowNum(), 0, 6));
@@ -1098,11 +1107,12 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  EXCEL EXPORT FOR VAT FORM 01-4A/GTGT
     // ========================================================================
-    private byte[] createVATForm04AExcelReport(LocalDate startDate, LocalDate endDate, VATSalesListReport report) {
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+    private void createVATForm04AExcelReport(LocalDate startDate, LocalDate endDate, VATSalesListReport report,
+                                            OutputStream outputStream) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_ACCESS_WINDOW)) {
 
-            XSSFSheet sheet = workbook.createSheet("01-4A_GTGT");
+            SXSSFSheet sheet = workbook.createSheet("01-4A_GTGT");
+            sheet.trackAllColumnsForAutoSizing();
 
             Map<String, CellStyle> styles = createExcelStyles(workbook);
 
@@ -1129,8 +1139,7 @@ public class TaxReportServiceImpl implements TaxReportService {
 
             applySinglePagePrintSettings(sheet);
 
-            workbook.write(baos);
-            return baos.toByteArray();
+            writeWorkbook(workbook, outputStream);
 
         } catch (Exception e) {
             log.error("Error generating 01-4A/GTGT Excel: {}", e.getMessage(), e);
@@ -1141,7 +1150,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  HEADER FOR VAT FORM 01-4A/GTGT
     // ========================================================================
-    private int createForm04AHeader(XSSFSheet sheet, Map<String, CellStyle> styles, VATSalesListReport report, int rowNum) {
+    private int createForm04AHeader(Sheet sheet, Map<String, CellStyle> styles, VATSalesListReport report, int rowNum) {
 
         // Row: Mẫu số
         Row r0 = sheet.createRow(rowNum++);
@@ -1217,7 +1226,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  SECTION A FOR VAT FORM 01-4A/GTGT
     // ========================================================================
-    private int createForm04ASectionA(XSSFSheet sheet,
+    private int createForm04ASectionA(Sheet sheet,
                                       Map<String, CellStyle> styles,
                                       VATSalesListReport report,
                                       int rowNum) {
@@ -1243,7 +1252,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  SECTION B FOR VAT FORM 01-4A/GTGT
     // ========================================================================
-    private int createForm04ASectionB(XSSFSheet sheet, Map<String, CellStyle> styles, VATSalesListReport report, int rowNum) {
+    private int createForm04ASectionB(Sheet sheet, Map<String, CellStyle> styles, VATSalesListReport report, int rowNum) {
 
         Row rB = sheet.createRow(rowNum++);
         sheet.addMergedRegion(new CellRangeAddress(rB.getRowNum(), rB.getRowNum(), 0, 6));
@@ -1299,7 +1308,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  SUPPORTING METHODS FOR FORM 01-4A/GTGT
     // ========================================================================
-    private int form04ARow(XSSFSheet sheet, Map<String, CellStyle> styles, int rowNum, int stt, String label, BigDecimal value) {
+    private int form04ARow(Sheet sheet, Map<String, CellStyle> styles, int rowNum, int stt, String label, BigDecimal value) {
 
         Row r = sheet.createRow(rowNum++);
 
@@ -1321,7 +1330,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     // ========================================================================
     //  FOOTER FOR VAT FORM 01-4A/GTGT
     // ========================================================================
-    private int createForm04AFooter(XSSFSheet sheet, Map<String, CellStyle> styles, int rowNum) {
+    private int createForm04AFooter(Sheet sheet, Map<String, CellStyle> styles, int rowNum) {
 
         Row r1 = sheet.createRow(rowNum++);
         sheet.addMergedRegion(new CellRangeAddress(r1.getRowNum(), r1.getRowNum(), 0, 6));
@@ -1353,7 +1362,7 @@ public class TaxReportServiceImpl implements TaxReportService {
     }
 
     // Ham áp dụng thiết lập in 1 trang A4 dọc
-    private void applySinglePagePrintSettings(XSSFSheet sheet) {
+    private void applySinglePagePrintSettings(Sheet sheet) {
 
         PrintSetup printSetup = sheet.getPrintSetup();
         printSetup.setPaperSize(PrintSetup.A4_PAPERSIZE);
@@ -8,6 +8,8 @@ package vn.edu.iuh.fit.services.impl;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import vn.edu.iuh.fit.entities.Token;
@@ -18,9 +20,14 @@ import vn.edu.iuh.fit.repositories.TokenRepository;
 import vn.edu.iuh.fit.services.TokenService;
 import vn.edu.iuh.fit.services.UserService;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.function.Supplier;
 
 /*
  * @description: Service implementation for managing tokens
@@ -35,6 +42,15 @@ public class TokenServiceImpl implements TokenService {
 
     private final UserService userService;
 
+    private static final int PRUNE_BATCH_SIZE = 500;
+
+    // Upper bound of batches per run, so one run never holds the scheduler for long
+    private static final int PRUNE_MAX_BATCHES = 20;
+
+    // Number of concurrent sessions (devices) a user may keep signed in
+    @Value("${jwt.max-sessions-per-user:5}")
+    private int maxSessionsPerUser;
+
     @Override
     public List<Token> findAllValidTokenByUser(Long id) {
         User user = userService.findById(id);
@@ -46,7 +62,7 @@ public class TokenServiceImpl implements TokenService {
 
     @Override
     public Token findByRefreshTokenAndRevokedFalse(String refreshToken) {
-        Token token = tokenRepository.findByRefreshTokenAndRevokedFalse(refreshToken)
+        Token token = tokenRepository.findByTokenHashAndRevokedFalse(hash(refreshToken))
                 .orElseThrow(() -> new TokenRefreshException("Refresh token is not in database or is revoked"));
         return token;
     }
@@ -60,37 +76,67 @@ public class TokenServiceImpl implements TokenService {
         tokenRepository.save(token);
     }
 
-    @Scheduled(cron = "0 0 3 * * ?") // Every day at 3 AM
-    @Transactional
+    @Scheduled(fixedDelay = 60000) // Prune a few batches every minute
     @Override
     public void cleanExpiredTokens() {
         Instant now = Instant.now();
-        // Remove all expired tokens at the current time.
-        tokenRepository.deleteAllExpiredSince(now);
 
-        // Delete revoked tokens that have expired for more than 30 days
-        Instant threshold = now.minus(30, ChronoUnit.DAYS);
-        tokenRepository.deleteAllRevokedOlderThan(threshold);
+        // Expired and revoked tokens are looked up separately, each query is served by its own index
+        int batches = pruneInBatches(
+                () -> tokenRepository.findExpiredTokenIds(now, PageRequest.of(0, PRUNE_BATCH_SIZE)),
+                PRUNE_MAX_BATCHES);
+        pruneInBatches(
+                () -> tokenRepository.findRevokedTokenIds(PageRequest.of(0, PRUNE_BATCH_SIZE)),
+                PRUNE_MAX_BATCHES - batches);
     }
 
-    @Override
-    public void saveRefreshToken(User user, String refreshToken) {
-        // Revoke old tokens
-        List<Token> validUserTokens = findAllValidTokenByUser(user.getId());
-        if (!validUserTokens.isEmpty()) {
-            validUserTokens.forEach(token -> token.setRevoked(true));
-            tokenRepository.saveAll(validUserTokens);
+    // Deletes batches of tokens until none are left or the budget is spent, returns the number of batches used
+    private int pruneInBatches(Supplier<List<Long>> nextBatch, int maxBatches) {
+        // Each batch is its own short transaction
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = nextBatch.get();
+            if (ids.isEmpty()) {
+                return batch;
+            }
+
+            tokenRepository.deleteByIds(ids);
+
+            if (ids.size() < PRUNE_BATCH_SIZE) {
+                return batch + 1;
+            }
         }
+        return maxBatches;
+    }
 
+    @Override
+    @Transactional
+    public void saveRefreshToken(User user, String refreshToken) {
         // Save new token
         Instant expirationDate = Instant.now().plus(7, ChronoUnit.DAYS); // 7 days expiration
         Token token = Token.builder()
                 .user(user)
-                .refreshToken(refreshToken)
+                .tokenHash(hash(refreshToken))
                 .expirationDate(expirationDate)
                 .isRevoked(false)
                 .build();
 
         tokenRepository.save(token);
+
+        // Keep only the newest sessions, revoke everything older than the last one kept
+        List<Long> overflow = tokenRepository.findValidTokenIdsByUser(user.getId(),
+                PageRequest.of(maxSessionsPerUser, 1));
+        if (!overflow.isEmpty()) {
+            tokenRepository.revokeValidTokensUpTo(user.getId(), overflow.get(0));
+        }
+    }
+
+    // SHA-256 hex digest of a refresh token, fixed length so it can be indexed
+    private static String hash(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
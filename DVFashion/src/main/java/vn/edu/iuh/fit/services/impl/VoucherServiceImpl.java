@@ -8,6 +8,7 @@ package vn.edu.iuh.fit.services.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,7 @@ import vn.edu.iuh.fit.dtos.response.VoucherResponse;
 import vn.edu.iuh.fit.dtos.response.VoucherStatisticsResponse;
 import vn.edu.iuh.fit.entities.*;
 import vn.edu.iuh.fit.enums.*;
+import vn.edu.iuh.fit.events.StatisticsChangedEvent;
 import vn.edu.iuh.fit.exceptions.AlreadyExistsException;
 import vn.edu.iuh.fit.exceptions.BadRequestException;
 import vn.edu.iuh.fit.exceptions.NotFoundException;
@@ -63,6 +65,8 @@ public class VoucherServiceImpl implements VoucherService {
 
     private final OrderItemService orderItemService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Transactional
     @Override
     public VoucherResponse createVoucher(CreateVoucherRequest request, Language language) {
@@ -89,6 +93,8 @@ public class VoucherServiceImpl implements VoucherService {
             createVoucherProducts(voucher, request.productIds());
         }
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.VOUCHER));
+
         return voucherMapper.mapToResponse(voucher, language);
     }
 
@@ -125,6 +131,8 @@ public class VoucherServiceImpl implements VoucherService {
             updateVoucherProducts(existingVoucher, request.productIds());
         }
 
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.VOUCHER));
+
         return voucherMapper.mapToResponse(existingVoucher, language);
     }
 
@@ -189,6 +197,8 @@ public class VoucherServiceImpl implements VoucherService {
         voucherRepository.delete(voucher);
 
         log.info("Deleted voucher with ID: {}", voucherId);
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.VOUCHER));
     }
 
     @Override
@@ -280,13 +290,7 @@ public class VoucherServiceImpl implements VoucherService {
         }
 
         // Check user usage limit
-        long userUsageCount = voucher.getVoucherUsages().stream()
-                .filter(u -> u.getUser().getId().equals(customer.getId()))
-                .count();
-
-        if (userUsageCount >= voucher.getMaxUsagePerUser()) {
-            throw new BadRequestException("You have reached the maximum usage limit for this voucher");
-        }
+        validateUserUsageLimit(voucher, customer);
 
         // Check minimum order amount
         BigDecimal subtotal = orderItemService.calculateSubtotal(order.getItems());
@@ -330,7 +334,15 @@ public class VoucherServiceImpl implements VoucherService {
     @Override
     @Transactional
     public void recordUsage(Voucher voucher, User user, Order order) {
-        voucher.setCurrentUsage(voucher.getCurrentUsage() + 1);
+        // Conditional increment, the row lock it takes serializes concurrent redemptions of this voucher
+        int updated = voucherRepository.incrementUsageIfAvailable(voucher.getId());
+        if (updated == 0) {
+            throw new BadRequestException("Voucher usage limit reached");
+        }
+
+        // Re-check the per-user limit while holding the voucher row lock
+        validateUserUsageLimit(voucher, user);
+
         VoucherUsage usage = VoucherUsage.builder()
                 .voucher(voucher)
                 .user(user)
@@ -338,6 +350,23 @@ public class VoucherServiceImpl implements VoucherService {
                 .usedAt(LocalDateTime.now())
                 .build();
         voucherUsageRepository.save(usage);
+
+        eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.VOUCHER));
+    }
+
+    @Override
+    @Transactional
+    public void releaseUsage(Order order) {
+        if (order.getVoucher() == null) {
+            return;
+        }
+
+        if (voucherUsageRepository.deleteByOrderId(order.getId()) > 0) {
+            voucherRepository.decrementUsage(order.getVoucher().getId());
+            log.info("Released voucher {} usage for order {}", order.getVoucherCode(), order.getOrderNumber());
+
+            eventPublisher.publishEvent(StatisticsChangedEvent.of(StatisticsType.VOUCHER));
+        }
     }
 
     @Override
@@ -382,6 +411,15 @@ public class VoucherServiceImpl implements VoucherService {
                 .build();
     }
 
+    // Validate user usage limit using an indexed count query
+    private void validateUserUsageLimit(Voucher voucher, User user) {
+        long userUsageCount = voucherUsageRepository.countByVoucherIdAndUserId(voucher.getId(), user.getId());
+
+        if (userUsageCount >= voucher.getMaxUsagePerUser()) {
+            throw new BadRequestException("You have reached the maximum usage limit for this voucher");
+        }
+    }
+
     private void validateVoucherForDeletion(Voucher voucher) {
         // Check if voucher has been used
         if (voucher.getCurrentUsage() > 0) {
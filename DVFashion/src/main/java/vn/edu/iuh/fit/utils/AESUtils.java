@@ -10,6 +10,8 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
@@ -24,8 +26,14 @@ public final class AESUtils {
     private static final int GCM_IV_LENGTH = 12;  // Recommended: 12 bytes
     private static final int GCM_TAG_LENGTH = 128; // Authentication tag length (bits)
 
+    // Shared nonce source, SecureRandom is thread safe and is seeded once instead of per call
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     private final SecretKey secretKey;
 
+    // One Cipher per thread, a Cipher is stateful but can be re-initialized with a new IV for every call
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(AESUtils::newCipher);
+
     /**
      * Constructor to initialize AESUtils with a Base64 encoded key.
      *
@@ -46,13 +54,13 @@ public final class AESUtils {
         try {
             // Generate random IV
             byte[] iv = new byte[GCM_IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
+            SECURE_RANDOM.nextBytes(iv);
 
-            Cipher cipher = Cipher.getInstance(AES_ALGO);
+            Cipher cipher = ciphers.get();
             GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
             cipher.init(Cipher.ENCRYPT_MODE, secretKey, spec);
 
-            byte[] ciphertext = cipher.doFinal(plainText.getBytes());
+            byte[] ciphertext = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
 
             // Prepend IV to ciphertext for later decryption
             byte[] encryptedWithIv = new byte[iv.length + ciphertext.length];
@@ -75,22 +83,23 @@ public final class AESUtils {
         try {
             byte[] decoded = Base64.getDecoder().decode(cipherText);
 
-            // Extract IV
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            System.arraycopy(decoded, 0, iv, 0, iv.length);
-
-            // Extract ciphertext
-            byte[] ciphertext = new byte[decoded.length - iv.length];
-            System.arraycopy(decoded, iv.length, ciphertext, 0, ciphertext.length);
-
-            Cipher cipher = Cipher.getInstance(AES_ALGO);
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
+            // IV is the first bytes, the ciphertext follows; read both in place without copying
+            Cipher cipher = ciphers.get();
+            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, decoded, 0, GCM_IV_LENGTH);
             cipher.init(Cipher.DECRYPT_MODE, secretKey, spec);
 
-            byte[] decrypted = cipher.doFinal(ciphertext);
-            return new String(decrypted);
+            byte[] decrypted = cipher.doFinal(decoded, GCM_IV_LENGTH, decoded.length - GCM_IV_LENGTH);
+            return new String(decrypted, StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new RuntimeException("Error decrypting data", e);
         }
     }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(AES_ALGO);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM is not available", e);
+        }
+    }
 }
@@ -7,8 +7,13 @@
 package vn.edu.iuh.fit.utils;
 
 import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /*
  * @description: Utility class for file operations
  * @author: Tran Hien Vinh
@@ -16,6 +21,7 @@ import org.springframework.web.multipart.MultipartFile;
  * @version:    1.0
  */
 @UtilityClass
+@Slf4j
 public class FileUtils {
 
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
@@ -86,4 +92,27 @@ public class FileUtils {
             return String.format("%.1f MB", sizeInBytes / (1024.0 * 1024.0));
         }
     }
+
+    // Stream an uploaded file into a temporary file, so it can be read later without holding it in memory
+    public static Path copyToTempFile(MultipartFile file, String prefix) throws IOException {
+        Path tempFile = Files.createTempFile(prefix, getFileExtension(file.getOriginalFilename()));
+        try {
+            file.transferTo(tempFile);
+            return tempFile;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    public static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}: {}", path, e.getMessage());
+        }
+    }
 }
@@ -6,13 +6,17 @@
 
 package vn.edu.iuh.fit.utils;
 
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /*
  * @description: Utility class for handling fonts in PDF generation
@@ -27,49 +31,83 @@ public class FontUtils {
 
     private static final String VIETNAMESE_FONT_BOLD_PATH = "fonts/Roboto-SemiBold.ttf";
 
+    private static final String FALLBACK_FONT_PATH = "C:/Windows/Fonts/arialuni.ttf";
+
+    // Parsed font programs, loaded once per JVM and shared by every generated document
+    private static volatile FontPrograms fontPrograms;
+
     // Get font that supports Vietnamese characters
     public static PdfFont getVietnameseFont() {
-        try {
-            return PdfFontFactory.createFont(
-                    VIETNAMESE_FONT_PATH,
-                    PdfEncodings.IDENTITY_H,
-                    PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED
-            );
-        } catch (IOException e) {
-            log.warn("Cannot load Vietnamese font, falling back to Arial Unicode MS", e);
-            try {
-                return PdfFontFactory.createFont(
-                        "C:/Windows/Fonts/arialuni.ttf",
-                        PdfEncodings.IDENTITY_H,
-                        PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED
-                );
-            } catch (IOException ex) {
-                log.warn("Cannot load Arial Unicode MS, using built-in Helvetica as fallback", ex);
-                try {
-                    return PdfFontFactory.createFont(
-                            "Helvetica",
-                            PdfEncodings.IDENTITY_H,
-                            PdfFontFactory.EmbeddingStrategy.PREFER_NOT_EMBEDDED
-                    );
-                } catch (IOException exc) {
-                    throw new RuntimeException("Failed to create font for Vietnamese text", exc);
+        return createFont(getFontPrograms().regular());
+    }
+
+    // Get bold font that supports Vietnamese characters
+    public static PdfFont getVietnameseFontBold() {
+        return createFont(getFontPrograms().bold());
+    }
+
+    // Parse the font files eagerly, e.g. at application startup, so the first PDF does not pay for it
+    public static void preloadFonts() {
+        getFontPrograms();
+    }
+
+    // A PdfFont belongs to a single PdfDocument, so it is created per document from the cached program
+    private static PdfFont createFont(FontProgram fontProgram) {
+        String encoding = fontProgram.isBuiltWith(StandardFonts.HELVETICA) ? PdfEncodings.WINANSI : PdfEncodings.IDENTITY_H;
+        return PdfFontFactory.createFont(fontProgram, encoding, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
+    }
+
+    private static FontPrograms getFontPrograms() {
+        FontPrograms programs = fontPrograms;
+        if (programs == null) {
+            synchronized (FontUtils.class) {
+                programs = fontPrograms;
+                if (programs == null) {
+                    FontProgram regular = loadRegularFontProgram();
+                    FontProgram bold = loadFontProgram(VIETNAMESE_FONT_BOLD_PATH);
+                    if (bold == null) {
+                        log.warn("Cannot load bold font, fallback to regular font");
+                        bold = regular;
+                    }
+                    programs = new FontPrograms(regular, bold);
+                    fontPrograms = programs;
                 }
             }
         }
+        return programs;
     }
 
-    // Get bold font that supports Vietnamese characters
-    public static PdfFont getVietnameseFontBold() {
+    private static FontProgram loadRegularFontProgram() {
+        FontProgram regular = loadFontProgram(VIETNAMESE_FONT_PATH);
+        if (regular != null) {
+            return regular;
+        }
+
+        log.warn("Cannot load Vietnamese font, falling back to Arial Unicode MS");
         try {
-            return PdfFontFactory.createFont(
-                    VIETNAMESE_FONT_BOLD_PATH,
-                    PdfEncodings.IDENTITY_H,
-                    PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED
-            );
+            return FontProgramFactory.createFont(FALLBACK_FONT_PATH);
+        } catch (IOException ex) {
+            log.warn("Cannot load Arial Unicode MS, using built-in Helvetica as fallback", ex);
+            try {
+                return FontProgramFactory.createFont(StandardFonts.HELVETICA);
+            } catch (IOException exc) {
+                throw new RuntimeException("Failed to create font for Vietnamese text", exc);
+            }
+        }
+    }
+
+    // Load the font from the classpath first, then from the working directory
+    private static FontProgram loadFontProgram(String path) {
+        try (InputStream inputStream = FontUtils.class.getClassLoader().getResourceAsStream(path)) {
+            if (inputStream != null) {
+                return FontProgramFactory.createFont(inputStream.readAllBytes());
+            }
+            return FontProgramFactory.createFont(path);
         } catch (IOException e) {
-            log.warn("Cannot load bold font, fallback to regular font", e);
-            return getVietnameseFont();
+            log.warn("Cannot load font {}: {}", path, e.getMessage());
+            return null;
         }
     }
-}
 
+    private record FontPrograms(FontProgram regular, FontProgram bold) {}
+}
@@ -8,8 +8,14 @@ package vn.edu.iuh.fit.utils;
 
 import lombok.experimental.UtilityClass;
 import org.springframework.web.multipart.MultipartFile;
+import vn.edu.iuh.fit.dtos.response.UploadedImageUrls;
 import vn.edu.iuh.fit.services.CloudinaryService;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
 /*
  * @description: Utility class for handling image uploads and providing default image URLs.
  * @author: Tran Hien Vinh
@@ -33,6 +39,45 @@ public class ImageUtils {
             return IMAGE_DEFAULT_URL;
         }
 
+        validateImage(imageFile);
+
+        // Upload the image to Cloudinary and return the URL
+        return cloudinaryService.uploadImage(imageFile);
+    }
+
+    /**
+     * Upload image files in parallel together with their resized derivatives,
+     * missing files get the default URL for every rendition.
+     *
+     * @param imageFiles        MultipartFiles containing the images, entries may be null
+     * @param cloudinaryService Cloudinary service for uploading photos
+     * @return URLs of every image, in the same order as the given files
+     */
+    public static List<UploadedImageUrls> getImageUrls(List<MultipartFile> imageFiles, CloudinaryService cloudinaryService) {
+        // Validate everything before the first upload starts
+        List<MultipartFile> filesToUpload = new ArrayList<>();
+        for (MultipartFile imageFile : imageFiles) {
+            if (imageFile != null && !imageFile.isEmpty()) {
+                validateImage(imageFile);
+                filesToUpload.add(imageFile);
+            }
+        }
+
+        Iterator<UploadedImageUrls> uploaded = filesToUpload.isEmpty()
+                ? Collections.emptyIterator()
+                : cloudinaryService.uploadImagesWithDerivatives(filesToUpload).iterator();
+
+        List<UploadedImageUrls> result = new ArrayList<>(imageFiles.size());
+        for (MultipartFile imageFile : imageFiles) {
+            result.add(imageFile != null && !imageFile.isEmpty()
+                    ? uploaded.next()
+                    : UploadedImageUrls.of(IMAGE_DEFAULT_URL));
+        }
+        return result;
+    }
+
+    // Check size and content type of an image file
+    private static void validateImage(MultipartFile imageFile) {
         // Validate file size (limit 5MB)
         long maxSize = 5 * 1024 * 1024L; // 5MB
         if (imageFile.getSize() > maxSize) {
@@ -44,8 +89,5 @@ public class ImageUtils {
         if (contentType == null || (!contentType.startsWith("image/") && !contentType.equals("application/octet-stream"))) {
             throw new IllegalArgumentException("File is not an image");
         }
-
-        // Upload the image to Cloudinary and return the URL
-        return cloudinaryService.uploadImage(imageFile);
     }
 }
@@ -0,0 +1,9 @@
+-- The token cleanup job looks up expired and revoked tokens separately: expired ones through
+-- idx_token_expiration_date, revoked ones through the partial index below. Lookups of a user's tokens only ever
+-- concern live tokens and are served by idx_tokens_user_id_active, so the plain user_id index is dropped.
+
+DROP INDEX IF EXISTS idx_token_user_id;
+
+CREATE INDEX IF NOT EXISTS idx_tokens_revoked_id
+    ON tokens (id)
+    WHERE is_revoked = true;
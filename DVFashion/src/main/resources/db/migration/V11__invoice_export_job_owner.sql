@@ -0,0 +1,6 @@
+-- Instance that queued an invoice export job, a restarting instance only fails the jobs it owned
+
+ALTER TABLE invoice_export_jobs ADD COLUMN IF NOT EXISTS owner_instance varchar(255);
+
+CREATE INDEX IF NOT EXISTS idx_invoice_export_jobs_owner_status
+    ON invoice_export_jobs (owner_instance, status);
@@ -0,0 +1,3 @@
+-- Order numbers written into the ZIP of an export job, so another instance can rebuild exactly the same archive
+
+ALTER TABLE invoice_export_jobs ADD COLUMN IF NOT EXISTS exported_order_numbers TEXT;
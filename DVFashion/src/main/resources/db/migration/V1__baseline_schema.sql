@@ -0,0 +1,764 @@
+-- Baseline schema, as ddl-auto created it before the application moved to Flyway. Databases that already exist are
+-- baselined at this version and skip it, so this script only runs on an empty database. Every later change to the
+-- schema is a migration of its own.
+
+create table addresses (
+    is_default boolean,
+    is_deleted BOOLEAN DEFAULT FALSE not null,
+    created_at timestamp(6),
+    deleted_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null,
+    city varchar(255),
+    country varchar(255),
+    district varchar(255),
+    full_name varchar(255),
+    phone varchar(255),
+    street varchar(255),
+    ward varchar(255),
+    primary key (id)
+);
+
+create table cart_items (
+    quantity integer not null,
+    unit_price numeric(38,2) not null,
+    added_at timestamp(6) not null,
+    cart_id bigint not null,
+    id bigint generated by default as identity,
+    product_variant_id bigint not null,
+    reserved_until timestamp(6),
+    size_id bigint not null,
+    primary key (id)
+);
+
+create table categories (
+    active boolean default true,
+    id bigint generated by default as identity,
+    image varchar(255),
+    primary key (id)
+);
+
+create table category_translations (
+    category_id bigint,
+    id bigint generated by default as identity,
+    description varchar(255),
+    language varchar(255) check (language in ('VI','EN')),
+    name varchar(255),
+    primary key (id)
+);
+
+create table chat_message_attachments (
+    created_at timestamp(6),
+    file_size bigint,
+    id bigint generated by default as identity,
+    message_id bigint not null,
+    file_name varchar(255) not null,
+    file_url varchar(255) not null,
+    mime_type varchar(255),
+    type varchar(255) not null check (type in ('IMAGE','VIDEO','FILE')),
+    primary key (id)
+);
+
+create table chat_messages (
+    is_read_by_admin boolean,
+    is_read_by_customer boolean,
+    chat_room_id bigint not null,
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    sender_id bigint,
+    content TEXT,
+    message_type varchar(255) not null check (message_type in ('TEXT','IMAGE','VIDEO','FILE','SYSTEM')),
+    sender_type varchar(255) not null check (sender_type in ('CUSTOMER','GUEST','ADMIN')),
+    status varchar(255) not null check (status in ('SENT','DELIVERED','READ','FAILED')),
+    primary key (id)
+);
+
+create table chat_rooms (
+    unread_admin_count integer,
+    unread_customer_count integer,
+    created_at timestamp(6),
+    customer_id bigint,
+    id bigint generated by default as identity,
+    last_message_at timestamp(6),
+    updated_at timestamp(6),
+    guest_email varchar(255),
+    guest_name varchar(255),
+    guest_phone varchar(255),
+    room_code varchar(255) not null unique,
+    status varchar(255) not null check (status in ('ACTIVE','CLOSED','ARCHIVED')),
+    type varchar(255) not null check (type in ('GUEST','CUSTOMER')),
+    primary key (id)
+);
+
+create table inventories (
+    min_stock_level integer,
+    quantity_in_stock integer,
+    reserved_quantity integer,
+    id bigint generated by default as identity,
+    last_updated timestamp(6),
+    size_id bigint not null unique,
+    primary key (id)
+);
+
+create table order_auto_transitions (
+    is_executed boolean,
+    created_at timestamp(6),
+    executed_at timestamp(6),
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    scheduled_at timestamp(6) not null,
+    execution_result varchar(255),
+    from_status varchar(255) not null check (from_status in ('PENDING','CONFIRMED','PROCESSING','SHIPPED','DELIVERED','CANCELED','RETURNED')),
+    to_status varchar(255) not null check (to_status in ('PENDING','CONFIRMED','PROCESSING','SHIPPED','DELIVERED','CANCELED','RETURNED')),
+    transition_type varchar(255) not null check (transition_type in ('CONFIRMED_TO_PROCESSING','PROCESSING_TO_SHIPPED','SHIPPED_TO_DELIVERED','PENDING_TO_CANCELLED','DELIVERED_TO_COMPLETED')),
+    primary key (id)
+);
+
+create table order_items (
+    discount numeric(38,2),
+    quantity integer not null,
+    unit_price numeric(38,2) not null,
+    order_id bigint not null,
+    product_variant_id bigint not null,
+    size_id bigint not null,
+    primary key (order_id, product_variant_id, size_id)
+);
+
+create table orders (
+    shipping_fee numeric(38,2),
+    voucher_discount numeric(15,2),
+    customer_id bigint not null,
+    estimated_delivery_time timestamp(6),
+    id bigint generated by default as identity,
+    order_date timestamp(6),
+    voucher_id bigint,
+    voucher_code varchar(50),
+    full_name varchar(255),
+    notes varchar(255),
+    order_number varchar(255) not null unique,
+    phone varchar(255),
+    shipping_city varchar(255),
+    shipping_country varchar(255),
+    shipping_district varchar(255),
+    shipping_street varchar(255),
+    shipping_ward varchar(255),
+    status varchar(255) check (status in ('PENDING','CONFIRMED','PROCESSING','SHIPPED','DELIVERED','CANCELED','RETURNED')),
+    primary key (id)
+);
+
+create table password_reset_tokens (
+    used boolean not null,
+    expiry_date timestamp(6) not null,
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    token varchar(255) not null unique,
+    primary key (id)
+);
+
+create table payments (
+    amount numeric(38,2),
+    captured_at timestamp(6),
+    id bigint generated by default as identity,
+    order_id bigint not null unique,
+    payment_date timestamp(6),
+    approval_url varchar(255),
+    payment_method varchar(255) not null check (payment_method in ('CASH_ON_DELIVERY','PAYPAL','BANK_TRANSFER')),
+    payment_status varchar(255) not null check (payment_status in ('PENDING','COMPLETED','FAILED','REFUNDED','CANCELED')),
+    paypal_capture_id varchar(255),
+    paypal_payment_id varchar(255),
+    transaction_id varchar(255) not null unique,
+    primary key (id)
+);
+
+create table product_translations (
+    id bigint generated by default as identity,
+    product_id bigint,
+    description varchar(255),
+    language varchar(255) check (language in ('VI','EN')),
+    material varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table product_variant_images (
+    is_primary boolean default true,
+    sort_order int default 0,
+    id bigint generated by default as identity,
+    product_variant_id bigint not null,
+    image_url varchar(255) not null,
+    primary key (id)
+);
+
+create table product_variants (
+    additional_price numeric(38,2),
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    color varchar(255),
+    status varchar(255) check (status in ('ACTIVE','INACTIVE','OUT_OF_STOCK')),
+    primary key (id)
+);
+
+create table products (
+    on_sale boolean not null,
+    price numeric(38,2),
+    rating float(53),
+    review_count integer,
+    sale_price numeric(38,2),
+    view_count integer,
+    category_id bigint not null,
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    status varchar(255) check (status in ('ACTIVE','INACTIVE','DRAFT','DISCONTINUED')),
+    primary key (id)
+);
+
+create table promotion_products (
+    active boolean default true,
+    discount_percentage numeric(5,2),
+    max_quantity_per_user integer,
+    original_price numeric(10,2),
+    promotion_price numeric(10,2),
+    sold_quantity int default 0,
+    stock_quantity integer,
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    promotion_id bigint not null,
+    updated_at timestamp(6),
+    primary key (id),
+    unique (promotion_id, product_id)
+);
+
+create table promotion_translations (
+    id bigint generated by default as identity,
+    promotion_id bigint not null,
+    description varchar(255),
+    language varchar(255) not null check (language in ('VI','EN')),
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table promotions (
+    active boolean default true,
+    end_date timestamp(6),
+    id bigint generated by default as identity,
+    start_date timestamp(6),
+    banner_url varchar(255),
+    type varchar(255) check (type in ('NEW_CUSTOMER_DISCOUNT','FLASH_SALE','SEASONAL_EVENT','CLEARANCE_SALE','HOLIDAY_PROMOTION','GENERAL_DISCOUNT')),
+    primary key (id)
+);
+
+create table recommendation_configs (
+    id bigint generated by default as identity,
+    config_key varchar(255) not null unique,
+    config_value varchar(255) not null,
+    description varchar(255),
+    primary key (id)
+);
+
+create table recommendation_logs (
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    recommended_product_id bigint not null,
+    user_id bigint,
+    primary key (id)
+);
+
+create table recommendation_model_versions (
+    collaborative_weight float(53),
+    content_weight float(53),
+    is_active BOOLEAN DEFAULT FALSE,
+    map_at_10 float(53),
+    precision_at_10 float(53),
+    recall_at_10 float(53),
+    created_at timestamp(6) not null,
+    id bigint generated by default as identity,
+    model_name varchar(100) not null,
+    primary key (id)
+);
+
+create table review_images (
+    id bigint generated by default as identity,
+    review_id bigint not null,
+    image_url varchar(255) not null,
+    primary key (id)
+);
+
+create table review_replies (
+    edited BOOLEAN DEFAULT FALSE not null,
+    created_at timestamp(6) not null,
+    edited_at timestamp(6),
+    id bigint generated by default as identity,
+    parent_reply_id bigint,
+    review_id bigint not null,
+    updated_at timestamp(6) not null,
+    user_id bigint not null,
+    status varchar(255) check (status in ('APPROVED','HIDDEN','PENDING')),
+    primary key (id)
+);
+
+create table review_reply_translations (
+    id bigint generated by default as identity,
+    review_reply_id bigint not null,
+    content TEXT not null,
+    language varchar(255) not null check (language in ('VI','EN')),
+    primary key (id)
+);
+
+create table review_translations (
+    id bigint generated by default as identity,
+    review_id bigint not null,
+    admin_comment TEXT,
+    comment TEXT,
+    language varchar(255) not null check (language in ('VI','EN')),
+    primary key (id)
+);
+
+create table reviews (
+    edited BOOLEAN DEFAULT FALSE not null,
+    helpful_count int default 0,
+    rating integer not null check ((rating<=5) and (rating>=1)),
+    created_at timestamp(6) not null,
+    edited_at timestamp(6),
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    product_variant_id bigint not null,
+    updated_at timestamp(6) not null,
+    user_id bigint not null,
+    status varchar(255) check (status in ('PENDING','AUTO_APPROVED','APPROVED','NEED_REVIEW','REJECTED','HIDDEN')),
+    primary key (id)
+);
+
+create table roles (
+    id bigint generated by default as identity,
+    name varchar(255) check (name in ('ADMIN','STAFF','CUSTOMER')),
+    primary key (id)
+);
+
+create table shopping_carts (
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    user_id bigint not null unique,
+    primary key (id)
+);
+
+create table sizes (
+    id bigint generated by default as identity,
+    product_variant_id bigint not null,
+    size_name varchar(255) not null,
+    primary key (id)
+);
+
+create table stock_transactions (
+    quantity integer not null,
+    created_at timestamp(6),
+    created_by bigint,
+    id bigint generated by default as identity,
+    inventory_id bigint not null,
+    order_id bigint,
+    notes varchar(255),
+    reference_number varchar(255),
+    transaction_type varchar(255) not null check (transaction_type in ('INBOUND','OUTBOUND','RESERVE','RELEASE','CONFIRMED','ADJUSTMENT_IN','ADJUSTMENT_OUT','RETURN')),
+    primary key (id)
+);
+
+create table tokens (
+    is_revoked BOOLEAN DEFAULT FALSE not null,
+    expiration_date timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    user_id bigint,
+    refresh_token varchar(1000) not null,
+    primary key (id)
+);
+
+create table user_product_interactions (
+    interaction_count integer,
+    rating numeric(38,2),
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    product_id bigint,
+    updated_at timestamp(6),
+    user_id bigint,
+    interaction_type varchar(255) check (interaction_type in ('VIEW','ADD_TO_CART','PURCHASE','REVIEW')),
+    primary key (id)
+);
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+);
+
+create table user_type_provider_auths (
+    user_id bigint not null,
+    type_provider_auths varchar(255) check (type_provider_auths in ('GOOGLE','LOCAL'))
+);
+
+create table users (
+    active BOOLEAN DEFAULT TRUE not null,
+    dob date,
+    is_deleted BOOLEAN DEFAULT FALSE not null,
+    is_verified BOOLEAN DEFAULT FALSE not null,
+    created_at timestamp(6),
+    deleted_at timestamp(6),
+    id bigint generated by default as identity,
+    updated_at timestamp(6),
+    verification_code_expiry timestamp(6),
+    email varchar(255) unique,
+    full_name varchar(255),
+    gender varchar(255) not null check (gender in ('MALE','FEMALE','OTHER')),
+    password varchar(255),
+    phone varchar(255) unique,
+    provider_id varchar(255),
+    verification_code varchar(255),
+    primary key (id)
+);
+
+create table voucher_products (
+    active boolean not null,
+    id bigint generated by default as identity,
+    product_id bigint not null,
+    voucher_id bigint not null,
+    primary key (id)
+);
+
+create table voucher_translations (
+    id bigint generated by default as identity,
+    voucher_id bigint not null,
+    name varchar(100) not null,
+    language varchar(255) not null check (language in ('VI','EN')),
+    primary key (id)
+);
+
+create table voucher_usages (
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    used_at timestamp(6) not null,
+    user_id bigint not null,
+    voucher_id bigint not null,
+    primary key (id)
+);
+
+create table vouchers (
+    active boolean not null,
+    allow_pre_save boolean not null,
+    current_usage integer not null,
+    discount_value numeric(15,2) not null,
+    has_max_discount boolean not null,
+    max_discount_amount numeric(15,2),
+    max_total_usage integer not null,
+    max_usage_per_user integer not null,
+    min_order_amount numeric(15,2) not null,
+    end_date timestamp(6) not null,
+    id bigint generated by default as identity,
+    start_date timestamp(6) not null,
+    code varchar(50) not null unique,
+    discount_type varchar(255) not null check (discount_type in ('PERCENTAGE','FIXED_AMOUNT')),
+    type varchar(255) not null check (type in ('SHOP_WIDE','PRODUCT_SPECIFIC')),
+    primary key (id)
+);
+
+create index idx_order_item_order_id
+    on order_items (order_id);
+
+create index idx_order_item_product_variant_id
+    on order_items (product_variant_id);
+
+create index idx_order_item_size_id
+    on order_items (size_id);
+
+create index idx_order_item_variant_size
+    on order_items (product_variant_id, size_id);
+
+create index idx_order_order_number
+    on orders (order_number);
+
+create index idx_order_customer_id
+    on orders (customer_id);
+
+create index idx_order_status
+    on orders (status);
+
+create index idx_order_order_date
+    on orders (order_date);
+
+create index idx_order_status_order_date
+    on orders (status, order_date);
+
+create index idx_order_voucher_id
+    on orders (voucher_id);
+
+create index idx_payment_status
+    on payments (payment_status);
+
+create index idx_payment_order_id
+    on payments (order_id);
+
+create index idx_payment_transaction_id
+    on payments (transaction_id);
+
+create index idx_payment_paypal_payment_id
+    on payments (paypal_payment_id);
+
+create index idx_recommendation_user
+    on recommendation_logs (user_id);
+
+create index idx_recommendation_product
+    on recommendation_logs (product_id);
+
+create index idx_recommendation_recommended
+    on recommendation_logs (recommended_product_id);
+
+alter table if exists addresses
+    add constraint FK1fa36y2oqhao3wgg2rw1pi459
+    foreign key (user_id)
+    references users;
+
+alter table if exists cart_items
+    add constraint FKojy3ibx281qswho045bw4q0da
+    foreign key (cart_id)
+    references shopping_carts;
+
+alter table if exists cart_items
+    add constraint FKn1s4l7h0vm4o259wpu7ft0y2y
+    foreign key (product_variant_id)
+    references product_variants;
+
+alter table if exists cart_items
+    add constraint FK13bjx0o7t93tkgan9ikdbw779
+    foreign key (size_id)
+    references sizes;
+
+alter table if exists category_translations
+    add constraint FKndknknlxctxb30mfhurocsr6t
+    foreign key (category_id)
+    references categories;
+
+alter table if exists chat_message_attachments
+    add constraint FKhl88m5ft7rcbu5lrbmdj8clck
+    foreign key (message_id)
+    references chat_messages;
+
+alter table if exists chat_messages
+    add constraint FKbcsxusjp1v4rd8879fhvq8ssb
+    foreign key (chat_room_id)
+    references chat_rooms;
+
+alter table if exists chat_messages
+    add constraint FKgiqeap8ays4lf684x7m0r2729
+    foreign key (sender_id)
+    references users;
+
+alter table if exists chat_rooms
+    add constraint FK42l1eff8qlbln1331stm3ml2h
+    foreign key (customer_id)
+    references users;
+
+alter table if exists inventories
+    add constraint FKkeqp5ulip0r7d72vlsshditjp
+    foreign key (size_id)
+    references sizes;
+
+alter table if exists order_auto_transitions
+    add constraint FKgyta0ehid20r9b47qidngq326
+    foreign key (order_id)
+    references orders;
+
+alter table if exists order_items
+    add constraint FKbioxgbv59vetrxe0ejfubep1w
+    foreign key (order_id)
+    references orders;
+
+alter table if exists order_items
+    add constraint FKltmtlue0wixrg1cf0xo7x0l4d
+    foreign key (product_variant_id)
+    references product_variants;
+
+alter table if exists order_items
+    add constraint FK9t2qyxv7hnjv24ox49t7oyga2
+    foreign key (size_id)
+    references sizes;
+
+alter table if exists orders
+    add constraint FKsjfs85qf6vmcurlx43cnc16gy
+    foreign key (customer_id)
+    references users;
+
+alter table if exists orders
+    add constraint FKdimvsocblb17f45ikjr6xn1wj
+    foreign key (voucher_id)
+    references vouchers;
+
+alter table if exists password_reset_tokens
+    add constraint FKk3ndxg5xp6v7wd4gjyusp15gq
+    foreign key (user_id)
+    references users;
+
+alter table if exists payments
+    add constraint FK81gagumt0r8y3rmudcgpbk42l
+    foreign key (order_id)
+    references orders;
+
+alter table if exists product_translations
+    add constraint FKom5nwwno2wotmalniq34w627y
+    foreign key (product_id)
+    references products;
+
+alter table if exists product_variant_images
+    add constraint FKk3x4ac0ubp5qcjicfm4nm35sy
+    foreign key (product_variant_id)
+    references product_variants;
+
+alter table if exists product_variants
+    add constraint FKosqitn4s405cynmhb87lkvuau
+    foreign key (product_id)
+    references products;
+
+alter table if exists products
+    add constraint FKog2rp4qthbtt2lfyhfo32lsw9
+    foreign key (category_id)
+    references categories;
+
+alter table if exists promotion_products
+    add constraint FK9rm5m4rnoamh56kxetmoe1kk9
+    foreign key (product_id)
+    references products;
+
+alter table if exists promotion_products
+    add constraint FKkn7hllhf1o8jjrolro4rqmxt7
+    foreign key (promotion_id)
+    references promotions;
+
+alter table if exists promotion_translations
+    add constraint FKlptqxwjaewjpm22rx7e4rodwk
+    foreign key (promotion_id)
+    references promotions;
+
+alter table if exists review_images
+    add constraint FK3aayo5bjciyemf3bvvt987hkr
+    foreign key (review_id)
+    references reviews;
+
+alter table if exists review_replies
+    add constraint FKk1cjpflswkmbyk5ah0g8vq346
+    foreign key (parent_reply_id)
+    references review_replies;
+
+alter table if exists review_replies
+    add constraint FKk8ng2k5mf1sf7mpkiuk29p3ee
+    foreign key (review_id)
+    references reviews;
+
+alter table if exists review_replies
+    add constraint FKpiii4vmtjq8vvvhko1eis61rx
+    foreign key (user_id)
+    references users;
+
+alter table if exists review_reply_translations
+    add constraint FKftlmmhsjnbvwkjykutyf52hhl
+    foreign key (review_reply_id)
+    references review_replies;
+
+alter table if exists review_translations
+    add constraint FKpqcmvlv8448shk66vfg1a9oyt
+    foreign key (review_id)
+    references reviews;
+
+alter table if exists reviews
+    add constraint FKqwgq1lxgahsxdspnwqfac6sv6
+    foreign key (order_id)
+    references orders;
+
+alter table if exists reviews
+    add constraint FKr72rupsehqvf19eh1kw0u9rq
+    foreign key (product_variant_id)
+    references product_variants;
+
+alter table if exists reviews
+    add constraint FKcgy7qjc1r99dp117y9en6lxye
+    foreign key (user_id)
+    references users;
+
+alter table if exists shopping_carts
+    add constraint FK3iw2988ea60alsp0gnvvyt744
+    foreign key (user_id)
+    references users;
+
+alter table if exists sizes
+    add constraint FKkcbnq00h027enmpwux2khff75
+    foreign key (product_variant_id)
+    references product_variants;
+
+alter table if exists stock_transactions
+    add constraint FK29pj38gl4qoc3bhsoddgfwwia
+    foreign key (created_by)
+    references users;
+
+alter table if exists stock_transactions
+    add constraint FKjkkgmocjlbu86b1gbkjjq9llp
+    foreign key (inventory_id)
+    references inventories;
+
+alter table if exists tokens
+    add constraint FK2dylsfo39lgjyqml2tbe0b0ss
+    foreign key (user_id)
+    references users;
+
+alter table if exists user_product_interactions
+    add constraint FKoeyihaue2tbnt8cl65x01h5h3
+    foreign key (product_id)
+    references products;
+
+alter table if exists user_product_interactions
+    add constraint FKrgrm7uupx9c9r1a2duy9mrkq8
+    foreign key (user_id)
+    references users;
+
+alter table if exists user_roles
+    add constraint FKh8ciramu9cc9q3qcqiv4ue8a6
+    foreign key (role_id)
+    references roles;
+
+alter table if exists user_roles
+    add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+    foreign key (user_id)
+    references users;
+
+alter table if exists user_type_provider_auths
+    add constraint FKau5c481hfflmnpvxuqgqhylcn
+    foreign key (user_id)
+    references users;
+
+alter table if exists voucher_products
+    add constraint FKkyatudiorxc8sk0a1oguwqy56
+    foreign key (product_id)
+    references products;
+
+alter table if exists voucher_products
+    add constraint FKnnuryb7j97j3tygj31618swx1
+    foreign key (voucher_id)
+    references vouchers;
+
+alter table if exists voucher_translations
+    add constraint FK798ehwqc6s72156wnk1l94bid
+    foreign key (voucher_id)
+    references vouchers;
+
+alter table if exists voucher_usages
+    add constraint FKc6ctsyf63q19vkjb6k3lrecev
+    foreign key (order_id)
+    references orders;
+
+alter table if exists voucher_usages
+    add constraint FKayocv8v53p94c3jr2ookjd4jq
+    foreign key (user_id)
+    references users;
+
+alter table if exists voucher_usages
+    add constraint FKguvf95urdn2namu0hgiasgttx
+    foreign key (voucher_id)
+    references vouchers;
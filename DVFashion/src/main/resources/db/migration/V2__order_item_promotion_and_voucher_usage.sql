@@ -0,0 +1,16 @@
+-- Flash-sale lines remember the promotion they reserved stock from, and voucher usage counts per user are indexed.
+-- Statements are idempotent, so databases that already received these changes through ddl-auto pass unchanged.
+
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS promotion_product_id bigint;
+
+ALTER TABLE order_items DROP CONSTRAINT IF EXISTS FKr7j6fjo6cyirpredbgt1qu3ul;
+ALTER TABLE order_items
+    ADD CONSTRAINT FKr7j6fjo6cyirpredbgt1qu3ul
+    FOREIGN KEY (promotion_product_id)
+    REFERENCES promotion_products;
+
+CREATE INDEX IF NOT EXISTS idx_order_item_promotion_product_id
+    ON order_items (promotion_product_id);
+
+CREATE INDEX IF NOT EXISTS idx_voucher_usage_voucher_user
+    ON voucher_usages (voucher_id, user_id);
@@ -0,0 +1,45 @@
+-- Daily revenue rollups, kept up to date on order status changes and reconciled nightly.
+-- Ids come from pooled sequences, created together with the other sequences in V8.
+
+CREATE TABLE IF NOT EXISTS daily_sales_rollups (
+    id bigint not null,
+    gross_amount numeric(15,2) not null,
+    item_discount numeric(15,2) not null,
+    item_quantity bigint not null,
+    order_count bigint not null,
+    revenue numeric(15,2) not null,
+    sales_date date not null,
+    shipping_fee numeric(15,2) not null,
+    updated_at timestamp(6),
+    voucher_discount numeric(15,2) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS daily_category_sales_rollups (
+    id bigint not null,
+    gross_amount numeric(15,2) not null,
+    item_discount numeric(15,2) not null,
+    item_quantity bigint not null,
+    order_count bigint not null,
+    sales_date date not null,
+    updated_at timestamp(6),
+    category_id bigint not null,
+    primary key (id)
+);
+
+ALTER TABLE daily_sales_rollups DROP CONSTRAINT IF EXISTS UK7ubspvc7lo8hfyv8exrtyvu5x;
+ALTER TABLE daily_sales_rollups
+    ADD CONSTRAINT UK7ubspvc7lo8hfyv8exrtyvu5x UNIQUE (sales_date);
+
+ALTER TABLE daily_category_sales_rollups DROP CONSTRAINT IF EXISTS UKr2ca4o8s29ovyrvtj16wxmj68;
+ALTER TABLE daily_category_sales_rollups
+    ADD CONSTRAINT UKr2ca4o8s29ovyrvtj16wxmj68 UNIQUE (sales_date, category_id);
+
+ALTER TABLE daily_category_sales_rollups DROP CONSTRAINT IF EXISTS FK3c54u4wfxepg1pnoh8n2uj2qy;
+ALTER TABLE daily_category_sales_rollups
+    ADD CONSTRAINT FK3c54u4wfxepg1pnoh8n2uj2qy
+    FOREIGN KEY (category_id)
+    REFERENCES categories;
+
+CREATE INDEX IF NOT EXISTS idx_daily_category_sales_rollup_category_id
+    ON daily_category_sales_rollups (category_id);
@@ -0,0 +1,25 @@
+-- Background invoice export jobs
+
+CREATE TABLE IF NOT EXISTS invoice_export_jobs (
+    id bigint generated by default as identity,
+    completed_at timestamp(6),
+    created_at timestamp(6),
+    end_date date,
+    error_message TEXT,
+    file_path varchar(255),
+    order_numbers TEXT,
+    processed_count integer,
+    skipped_count integer,
+    start_date date,
+    started_at timestamp(6),
+    status varchar(255) not null check (status in ('PENDING','RUNNING','COMPLETED','FAILED')),
+    total_count integer,
+    requested_by bigint,
+    primary key (id)
+);
+
+ALTER TABLE invoice_export_jobs DROP CONSTRAINT IF EXISTS FKoq0ioe7qlf4h193x6fda1ojq5;
+ALTER TABLE invoice_export_jobs
+    ADD CONSTRAINT FKoq0ioe7qlf4h193x6fda1ojq5
+    FOREIGN KEY (requested_by)
+    REFERENCES users;
@@ -0,0 +1,20 @@
+-- Chat rooms point at their latest message, and history and attachments are read through indexes
+
+ALTER TABLE chat_rooms ADD COLUMN IF NOT EXISTS last_message_id bigint;
+
+ALTER TABLE chat_rooms DROP CONSTRAINT IF EXISTS FK8hv6164ud50xoxkwr6ve6unab;
+ALTER TABLE chat_rooms
+    ADD CONSTRAINT FK8hv6164ud50xoxkwr6ve6unab
+    FOREIGN KEY (last_message_id)
+    REFERENCES chat_messages;
+
+-- Point every room at its newest message, rooms created before the column existed have none yet
+UPDATE chat_rooms r
+SET last_message_id = (SELECT MAX(m.id) FROM chat_messages m WHERE m.chat_room_id = r.id)
+WHERE r.last_message_id IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_chat_message_room_id_id
+    ON chat_messages (chat_room_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_chat_message_attachment_message_id
+    ON chat_message_attachments (message_id);
@@ -0,0 +1,25 @@
+-- Refresh tokens are stored as their SHA-256 hex digest. Rows still holding a raw token are converted in place,
+-- so the sessions they belong to stay valid.
+
+UPDATE tokens
+SET refresh_token = encode(sha256(convert_to(refresh_token, 'UTF8')), 'hex')
+WHERE length(refresh_token) <> 64;
+
+-- A raw token stored twice would now collide on the unique digest, keep the newest row
+DELETE FROM tokens t
+WHERE EXISTS (SELECT 1
+              FROM tokens other
+              WHERE other.refresh_token = t.refresh_token
+                AND other.id > t.id);
+
+ALTER TABLE tokens ALTER COLUMN refresh_token SET DATA TYPE varchar(64);
+
+ALTER TABLE tokens DROP CONSTRAINT IF EXISTS uk_token_refresh_token_hash;
+ALTER TABLE tokens
+    ADD CONSTRAINT uk_token_refresh_token_hash UNIQUE (refresh_token);
+
+CREATE INDEX IF NOT EXISTS idx_token_user_id
+    ON tokens (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_token_expiration_date
+    ON tokens (expiration_date);
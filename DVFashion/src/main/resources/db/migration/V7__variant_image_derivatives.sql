@@ -0,0 +1,23 @@
+-- Resized renditions of variant images, and at most one primary image per variant
+
+ALTER TABLE product_variant_images ADD COLUMN IF NOT EXISTS thumbnail_url varchar(255);
+ALTER TABLE product_variant_images ADD COLUMN IF NOT EXISTS card_url varchar(255);
+ALTER TABLE product_variant_images ADD COLUMN IF NOT EXISTS detail_url varchar(255);
+
+CREATE INDEX IF NOT EXISTS idx_product_variant_images_variant_id_sort_order
+    ON product_variant_images (product_variant_id, sort_order);
+
+-- Keep only the oldest primary image of each variant before enforcing a single primary image
+UPDATE product_variant_images img
+SET is_primary = false
+WHERE img.is_primary
+  AND EXISTS (SELECT 1
+              FROM product_variant_images other
+              WHERE other.product_variant_id = img.product_variant_id
+                AND other.is_primary
+                AND other.id < img.id);
+
+-- Also serves the primary image lookups
+CREATE UNIQUE INDEX IF NOT EXISTS uk_product_variant_images_primary
+    ON product_variant_images (product_variant_id)
+    WHERE is_primary;
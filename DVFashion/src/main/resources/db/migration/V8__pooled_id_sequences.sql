@@ -0,0 +1,34 @@
+-- Entities written in bulk draw their ids from sequences with an allocation size of 50, so Hibernate can batch the
+-- inserts. The identity defaults of the existing tables are dropped, ids are always assigned by Hibernate now.
+
+CREATE SEQUENCE IF NOT EXISTS stock_transactions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS recommendation_logs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sizes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_variant_images_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS daily_sales_rollups_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS daily_category_sales_rollups_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE stock_transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE recommendation_logs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sizes ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE product_variant_images ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Move each sequence past the ids already in its table. Hibernate hands out the 50 ids below each value it draws,
+-- so the sequence must stay at or above the largest existing id.
+SELECT setval('stock_transactions_seq', (SELECT MAX(id) FROM stock_transactions))
+WHERE (SELECT MAX(id) FROM stock_transactions) > (SELECT last_value FROM stock_transactions_seq);
+
+SELECT setval('recommendation_logs_seq', (SELECT MAX(id) FROM recommendation_logs))
+WHERE (SELECT MAX(id) FROM recommendation_logs) > (SELECT last_value FROM recommendation_logs_seq);
+
+SELECT setval('sizes_seq', (SELECT MAX(id) FROM sizes))
+WHERE (SELECT MAX(id) FROM sizes) > (SELECT last_value FROM sizes_seq);
+
+SELECT setval('product_variant_images_seq', (SELECT MAX(id) FROM product_variant_images))
+WHERE (SELECT MAX(id) FROM product_variant_images) > (SELECT last_value FROM product_variant_images_seq);
+
+SELECT setval('daily_sales_rollups_seq', (SELECT MAX(id) FROM daily_sales_rollups))
+WHERE (SELECT MAX(id) FROM daily_sales_rollups) > (SELECT last_value FROM daily_sales_rollups_seq);
+
+SELECT setval('daily_category_sales_rollups_seq', (SELECT MAX(id) FROM daily_category_sales_rollups))
+WHERE (SELECT MAX(id) FROM daily_category_sales_rollups) > (SELECT last_value FROM daily_category_sales_rollups_seq);
@@ -0,0 +1,42 @@
+-- Indexes for the lookups that run on every storefront request or scheduler tick. Lookups already served by a
+-- unique constraint (tokens.refresh_token, inventories.size_id) or an existing index are not indexed again.
+
+-- Customer order history and the per-customer promotion quota sums, which filter by status. The composite index
+-- also serves every lookup by customer alone, so the single-column index is dropped.
+CREATE INDEX IF NOT EXISTS idx_orders_customer_status_order_date
+    ON orders (customer_id, status, order_date);
+
+DROP INDEX IF EXISTS idx_order_customer_id;
+
+-- Interaction upsert lookup by user, product and type. Also serves the per-user purchase history, which groups by
+-- product, so no separate purchase index is needed.
+CREATE INDEX IF NOT EXISTS idx_user_product_interactions_user_product_type
+    ON user_product_interactions (user_id, product_id, interaction_type);
+
+-- Active promotion of a product, inactive promotion lines are never looked up by product
+CREATE INDEX IF NOT EXISTS idx_promotion_products_active_product_id
+    ON promotion_products (product_id)
+    WHERE active;
+
+-- Cart lines of a cart, in the id order the cart view reads them
+CREATE INDEX IF NOT EXISTS idx_cart_items_cart_id_id
+    ON cart_items (cart_id, id);
+
+-- Expired reservation sweep, only reserved lines carry a reservation deadline
+CREATE INDEX IF NOT EXISTS idx_cart_items_reserved_until
+    ON cart_items (reserved_until)
+    WHERE reserved_until IS NOT NULL;
+
+-- Unread messages of a room, cleared when the admin or the customer opens it
+CREATE INDEX IF NOT EXISTS idx_chat_messages_room_unread_by_admin
+    ON chat_messages (chat_room_id)
+    WHERE is_read_by_admin = false;
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_room_unread_by_customer
+    ON chat_messages (chat_room_id)
+    WHERE is_read_by_customer = false;
+
+-- Live refresh tokens of a user, revoked tokens only wait for the cleanup job
+CREATE INDEX IF NOT EXISTS idx_tokens_user_id_active
+    ON tokens (user_id, id)
+    WHERE is_revoked = false;
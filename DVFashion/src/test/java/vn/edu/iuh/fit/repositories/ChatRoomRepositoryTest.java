@@ -0,0 +1,90 @@
+/*
+ * @ {#} ChatRoomRepositoryTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import vn.edu.iuh.fit.entities.ChatMessage;
+import vn.edu.iuh.fit.support.PostgresDataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * @description: Checks that recording messages on a chat room keeps the last-message pointer on the newest message
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@PostgresDataJpaTest
+class ChatRoomRepositoryTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    private Long roomId;
+
+    @BeforeEach
+    void setUp() {
+        roomId = jdbcTemplate.queryForObject("INSERT INTO chat_rooms (room_code, status, type, unread_admin_count, "
+                + "unread_customer_count) VALUES ('ROOM-1', 'ACTIVE', 'GUEST', 0, 0) RETURNING id", Long.class);
+    }
+
+    @Test
+    void olderMessageRecordedLastKeepsPointerOnNewestMessage() {
+        ChatMessage older = insertMessage();
+        ChatMessage newer = insertMessage();
+        LocalDateTime newerSentAt = LocalDateTime.of(2026, 10, 19, 10, 0, 1);
+
+        // The newer message commits first, the older one reaches the room row afterwards
+        recordNewMessage(newer, newerSentAt, 1, 0);
+        recordNewMessage(older, newerSentAt.minusSeconds(1), 1, 0);
+
+        Map<String, Object> room = jdbcTemplate.queryForMap("SELECT last_message_id, unread_admin_count "
+                + "FROM chat_rooms WHERE id = ?", roomId);
+        assertThat(room.get("last_message_id")).isEqualTo(newer.getId());
+        assertThat(room.get("unread_admin_count")).isEqualTo(2);
+        assertThat(entityManager.createQuery("SELECT r.lastMessageAt FROM ChatRoom r WHERE r.id = :roomId",
+                LocalDateTime.class).setParameter("roomId", roomId).getSingleResult()).isEqualTo(newerSentAt);
+    }
+
+    @Test
+    void newerMessageMovesPointerForward() {
+        ChatMessage first = insertMessage();
+        ChatMessage second = insertMessage();
+
+        recordNewMessage(first, LocalDateTime.now(), 0, 1);
+        recordNewMessage(second, LocalDateTime.now(), 0, 1);
+
+        Map<String, Object> room = jdbcTemplate.queryForMap("SELECT last_message_id, unread_customer_count "
+                + "FROM chat_rooms WHERE id = ?", roomId);
+        assertThat(room.get("last_message_id")).isEqualTo(second.getId());
+        assertThat(room.get("unread_customer_count")).isEqualTo(2);
+    }
+
+    // The same pair of updates the chat service runs after saving a message
+    private void recordNewMessage(ChatMessage message, LocalDateTime sentAt, int adminIncrement, int customerIncrement) {
+        chatRoomRepository.recordNewMessage(roomId, sentAt, adminIncrement, customerIncrement);
+        chatRoomRepository.advanceLastMessage(roomId, message, message.getId(), sentAt);
+    }
+
+    private ChatMessage insertMessage() {
+        Long id = jdbcTemplate.queryForObject("INSERT INTO chat_messages (chat_room_id, content, message_type, "
+                + "sender_type, status) VALUES (?, 'Hello', 'TEXT', 'GUEST', 'SENT') RETURNING id", Long.class, roomId);
+        return entityManager.getReference(ChatMessage.class, id);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * @ {#} RepositoryQueryPlanTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import vn.edu.iuh.fit.enums.InteractionType;
+import vn.edu.iuh.fit.support.PostgresDataJpaTest;
+import vn.edu.iuh.fit.support.SqlCapture;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * @description: Checks that the hot repository queries are planned on the indexes created by the migrations
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@PostgresDataJpaTest
+class RepositoryQueryPlanTest {
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserProductInteractionRepository interactionRepository;
+
+    @Autowired
+    private PromotionProductRepository promotionProductRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Test
+    void customerOrderHistoryUsesCustomerIndex() {
+        String sql = SqlCapture.lastStatementOf(() -> orderRepository.findByCustomerIdOrderByOrderDateDesc(1L));
+
+        assertThat(explain(sql)).contains("idx_orders_customer_status_order_date");
+    }
+
+    @Test
+    void interactionLookupUsesUserProductTypeIndex() {
+        String sql = SqlCapture.lastStatementOf(() ->
+                interactionRepository.findByUser_IdAndProduct_IdAndInteractionType(1L, 2L, InteractionType.VIEW));
+
+        assertThat(explain(sql)).contains("idx_user_product_interactions_user_product_type");
+    }
+
+    @Test
+    void purchaseHistoryUsesUserProductTypeIndex() {
+        String sql = SqlCapture.lastStatementOf(() -> interactionRepository.findPurchaseHistoryByUser(
+                1L, LocalDateTime.now().minusDays(30), PageRequest.of(0, 10)));
+
+        assertThat(explain(sql)).contains("idx_user_product_interactions_user_product_type");
+    }
+
+    @Test
+    void activePromotionLookupUsesPartialActiveIndex() {
+        String sql = SqlCapture.lastStatementOf(() ->
+                promotionProductRepository.findActivePromotionByProductId(1L, LocalDateTime.now()));
+
+        assertThat(explain(sql)).contains("idx_promotion_products_active_product_id");
+    }
+
+    @Test
+    void cartViewUsesCartIndex() {
+        String sql = SqlCapture.lastStatementOf(() -> cartItemRepository.findByCartUserIdWithDetails(1L));
+
+        assertThat(explain(sql)).contains("idx_cart_items_cart_id_id");
+    }
+
+    @Test
+    void expiredReservationSweepUsesPartialReservationIndex() {
+        String sql = SqlCapture.lastStatementOf(() -> cartItemRepository.findByReservedUntilBefore(LocalDateTime.now()));
+
+        assertThat(explain(sql)).contains("idx_cart_items_reserved_until");
+    }
+
+    @Test
+    void chatHistoryUsesRoomIdIndex() {
+        String sql = SqlCapture.lastStatementOf(() ->
+                chatMessageRepository.findHistory(1L, Long.MAX_VALUE, PageRequest.of(0, 20)));
+
+        assertThat(explain(sql)).contains("idx_chat_message_room_id_id");
+    }
+
+    @Test
+    void markAsReadUsesPartialUnreadIndexes() {
+        String byAdmin = SqlCapture.lastStatementOf(() -> chatMessageRepository.markAsReadByAdmin(1L));
+        String byCustomer = SqlCapture.lastStatementOf(() -> chatMessageRepository.markAsReadByCustomer(1L));
+
+        assertThat(explain(byAdmin)).contains("idx_chat_messages_room_unread_by_admin");
+        assertThat(explain(byCustomer)).contains("idx_chat_messages_room_unread_by_customer");
+    }
+
+    @Test
+    void validTokenLookupUsesPartialActiveIndex() {
+        String sql = SqlCapture.lastStatementOf(() -> tokenRepository.findValidTokenIdsByUser(1L, PageRequest.of(0, 5)));
+
+        assertThat(explain(sql)).contains("idx_tokens_user_id_active");
+    }
+
+    @Test
+    void expiredTokenPruneUsesExpirationIndex() {
+        String sql = SqlCapture.lastStatementOf(
+                () -> tokenRepository.findExpiredTokenIds(Instant.now(), PageRequest.of(0, 500)));
+
+        assertThat(explain(sql)).contains("idx_token_expiration_date");
+    }
+
+    @Test
+    void revokedTokenPruneUsesPartialRevokedIndex() {
+        String sql = SqlCapture.lastStatementOf(() -> tokenRepository.findRevokedTokenIds(PageRequest.of(0, 500)));
+
+        assertThat(explain(sql)).contains("idx_tokens_revoked_id");
+    }
+
+    // Generic plan of the statement with sequential scans disabled, so the empty test tables do not hide the index
+    // choice. Hibernate's JDBC placeholders become the numbered parameters of a prepared statement.
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+        entityManager.createNativeQuery("SET LOCAL plan_cache_mode = force_generic_plan").executeUpdate();
+        entityManager.createNativeQuery("PREPARE plan_check AS " + numbered).executeUpdate();
+        try {
+            String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+            @SuppressWarnings("unchecked")
+            List<Object> plan = entityManager.createNativeQuery("EXPLAIN (COSTS OFF) EXECUTE plan_check" + arguments)
+                    .getResultList();
+            return plan.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+        } finally {
+            entityManager.createNativeQuery("DEALLOCATE plan_check").executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * @ {#} AIChatServiceImplTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import vn.edu.iuh.fit.config.AIChatConfig;
+import vn.edu.iuh.fit.exceptions.BadRequestException;
+import vn.edu.iuh.fit.exceptions.TooManyRequestsException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * @description: Checks that AI chat streams give their concurrency permit back however the call ends
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+class AIChatServiceImplTest {
+    private static final int MAX_STREAMS = 2;
+
+    @Test
+    void blankMessageIsRejectedWithoutTakingAPermit() {
+        AIChatServiceImpl aiChatService = newService(request -> Mono.just(sseResponse(Flux.empty())));
+
+        assertThatThrownBy(() -> aiChatService.streamFromAI(null)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> aiChatService.streamFromAI("  ")).isInstanceOf(BadRequestException.class);
+
+        assertThat(availablePermits(aiChatService)).isEqualTo(MAX_STREAMS);
+    }
+
+    @Test
+    void streamThatIsNeverSubscribedHoldsNoPermit() {
+        AIChatServiceImpl aiChatService = newService(request -> Mono.just(sseResponse(Flux.empty())));
+
+        aiChatService.streamFromAI("Hello");
+
+        assertThat(availablePermits(aiChatService)).isEqualTo(MAX_STREAMS);
+    }
+
+    @Test
+    void completedStreamReleasesThePermit() {
+        AIChatServiceImpl aiChatService = newService(request ->
+                Mono.just(sseResponse(Flux.just(event("Hi"), event("there"), event("[DONE]")))));
+
+        assertThat(aiChatService.streamFromAI("Hello").collectList().block()).containsExactly("Hi", "there");
+
+        assertThat(availablePermits(aiChatService)).isEqualTo(MAX_STREAMS);
+    }
+
+    @Test
+    void failedUpstreamCallReleasesThePermit() {
+        AIChatServiceImpl aiChatService = newService(request -> Mono.error(new IOException("Connection refused")));
+
+        assertThatThrownBy(() -> aiChatService.streamFromAI("Hello").blockLast()).hasRootCauseInstanceOf(IOException.class);
+
+        assertThat(availablePermits(aiChatService)).isEqualTo(MAX_STREAMS);
+    }
+
+    @Test
+    void cancelledStreamReleasesThePermit() {
+        AIChatServiceImpl aiChatService = newService(request ->
+                Mono.just(sseResponse(Flux.concat(Flux.just(event("Hi")), Flux.never()))));
+
+        // The client disconnects after the first token
+        assertThat(aiChatService.streamFromAI("Hello").blockFirst()).isEqualTo("Hi");
+
+        assertThat(availablePermits(aiChatService)).isEqualTo(MAX_STREAMS);
+    }
+
+    @Test
+    void busyLimitFailsTheStreamWithoutLeakingPermits() {
+        AIChatServiceImpl aiChatService = newService(request -> Mono.just(sseResponse(Flux.never())));
+        Disposable first = aiChatService.streamFromAI("Hello").subscribe();
+        Disposable second = aiChatService.streamFromAI("Hello").subscribe();
+
+        assertThatThrownBy(() -> aiChatService.streamFromAI("Hello").blockFirst())
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThat(availablePermits(aiChatService)).isZero();
+
+        first.dispose();
+        second.dispose();
+        assertThat(availablePermits(aiChatService)).isEqualTo(MAX_STREAMS);
+    }
+
+    private static AIChatServiceImpl newService(ExchangeFunction exchangeFunction) {
+        AIChatConfig config = new AIChatConfig();
+        config.setMaxConcurrentStreams(MAX_STREAMS);
+        AIChatServiceImpl aiChatService = new AIChatServiceImpl(new RestTemplate(), new ObjectMapper(),
+                WebClient.builder().exchangeFunction(exchangeFunction), config);
+        ReflectionTestUtils.setField(aiChatService, "recommendationServiceUrl", "http://recommendation.test/api/v1");
+        return aiChatService;
+    }
+
+    private static ClientResponse sseResponse(Flux<DataBuffer> body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static DataBuffer event(String data) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(("data:" + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int availablePermits(AIChatServiceImpl aiChatService) {
+        return ((Semaphore) ReflectionTestUtils.getField(aiChatService, "streamPermits")).availablePermits();
+    }
+}
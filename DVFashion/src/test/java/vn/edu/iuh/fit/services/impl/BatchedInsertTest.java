@@ -0,0 +1,184 @@
+/*
+ * @ {#} BatchedInsertTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import vn.edu.iuh.fit.dtos.request.SizeRequest;
+import vn.edu.iuh.fit.dtos.response.UserResponse;
+import vn.edu.iuh.fit.entities.*;
+import vn.edu.iuh.fit.mappers.InventoryMapper;
+import vn.edu.iuh.fit.mappers.SizeMapper;
+import vn.edu.iuh.fit.repositories.*;
+import vn.edu.iuh.fit.services.UserService;
+import vn.edu.iuh.fit.support.PostgresDataJpaTest;
+import vn.edu.iuh.fit.support.SqlCapture;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * @description: Checks that bulk writes reach the database as JDBC batches rather than one insert per row
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@PostgresDataJpaTest
+class BatchedInsertTest {
+    private static final int ROWS = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SizeRepository sizeRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final UserService userService = mock(UserService.class);
+
+    private SizeServiceImpl sizeService;
+
+    private InventoryServiceImpl inventoryService;
+
+    private ProductVariant variant;
+
+    @BeforeEach
+    void setUp() {
+        sizeService = new SizeServiceImpl(sizeRepository, productVariantRepository, new SizeMapper());
+        inventoryService = new InventoryServiceImpl(inventoryRepository, stockTransactionRepository,
+                mock(InventoryMapper.class), userService, userRepository, sizeRepository, eventPublisher,
+                new SimpleMeterRegistry());
+
+        Long categoryId = insertReturningId("INSERT INTO categories (active) VALUES (true) RETURNING id");
+        Long productId = insertReturningId("INSERT INTO products (on_sale, price, category_id, status) VALUES "
+                + "(false, 100, " + categoryId + ", 'ACTIVE') RETURNING id");
+        Long variantId = insertReturningId("INSERT INTO product_variants (product_id, color, status) VALUES ("
+                + productId + ", 'Black', 'ACTIVE') RETURNING id");
+        variant = entityManager.find(ProductVariant.class, variantId);
+    }
+
+    @Test
+    void addSizesToVariantInsertsSizesInOneBatch() {
+        List<SizeRequest> requests = IntStream.range(0, ROWS)
+                .mapToObj(i -> new SizeRequest("S" + i))
+                .toList();
+        Statistics statistics = statistics();
+
+        List<String> statements = SqlCapture.statementsOf(() -> {
+            sizeService.addSizesToVariant(variant, requests);
+            entityManager.flush();
+        });
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(inserts(statements, "sizes")).hasSize(1);
+    }
+
+    @Test
+    void confirmedCancellationInsertsStockTransactionsInOneBatch() {
+        Order order = orderFor(createSizesWithInventory());
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<String> statements = SqlCapture.statementsOf(() -> {
+            inventoryService.restoreStockForConfirmedCancellation(order, null);
+            entityManager.flush();
+        });
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(inserts(statements, "stock_transactions")).hasSize(1);
+    }
+
+    @Test
+    void stockReturnInsertsStockTransactionsInOneBatch() {
+        Order order = orderFor(createSizesWithInventory());
+        Long userId = insertReturningId("INSERT INTO users (email, gender) VALUES ('staff@dvfashion.test', 'OTHER') "
+                + "RETURNING id");
+        when(userService.getCurrentUser()).thenReturn(UserResponse.builder().id(userId).build());
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<String> statements = SqlCapture.statementsOf(() -> {
+            inventoryService.processReturnStock(order);
+            entityManager.flush();
+        });
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(inserts(statements, "stock_transactions")).hasSize(1);
+    }
+
+    // Sizes of the variant, each with an inventory row to return stock to
+    private List<Size> createSizesWithInventory() {
+        List<Size> sizes = sizeService.addSizesToVariant(variant, IntStream.range(0, ROWS)
+                .mapToObj(i -> new SizeRequest("S" + i))
+                .toList());
+        inventoryRepository.saveAll(sizes.stream()
+                .map(size -> Inventory.builder().size(size).quantityInStock(0).build())
+                .toList());
+        entityManager.flush();
+        return sizes;
+    }
+
+    // A detached order holding one item per size, as the cancel and return flows receive it
+    private Order orderFor(List<Size> sizes) {
+        Order order = Order.builder().orderNumber("ORD-BATCH").build();
+        List<OrderItem> items = new ArrayList<>(sizes.size());
+        for (Size size : sizes) {
+            items.add(OrderItem.builder()
+                    .id(new OrderItemId(variant.getId(), null, size.getId()))
+                    .productVariant(variant)
+                    .order(order)
+                    .size(size)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .build());
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Long insertReturningId(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    private static List<String> inserts(List<String> statements, String table) {
+        return statements.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("insert into " + table + " "))
+                .toList();
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * @ {#} InvoiceExportServiceImplTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import vn.edu.iuh.fit.config.InvoiceExportConfig;
+import vn.edu.iuh.fit.dtos.request.InvoiceExportRequest;
+import vn.edu.iuh.fit.dtos.response.InvoiceExportJobResponse;
+import vn.edu.iuh.fit.dtos.response.InvoiceResponse;
+import vn.edu.iuh.fit.dtos.response.UserResponse;
+import vn.edu.iuh.fit.enums.ExportJobStatus;
+import vn.edu.iuh.fit.repositories.InvoiceExportJobRepository;
+import vn.edu.iuh.fit.repositories.OrderRepository;
+import vn.edu.iuh.fit.repositories.UserRepository;
+import vn.edu.iuh.fit.services.InvoiceService;
+import vn.edu.iuh.fit.services.UserService;
+import vn.edu.iuh.fit.support.PostgresDataJpaTest;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+ * @description: Checks that invoice export jobs are recovered, downloaded and cleaned up correctly
+ *               when several instances share them
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@PostgresDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InvoiceExportServiceImplTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InvoiceExportJobRepository invoiceExportJobRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    private Path directory;
+
+    private InvoiceExportServiceImpl invoiceExportService;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        InvoiceExportConfig config = new InvoiceExportConfig();
+        config.setDirectory(directory.toString());
+        config.setInstanceId("node-a");
+
+        // Every order is invoiceable here, which orders a job selects is decided by the order query alone
+        InvoiceService invoiceService = mock(InvoiceService.class);
+        when(invoiceService.findInvoicesByOrderNumbers(anyList())).thenAnswer(call -> invoicesOf(call.getArgument(0)));
+        when(invoiceService.findIssuedInvoicesByOrderNumbers(anyList())).thenAnswer(call -> invoicesOf(call.getArgument(0)));
+        when(invoiceService.renderInvoicePdf(any())).thenReturn(new byte[]{'%', 'P', 'D', 'F'});
+
+        customerId = jdbcTemplate.queryForObject("INSERT INTO users (email, gender) VALUES ('admin@dvfashion.test', "
+                + "'OTHER') RETURNING id", Long.class);
+        UserService userService = mock(UserService.class);
+        when(userService.getCurrentUser()).thenReturn(UserResponse.builder().id(customerId).build());
+
+        invoiceExportService = new InvoiceExportServiceImpl(invoiceExportJobRepository, orderRepository, userRepository,
+                invoiceService, userService, config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoiceExportService.shutdown();
+        jdbcTemplate.update("DELETE FROM invoice_export_jobs");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void restartFailsOnlyTheJobsOfThisInstance() {
+        Long ownJob = insertJob("RUNNING", "node-a", null);
+        Long otherJob = insertJob("RUNNING", "node-b", null);
+        Long legacyJob = insertJob("PENDING", null, null);
+
+        invoiceExportService.failInterruptedJobs();
+
+        assertThat(statusOf(ownJob)).isEqualTo("FAILED");
+        assertThat(statusOf(legacyJob)).isEqualTo("FAILED");
+        assertThat(statusOf(otherJob)).isEqualTo("RUNNING");
+    }
+
+    @Test
+    void downloadOnAnotherInstanceRebuildsTheFileInTheBackground() throws Exception {
+        // Completed on node-b, its file is not on this instance's disk
+        Long jobId = insertJob("COMPLETED", "node-b", "/node-b/invoice-export.zip");
+
+        assertThat(invoiceExportService.getExportFile(jobId)).isEmpty();
+        // A second download while the rebuild runs does not start another one
+        invoiceExportService.getExportFile(jobId);
+
+        assertThat(zipEntries(awaitExportFile(jobId))).containsExactly("invoice-ORD-1.pdf", "invoice-ORD-2.pdf");
+    }
+
+    @Test
+    void dateRangeExportIsRebuiltFromTheOrdersItContained() throws Exception {
+        insertOrder("ORD-1", "DELIVERED");
+        insertOrder("ORD-2", "SHIPPED");
+        LocalDate today = LocalDate.now();
+        InvoiceExportJobResponse job = invoiceExportService.startExport(
+                new InvoiceExportRequest(today.minusDays(10), today.plusDays(10), null));
+        awaitStatus(job.jobId(), ExportJobStatus.COMPLETED);
+        List<String> exported = zipEntries(awaitExportFile(job.jobId()));
+
+        // The orders of the range change after the export, then the download lands on another instance
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCELED' WHERE order_number = 'ORD-1'");
+        insertOrder("ORD-3", "DELIVERED");
+        Files.delete(directory.resolve("invoice-export-" + job.jobId() + ".zip"));
+
+        assertThat(invoiceExportService.getExportFile(job.jobId())).isEmpty();
+        assertThat(zipEntries(awaitExportFile(job.jobId()))).isEqualTo(exported)
+                .containsExactly("invoice-ORD-1.pdf", "invoice-ORD-2.pdf");
+        assertThat(invoiceExportService.getJob(job.jobId()).processedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cleanupRemovesOnlyFilesOfJobsThatCanNoLongerBeDownloaded() throws Exception {
+        Long expiredJob = insertJob("COMPLETED", "node-b", "/node-b/invoice-export.zip");
+        jdbcTemplate.update("UPDATE invoice_export_jobs SET completed_at = now() - interval '30 days' WHERE id = ?",
+                expiredJob);
+        Long runningJob = insertJob("RUNNING", "node-a", "/node-a/invoice-export.zip");
+        Path expiredFile = Files.createFile(directory.resolve("invoice-export-" + expiredJob + ".zip"));
+        Path runningFile = Files.createFile(directory.resolve("invoice-export-" + runningJob + ".zip"));
+        Path leftover = Files.createFile(directory.resolve("invoice-export-" + runningJob + ".zip.1234.tmp"));
+
+        invoiceExportService.cleanupExpiredFiles();
+
+        assertThat(expiredFile).doesNotExist();
+        assertThat(leftover).doesNotExist();
+        assertThat(runningFile).exists();
+        assertThat(jdbcTemplate.queryForObject("SELECT file_path FROM invoice_export_jobs WHERE id = ?",
+                String.class, expiredJob)).isNull();
+        // Already expired, the next run does not pick the job up again
+        assertThat(invoiceExportJobRepository.findByStatusAndFilePathIsNotNullAndCompletedAtBefore(
+                ExportJobStatus.COMPLETED, LocalDateTime.now())).isEmpty();
+    }
+
+    private Long insertJob(String status, String ownerInstance, String filePath) {
+        return jdbcTemplate.queryForObject("INSERT INTO invoice_export_jobs (status, owner_instance, order_numbers, "
+                + "exported_order_numbers, file_path, total_count, processed_count, skipped_count, completed_at) "
+                + "VALUES (?, ?, 'ORD-1,ORD-2', 'ORD-1,ORD-2', ?, 2, 2, 0, now()) RETURNING id",
+                Long.class, status, ownerInstance, filePath);
+    }
+
+    private void insertOrder(String orderNumber, String status) {
+        jdbcTemplate.update("INSERT INTO orders (customer_id, order_number, status, order_date, shipping_fee) "
+                + "VALUES (?, ?, ?, now() - interval '2 days', 30)", customerId, orderNumber, status);
+    }
+
+    private String statusOf(Long jobId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM invoice_export_jobs WHERE id = ?", String.class, jobId);
+    }
+
+    private void awaitStatus(Long jobId, ExportJobStatus status) throws InterruptedException {
+        await(() -> invoiceExportService.getJob(jobId).status() == status ? Optional.of(true) : Optional.empty());
+    }
+
+    private Resource awaitExportFile(Long jobId) throws InterruptedException {
+        return await(() -> invoiceExportService.getExportFile(jobId));
+    }
+
+    private static <T> T await(Supplier<Optional<T>> condition) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Optional<T> result = condition.get();
+            if (result.isPresent()) {
+                return result.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Timed out waiting for the export job");
+    }
+
+    private static List<InvoiceResponse> invoicesOf(List<String> orderNumbers) {
+        return orderNumbers.stream()
+                .map(orderNumber -> InvoiceResponse.builder().orderNumber(orderNumber).build())
+                .toList();
+    }
+
+    private static List<String> zipEntries(Resource file) throws Exception {
+        List<String> names = new ArrayList<>();
+        try (InputStream inputStream = file.getInputStream(); ZipInputStream zipInputStream = new ZipInputStream(inputStream)) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+}
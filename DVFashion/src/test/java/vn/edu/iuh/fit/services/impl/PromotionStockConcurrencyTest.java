@@ -0,0 +1,220 @@
+/*
+ * @ {#} PromotionStockConcurrencyTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.edu.iuh.fit.entities.*;
+import vn.edu.iuh.fit.exceptions.InsufficientStockException;
+import vn.edu.iuh.fit.mappers.PromotionMapper;
+import vn.edu.iuh.fit.repositories.*;
+import vn.edu.iuh.fit.services.CloudinaryService;
+import vn.edu.iuh.fit.services.TranslationService;
+import vn.edu.iuh.fit.support.PostgresDataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/*
+ * @description: Load test for reserving and releasing promotion stock from many concurrent transactions
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@PostgresDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PromotionStockConcurrencyTest {
+    private static final int PROMOTION_STOCK = 10;
+
+    private static final int BUYERS = 40;
+
+    private static final int CANCELLERS = 8;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PromotionProductRepository promotionProductRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private TransactionTemplate transactionTemplate;
+
+    private PromotionPriceIndexServiceImpl promotionPriceIndexService;
+
+    private PromotionServiceImpl promotionService;
+
+    private Long customerId;
+
+    private Long variantId;
+
+    private Long promotionProductId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        promotionPriceIndexService = new PromotionPriceIndexServiceImpl(promotionProductRepository, transactionManager);
+        promotionService = new PromotionServiceImpl(promotionRepository, productRepository, mock(PromotionMapper.class),
+                mock(TranslationService.class), mock(CloudinaryService.class), promotionPriceIndexService,
+                promotionProductRepository, orderItemRepository, eventPublisher);
+
+        customerId = insertReturningId("INSERT INTO users (email, gender) VALUES ('buyer@dvfashion.test', 'OTHER') "
+                + "RETURNING id");
+        Long categoryId = insertReturningId("INSERT INTO categories (active) VALUES (true) RETURNING id");
+        Long productId = insertReturningId("INSERT INTO products (on_sale, price, category_id, status) "
+                + "VALUES (true, 100, ?, 'ACTIVE') RETURNING id", categoryId);
+        variantId = insertReturningId("INSERT INTO product_variants (product_id, color, status) "
+                + "VALUES (?, 'Black', 'ACTIVE') RETURNING id", productId);
+        Long promotionId = insertReturningId("INSERT INTO promotions (active, type, start_date, end_date) "
+                + "VALUES (true, 'FLASH_SALE', now() - interval '2 days', now() + interval '2 days') RETURNING id");
+        promotionProductId = insertReturningId("INSERT INTO promotion_products (active, product_id, promotion_id, "
+                + "original_price, promotion_price, stock_quantity, sold_quantity) "
+                + "VALUES (true, ?, ?, 100, 80, ?, 0) RETURNING id", productId, promotionId, PROMOTION_STOCK);
+
+        promotionPriceIndexService.rebuildIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM sizes");
+        jdbcTemplate.update("DELETE FROM promotion_products");
+        jdbcTemplate.update("DELETE FROM promotions");
+        jdbcTemplate.update("DELETE FROM product_variants");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void concurrentBuyersNeverOversellPromotionStock() throws Exception {
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(BUYERS, () -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> promotionService.reservePromotionStock(
+                        List.of(newItem(1)), User.builder().id(customerId).build()));
+                reserved.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(reserved.get()).isEqualTo(PROMOTION_STOCK);
+        assertThat(rejected.get()).isEqualTo(BUYERS - PROMOTION_STOCK);
+        assertThat(soldQuantity()).isEqualTo(PROMOTION_STOCK);
+    }
+
+    @Test
+    void reservationIsRejectedOnceThePromotionProductIsDeactivated() {
+        // The index snapshot still lists the promotion, only the database knows it was switched off
+        jdbcTemplate.update("UPDATE promotion_products SET active = false WHERE id = ?", promotionProductId);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status ->
+                promotionService.reservePromotionStock(List.of(newItem(1)), User.builder().id(customerId).build())))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(soldQuantity()).isZero();
+    }
+
+    @Test
+    void concurrentCancellationsReleasePromotionStockOnce() throws Exception {
+        Long orderId = insertReturningId("INSERT INTO orders (customer_id, order_number, status) "
+                + "VALUES (?, 'ORD-PROMO', 'CANCELED') RETURNING id", customerId);
+        for (String sizeName : List.of("S", "M")) {
+            Long sizeId = insertReturningId("INSERT INTO sizes (id, product_variant_id, size_name) "
+                    + "VALUES (nextval('sizes_seq'), ?, ?) RETURNING id", variantId, sizeName);
+            jdbcTemplate.update("INSERT INTO order_items (order_id, product_variant_id, size_id, quantity, unit_price, "
+                    + "promotion_product_id) VALUES (?, ?, ?, 3, 80, ?)", orderId, variantId, sizeId, promotionProductId);
+        }
+        // Other orders hold units of the same allotment, a second release would take them back too
+        jdbcTemplate.update("UPDATE promotion_products SET stock_quantity = 50, sold_quantity = 40 WHERE id = ?",
+                promotionProductId);
+
+        runConcurrently(CANCELLERS, () -> transactionTemplate.executeWithoutResult(status ->
+                promotionService.releasePromotionStock(orderRepository.findByOrderNumber("ORD-PROMO").orElseThrow())));
+
+        assertThat(soldQuantity()).isEqualTo(34);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items WHERE promotion_product_id IS NOT NULL",
+                Integer.class)).isZero();
+    }
+
+    // Start all tasks at the same moment and wait for them, rethrowing the first unexpected failure
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // A new order line of the promoted product, as placing an order builds it before reserving stock
+    private OrderItem newItem(int quantity) {
+        return OrderItem.builder()
+                .productVariant(productVariantRepository.findById(variantId).orElseThrow())
+                .quantity(quantity)
+                .unitPrice(BigDecimal.valueOf(80))
+                .build();
+    }
+
+    private int soldQuantity() {
+        return jdbcTemplate.queryForObject("SELECT sold_quantity FROM promotion_products WHERE id = ?",
+                Integer.class, promotionProductId);
+    }
+
+    private Long insertReturningId(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * @ {#} SalesRollupReconcileTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.services.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.edu.iuh.fit.entities.Order;
+import vn.edu.iuh.fit.enums.OrderStatus;
+import vn.edu.iuh.fit.repositories.*;
+import vn.edu.iuh.fit.support.PostgresDataJpaTest;
+
+import java.time.LocalDate;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * @description: Checks that reconciling the sales rollups keeps status changes committed while it runs
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+@PostgresDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesRollupReconcileTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DailySalesRollupRepository dailySalesRollupRepository;
+
+    @Autowired
+    private DailyCategorySalesRollupRepository dailyCategorySalesRollupRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private SalesRollupServiceImpl salesRollupService;
+
+    private LocalDate salesDate;
+
+    @BeforeEach
+    void setUp() {
+        salesRollupService = new SalesRollupServiceImpl(dailySalesRollupRepository, dailyCategorySalesRollupRepository,
+                orderRepository, orderItemRepository, categoryRepository, transactionManager);
+        salesDate = LocalDate.now().minusDays(2);
+
+        Long customerId = insertReturningId("INSERT INTO users (email, gender) VALUES ('rollup@dvfashion.test', 'OTHER') "
+                + "RETURNING id");
+        Long categoryId = insertReturningId("INSERT INTO categories (active) VALUES (true) RETURNING id");
+        Long productId = insertReturningId("INSERT INTO products (on_sale, price, category_id, status) "
+                + "VALUES (false, 100, ?, 'ACTIVE') RETURNING id", categoryId);
+        Long variantId = insertReturningId("INSERT INTO product_variants (product_id, color, status) "
+                + "VALUES (?, 'Black', 'ACTIVE') RETURNING id", productId);
+        Long sizeId = insertReturningId("INSERT INTO sizes (id, product_variant_id, size_name) "
+                + "VALUES (nextval('sizes_seq'), ?, 'M') RETURNING id", variantId);
+        Long orderId = insertReturningId("INSERT INTO orders (customer_id, order_number, status, order_date, "
+                + "shipping_fee) VALUES (?, 'ORD-ROLLUP', 'SHIPPED', ?, 30) RETURNING id",
+                customerId, salesDate.atTime(12, 0));
+        jdbcTemplate.update("INSERT INTO order_items (order_id, product_variant_id, size_id, quantity, unit_price) "
+                + "VALUES (?, ?, ?, 2, 100)", orderId, variantId, sizeId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM daily_category_sales_rollups");
+        jdbcTemplate.update("DELETE FROM daily_sales_rollups");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM sizes");
+        jdbcTemplate.update("DELETE FROM product_variants");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void deliveryCommittedDuringReconciliationIsCountedOnce() throws Exception {
+        salesRollupService.reconcile(salesDate, LocalDate.now());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch incremented = new CountDownLatch(1);
+            CountDownLatch reconcileStarted = new CountDownLatch(1);
+
+            // Deliver the order and apply it to the rollup, then hold the transaction open
+            Future<?> delivery = executor.submit(() -> new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> {
+                        Order order = orderRepository.findByOrderNumber("ORD-ROLLUP").orElseThrow();
+                        order.setStatus(OrderStatus.DELIVERED);
+                        orderRepository.saveAndFlush(order);
+                        salesRollupService.recordStatusChange(order, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+                        incremented.countDown();
+                        await(reconcileStarted);
+                    }));
+
+            await(incremented);
+            Future<?> reconciliation = executor.submit(() -> salesRollupService.reconcile(salesDate, LocalDate.now()));
+
+            // Give the reconciliation time to reach the rollup rows the delivery still holds
+            Thread.sleep(500);
+            reconcileStarted.countDown();
+
+            delivery.get(30, TimeUnit.SECONDS);
+            reconciliation.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT order_count FROM daily_sales_rollups WHERE sales_date = ?",
+                Long.class, salesDate)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT item_quantity FROM daily_category_sales_rollups "
+                + "WHERE sales_date = ?", Long.class, salesDate)).isEqualTo(2);
+    }
+
+    @Test
+    void reconciliationKeepsRowsOfDaysWithoutSales() {
+        salesRollupService.reconcile(salesDate, LocalDate.now());
+        Long rowId = jdbcTemplate.queryForObject("SELECT id FROM daily_sales_rollups WHERE sales_date = ?",
+                Long.class, salesDate);
+
+        salesRollupService.reconcile(salesDate, LocalDate.now());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM daily_sales_rollups WHERE sales_date = ?",
+                Long.class, salesDate)).isEqualTo(rowId);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM daily_sales_rollups", Integer.class))
+                .isEqualTo(3);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Long insertReturningId(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
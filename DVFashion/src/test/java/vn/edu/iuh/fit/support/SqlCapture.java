@@ -0,0 +1,45 @@
+/*
+ * @ {#} SqlCapture.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * @description: Hibernate statement inspector recording the SQL issued by the current test thread
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+public class SqlCapture implements StatementInspector {
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    // Run the call and return the last SQL statement it issued
+    public static String lastStatementOf(Runnable call) {
+        List<String> statements = statementsOf(call);
+        if (statements.isEmpty()) {
+            throw new IllegalStateException("The call did not issue any SQL statement");
+        }
+        return statements.get(statements.size() - 1);
+    }
+
+    // Run the call and return every SQL statement it prepared, a JDBC batch is prepared once
+    public static List<String> statementsOf(Runnable call) {
+        List<String> statements = STATEMENTS.get();
+        statements.clear();
+        call.run();
+        return List.copyOf(statements);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * @ {#} AESUtilsTest.java   1.0     19/10/2026
+ *
+ * Copyright (c) 2026 IUH. All rights reserved.
+ */
+
+package vn.edu.iuh.fit.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * @description: Checks that tokens wrapped with the per-thread Cipher stay interchangeable with the original
+ *               per-call implementation, in both directions
+ * @author: Tran Hien Vinh
+ * @date:   19/10/2026
+ * @version:    1.0
+ */
+class AESUtilsTest {
+    // Signed JWT of typical size
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJjdXN0b21lckBkdmZhc2hpb24udm4iLCJpYXQiOjE3NjA4NjQ"
+            + "wMDAsImV4cCI6MTc2MDg2NDkwMH0.3q2Kx0m3h2wG0c8Jt7l1mB3nT1H4dXkzq0pXyYqf8vA";
+
+    private final byte[] key = new byte[32];
+
+    private AESUtils aesUtils;
+
+    @BeforeEach
+    void setUp() {
+        new SecureRandom().nextBytes(key);
+        aesUtils = new AESUtils(Base64.getEncoder().encodeToString(key));
+    }
+
+    @Test
+    void decryptsTokensProducedByTheOriginalImplementation() throws Exception {
+        assertThat(aesUtils.decrypt(legacyEncrypt(TOKEN))).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void originalImplementationDecryptsNewTokens() throws Exception {
+        assertThat(legacyDecrypt(aesUtils.encrypt(TOKEN))).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void reusedCipherUsesAFreshIvForEveryToken() {
+        String first = aesUtils.encrypt(TOKEN);
+        String second = aesUtils.encrypt(TOKEN);
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(aesUtils.decrypt(first)).isEqualTo(TOKEN);
+        assertThat(aesUtils.decrypt(second)).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        byte[] decoded = Base64.getDecoder().decode(aesUtils.encrypt(TOKEN));
+        decoded[decoded.length - 1] ^= 1;
+        String tampered = Base64.getEncoder().encodeToString(decoded);
+
+        assertThatThrownBy(() -> aesUtils.decrypt(tampered)).isInstanceOf(RuntimeException.class);
+        // A failed call leaves the thread's Cipher usable for the next token
+        assertThat(aesUtils.decrypt(aesUtils.encrypt(TOKEN))).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void concurrentCallsKeepParityWithTheOriginalImplementation() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 200; j++) {
+                        String plainText = TOKEN + j;
+                        assertThat(legacyDecrypt(aesUtils.encrypt(plainText))).isEqualTo(plainText);
+                        assertThat(aesUtils.decrypt(legacyEncrypt(plainText))).isEqualTo(plainText);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // The original per-call implementation: IV (12 bytes) + ciphertext with 128-bit tag, Base64 encoded
+    private String legacyEncrypt(String plainText) throws Exception {
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(128, iv));
+        byte[] ciphertext = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+
+        byte[] encryptedWithIv = new byte[iv.length + ciphertext.length];
+        System.arraycopy(iv, 0, encryptedWithIv, 0, iv.length);
+        System.arraycopy(ciphertext, 0, encryptedWithIv, iv.length, ciphertext.length);
+        return Base64.getEncoder().encodeToString(encryptedWithIv);
+    }
+
+    private String legacyDecrypt(String cipherText) throws Exception {
+        byte[] decoded = Base64.getDecoder().decode(cipherText);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(128, decoded, 0, 12));
+        return new String(cipher.doFinal(decoded, 12, decoded.length - 12), StandardCharsets.UTF_8);
+    }
+}